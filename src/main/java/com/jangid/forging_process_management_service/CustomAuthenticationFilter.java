@@ -1,7 +1,6 @@
 package com.jangid.forging_process_management_service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jangid.forging_process_management_service.entities.Tenant;
 import com.jangid.forging_process_management_service.entities.security.TenantContext;
 import com.jangid.forging_process_management_service.entitiesRepresentation.security.LoginResponseRepresentation;
 import com.jangid.forging_process_management_service.service.TenantService;
@@ -88,7 +87,7 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
     String token = userService.generateToken(authResult);
 
     String tenantName = TenantContext.getCurrentTenant();
-    Tenant tenant = tenantService.getTenantByTenantName(tenantName);
+    long tenantId = tenantService.getTenantIdByTenantName(tenantName);
 
     // Extract user roles
     Set<String> roles = authResult.getAuthorities().stream()
@@ -99,7 +98,7 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
     LoginResponseRepresentation responseRepresentation = new LoginResponseRepresentation(
         token,
         authResult.getName(), 
-        tenant.getId(), 
+        tenantId,
         tenantName,
         roles
     );
@@ -19,6 +19,8 @@ import com.jangid.forging_process_management_service.entitiesRepresentation.gst.
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanRepresentation;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanRepresentation.DispatchBatchPackagingDetail;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanRepresentation.PackageDetail;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanSummaryRepresentation;
+import com.jangid.forging_process_management_service.repositories.gst.DeliveryChallanRepository;
 import com.jangid.forging_process_management_service.repositories.order.OrderItemWorkflowRepository;
 import com.jangid.forging_process_management_service.service.workflow.ItemWorkflowService;
 import com.jangid.forging_process_management_service.utils.HeatNumberUtil;
@@ -298,6 +300,43 @@ public class DeliveryChallanAssembler {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Convert a challan summary row to DeliveryChallanSummaryRepresentation for list views
+     */
+    public DeliveryChallanSummaryRepresentation disassembleSummary(DeliveryChallanRepository.ChallanSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        String consigneeType = summary.getBuyerId() != null ? "BUYER"
+            : summary.getVendorId() != null ? "VENDOR" : "UNKNOWN";
+
+        return DeliveryChallanSummaryRepresentation.builder()
+            .id(summary.getId())
+            .challanNumber(summary.getChallanNumber())
+            .challanDateTime(summary.getChallanDateTime())
+            .challanType(summary.getChallanType() != null ? summary.getChallanType().name() : null)
+            .workType(summary.getWorkType() != null ? summary.getWorkType().name() : null)
+            .isVendorChallan(summary.getIsVendorChallan())
+            .status(summary.getStatus() != null ? summary.getStatus().name() : null)
+            .orderId(summary.getOrderId())
+            .convertedToInvoiceId(summary.getConvertedToInvoiceId())
+            .buyerId(summary.getBuyerId())
+            .vendorId(summary.getVendorId())
+            .consigneeName(summary.getConsigneeName())
+            .consigneeGstin(summary.getConsigneeGstin())
+            .consigneeType(consigneeType)
+            .totalQuantity(summary.getTotalQuantity())
+            .totalTaxableValue(summary.getTotalTaxableValue())
+            .totalValue(summary.getTotalValue())
+            .estimatedValue(summary.getEstimatedValue())
+            .ewayBillNumber(summary.getEwayBillNumber())
+            .hasEwayBill(summary.getEwayBillNumber() != null && !summary.getEwayBillNumber().isBlank())
+            .cancelledAt(summary.getCancelledAt())
+            .createdAt(summary.getCreatedAt())
+            .build();
+    }
+
     /**
      * Update existing DeliveryChallan entity with data from representation
      */
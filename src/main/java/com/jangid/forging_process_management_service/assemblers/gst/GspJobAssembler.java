@@ -0,0 +1,59 @@
+package com.jangid.forging_process_management_service.assemblers.gst;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jangid.forging_process_management_service.entities.gst.GspJob;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.GspJobRepresentation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Assembler to convert GspJob entity to GspJobRepresentation DTO.
+ * The request payload and session token are never exposed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GspJobAssembler {
+
+  private final ObjectMapper objectMapper;
+
+  public GspJobRepresentation dissemble(GspJob job) {
+    if (job == null) {
+      return null;
+    }
+
+    return GspJobRepresentation.builder()
+        .id(job.getId())
+        .jobType(job.getJobType().name())
+        .status(job.getStatus().name())
+        .finished(job.isFinished())
+        .invoiceId(job.getInvoiceId())
+        .deliveryChallanId(job.getDeliveryChallanId())
+        .batchReference(job.getBatchReference())
+        .attemptCount(job.getAttemptCount())
+        .result(parseResult(job))
+        .error(job.getLastError())
+        .nextAttemptAt(job.getStatus() == GspJob.JobStatus.QUEUED && job.getNextAttemptAt() != null
+                       ? job.getNextAttemptAt().toString() : null)
+        .createdAt(job.getCreatedAt() != null ? job.getCreatedAt().toString() : null)
+        .startedAt(job.getStartedAt() != null ? job.getStartedAt().toString() : null)
+        .completedAt(job.getCompletedAt() != null ? job.getCompletedAt().toString() : null)
+        .build();
+  }
+
+  private Object parseResult(GspJob job) {
+    if (job.getResultPayload() == null) {
+      return null;
+    }
+    try {
+      return objectMapper.readTree(job.getResultPayload());
+    } catch (JsonProcessingException e) {
+      log.warn("Invalid result payload for GSP job {}: {}", job.getId(), e.getMessage());
+      return null;
+    }
+  }
+}
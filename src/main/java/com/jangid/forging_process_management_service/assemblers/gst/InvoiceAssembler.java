@@ -10,6 +10,8 @@ import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
 import com.jangid.forging_process_management_service.entities.order.OrderItemWorkflow;
 import com.jangid.forging_process_management_service.entities.order.Order;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceRepresentation;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceSummaryRepresentation;
+import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
 import com.jangid.forging_process_management_service.repositories.order.OrderItemWorkflowRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -235,6 +237,47 @@ public class InvoiceAssembler {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Convert an invoice summary row to InvoiceSummaryRepresentation for list views
+     */
+    public InvoiceSummaryRepresentation disassembleSummary(InvoiceRepository.InvoiceSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        String recipientType = summary.getBuyerId() != null ? "CUSTOMER"
+            : summary.getVendorId() != null ? "VENDOR" : "UNKNOWN";
+
+        return InvoiceSummaryRepresentation.builder()
+            .id(summary.getId())
+            .invoiceNumber(summary.getInvoiceNumber())
+            .invoiceDate(summary.getInvoiceDate())
+            .invoiceType(summary.getInvoiceType() != null ? summary.getInvoiceType().name() : null)
+            .workType(summary.getWorkType() != null ? summary.getWorkType().name() : null)
+            .isManualInvoice(summary.getIsManualInvoice())
+            .status(summary.getStatus() != null ? summary.getStatus().name() : null)
+            .orderId(summary.getOrderId())
+            .customerPoNumber(summary.getCustomerPoNumber())
+            .buyerId(summary.getBuyerId())
+            .vendorId(summary.getVendorId())
+            .recipientName(summary.getRecipientName())
+            .recipientGstin(summary.getRecipientGstin())
+            .recipientType(recipientType)
+            .totalTaxableValue(summary.getTotalTaxableValue())
+            .totalCgstAmount(summary.getTotalCgstAmount())
+            .totalSgstAmount(summary.getTotalSgstAmount())
+            .totalIgstAmount(summary.getTotalIgstAmount())
+            .totalInvoiceValue(summary.getTotalInvoiceValue())
+            .totalPaidAmount(summary.getTotalPaidAmount())
+            .dueDate(summary.getDueDate())
+            .irn(summary.getIrn())
+            .hasIrn(summary.getIrn() != null && !summary.getIrn().isBlank())
+            .ewayBillNumber(summary.getEwayBillNumber())
+            .hasEwayBill(summary.getEwayBillNumber() != null && !summary.getEwayBillNumber().isBlank())
+            .createdAt(summary.getCreatedAt())
+            .build();
+    }
+
     /**
      * Update existing Invoice entity with data from representation
      */
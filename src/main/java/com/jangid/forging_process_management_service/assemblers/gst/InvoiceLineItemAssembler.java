@@ -2,6 +2,7 @@ package com.jangid.forging_process_management_service.assemblers.gst;
 
 import com.jangid.forging_process_management_service.entities.gst.InvoiceLineItem;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceLineItemRepresentation;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 import com.jangid.forging_process_management_service.utils.HeatNumberUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -224,8 +225,9 @@ public class InvoiceLineItemAssembler {
     if (isInterState) {
       lineItem.setIgstRate(gstRate);
     } else {
-      lineItem.setCgstRate(gstRate.divide(BigDecimal.valueOf(2), 2, BigDecimal.ROUND_HALF_UP));
-      lineItem.setSgstRate(gstRate.divide(BigDecimal.valueOf(2), 2, BigDecimal.ROUND_HALF_UP));
+      BigDecimal halfRate = GstTaxCalculator.halfRate(gstRate);
+      lineItem.setCgstRate(halfRate);
+      lineItem.setSgstRate(halfRate);
     }
 
     // Calculate all amounts
@@ -1,14 +1,147 @@
 package com.jangid.forging_process_management_service.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
- * Configuration for asynchronous email sending
+ * Configuration for asynchronous email sending, background GSP token renewal, queued GSP jobs,
+ * bulk invoice generation and background document compression
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    // Spring's @EnableAsync will use default thread pool
-    // For production, consider customizing with @Bean TaskExecutor
+
+    public static final String DISPATCH_EMAIL_TASK_EXECUTOR = "dispatchEmailTaskExecutor";
+    public static final String GSP_TOKEN_RENEWAL_TASK_EXECUTOR = "gspTokenRenewalTaskExecutor";
+    public static final String GSP_JOB_TASK_EXECUTOR = "gspJobTaskExecutor";
+    public static final String INVOICE_BULK_TASK_EXECUTOR = "invoiceBulkTaskExecutor";
+    public static final String DOCUMENT_COMPRESSION_TASK_EXECUTOR = "documentCompressionTaskExecutor";
+
+    /**
+     * Bounded pool for dispatch notification emails.
+     * When both the pool and the queue are full the submission is rejected and the caller
+     * hands the email to the persistent retry queue instead of spawning more threads.
+     * Queue depth, active threads and completed tasks are exported as dispatch.email.executor.* metrics.
+     */
+    @Bean(name = DISPATCH_EMAIL_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor dispatchEmailTaskExecutor(
+            @Value("${app.email.executor.core-pool-size:2}") int corePoolSize,
+            @Value("${app.email.executor.max-pool-size:4}") int maxPoolSize,
+            @Value("${app.email.executor.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dispatch-email-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), DISPATCH_EMAIL_TASK_EXECUTOR,
+                                   "dispatch.email", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Pool for background GSP auth token renewals. Its size is the maximum number of concurrent
+     * renewals sent to GSP; the queue holds one claimed batch.
+     * Exported as gsp.token.renewal.executor.* metrics.
+     */
+    @Bean(name = GSP_TOKEN_RENEWAL_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor gspTokenRenewalTaskExecutor(
+            @Value("${app.gsp.token-renewal.max-concurrency:4}") int maxConcurrency,
+            @Value("${app.gsp.token-renewal.batch-size:50}") int batchSize,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("gsp-token-renewal-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), GSP_TOKEN_RENEWAL_TASK_EXECUTOR,
+                                   "gsp.token.renewal", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Worker pool for queued E-Invoice and E-Way Bill jobs. Its size is the maximum number of
+     * concurrent GSP generation calls per instance; the poller only claims as many jobs as there
+     * are free slots, so the queue never holds more than one round of claimed jobs.
+     * Exported as gsp.job.executor.* metrics.
+     */
+    @Bean(name = GSP_JOB_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor gspJobTaskExecutor(
+            @Value("${app.gsp.jobs.max-concurrency:4}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency);
+        executor.setThreadNamePrefix("gsp-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), GSP_JOB_TASK_EXECUTOR,
+                                   "gsp.job", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Pool that builds the invoices of a bulk invoice generation request in parallel.
+     * Building is pure computation on preloaded data; when the pool and queue are full the
+     * request thread builds the invoice itself. Exported as invoice.bulk.executor.* metrics.
+     */
+    @Bean(name = INVOICE_BULK_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor invoiceBulkTaskExecutor(
+            @Value("${app.invoice.bulk.max-concurrency:4}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency * 25);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("invoice-bulk-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), INVOICE_BULK_TASK_EXECUTOR,
+                                   "invoice.bulk", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Worker pool compressing stored documents in the background. Its size is the number of blobs
+     * compressed at once per instance; the poller only claims as many blobs as there are free slots.
+     * Exported as document.compression.executor.* metrics.
+     */
+    @Bean(name = DOCUMENT_COMPRESSION_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor documentCompressionTaskExecutor(
+            @Value("${fopmas.documents.compression.worker.max-concurrency:2}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency);
+        executor.setThreadNamePrefix("document-compression-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), DOCUMENT_COMPRESSION_TASK_EXECUTOR,
+                                   "document.compression", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
 }
@@ -0,0 +1,49 @@
+package com.jangid.forging_process_management_service.configuration;
+
+import com.jangid.forging_process_management_service.repositories.gst.GspSessionRepository;
+import com.jangid.forging_process_management_service.service.gst.session.DatabaseGspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.InMemoryGspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.NearCachedGspSessionStore;
+import com.jangid.forging_process_management_service.service.security.EncryptionService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Selects the store behind the E-Way Bill and E-Invoice session services
+ */
+@Configuration
+public class GspSessionStoreConfig {
+
+    /**
+     * Sessions shared through the database, with a short-lived local cache so a burst of
+     * GSP calls on one session does not hit the database on every lookup
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.gsp.session.store", havingValue = "jdbc", matchIfMissing = true)
+    public GspSessionStore databaseGspSessionStore(
+            GspSessionRepository gspSessionRepository,
+            EncryptionService encryptionService,
+            @Value("${app.gsp.session.cleanup-batch-size:500}") int cleanupBatchSize,
+            @Value("${app.gsp.session.near-cache.ttl-seconds:30}") long nearCacheTtlSeconds,
+            @Value("${app.gsp.session.near-cache.max-size:10000}") long nearCacheMaxSize) {
+        return new NearCachedGspSessionStore(
+            new DatabaseGspSessionStore(gspSessionRepository, encryptionService, cleanupBatchSize),
+            Duration.ofSeconds(nearCacheTtlSeconds),
+            nearCacheMaxSize);
+    }
+
+    /**
+     * Sessions kept in this instance only (single-instance deployments)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.gsp.session.store", havingValue = "memory")
+    public GspSessionStore inMemoryGspSessionStore() {
+        return new InMemoryGspSessionStore();
+    }
+}
@@ -0,0 +1,14 @@
+package com.jangid.forging_process_management_service.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for scheduled background jobs
+ * (session cleanup, GSP token renewal, queued GSP jobs, vendor stock balance verification, dispatch email retries)
+ * Jobs run on the auto-configured scheduler, sized by spring.task.scheduling.pool.size
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
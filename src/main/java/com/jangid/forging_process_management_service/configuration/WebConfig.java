@@ -4,10 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 
 @Configuration
@@ -22,15 +24,30 @@ public class WebConfig implements WebMvcConfigurer {
   @Value("${spring.rest.template.read-timeout:30000}")
   private int readTimeout;
 
+  /**
+   * Shared HTTP client for GSP calls. One client instance keeps its connections alive and reuses them,
+   * so repeated calls to the same GSP host skip the TCP and TLS handshakes.
+   */
+  @Bean(destroyMethod = "close")
+  public HttpClient gspHttpClient() {
+    return HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(connectionTimeout))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+  }
+
   /**
    * RestTemplate bean for making HTTP requests to external APIs
    * Used by GSP E-Way Bill services
    */
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
+  public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient gspHttpClient) {
     return builder
-        .setConnectTimeout(Duration.ofMillis(connectionTimeout))
-        .setReadTimeout(Duration.ofMillis(readTimeout))
+        .requestFactory(() -> {
+          JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(gspHttpClient);
+          requestFactory.setReadTimeout(Duration.ofMillis(readTimeout));
+          return requestFactory;
+        })
         .build();
   }
 
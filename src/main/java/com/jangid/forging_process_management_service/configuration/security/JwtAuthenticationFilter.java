@@ -27,17 +27,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
 
-    String token = request.getHeader("Authorization");
-
-    if (token != null && token.startsWith("Bearer ")) {
-      token = token.substring(7); // Extract the token part
-      if (jwtTokenProvider.validateToken(token)) {
-        String username = jwtTokenProvider.getUsernameFromToken(token);
-        UsernamePasswordAuthenticationToken authentication =
-            new UsernamePasswordAuthenticationToken(username, null, null);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-      }
-    }
+    // Verified once per request; the tenant authorization filter reuses the result
+    jwtTokenProvider.verifiedToken(request).ifPresent(token -> {
+      UsernamePasswordAuthenticationToken authentication =
+          new UsernamePasswordAuthenticationToken(token.subject(), null, null);
+      SecurityContextHolder.getContext().setAuthentication(authentication);
+    });
 
     filterChain.doFilter(request, response);
   }
@@ -2,21 +2,68 @@ package com.jangid.forging_process_management_service.configuration.security;
 
 import com.jangid.forging_process_management_service.service.security.UserService;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtTokenProvider {
 
+  // Request attribute holding the outcome of verifying the request's bearer token
+  private static final String VERIFIED_TOKEN_ATTRIBUTE = VerifiedToken.class.getName();
+
   private final Key secretKey; // Store the secret key
+  private final JwtParser parser; // Immutable and thread-safe, built once
+
+  // Verified claims by SHA-256 of the token, so the token itself is not kept; entries expire with their token
+  private final Cache<String, VerifiedToken> verifiedTokens;
 
   @Autowired
-  public JwtTokenProvider(UserService userService) {
+  public JwtTokenProvider(UserService userService,
+                          @Value("${app.security.jwt.verified-token-cache.max-size:10000}") long verifiedTokenCacheSize) {
     this.secretKey = userService.getSecretKey(); // Use the secret key from UserService
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(secretKey) // Use the same key for validation
+        .build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedTokenCacheSize)
+        .expireAfter(new Expiry<String, VerifiedToken>() {
+          @Override
+          public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+          }
+
+          @Override
+          public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
   }
 
   // Generate JWT Token
@@ -33,56 +80,112 @@ public class JwtTokenProvider {
         .compact();
   }
 
-  // Validate JWT Token
-  public boolean validateToken(String token) {
+  /**
+   * Verified claims of the request's bearer token, verified at most once per request: the outcome is kept as a
+   * request attribute for the filters that follow.
+   */
+  public Optional<VerifiedToken> verifiedToken(HttpServletRequest request) {
+    Object verified = request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+    if (verified instanceof VerifiedToken token) {
+      return Optional.of(token);
+    }
+    if (verified != null) {
+      return Optional.empty(); // Already rejected
+    }
+
+    String authHeader = request.getHeader("Authorization");
+    Optional<VerifiedToken> token = authHeader != null && authHeader.startsWith("Bearer ")
+        ? verify(authHeader.substring(7))
+        : Optional.empty();
+    request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, token.isPresent() ? token.get() : Boolean.FALSE);
+    return token;
+  }
+
+  /**
+   * Verify the token's signature and expiry and read its claims. Verified tokens are cached until they expire, so
+   * a token is parsed and its signature checked once rather than on every request; rejected tokens are not cached.
+   */
+  public Optional<VerifiedToken> verify(String token) {
+    if (token == null || token.isEmpty()) {
+      return Optional.empty();
+    }
+    String key = tokenHash(token);
+    VerifiedToken cached = verifiedTokens.getIfPresent(key);
+    if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+      return Optional.of(cached);
+    }
+
+    VerifiedToken verified;
     try {
-      Jwts.parserBuilder()
-          .setSigningKey(secretKey) // Use the same key for validation
-          .build()
-          .parseClaimsJws(token);
-      return true;
+      verified = toVerifiedToken(parseClaims(token));
     } catch (Exception e) {
-      return false;
+      return Optional.empty();
     }
+    verifiedTokens.put(key, verified);
+    return Optional.of(verified);
+  }
+
+  // Validate JWT Token
+  public boolean validateToken(String token) {
+    return verify(token).isPresent();
   }
 
   // Get username from token
   public String getUsernameFromToken(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(secretKey) // Use the same key for parsing
-        .build()
-        .parseClaimsJws(token)
-        .getBody()
-        .getSubject();
+    return verifiedOrThrow(token).subject();
   }
 
   // Get tenant from token
   public String getTenantFromToken(String token) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(secretKey)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
-
-    return claims.get("tenant", String.class);
+    return verifiedOrThrow(token).tenant();
   }
 
   // Get tenant ID from token
   public Long getTenantIdFromToken(String token) {
-    Claims claims = Jwts.parserBuilder()
-        .setSigningKey(secretKey)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    return verifiedOrThrow(token).tenantId();
+  }
+
+  private VerifiedToken verifiedOrThrow(String token) {
+    VerifiedToken cached = token != null ? verifiedTokens.getIfPresent(tokenHash(token)) : null;
+    if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+      return cached;
+    }
+    // Parse directly so an invalid token fails with the parser's exception, as callers expect
+    VerifiedToken verified = toVerifiedToken(parseClaims(token));
+    verifiedTokens.put(tokenHash(token), verified);
+    return verified;
+  }
+
+  // Signature check and parse of the token; the only place a token is verified
+  Claims parseClaims(String token) {
+    return parser.parseClaimsJws(token).getBody();
+  }
 
+  private VerifiedToken toVerifiedToken(Claims claims) {
     // Handle both Integer and Long for backwards compatibility
     Object tenantIdClaim = claims.get("tenantId");
+    Long tenantId = null;
     if (tenantIdClaim instanceof Integer) {
-      return ((Integer) tenantIdClaim).longValue();
+      tenantId = ((Integer) tenantIdClaim).longValue();
+    } else if (tenantIdClaim instanceof Long) {
+      tenantId = (Long) tenantIdClaim;
     }
-    if (tenantIdClaim instanceof Long) {
-      return (Long) tenantIdClaim;
+
+    Date expiration = claims.getExpiration();
+    return new VerifiedToken(
+        claims.getSubject(),
+        claims.get("tenant", String.class),
+        tenantId,
+        // Tokens are always issued with an expiry; one without is only trusted for this request
+        expiration != null ? expiration.toInstant() : Instant.now());
+  }
+
+  private String tokenHash(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
     }
-    return null;
   }
 }
@@ -1,7 +1,6 @@
 package com.jangid.forging_process_management_service.configuration.security;
 
 import com.jangid.forging_process_management_service.service.TenantService;
-import com.jangid.forging_process_management_service.entities.Tenant;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +11,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filter that extracts tenant information from the JWT token and sets it in TenantContextHolder.
@@ -35,18 +35,18 @@ public class TenantAuthorizationFilter extends OncePerRequestFilter {
     throws ServletException, IOException {
 
     try {
-      String token = extractToken(request);
+      // Claims verified by the JWT authentication filter earlier in this request
+      Optional<VerifiedToken> token = jwtTokenProvider.verifiedToken(request);
 
-      if (token != null && jwtTokenProvider.validateToken(token)) {
-        String tenantName = jwtTokenProvider.getTenantFromToken(token);
-        Long tenantId = jwtTokenProvider.getTenantIdFromToken(token);
-        String username = jwtTokenProvider.getUsernameFromToken(token);
+      if (token.isPresent()) {
+        String tenantName = token.get().tenant();
+        Long tenantId = token.get().tenantId();
+        String username = token.get().subject();
 
-        // If token doesn't have tenant ID (legacy tokens), fetch it from database
+        // If token doesn't have tenant ID (legacy tokens), resolve it by name (cached after the first lookup)
         if (tenantId == null && tenantName != null) {
-          log.warn("Legacy token detected without tenant ID. Fetching from database for tenant: {}", tenantName);
-          Tenant tenant = tenantService.getTenantByTenantName(tenantName);
-          tenantId = tenant.getId();
+          log.warn("Legacy token detected without tenant ID. Resolving tenant ID for tenant: {}", tenantName);
+          tenantId = tenantService.getTenantIdByTenantName(tenantName);
         }
 
         if (tenantId != null && tenantName != null) {
@@ -69,16 +69,5 @@ public class TenantAuthorizationFilter extends OncePerRequestFilter {
       TenantContextHolder.clear();
     }
   }
-
-  /**
-   * Extracts JWT token from Authorization header
-   */
-  private String extractToken(HttpServletRequest request) {
-    String authHeader = request.getHeader("Authorization");
-    if (authHeader != null && authHeader.startsWith("Bearer ")) {
-      return authHeader.substring(7);
-    }
-    return null;
-  }
 }
 
@@ -0,0 +1,15 @@
+package com.jangid.forging_process_management_service.configuration.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified.
+ * Parsed once per token by JwtTokenProvider and shared by the authentication filters of a request.
+ *
+ * @param subject   username the token was issued to
+ * @param tenant    tenant name claim
+ * @param tenantId  tenant ID claim, null for legacy tokens issued without it
+ * @param expiresAt expiry of the token
+ */
+public record VerifiedToken(String subject, String tenant, Long tenantId, Instant expiresAt) {
+}
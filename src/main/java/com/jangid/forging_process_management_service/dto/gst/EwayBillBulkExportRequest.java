@@ -0,0 +1,53 @@
+package com.jangid.forging_process_management_service.dto.gst;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request for a bulk E-Way Bill JSON export for offline upload to the portal
+ * Documents are selected either by id or by document date range (fromDate and toDate, inclusive)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EwayBillBulkExportRequest {
+
+    @NotNull(message = "Document type is required")
+    private DocumentType documentType;
+
+    /**
+     * BULK_JSON: one portal-format file with all bills in billLists
+     * ZIP: one portal-format file per document
+     */
+    @Builder.Default
+    private ExportFormat format = ExportFormat.BULK_JSON;
+
+    /**
+     * Invoice or challan ids; takes precedence over the date range
+     */
+    @Size(max = 2000, message = "At most 2000 documents can be exported at once")
+    private List<Long> documentIds;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    public enum DocumentType {
+        INVOICE,
+        CHALLAN
+    }
+
+    public enum ExportFormat {
+        BULK_JSON,
+        ZIP
+    }
+}
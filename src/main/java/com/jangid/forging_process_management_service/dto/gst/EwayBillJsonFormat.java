@@ -25,6 +25,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class EwayBillJsonFormat {
+
+    public static final String NIC_VERSION = "1.0.0918";
     
     /**
      * Version of the E-Way Bill JSON format
@@ -32,7 +34,7 @@ public class EwayBillJsonFormat {
      */
     @JsonProperty("version")
     @Builder.Default
-    private String version = "1.0.0918";
+    private String version = NIC_VERSION;
     
     /**
      * List of E-Way Bill data (typically one, but can be multiple for bulk generation)
@@ -0,0 +1,56 @@
+package com.jangid.forging_process_management_service.dto.gst;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request to generate draft invoices for several ready-to-dispatch batches at once.
+ * The batches are grouped into invoices by the grouping rule; batches with different billing entities
+ * or work types are never put on the same invoice.
+ *
+ * invoiceDefaults carries the values every invoice is generated with (invoice date, HSN/SAC code, GST rates,
+ * payment terms, transport details, ...). Its dispatchBatchIds, consignee overrides and manual line items are ignored:
+ * the consignee is each group's billing entity. The unit rate of a line is the order's unit price when the batch
+ * belongs to an order, otherwise invoiceDefaults.unitRate.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InvoiceBulkGenerationRequest {
+
+  @NotEmpty(message = "At least one dispatch batch ID is required")
+  @Size(max = 500, message = "At most 500 dispatch batches can be invoiced at once")
+  private List<Long> dispatchBatchIds;
+
+  @Builder.Default
+  private GroupingRule groupingRule = GroupingRule.PER_BUYER;
+
+  @Valid
+  @NotNull(message = "Invoice defaults are required")
+  private InvoiceGenerationRequest invoiceDefaults;
+
+  public enum GroupingRule {
+    /**
+     * One invoice per billing entity (and work type)
+     */
+    PER_BUYER,
+    /**
+     * One invoice per customer purchase order of a billing entity (and work type)
+     */
+    PER_PURCHASE_ORDER,
+    /**
+     * One invoice per dispatch batch
+     */
+    PER_BATCH
+  }
+}
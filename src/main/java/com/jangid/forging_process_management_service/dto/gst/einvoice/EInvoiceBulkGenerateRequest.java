@@ -0,0 +1,52 @@
+package com.jangid.forging_process_management_service.dto.gst.einvoice;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to queue IRN generation for several approved invoices
+ * All invoices are submitted with the same session credentials
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EInvoiceBulkGenerateRequest {
+
+    /**
+     * Session credentials (username/password for first request, or sessionToken for subsequent requests)
+     */
+    @Valid
+    @NotNull(message = "Session credentials are required")
+    private EInvoiceSessionCredentialsDTO sessionCredentials;
+
+    /**
+     * Invoices to generate E-Invoices for, each with its E-Invoice data (NIC schema format)
+     */
+    @Valid
+    @NotEmpty(message = "At least one invoice is required")
+    @Size(max = 500, message = "At most 500 invoices can be submitted at once")
+    private List<InvoiceItem> invoices;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvoiceItem {
+
+        @NotNull(message = "Invoice ID is required")
+        private Long invoiceId;
+
+        @NotNull(message = "E-Invoice data is required")
+        private Object einvoiceData;
+    }
+}
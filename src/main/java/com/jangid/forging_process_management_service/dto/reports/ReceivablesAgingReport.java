@@ -0,0 +1,73 @@
+package com.jangid.forging_process_management_service.dto.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for Receivables Aging Report
+ * Outstanding amounts of open invoices (net of received payments) bucketed by days past due, per customer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceivablesAgingReport {
+
+  private LocalDate asOfDate;
+  private AgingBuckets totals;
+
+  private List<PartyAging> parties;
+
+  /**
+   * Aging of one customer (buyer, or vendor for vendor invoices)
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PartyAging {
+    private String partyType; // BUYER or VENDOR
+    private Long partyId;
+    private String partyName;
+    private Integer maxDaysOverdue;
+    private AgingBuckets aging;
+  }
+
+  /**
+   * Open invoice counts and outstanding amounts per aging bucket.
+   * Days past due are counted from the due date (the invoice date when there is none);
+   * an invoice due today is 0 days past due.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class AgingBuckets {
+    private Integer invoiceCount;
+    private BigDecimal outstandingAmount;
+
+    private Integer notDueCount;
+    private BigDecimal notDueAmount;
+    private Integer days0To30Count;
+    private BigDecimal days0To30Amount;
+    private Integer days31To60Count;
+    private BigDecimal days31To60Amount;
+    private Integer days61To90Count;
+    private BigDecimal days61To90Amount;
+    private Integer over90DaysCount;
+    private BigDecimal over90DaysAmount;
+
+    /**
+     * Overdue part of the outstanding amount (all buckets except not yet due)
+     */
+    public BigDecimal getOverdueAmount() {
+      return outstandingAmount.subtract(notDueAmount);
+    }
+  }
+}
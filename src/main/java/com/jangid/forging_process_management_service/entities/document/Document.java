@@ -89,6 +89,10 @@ public class Document {
     @Column(name = "compressed_size_bytes")
     private Long compressedSizeBytes;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_blob_id")
+    private DocumentBlob blob; // Shared stored content; null for documents stored before content-addressed storage
+
     @Column(name = "file_hash", nullable = false, length = 64)
     @NotNull
     @Size(min = 1, max = 64)
@@ -0,0 +1,121 @@
+package com.jangid.forging_process_management_service.entities.document;
+
+import com.jangid.forging_process_management_service.entities.Tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored document content, shared by all documents of a tenant with the same SHA-256 hash.
+ * The file lives at a path derived from the hash and is removed when the last referencing document goes.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_blob")
+@EntityListeners(AuditingEntityListener.class)
+public class DocumentBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "document_blob_key_sequence_generator")
+    @SequenceGenerator(name = "document_blob_key_sequence_generator", sequenceName = "document_blob_sequence", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    @NotNull
+    private Tenant tenant;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    @NotNull
+    @Size(min = 64, max = 64)
+    private String contentHash; // SHA-256 of the original (uncompressed) content
+
+    @Column(name = "storage_path", nullable = false, length = 500)
+    @NotNull
+    private String storagePath;
+
+    @Column(name = "is_compressed", nullable = false)
+    @Builder.Default
+    private Boolean isCompressed = false;
+
+    @Column(name = "original_size_bytes", nullable = false)
+    @NotNull
+    @Min(0)
+    private Long originalSizeBytes;
+
+    @Column(name = "stored_size_bytes", nullable = false)
+    @NotNull
+    @Min(0)
+    private Long storedSizeBytes; // Size on disk, charged to the tenant storage quota
+
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "compression_status", nullable = false, length = 20)
+    @Builder.Default
+    private CompressionStatus compressionStatus = CompressionStatus.NONE;
+
+    @Column(name = "compression_codec", length = 30)
+    private String compressionCodec;
+
+    @Column(name = "compression_locked_until")
+    private LocalDateTime compressionLockedUntil; // Lease of the worker compressing the blob
+
+    @Column(name = "replaced_storage_path", length = 500)
+    private String replacedStoragePath; // Uncompressed file kept for readers that resolved it before compression
+
+    @Column(name = "replaced_file_delete_after")
+    private LocalDateTime replacedFileDeleteAfter;
+
+    @Column(name = "reference_count", nullable = false)
+    @Min(0)
+    @Builder.Default
+    private Integer referenceCount = 0;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum CompressionStatus {
+        NONE,     // Not a compression candidate
+        PENDING,  // Stored as uploaded, waiting for the compression worker
+        RUNNING,  // Claimed by a compression worker
+        DONE,     // Processed, compressed or found not worth compressing
+        FAILED
+    }
+}
@@ -0,0 +1,72 @@
+package com.jangid.forging_process_management_service.entities.document;
+
+import com.jangid.forging_process_management_service.entities.Tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Column;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.FetchType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accumulated background compression trials of one codec on one tenant's files of one MIME type.
+ * Rows are only written through DocumentCompressionStatRepository#recordTrial.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_compression_stat")
+public class DocumentCompressionStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "document_compression_stat_key_sequence_generator")
+    @SequenceGenerator(name = "document_compression_stat_key_sequence_generator", sequenceName = "document_compression_stat_sequence", allocationSize = 1)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    private Tenant tenant;
+
+    @Column(name = "mime_type", nullable = false, length = 100)
+    private String mimeType;
+
+    @Column(name = "codec", nullable = false, length = 30)
+    private String codec;
+
+    @Column(name = "trial_count", nullable = false)
+    private Long trialCount;
+
+    @Column(name = "win_count", nullable = false)
+    private Long winCount; // Trials in which this codec produced the stored file
+
+    @Column(name = "original_bytes", nullable = false)
+    private Long originalBytes;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private Long compressedBytes;
+
+    @Column(name = "compress_millis", nullable = false)
+    private Long compressMillis;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+package com.jangid.forging_process_management_service.entities.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Id;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Column;
+
+import java.time.LocalDateTime;
+
+/**
+ * Storage quota held by an upload in progress. The row is deleted exactly once: when the upload commits, when it
+ * fails, or by the sweeper after it expires.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "storage_quota_reservation")
+public class StorageQuotaReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "storage_quota_reservation_key_sequence_generator")
+    @SequenceGenerator(name = "storage_quota_reservation_key_sequence_generator", sequenceName = "storage_quota_reservation_sequence", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "reserved_bytes", nullable = false)
+    private Long reservedBytes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
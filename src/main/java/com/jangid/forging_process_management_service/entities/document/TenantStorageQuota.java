@@ -57,6 +57,11 @@ public class TenantStorageQuota {
     @Builder.Default
     private Long usedStorageBytes = 0L;
 
+    // Held by uploads in progress; only changed through the reservation queries of TenantStorageQuotaRepository
+    @Column(name = "reserved_storage_bytes", insertable = false, updatable = false)
+    @Builder.Default
+    private Long reservedStorageBytes = 0L;
+
     @Column(name = "max_file_size_bytes")
     @Min(0)
     @Builder.Default
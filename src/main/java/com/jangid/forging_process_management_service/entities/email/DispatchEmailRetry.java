@@ -0,0 +1,112 @@
+package com.jangid.forging_process_management_service.entities.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A dispatch notification email waiting to be (re)sent.
+ * The message is stored fully rendered so a retry does not depend on request-scoped
+ * uploads or on documents that may have changed since the original attempt.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "dispatch_email_retry")
+public class DispatchEmailRetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "dispatch_email_retry_key_sequence_generator")
+    @SequenceGenerator(name = "dispatch_email_retry_key_sequence_generator", sequenceName = "dispatch_email_retry_sequence", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "dispatch_batch_id")
+    private Long dispatchBatchId;
+
+    @Column(name = "dispatch_batch_number")
+    private String dispatchBatchNumber;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "raw_message", nullable = false)
+    private byte[] rawMessage;
+
+    @Column(name = "smtp_host", nullable = false)
+    private String smtpHost;
+
+    @Column(name = "smtp_port", nullable = false)
+    private Integer smtpPort;
+
+    @Column(name = "smtp_username")
+    private String smtpUsername;
+
+    @Column(name = "smtp_password_encrypted")
+    private String smtpPasswordEncrypted;
+
+    @Column(name = "smtp_use_tls", nullable = false)
+    private Boolean smtpUseTls;
+
+    @Column(name = "smtp_use_auth", nullable = false)
+    private Boolean smtpUseAuth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RetryStatus status;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Integer attemptCount;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum RetryStatus {
+        PENDING,
+        SENT,
+        FAILED
+    }
+}
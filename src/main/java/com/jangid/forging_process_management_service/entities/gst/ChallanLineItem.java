@@ -1,6 +1,7 @@
 package com.jangid.forging_process_management_service.entities.gst;
 
 import com.jangid.forging_process_management_service.entities.Tenant;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -178,7 +179,7 @@ public class ChallanLineItem {
     // For inter-state transactions (IGST)
     if (isInterState) {
       if (igstRate != null && igstRate.compareTo(BigDecimal.ZERO) > 0) {
-        igstAmount = taxableValue.multiply(igstRate).divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        igstAmount = GstTaxCalculator.percentOf(taxableValue, igstRate);
       } else {
         igstAmount = BigDecimal.ZERO;
       }
@@ -188,13 +189,13 @@ public class ChallanLineItem {
     // For intra-state transactions (CGST + SGST)
     else {
       if (cgstRate != null && cgstRate.compareTo(BigDecimal.ZERO) > 0) {
-        cgstAmount = taxableValue.multiply(cgstRate).divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        cgstAmount = GstTaxCalculator.percentOf(taxableValue, cgstRate);
       } else {
         cgstAmount = BigDecimal.ZERO;
       }
       
       if (sgstRate != null && sgstRate.compareTo(BigDecimal.ZERO) > 0) {
-        sgstAmount = taxableValue.multiply(sgstRate).divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        sgstAmount = GstTaxCalculator.percentOf(taxableValue, sgstRate);
       } else {
         sgstAmount = BigDecimal.ZERO;
       }
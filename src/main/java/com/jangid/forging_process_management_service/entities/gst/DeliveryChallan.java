@@ -8,6 +8,7 @@ import com.jangid.forging_process_management_service.entities.vendor.Vendor;
 import com.jangid.forging_process_management_service.entities.vendor.VendorDispatchBatch;
 import com.jangid.forging_process_management_service.entities.vendor.VendorEntity;
 import com.jangid.forging_process_management_service.entities.order.WorkType;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -438,78 +439,51 @@ public class DeliveryChallan {
     // Calculate totals from line items
     public void calculateTotals() {
         if (lineItems != null && !lineItems.isEmpty()) {
-            totalQuantity = lineItems.stream()
-                .map(ChallanLineItem::getQuantity)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            totalTaxableValue = lineItems.stream()
-                .map(ChallanLineItem::getTaxableValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Calculate tax amounts only if tax is applicable for this challan type
-            totalCgstAmount = lineItems.stream()
-                .map(ChallanLineItem::getCgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            totalSgstAmount = lineItems.stream()
-                .map(ChallanLineItem::getSgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            totalIgstAmount = lineItems.stream()
-                .map(ChallanLineItem::getIgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Quantity, taxable value and tax amounts in a single pass over the line items
+            GstTaxCalculator.Totals totals = new GstTaxCalculator.Totals();
+            for (ChallanLineItem lineItem : lineItems) {
+                totals.addQuantity(lineItem.getQuantity())
+                    .addAmounts(lineItem.getTaxableValue(), lineItem.getCgstAmount(),
+                                lineItem.getSgstAmount(), lineItem.getIgstAmount());
+            }
+            applyTotals(totals);
         }
         
-        // Calculate total value
-        // For taxable challans: taxable value + taxes
-        // For non-taxable challans: just the declared taxable value
-        // If estimated value is set, use that instead
-        if (estimatedValue != null) {
-            totalValue = estimatedValue;
-        } else {
-            totalValue = totalTaxableValue
-                .add(totalCgstAmount)
-                .add(totalSgstAmount)
-                .add(totalIgstAmount);
-        }
+        calculateTotalValue();
     }
 
   // Calculate totals from line items
   public void calculateTotalsForVendorChallan() {
     if (challanVendorLineItems != null && !challanVendorLineItems.isEmpty()) {
-      totalQuantity = challanVendorLineItems.stream()
-          .map(ChallanVendorLineItem::getQuantity)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      totalTaxableValue = challanVendorLineItems.stream()
-          .map(ChallanVendorLineItem::getTaxableValue)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      // Calculate tax amounts only if tax is applicable for this challan type
-      totalCgstAmount = challanVendorLineItems.stream()
-          .map(ChallanVendorLineItem::getCgstAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+      GstTaxCalculator.Totals totals = new GstTaxCalculator.Totals();
+      for (ChallanVendorLineItem lineItem : challanVendorLineItems) {
+        totals.addQuantity(lineItem.getQuantity())
+            .addAmounts(lineItem.getTaxableValue(), lineItem.getCgstAmount(),
+                        lineItem.getSgstAmount(), lineItem.getIgstAmount());
+      }
+      applyTotals(totals);
+    }
 
-      totalSgstAmount = challanVendorLineItems.stream()
-          .map(ChallanVendorLineItem::getSgstAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+    calculateTotalValue();
+  }
 
-      totalIgstAmount = challanVendorLineItems.stream()
-          .map(ChallanVendorLineItem::getIgstAmount)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
+  private void applyTotals(GstTaxCalculator.Totals totals) {
+    totalQuantity = totals.getQuantity();
+    totalTaxableValue = totals.getTaxableValue();
+    totalCgstAmount = totals.getCgstAmount();
+    totalSgstAmount = totals.getSgstAmount();
+    totalIgstAmount = totals.getIgstAmount();
+  }
 
-    // Calculate total value
-    // For taxable challans: taxable value + taxes
-    // For non-taxable challans: just the declared taxable value
-    // If estimated value is set, use that instead
+  // Calculate total value
+  // For taxable challans: taxable value + taxes
+  // For non-taxable challans: just the declared taxable value
+  // If estimated value is set, use that instead
+  private void calculateTotalValue() {
     if (estimatedValue != null) {
       totalValue = estimatedValue;
     } else {
-      totalValue = totalTaxableValue
-          .add(totalCgstAmount)
-          .add(totalSgstAmount)
-          .add(totalIgstAmount);
+      totalValue = GstTaxCalculator.totalValue(totalTaxableValue, totalCgstAmount, totalSgstAmount, totalIgstAmount);
     }
   }
 
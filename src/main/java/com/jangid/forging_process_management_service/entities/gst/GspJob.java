@@ -0,0 +1,128 @@
+package com.jangid.forging_process_management_service.entities.gst;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued E-Invoice or E-Way Bill GSP call.
+ * Jobs are unique per tenant and idempotency key, so the same document operation is never queued twice.
+ * The GSP response is written back to the invoice or challan by the existing generation services;
+ * the job keeps the raw response for status polling.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "gsp_job")
+public class GspJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "gsp_job_key_sequence_generator")
+    @SequenceGenerator(name = "gsp_job_key_sequence_generator", sequenceName = "gsp_job_sequence", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false)
+    private JobType jobType;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "batch_reference", length = 36)
+    private String batchReference;
+
+    @Column(name = "invoice_id")
+    private Long invoiceId;
+
+    @Column(name = "delivery_challan_id")
+    private Long deliveryChallanId;
+
+    @Column(name = "gsp_server_id")
+    private String gspServerId;
+
+    @Column(name = "session_token_encrypted")
+    private String sessionTokenEncrypted;
+
+    @Column(name = "request_payload")
+    private String requestPayload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status;
+
+    @Column(name = "attempt_count", nullable = false)
+    private Integer attemptCount;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "result_payload")
+    private String resultPayload;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Also bumped by every claim, so a worker whose lease expired cannot overwrite the job after it was claimed again
+     */
+    @Version
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.SUCCEEDED || status == JobStatus.FAILED;
+    }
+
+    public enum JobType {
+        EINVOICE_GENERATE,
+        EWAY_BILL_BY_IRN,
+        EWAY_BILL_INVOICE,
+        EWAY_BILL_CHALLAN
+    }
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
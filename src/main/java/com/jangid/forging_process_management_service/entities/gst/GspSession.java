@@ -0,0 +1,78 @@
+package com.jangid.forging_process_management_service.entities.gst;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted GSP session shared by all application instances.
+ * Only a hash of the session token is stored; the portal password and GSP auth token are encrypted.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "gsp_session")
+public class GspSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "gsp_session_key_sequence_generator")
+    @SequenceGenerator(name = "gsp_session_key_sequence_generator", sequenceName = "gsp_session_sequence", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "session_type", nullable = false)
+    private GspSessionType sessionType;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "password_encrypted")
+    private String passwordEncrypted;
+
+    @Column(name = "gsp_auth_token_encrypted")
+    private String gspAuthTokenEncrypted;
+
+    @Column(name = "gstin", length = 15)
+    private String gstin;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "token_expires_at")
+    private LocalDateTime tokenExpiresAt;
+
+    @Column(name = "gsp_server_id", length = 100)
+    private String gspServerId;
+
+    @Column(name = "renewal_claimed_until")
+    private LocalDateTime renewalClaimedUntil;
+}
@@ -0,0 +1,9 @@
+package com.jangid.forging_process_management_service.entities.gst;
+
+/**
+ * Kind of GSP session held in the shared session store
+ */
+public enum GspSessionType {
+    EWAY_BILL,
+    EINVOICE
+}
@@ -7,6 +7,7 @@ import com.jangid.forging_process_management_service.entities.buyer.BuyerEntity;
 import com.jangid.forging_process_management_service.entities.vendor.Vendor;
 import com.jangid.forging_process_management_service.entities.vendor.VendorEntity;
 import com.jangid.forging_process_management_service.entities.order.WorkType;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -66,7 +67,7 @@ public class Invoice {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO, generator = "invoice_sequence_generator")
     @SequenceGenerator(name = "invoice_sequence_generator", 
-                      sequenceName = "invoice_sequence", allocationSize = 1)
+                      sequenceName = "invoice_sequence", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -472,30 +473,21 @@ public class Invoice {
     }
 
     public void calculateTotals() {
-        // Calculate totals from line items if they exist
+        // Calculate totals from line items if they exist, in a single pass
         if (lineItems != null && !lineItems.isEmpty()) {
-            totalTaxableValue = lineItems.stream()
-                .map(InvoiceLineItem::getTaxableValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            totalCgstAmount = lineItems.stream()
-                .map(InvoiceLineItem::getCgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            totalSgstAmount = lineItems.stream()
-                .map(InvoiceLineItem::getSgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            totalIgstAmount = lineItems.stream()
-                .map(InvoiceLineItem::getIgstAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            GstTaxCalculator.Totals totals = new GstTaxCalculator.Totals();
+            for (InvoiceLineItem lineItem : lineItems) {
+                totals.addAmounts(lineItem.getTaxableValue(), lineItem.getCgstAmount(),
+                                  lineItem.getSgstAmount(), lineItem.getIgstAmount());
+            }
+            totalTaxableValue = totals.getTaxableValue();
+            totalCgstAmount = totals.getCgstAmount();
+            totalSgstAmount = totals.getSgstAmount();
+            totalIgstAmount = totals.getIgstAmount();
         }
         
         // Calculate total invoice value
-        totalInvoiceValue = totalTaxableValue
-            .add(totalCgstAmount)
-            .add(totalSgstAmount)
-            .add(totalIgstAmount);
+        totalInvoiceValue = GstTaxCalculator.totalValue(totalTaxableValue, totalCgstAmount, totalSgstAmount, totalIgstAmount);
     }
 
     // Helper methods for line items
@@ -52,7 +52,7 @@ public class InvoiceDispatchBatch {
   @Id
   @GeneratedValue(strategy = GenerationType.AUTO, generator = "invoice_dispatch_batch_sequence_generator")
   @SequenceGenerator(name = "invoice_dispatch_batch_sequence_generator",
-    sequenceName = "invoice_dispatch_batch_sequence", allocationSize = 1)
+    sequenceName = "invoice_dispatch_batch_sequence", allocationSize = 50)
   private Long id;
 
   @NotNull
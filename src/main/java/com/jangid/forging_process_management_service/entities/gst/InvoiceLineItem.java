@@ -1,6 +1,7 @@
 package com.jangid.forging_process_management_service.entities.gst;
 
 import com.jangid.forging_process_management_service.entities.Tenant;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -46,7 +47,7 @@ public class InvoiceLineItem {
   @Id
   @GeneratedValue(strategy = GenerationType.AUTO, generator = "invoice_line_item_sequence_generator")
   @SequenceGenerator(name = "invoice_line_item_sequence_generator", 
-                    sequenceName = "invoice_line_item_sequence", allocationSize = 1)
+                    sequenceName = "invoice_line_item_sequence", allocationSize = 50)
   private Long id;
 
   @NotNull
@@ -203,13 +204,13 @@ public class InvoiceLineItem {
    */
   public void calculateGstAmounts() {
     if (cgstRate != null && cgstRate.compareTo(BigDecimal.ZERO) > 0) {
-      this.cgstAmount = taxableValue.multiply(cgstRate).divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP);
+      this.cgstAmount = GstTaxCalculator.percentOf(taxableValue, cgstRate);
     }
     if (sgstRate != null && sgstRate.compareTo(BigDecimal.ZERO) > 0) {
-      this.sgstAmount = taxableValue.multiply(sgstRate).divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP);
+      this.sgstAmount = GstTaxCalculator.percentOf(taxableValue, sgstRate);
     }
     if (igstRate != null && igstRate.compareTo(BigDecimal.ZERO) > 0) {
-      this.igstAmount = taxableValue.multiply(igstRate).divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP);
+      this.igstAmount = GstTaxCalculator.percentOf(taxableValue, igstRate);
     }
   }
 
@@ -0,0 +1,95 @@
+package com.jangid.forging_process_management_service.entitiesRepresentation.gst;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Challan row of the challan list views.
+ * The full {@link DeliveryChallanRepresentation} is returned by the detail endpoints.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryChallanSummaryRepresentation {
+
+  @JsonProperty("id")
+  private Long id;
+
+  @JsonProperty("challanNumber")
+  private String challanNumber;
+
+  @JsonProperty("challanDateTime")
+  @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+  private LocalDateTime challanDateTime;
+
+  @JsonProperty("challanType")
+  private String challanType;
+
+  @JsonProperty("workType")
+  private String workType;
+
+  @JsonProperty("isVendorChallan")
+  private Boolean isVendorChallan;
+
+  @JsonProperty("status")
+  private String status;
+
+  @JsonProperty("orderId")
+  private Long orderId;
+
+  @JsonProperty("convertedToInvoiceId")
+  private Long convertedToInvoiceId;
+
+  // Consignee
+  @JsonProperty("buyerId")
+  private Long buyerId;
+
+  @JsonProperty("vendorId")
+  private Long vendorId;
+
+  @JsonProperty("consigneeName")
+  private String consigneeName;
+
+  @JsonProperty("consigneeGstin")
+  private String consigneeGstin;
+
+  @JsonProperty("consigneeType")
+  private String consigneeType; // "BUYER" or "VENDOR"
+
+  // Totals
+  @JsonProperty("totalQuantity")
+  private BigDecimal totalQuantity;
+
+  @JsonProperty("totalTaxableValue")
+  private BigDecimal totalTaxableValue;
+
+  @JsonProperty("totalValue")
+  private BigDecimal totalValue;
+
+  @JsonProperty("estimatedValue")
+  private BigDecimal estimatedValue;
+
+  // E-Way Bill
+  @JsonProperty("ewayBillNumber")
+  private String ewayBillNumber;
+
+  @JsonProperty("hasEwayBill")
+  private Boolean hasEwayBill;
+
+  @JsonProperty("cancelledAt")
+  @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+  private LocalDateTime cancelledAt;
+
+  @JsonProperty("createdAt")
+  @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,80 @@
+package com.jangid.forging_process_management_service.entitiesRepresentation.gst;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Representation class for GspJob entity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ApiModel(description = "Status of a queued E-Invoice / E-Way Bill GSP job")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GspJobRepresentation {
+
+  @JsonProperty(value = "id")
+  @ApiModelProperty(value = "Job ID", example = "123")
+  private Long id;
+
+  @JsonProperty(value = "jobType")
+  @ApiModelProperty(value = "Job type", example = "EINVOICE_GENERATE",
+    allowableValues = "EINVOICE_GENERATE, EWAY_BILL_BY_IRN, EWAY_BILL_INVOICE, EWAY_BILL_CHALLAN")
+  private String jobType;
+
+  @JsonProperty(value = "status")
+  @ApiModelProperty(value = "Job status", example = "QUEUED", allowableValues = "QUEUED, RUNNING, SUCCEEDED, FAILED")
+  private String status;
+
+  @JsonProperty(value = "finished")
+  @ApiModelProperty(value = "Whether the job has succeeded or failed; polling can stop", example = "false")
+  private Boolean finished;
+
+  @JsonProperty(value = "invoiceId")
+  @ApiModelProperty(value = "Invoice the job generates a document for", example = "456")
+  private Long invoiceId;
+
+  @JsonProperty(value = "deliveryChallanId")
+  @ApiModelProperty(value = "Delivery challan the job generates an E-Way Bill for", example = "789")
+  private Long deliveryChallanId;
+
+  @JsonProperty(value = "batchReference")
+  @ApiModelProperty(value = "Reference shared by all jobs of one bulk submission")
+  private String batchReference;
+
+  @JsonProperty(value = "attemptCount")
+  @ApiModelProperty(value = "Number of times the job has been run", example = "1")
+  private Integer attemptCount;
+
+  @JsonProperty(value = "result")
+  @ApiModelProperty(value = "Summary of the GSP response (IRN, acknowledgement, E-Way Bill number)")
+  private Object result;
+
+  @JsonProperty(value = "error")
+  @ApiModelProperty(value = "Error of the last failed attempt")
+  private String error;
+
+  @JsonProperty(value = "nextAttemptAt")
+  @ApiModelProperty(value = "When a queued job will be run next (ISO 8601 format)")
+  private String nextAttemptAt;
+
+  @JsonProperty(value = "createdAt")
+  private String createdAt;
+
+  @JsonProperty(value = "startedAt")
+  private String startedAt;
+
+  @JsonProperty(value = "completedAt")
+  private String completedAt;
+}
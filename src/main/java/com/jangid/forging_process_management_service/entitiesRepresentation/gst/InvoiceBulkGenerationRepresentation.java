@@ -0,0 +1,95 @@
+package com.jangid.forging_process_management_service.entitiesRepresentation.gst;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Per-invoice report of a bulk invoice generation request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ApiModel(description = "Result of bulk invoice generation from ready-to-dispatch batches")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvoiceBulkGenerationRepresentation {
+
+  @JsonProperty(value = "groupingRule")
+  @ApiModelProperty(value = "Rule the dispatch batches were grouped into invoices by", example = "PER_BUYER",
+    allowableValues = "PER_BUYER, PER_PURCHASE_ORDER, PER_BATCH")
+  private String groupingRule;
+
+  @JsonProperty(value = "requestedBatchCount")
+  @ApiModelProperty(value = "Number of distinct dispatch batches requested", example = "12")
+  private Integer requestedBatchCount;
+
+  @JsonProperty(value = "createdCount")
+  @ApiModelProperty(value = "Number of draft invoices created", example = "4")
+  private Integer createdCount;
+
+  @JsonProperty(value = "failedCount")
+  @ApiModelProperty(value = "Number of invoices (or dispatch batches) that could not be created", example = "1")
+  private Integer failedCount;
+
+  @JsonProperty(value = "results")
+  @ApiModelProperty(value = "One entry per invoice created or attempted, and per dispatch batch rejected before grouping")
+  private List<InvoiceResult> results;
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  @Builder
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class InvoiceResult {
+
+    @JsonProperty(value = "status")
+    @ApiModelProperty(value = "Outcome", example = "CREATED", allowableValues = "CREATED, FAILED")
+    private String status;
+
+    @JsonProperty(value = "dispatchBatchIds")
+    @ApiModelProperty(value = "Dispatch batches of this invoice")
+    private List<Long> dispatchBatchIds;
+
+    @JsonProperty(value = "dispatchBatchNumbers")
+    @ApiModelProperty(value = "Dispatch batch numbers of this invoice")
+    private List<String> dispatchBatchNumbers;
+
+    @JsonProperty(value = "buyerEntityName")
+    @ApiModelProperty(value = "Billing entity the invoice is addressed to")
+    private String buyerEntityName;
+
+    @JsonProperty(value = "customerPoNumber")
+    @ApiModelProperty(value = "Customer purchase order number on the invoice")
+    private String customerPoNumber;
+
+    @JsonProperty(value = "invoiceId")
+    @ApiModelProperty(value = "ID of the created draft invoice", example = "456")
+    private Long invoiceId;
+
+    @JsonProperty(value = "invoiceNumber")
+    @ApiModelProperty(value = "Temporary number of the created draft invoice")
+    private String invoiceNumber;
+
+    @JsonProperty(value = "totalInvoiceValue")
+    @ApiModelProperty(value = "Total value of the created draft invoice")
+    private BigDecimal totalInvoiceValue;
+
+    @JsonProperty(value = "error")
+    @ApiModelProperty(value = "Why the invoice could not be created")
+    private String error;
+  }
+}
@@ -0,0 +1,108 @@
+package com.jangid.forging_process_management_service.entitiesRepresentation.gst;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Invoice row of the invoice list views.
+ * The full {@link InvoiceRepresentation} is returned by the detail endpoints.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceSummaryRepresentation {
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("invoiceNumber")
+    private String invoiceNumber;
+
+    @JsonProperty("invoiceDate")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime invoiceDate;
+
+    @JsonProperty("invoiceType")
+    private String invoiceType;
+
+    @JsonProperty("workType")
+    private String workType;
+
+    @JsonProperty("isManualInvoice")
+    private Boolean isManualInvoice;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("orderId")
+    private Long orderId;
+
+    @JsonProperty("customerPoNumber")
+    private String customerPoNumber;
+
+    // Recipient
+    @JsonProperty("buyerId")
+    private Long buyerId;
+
+    @JsonProperty("vendorId")
+    private Long vendorId;
+
+    @JsonProperty("recipientName")
+    private String recipientName;
+
+    @JsonProperty("recipientGstin")
+    private String recipientGstin;
+
+    @JsonProperty("recipientType")
+    private String recipientType; // "CUSTOMER" or "VENDOR"
+
+    // Totals
+    @JsonProperty("totalTaxableValue")
+    private BigDecimal totalTaxableValue;
+
+    @JsonProperty("totalCgstAmount")
+    private BigDecimal totalCgstAmount;
+
+    @JsonProperty("totalSgstAmount")
+    private BigDecimal totalSgstAmount;
+
+    @JsonProperty("totalIgstAmount")
+    private BigDecimal totalIgstAmount;
+
+    @JsonProperty("totalInvoiceValue")
+    private BigDecimal totalInvoiceValue;
+
+    @JsonProperty("totalPaidAmount")
+    private BigDecimal totalPaidAmount;
+
+    @JsonProperty("dueDate")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate dueDate;
+
+    // E-Invoice / E-Way Bill
+    @JsonProperty("irn")
+    private String irn;
+
+    @JsonProperty("hasIrn")
+    private Boolean hasIrn;
+
+    @JsonProperty("ewayBillNumber")
+    private String ewayBillNumber;
+
+    @JsonProperty("hasEwayBill")
+    private Boolean hasEwayBill;
+
+    @JsonProperty("createdAt")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
@@ -8,8 +8,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +37,34 @@ public interface DispatchBatchRepository extends JpaRepository<DispatchBatch, Lo
   boolean existsByChallanNumberAndTenantIdAndDeletedFalse(String challanNumber, Long tenantId);
 
   Optional<DispatchBatch> findByIdAndDeletedFalse(Long id);
+
+  /**
+   * Move every listed batch that is currently in one of the given statuses to the target status in one statement.
+   * updated_at is the @Version column and is bumped as well. The update bypasses the persistence context, so a batch
+   * already loaded in the calling transaction keeps its old status and version until it is refreshed.
+   *
+   * @return ids of the batches that were actually transitioned
+   */
+  @Transactional
+  @Query(value = """
+      UPDATE dispatch_batch
+      SET dispatch_batch_status = :toStatus,
+          updated_at = CURRENT_TIMESTAMP
+      WHERE id IN (:ids)
+        AND deleted = false
+        AND dispatch_batch_status IN (:fromStatuses)
+      RETURNING id
+      """, nativeQuery = true)
+  List<Long> transitionStatus(@Param("ids") Collection<Long> ids,
+                              @Param("fromStatuses") Collection<String> fromStatuses,
+                              @Param("toStatus") String toStatus);
+
+  /**
+   * Id, batch number and status of the given batches; used to report which batches failed a bulk transition
+   */
+  @Query("SELECT db.id, db.dispatchBatchNumber, db.dispatchBatchStatus FROM DispatchBatch db " +
+         "WHERE db.id IN :ids AND db.deleted = false")
+  List<Object[]> findBatchStatusesByIdIn(@Param("ids") Collection<Long> ids);
   List<DispatchBatch> findByTenantIdAndDeletedIsFalseOrderByUpdatedAtDesc(long tenantId);
 
   @Query("SELECT db FROM DispatchBatch db " +
@@ -188,4 +218,17 @@ public interface DispatchBatchRepository extends JpaRepository<DispatchBatch, Lo
          "WHERE pidb.id IN :processedItemDispatchBatchIds " +
          "AND db.deleted = false")
   List<DispatchBatch> findByProcessedItemDispatchBatchIdInAndDeletedFalse(@Param("processedItemDispatchBatchIds") List<Long> processedItemDispatchBatchIds);
+
+  /**
+   * Load dispatch batches for bulk invoice generation with everything the invoice is built from
+   * (tenant, buyer, billing/shipping entities and processed item) in one query
+   */
+  @Query("SELECT db FROM DispatchBatch db " +
+         "JOIN FETCH db.tenant " +
+         "JOIN FETCH db.buyer " +
+         "JOIN FETCH db.billingEntity " +
+         "JOIN FETCH db.shippingEntity " +
+         "LEFT JOIN FETCH db.processedItemDispatchBatch " +
+         "WHERE db.tenant.id = :tenantId AND db.id IN :ids AND db.deleted = false")
+  List<DispatchBatch> findForInvoicingByTenantIdAndIdIn(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
 }
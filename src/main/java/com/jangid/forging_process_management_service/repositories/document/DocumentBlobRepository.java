@@ -0,0 +1,115 @@
+package com.jangid.forging_process_management_service.repositories.document;
+
+import com.jangid.forging_process_management_service.entities.document.DocumentBlob;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, Long> {
+
+    /**
+     * Insert an unreferenced blob row, stored as uploaded, unless the tenant already has one for this hash.
+     * Waits for a concurrent insert of the same hash to finish instead of failing on the unique key.
+     *
+     * @return 1 when the row was inserted, 0 when it already existed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO document_blob (tenant_id, content_hash, storage_path, is_compressed, original_size_bytes,
+                                       stored_size_bytes, mime_type, compression_status, reference_count, created_at, updated_at)
+            VALUES (:tenantId, :contentHash, :storagePath, false, :sizeBytes,
+                    :sizeBytes, :mimeType, :compressionStatus, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, content_hash) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("tenantId") Long tenantId,
+                       @Param("contentHash") String contentHash,
+                       @Param("storagePath") String storagePath,
+                       @Param("sizeBytes") long sizeBytes,
+                       @Param("mimeType") String mimeType,
+                       @Param("compressionStatus") String compressionStatus);
+
+    // Find and lock the tenant's blob for a hash, serialising reference count changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DocumentBlob b WHERE b.tenant.id = :tenantId AND b.contentHash = :contentHash")
+    Optional<DocumentBlob> findByTenantIdAndContentHashForUpdate(@Param("tenantId") Long tenantId,
+                                                                 @Param("contentHash") String contentHash);
+
+    // Lock a blob by ID
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DocumentBlob b WHERE b.id = :id")
+    Optional<DocumentBlob> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Claim blobs waiting for compression, plus claimed ones whose worker lease has expired, by marking them running
+     * under a new lease. Rows locked by another instance are skipped.
+     *
+     * @return ids of the claimed blobs
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE document_blob
+            SET compression_status = 'RUNNING',
+                compression_locked_until = :lockedUntil
+            WHERE id IN (
+                SELECT id
+                FROM document_blob
+                WHERE compression_status = 'PENDING'
+                   OR (compression_status = 'RUNNING' AND compression_locked_until < :now)
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> claimPendingCompression(@Param("now") LocalDateTime now,
+                                       @Param("lockedUntil") LocalDateTime lockedUntil,
+                                       @Param("limit") int limit);
+
+    // Record the outcome of a compression run that did not replace the stored file
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE document_blob
+            SET compression_status = :status,
+                compression_locked_until = NULL,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = :id AND compression_status = 'RUNNING'
+            """, nativeQuery = true)
+    int finishCompression(@Param("id") Long id, @Param("status") String status);
+
+    /**
+     * Blobs whose replaced file has outlived its grace period
+     */
+    @Query(value = """
+            SELECT *
+            FROM document_blob
+            WHERE replaced_storage_path IS NOT NULL
+              AND replaced_file_delete_after < :now
+            ORDER BY replaced_file_delete_after
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DocumentBlob> findReplacedFilesDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Forget a replaced file once it is deleted, unless the blob has replaced another one since
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE document_blob
+            SET replaced_storage_path = NULL,
+                replaced_file_delete_after = NULL
+            WHERE id = :id AND replaced_storage_path = :replacedStoragePath
+            """, nativeQuery = true)
+    int clearReplacedFile(@Param("id") Long id, @Param("replacedStoragePath") String replacedStoragePath);
+}
@@ -0,0 +1,44 @@
+package com.jangid.forging_process_management_service.repositories.document;
+
+import com.jangid.forging_process_management_service.entities.document.DocumentCompressionStat;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DocumentCompressionStatRepository extends JpaRepository<DocumentCompressionStat, Long> {
+
+    List<DocumentCompressionStat> findByTenant_IdAndMimeType(Long tenantId, String mimeType);
+
+    /**
+     * Add one trial of the codec on a file of the tenant, creating the row on its first trial
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO document_compression_stat (tenant_id, mime_type, codec, trial_count, win_count,
+                                                   original_bytes, compressed_bytes, compress_millis, created_at, updated_at)
+            VALUES (:tenantId, :mimeType, :codec, 1, CASE WHEN :won THEN 1 ELSE 0 END,
+                    :originalBytes, :compressedBytes, :compressMillis, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (tenant_id, mime_type, codec) DO UPDATE
+            SET trial_count = document_compression_stat.trial_count + 1,
+                win_count = document_compression_stat.win_count + EXCLUDED.win_count,
+                original_bytes = document_compression_stat.original_bytes + EXCLUDED.original_bytes,
+                compressed_bytes = document_compression_stat.compressed_bytes + EXCLUDED.compressed_bytes,
+                compress_millis = document_compression_stat.compress_millis + EXCLUDED.compress_millis,
+                updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int recordTrial(@Param("tenantId") Long tenantId,
+                    @Param("mimeType") String mimeType,
+                    @Param("codec") String codec,
+                    @Param("won") boolean won,
+                    @Param("originalBytes") long originalBytes,
+                    @Param("compressedBytes") long compressedBytes,
+                    @Param("compressMillis") long compressMillis);
+}
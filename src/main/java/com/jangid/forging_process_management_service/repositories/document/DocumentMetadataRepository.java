@@ -15,4 +15,18 @@ public interface DocumentMetadataRepository extends JpaRepository<DocumentMetada
     @Modifying
     @Query("UPDATE DocumentMetadata dm SET dm.deleted = true WHERE dm.document.id = :documentId")
     void softDeleteByDocumentId(@Param("documentId") Long documentId);
+
+    // Storage metadata of the live documents of a blob whose file was replaced by a compressed one
+    @Modifying
+    @Query(value = "UPDATE document_metadata dm " +
+                   "SET metadata_value = CASE dm.metadata_key " +
+                   "        WHEN 'is_compressed' THEN 'true' " +
+                   "        WHEN 'storage_format' THEN 'COMPRESSED' " +
+                   "        ELSE :storedSizeBytes END, " +
+                   "    updated_at = CURRENT_TIMESTAMP " +
+                   "FROM document d " +
+                   "WHERE dm.document_id = d.id AND d.document_blob_id = :blobId AND dm.deleted = false " +
+                   "AND dm.metadata_key IN ('is_compressed', 'storage_format', 'stored_file_size_bytes')",
+           nativeQuery = true)
+    int updateStorageMetadataOfBlob(@Param("blobId") Long blobId, @Param("storedSizeBytes") String storedSizeBytes);
 }
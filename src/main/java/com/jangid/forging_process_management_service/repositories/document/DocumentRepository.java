@@ -5,11 +5,15 @@ import com.jangid.forging_process_management_service.entities.document.DocumentC
 import com.jangid.forging_process_management_service.entities.document.DocumentLink;
 import com.jangid.forging_process_management_service.entities.document.DocumentType;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,49 +39,115 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
                                      @Param("entityType") DocumentLink.EntityType entityType, 
                                      @Param("entityId") Long entityId);
     
+    // Point the live documents of a blob at its compressed file
+    @Modifying
+    @Query("UPDATE Document d SET d.filePath = :filePath, d.fileName = :fileName, d.isCompressed = true, " +
+           "d.compressedSizeBytes = :storedSizeBytes WHERE d.blob.id = :blobId")
+    int updateStoredFileOfBlob(@Param("blobId") Long blobId,
+                               @Param("filePath") String filePath,
+                               @Param("fileName") String fileName,
+                               @Param("storedSizeBytes") Long storedSizeBytes);
+
     // Basic search methods using JPA query methods
     Page<Document> findByTenantIdAndDeletedFalseOrderByCreatedAtDesc(Long tenantId, Pageable pageable);
     
 
-    // Simplified search query with essential filters only
-    // Supports: keyword, category, documentType, fileExtension, entityType
+    // Browsing without keyword or metadata filters, sortable by any document field
+    // Supports: category, documentType, fileExtension, entityType
     // Using JPQL with explicit casting to avoid PostgreSQL bytea issues
     @Query("SELECT DISTINCT d FROM Document d " +
            "LEFT JOIN d.documentLinks dl " +
            "WHERE d.tenant.id = :tenantId AND d.deleted = false " +
-           "AND (:keyword IS NULL OR d.originalFileName LIKE %:keyword% OR " +
-           "COALESCE(d.description, '') LIKE %:keyword% OR " +
-           "COALESCE(d.tags, '') LIKE %:keyword%) " +
            "AND (:category IS NULL OR d.documentCategory = :category) " +
            "AND (:documentType IS NULL OR d.documentType = :documentType) " +
            "AND (:fileExtension IS NULL OR d.fileExtension = :fileExtension) " +
            "AND (:entityType IS NULL OR (dl.deleted = false AND dl.entityType = :entityType))")
     Page<Document> searchDocumentsSimple(
             @Param("tenantId") Long tenantId,
-            @Param("keyword") String keyword,
             @Param("category") DocumentCategory category,
             @Param("documentType") DocumentType documentType,
             @Param("fileExtension") String fileExtension,
             @Param("entityType") DocumentLink.EntityType entityType,
             Pageable pageable);
 
-    // Simplified count query that matches the simplified search query
-    // Using JPQL with explicit casting to avoid PostgreSQL bytea issues
-    @Query("SELECT COUNT(DISTINCT d) FROM Document d " +
-           "LEFT JOIN d.documentLinks dl " +
-           "WHERE d.tenant.id = :tenantId AND d.deleted = false " +
-           "AND (:keyword IS NULL OR " +
-           "    LOWER(d.originalFileName) LIKE LOWER(CONCAT('%', :keyword, '%')))" +
-           "AND (:category IS NULL OR d.documentCategory = :category) " +
-           "AND (:documentType IS NULL OR d.documentType = :documentType) " +
-           "AND (:fileExtension IS NULL OR d.fileExtension = :fileExtension) " +
-           "AND (:entityType IS NULL OR (dl.deleted = false AND dl.entityType = :entityType))")
-    Long countSearchResultsSimple(
+    /**
+     * Ranked full-text search. The keyword is parsed with websearch_to_tsquery (quoted phrases, OR, -exclusions) and
+     * matched against the stored search vector; results come by rank, then newest first. Keyset paging: rows after
+     * (afterRank, afterCreatedAt, afterId) in that order, pass +Infinity / the far future / Long.MAX_VALUE for the
+     * first page. Enum filters are passed by name.
+     */
+    @Query(value = "SELECT ranked.id AS \"id\", ranked.rank AS \"rank\", ranked.created_at AS \"createdAt\" " +
+                   "FROM ( " +
+                   "  SELECT d.id, COALESCE(d.created_at, TIMESTAMP '1970-01-01') AS created_at, " +
+                   "         CASE WHEN q.query IS NULL THEN CAST(0 AS real) ELSE ts_rank_cd(d.search_vector, q.query) END AS rank " +
+                   "  FROM document d " +
+                   "  CROSS JOIN (SELECT websearch_to_tsquery('english', CAST(:keyword AS text)) AS query) q " +
+                   "  WHERE d.tenant_id = :tenantId AND d.deleted = false " +
+                   "  AND (q.query IS NULL OR d.search_vector @@ q.query) " +
+                   SEARCH_FILTERS +
+                   ") ranked " +
+                   "WHERE (ranked.rank, ranked.created_at, ranked.id) < " +
+                   "      (CAST(:afterRank AS real), CAST(:afterCreatedAt AS timestamp), CAST(:afterId AS bigint)) " +
+                   "ORDER BY ranked.rank DESC, ranked.created_at DESC, ranked.id DESC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<SearchHit> searchRanked(
             @Param("tenantId") Long tenantId,
             @Param("keyword") String keyword,
-            @Param("category") DocumentCategory category,
-            @Param("documentType") com.jangid.forging_process_management_service.entities.document.DocumentType documentType,
+            @Param("category") String category,
+            @Param("documentType") String documentType,
+            @Param("fileExtension") String fileExtension,
+            @Param("entityType") String entityType,
+            @Param("metadataKey") String metadataKey,
+            @Param("metadataValue") String metadataValue,
+            @Param("afterRank") float afterRank,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) " +
+                   "FROM document d " +
+                   "CROSS JOIN (SELECT websearch_to_tsquery('english', CAST(:keyword AS text)) AS query) q " +
+                   "WHERE d.tenant_id = :tenantId AND d.deleted = false " +
+                   "AND (q.query IS NULL OR d.search_vector @@ q.query) " +
+                   SEARCH_FILTERS,
+           nativeQuery = true)
+    long countRanked(
+            @Param("tenantId") Long tenantId,
+            @Param("keyword") String keyword,
+            @Param("category") String category,
+            @Param("documentType") String documentType,
             @Param("fileExtension") String fileExtension,
-            @Param("entityType") DocumentLink.EntityType entityType);
+            @Param("entityType") String entityType,
+            @Param("metadataKey") String metadataKey,
+            @Param("metadataValue") String metadataValue);
+
+    // Filters shared by the ranked search and its count; metadata values match by their words
+    String SEARCH_FILTERS =
+            "AND (CAST(:category AS text) IS NULL OR d.document_category = CAST(:category AS text)) " +
+            "AND (CAST(:documentType AS text) IS NULL OR d.document_type = CAST(:documentType AS text)) " +
+            "AND (CAST(:fileExtension AS text) IS NULL OR d.file_extension = CAST(:fileExtension AS text)) " +
+            "AND (CAST(:entityType AS text) IS NULL OR EXISTS ( " +
+            "    SELECT 1 FROM document_link dl " +
+            "    WHERE dl.document_id = d.id AND dl.deleted = false AND dl.entity_type = CAST(:entityType AS text))) " +
+            "AND ((CAST(:metadataKey AS text) IS NULL AND CAST(:metadataValue AS text) IS NULL) OR EXISTS ( " +
+            "    SELECT 1 FROM document_metadata dm " +
+            "    WHERE dm.document_id = d.id AND dm.deleted = false " +
+            "    AND (CAST(:metadataKey AS text) IS NULL OR dm.metadata_key = CAST(:metadataKey AS text)) " +
+            "    AND (CAST(:metadataValue AS text) IS NULL OR to_tsvector('simple', COALESCE(dm.metadata_value, '')) " +
+            "         @@ plainto_tsquery('simple', CAST(:metadataValue AS text))))) ";
+
+    // Documents of a result page with their metadata, which the search response includes
+    @EntityGraph(attributePaths = "metadata")
+    List<Document> findByIdIn(Collection<Long> ids);
 
+    /**
+     * Row of a ranked search: enough to order the page and continue after it
+     */
+    interface SearchHit {
+        Long getId();
+        Float getRank();
+        LocalDateTime getCreatedAt();
+    }
 }
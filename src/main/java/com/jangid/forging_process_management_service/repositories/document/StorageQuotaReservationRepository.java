@@ -0,0 +1,47 @@
+package com.jangid.forging_process_management_service.repositories.document;
+
+import com.jangid.forging_process_management_service.entities.document.StorageQuotaReservation;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StorageQuotaReservationRepository extends JpaRepository<StorageQuotaReservation, Long> {
+
+    // Delete an open reservation; returns 0 when it was already committed, released or swept
+    @Modifying
+    @Query("DELETE FROM StorageQuotaReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+
+    /**
+     * Delete expired reservations, skipping rows locked by another instance
+     *
+     * @return tenant and size of the deleted reservations, whose bytes are still reserved on the quota
+     */
+    @Transactional
+    @Query(value = """
+            DELETE FROM storage_quota_reservation
+            WHERE id IN (
+                SELECT id
+                FROM storage_quota_reservation
+                WHERE expires_at < :now
+                ORDER BY expires_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING tenant_id AS "tenantId", reserved_bytes AS "reservedBytes"
+            """, nativeQuery = true)
+    List<ExpiredReservation> deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    interface ExpiredReservation {
+        Long getTenantId();
+        Long getReservedBytes();
+    }
+}
@@ -22,9 +22,42 @@ public interface TenantStorageQuotaRepository extends JpaRepository<TenantStorag
            "WHERE tsq.tenant.id = :tenantId")
     int addUsedStorage(@Param("tenantId") Long tenantId, @Param("bytes") Long bytes);
     
+    // Add used storage only if it stays within the quota (or the quota is disabled), leaving room for the storage
+    // reserved by uploads in progress; returns 0 when it would not
+    @Modifying
+    @Query("UPDATE TenantStorageQuota tsq SET tsq.usedStorageBytes = tsq.usedStorageBytes + :bytes " +
+           "WHERE tsq.tenant.id = :tenantId " +
+           "AND (tsq.quotaEnabled = false OR tsq.usedStorageBytes + tsq.reservedStorageBytes + :bytes <= tsq.maxStorageBytes)")
+    int addUsedStorageWithinQuota(@Param("tenantId") Long tenantId, @Param("bytes") Long bytes);
+    
     @Modifying
     @Query("UPDATE TenantStorageQuota tsq SET tsq.usedStorageBytes = GREATEST(0, tsq.usedStorageBytes - :bytes) " +
            "WHERE tsq.tenant.id = :tenantId")
     int removeUsedStorage(@Param("tenantId") Long tenantId, @Param("bytes") Long bytes);
-    
+
+    // Reserve storage for an upload only if used and reserved storage stay within the quota (or the quota is
+    // disabled); returns 0 when they would not
+    @Modifying
+    @Query(value = "UPDATE tenant_storage_quota SET reserved_storage_bytes = reserved_storage_bytes + :bytes " +
+                   "WHERE tenant_id = :tenantId " +
+                   "AND (quota_enabled = false OR used_storage_bytes + reserved_storage_bytes + :bytes <= max_storage_bytes)",
+           nativeQuery = true)
+    int reserveStorage(@Param("tenantId") Long tenantId, @Param("bytes") Long bytes);
+
+    // Turn a reservation into used storage: the bytes actually stored are added, the whole reservation is released
+    @Modifying
+    @Query(value = "UPDATE tenant_storage_quota " +
+                   "SET used_storage_bytes = used_storage_bytes + :usedBytes, " +
+                   "    reserved_storage_bytes = GREATEST(0, reserved_storage_bytes - :reservedBytes) " +
+                   "WHERE tenant_id = :tenantId",
+           nativeQuery = true)
+    int commitReservedStorage(@Param("tenantId") Long tenantId,
+                              @Param("reservedBytes") Long reservedBytes,
+                              @Param("usedBytes") Long usedBytes);
+
+    @Modifying
+    @Query(value = "UPDATE tenant_storage_quota SET reserved_storage_bytes = GREATEST(0, reserved_storage_bytes - :bytes) " +
+                   "WHERE tenant_id = :tenantId",
+           nativeQuery = true)
+    int releaseReservedStorage(@Param("tenantId") Long tenantId, @Param("bytes") Long bytes);
 }
@@ -0,0 +1,44 @@
+package com.jangid.forging_process_management_service.repositories.email;
+
+import com.jangid.forging_process_management_service.entities.email.DispatchEmailRetry;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DispatchEmailRetryRepository extends CrudRepository<DispatchEmailRetry, Long> {
+
+    /**
+     * Claim the next due pending emails under a lease: the attempt is counted and the email is not due again
+     * until the lease expires, so it is retried if the claiming instance dies mid-send. The claim commits at once;
+     * no lock is held while the emails are sent. Rows locked by another instance's claim are skipped.
+     *
+     * @return ids of the claimed emails
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE dispatch_email_retry
+        SET attempt_count = attempt_count + 1,
+            next_attempt_at = :leaseUntil,
+            updated_at = :now
+        WHERE id IN (
+            SELECT id
+            FROM dispatch_email_retry
+            WHERE status = 'PENDING'
+              AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id
+    """, nativeQuery = true)
+    List<Long> claimDueRetries(@Param("now") LocalDateTime now,
+                               @Param("leaseUntil") LocalDateTime leaseUntil,
+                               @Param("limit") int limit);
+}
@@ -2,15 +2,20 @@ package com.jangid.forging_process_management_service.repositories.gst;
 
 import com.jangid.forging_process_management_service.entities.gst.DeliveryChallan;
 import com.jangid.forging_process_management_service.entities.gst.ChallanStatus;
+import com.jangid.forging_process_management_service.entities.gst.ChallanType;
+import com.jangid.forging_process_management_service.entities.order.WorkType;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -102,4 +107,134 @@ public interface DeliveryChallanRepository extends JpaRepository<DeliveryChallan
     List<DeliveryChallan> findByTenantIdAndIsVendorChallanAndDeletedOrderByDeletedAtAsc(
         @Param("tenantId") Long tenantId, 
         @Param("isVendorChallan") Boolean isVendorChallan);
+
+    // Ids of challans eligible for E-Way Bill JSON export, in document date order
+    @Query("SELECT dc.id FROM DeliveryChallan dc WHERE dc.tenant.id = :tenantId AND dc.deleted = false " +
+           "AND dc.status IN :statuses AND dc.challanDateTime >= :fromDate AND dc.challanDateTime < :toDate " +
+           "ORDER BY dc.challanDateTime, dc.id")
+    List<Long> findIdsByTenantIdAndStatusInAndChallanDateRange(@Param("tenantId") Long tenantId,
+                                                               @Param("statuses") Collection<ChallanStatus> statuses,
+                                                               @Param("fromDate") LocalDateTime fromDate,
+                                                               @Param("toDate") LocalDateTime toDate);
+
+    @Query("SELECT dc.id FROM DeliveryChallan dc WHERE dc.tenant.id = :tenantId AND dc.deleted = false " +
+           "AND dc.status IN :statuses AND dc.id IN :ids")
+    List<Long> findIdsByTenantIdAndStatusInAndIdIn(@Param("tenantId") Long tenantId,
+                                                   @Param("statuses") Collection<ChallanStatus> statuses,
+                                                   @Param("ids") Collection<Long> ids);
+
+    // Load a batch of challans with their line items and parties for E-Way Bill mapping, in one query
+    @EntityGraph(attributePaths = {"lineItems", "buyer", "buyerBillingEntity", "buyerShippingEntity",
+                                   "vendor", "vendorBillingEntity", "vendorShippingEntity"})
+    @Query("SELECT dc FROM DeliveryChallan dc WHERE dc.tenant.id = :tenantId AND dc.deleted = false AND dc.id IN :ids")
+    List<DeliveryChallan> findWithEwayBillDetailsByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                                                  @Param("ids") Collection<Long> ids);
+
+    // Vendor line items are a second bag, so they are loaded by a separate query into the same persistence context
+    @EntityGraph(attributePaths = {"challanVendorLineItems"})
+    @Query("SELECT dc FROM DeliveryChallan dc WHERE dc.id IN :ids")
+    List<DeliveryChallan> findWithVendorLineItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * One page of challan list rows: the challan's own columns plus the consignee's name and GSTIN,
+     * without loading challans, line items or dispatch batch links. Null filters are ignored.
+     */
+    @Query(value = "SELECT dc.id AS id, dc.challanNumber AS challanNumber, dc.challanDateTime AS challanDateTime, " +
+                   "dc.challanType AS challanType, dc.workType AS workType, dc.isVendorChallan AS isVendorChallan, " +
+                   "dc.status AS status, dc.orderId AS orderId, b.id AS buyerId, v.id AS vendorId, " +
+                   "COALESCE(be.buyerEntityName, ve.vendorEntityName) AS consigneeName, " +
+                   "COALESCE(be.gstinUin, ve.gstinUin) AS consigneeGstin, " +
+                   "dc.totalQuantity AS totalQuantity, dc.totalTaxableValue AS totalTaxableValue, " +
+                   "dc.totalValue AS totalValue, dc.estimatedValue AS estimatedValue, " +
+                   "inv.id AS convertedToInvoiceId, dc.ewayBillNumber AS ewayBillNumber, " +
+                   "dc.cancelledAt AS cancelledAt, dc.createdAt AS createdAt " +
+                   "FROM DeliveryChallan dc " +
+                   "LEFT JOIN dc.buyer b LEFT JOIN dc.vendor v " +
+                   "LEFT JOIN dc.buyerBillingEntity be LEFT JOIN dc.vendorBillingEntity ve " +
+                   "LEFT JOIN dc.convertedToInvoice inv " +
+                   "WHERE dc.tenant.id = :tenantId AND dc.deleted = false " +
+                   "AND (:status IS NULL OR dc.status = :status) " +
+                   "AND (:fromDate IS NULL OR dc.challanDateTime >= :fromDate) " +
+                   "AND (:toDate IS NULL OR dc.challanDateTime <= :toDate) " +
+                   "AND (:searchTerm IS NULL OR LOWER(dc.challanNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+           countQuery = "SELECT COUNT(dc) FROM DeliveryChallan dc WHERE dc.tenant.id = :tenantId AND dc.deleted = false " +
+                        "AND (:status IS NULL OR dc.status = :status) " +
+                        "AND (:fromDate IS NULL OR dc.challanDateTime >= :fromDate) " +
+                        "AND (:toDate IS NULL OR dc.challanDateTime <= :toDate) " +
+                        "AND (:searchTerm IS NULL OR LOWER(dc.challanNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<ChallanSummary> findChallanSummaries(@Param("tenantId") Long tenantId,
+                                              @Param("status") ChallanStatus status,
+                                              @Param("fromDate") LocalDateTime fromDate,
+                                              @Param("toDate") LocalDateTime toDate,
+                                              @Param("searchTerm") String searchTerm,
+                                              Pageable pageable);
+
+    /**
+     * Challan dashboard counters of a tenant in one statement: live challans by status, challans still waiting for
+     * an E-Way Bill (GENERATED or DISPATCHED, at or above the tenant's E-Way Bill threshold, no E-Way Bill number yet)
+     * and the dispatch and vendor dispatch batches ready for a challan.
+     */
+    @Query(value = """
+        SELECT
+            COUNT(*) FILTER (WHERE dc.status = 'GENERATED') AS "generatedCount",
+            COUNT(*) FILTER (WHERE dc.status = 'DISPATCHED') AS "dispatchedCount",
+            COUNT(*) FILTER (WHERE dc.status = 'CONVERTED_TO_INVOICE') AS "convertedToInvoiceCount",
+            COUNT(*) FILTER (WHERE dc.status = 'CANCELLED') AS "cancelledCount",
+            COUNT(*) FILTER (WHERE dc.status IN ('GENERATED', 'DISPATCHED')
+                               AND dc.eway_bill_number IS NULL
+                               AND dc.total_value >= COALESCE((SELECT MIN(gc.eway_bill_threshold)
+                                                               FROM gst_configuration gc
+                                                               WHERE gc.tenant_id = :tenantId
+                                                                 AND gc.deleted = false), 50000)) AS "ewayBillPendingCount",
+            (SELECT COUNT(*)
+             FROM dispatch_batch db
+             WHERE db.tenant_id = :tenantId
+               AND db.dispatch_batch_status = 'READY_TO_DISPATCH'
+               AND db.deleted = false) AS "readyToDispatchBatchCount",
+            (SELECT COUNT(*)
+             FROM vendor_dispatch_batch vdb
+             WHERE vdb.tenant_id = :tenantId
+               AND vdb.vendor_dispatch_batch_status = 'READY_TO_DISPATCH'
+               AND vdb.deleted = false) AS "readyToDispatchVendorBatchCount"
+        FROM delivery_challan dc
+        WHERE dc.tenant_id = :tenantId
+          AND dc.deleted = false
+    """, nativeQuery = true)
+    ChallanDashboardCounts getDashboardCounts(@Param("tenantId") Long tenantId);
+
+    /**
+     * Challan list row, see {@link #findChallanSummaries}
+     */
+    interface ChallanSummary {
+        Long getId();
+        String getChallanNumber();
+        LocalDateTime getChallanDateTime();
+        ChallanType getChallanType();
+        WorkType getWorkType();
+        Boolean getIsVendorChallan();
+        ChallanStatus getStatus();
+        Long getOrderId();
+        Long getBuyerId();
+        Long getVendorId();
+        String getConsigneeName();
+        String getConsigneeGstin();
+        BigDecimal getTotalQuantity();
+        BigDecimal getTotalTaxableValue();
+        BigDecimal getTotalValue();
+        BigDecimal getEstimatedValue();
+        Long getConvertedToInvoiceId();
+        String getEwayBillNumber();
+        LocalDateTime getCancelledAt();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface ChallanDashboardCounts {
+        long getGeneratedCount();
+        long getDispatchedCount();
+        long getConvertedToInvoiceCount();
+        long getCancelledCount();
+        long getEwayBillPendingCount();
+        long getReadyToDispatchBatchCount();
+        long getReadyToDispatchVendorBatchCount();
+    }
 }
@@ -0,0 +1,55 @@
+package com.jangid.forging_process_management_service.repositories.gst;
+
+import com.jangid.forging_process_management_service.entities.gst.GspJob;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GspJobRepository extends CrudRepository<GspJob, Long> {
+
+    Optional<GspJob> findByTenantIdAndIdempotencyKey(Long tenantId, String idempotencyKey);
+
+    Optional<GspJob> findByIdAndTenantId(Long id, Long tenantId);
+
+    List<GspJob> findByTenantIdAndIdInOrderById(Long tenantId, Collection<Long> ids);
+
+    List<GspJob> findByTenantIdAndBatchReferenceOrderById(Long tenantId, String batchReference);
+
+    /**
+     * Claim due queued jobs, plus running jobs whose worker lease has expired, by marking them running
+     * under a new lease. Rows locked by another instance are skipped.
+     *
+     * @return ids of the claimed jobs
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE gsp_job
+        SET status = 'RUNNING',
+            attempt_count = attempt_count + 1,
+            locked_until = :lockedUntil,
+            started_at = :now,
+            updated_at = :now
+        WHERE id IN (
+            SELECT id
+            FROM gsp_job
+            WHERE (status = 'QUEUED' AND next_attempt_at <= :now)
+               OR (status = 'RUNNING' AND locked_until < :now)
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id
+    """, nativeQuery = true)
+    List<Long> claimDueJobs(@Param("now") LocalDateTime now,
+                            @Param("lockedUntil") LocalDateTime lockedUntil,
+                            @Param("limit") int limit);
+}
@@ -0,0 +1,96 @@
+package com.jangid.forging_process_management_service.repositories.gst;
+
+import com.jangid.forging_process_management_service.entities.gst.GspSession;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GspSessionRepository extends CrudRepository<GspSession, Long> {
+
+    Optional<GspSession> findBySessionTypeAndTokenHash(GspSessionType sessionType, String tokenHash);
+
+    long countBySessionTypeAndExpiresAtAfter(GspSessionType sessionType, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GspSession s WHERE s.sessionType = :sessionType AND s.tokenHash = :tokenHash")
+    int deleteBySessionTypeAndTokenHash(@Param("sessionType") GspSessionType sessionType,
+                                        @Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GspSession s WHERE s.sessionType = :sessionType AND s.tenantId = :tenantId")
+    int deleteBySessionTypeAndTenantId(@Param("sessionType") GspSessionType sessionType,
+                                       @Param("tenantId") Long tenantId);
+
+    /**
+     * Delete one batch of expired sessions; called repeatedly until fewer than {@code batchSize} rows are removed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM gsp_session
+        WHERE id IN (
+            SELECT id
+            FROM gsp_session
+            WHERE session_type = :sessionType
+              AND expires_at < :now
+            ORDER BY expires_at
+            LIMIT :batchSize
+        )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("sessionType") String sessionType,
+                           @Param("now") LocalDateTime now,
+                           @Param("batchSize") int batchSize);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE GspSession s SET s.lastAccessedAt = :now WHERE s.sessionType = :sessionType AND s.tokenHash = :tokenHash")
+    int touch(@Param("sessionType") GspSessionType sessionType,
+              @Param("tokenHash") String tokenHash,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Claim sessions whose auth token is due for renewal by setting a renewal lease.
+     * Rows locked by another instance are skipped, and claimed rows are not returned again until the lease expires.
+     *
+     * @return ids of the claimed sessions
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE gsp_session
+        SET renewal_claimed_until = :claimUntil
+        WHERE id IN (
+            SELECT id
+            FROM gsp_session
+            WHERE session_type = :sessionType
+              AND gsp_server_id IS NOT NULL
+              AND token_expires_at <= :renewBefore
+              AND expires_at > :now
+              AND last_accessed_at >= :activeSince
+              AND (renewal_claimed_until IS NULL OR renewal_claimed_until < :now)
+            ORDER BY token_expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id
+    """, nativeQuery = true)
+    List<Long> claimForRenewal(@Param("sessionType") String sessionType,
+                               @Param("renewBefore") LocalDateTime renewBefore,
+                               @Param("activeSince") LocalDateTime activeSince,
+                               @Param("now") LocalDateTime now,
+                               @Param("claimUntil") LocalDateTime claimUntil,
+                               @Param("limit") int limit);
+
+    List<GspSession> findByIdIn(List<Long> ids);
+}
@@ -5,6 +5,7 @@ import com.jangid.forging_process_management_service.entities.gst.InvoiceDispatc
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,8 @@ public interface InvoiceDispatchBatchRepository extends CrudRepository<InvoiceDi
 
   List<InvoiceDispatchBatch> findByDispatchBatchIdAndDeletedFalse(Long dispatchBatchId);
 
+  List<InvoiceDispatchBatch> findByDispatchBatchIdInAndDeletedFalse(Collection<Long> dispatchBatchIds);
+
   List<InvoiceDispatchBatch> findByInvoiceIdAndDeletedFalseOrderBySequenceOrderAsc(Long invoiceId);
 
   boolean existsByInvoiceIdAndDispatchBatchIdAndDeletedFalse(Long invoiceId, Long dispatchBatchId);
@@ -2,16 +2,21 @@ package com.jangid.forging_process_management_service.repositories.gst;
 
 import com.jangid.forging_process_management_service.entities.gst.Invoice;
 import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
+import com.jangid.forging_process_management_service.entities.gst.InvoiceType;
+import com.jangid.forging_process_management_service.entities.order.WorkType;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,20 +50,42 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
            "AND i.deleted = false ORDER BY i.createdAt ASC")
     List<Invoice> findPendingApprovalInvoices(@Param("tenantId") Long tenantId);
 
-    // Search invoices by multiple criteria
-    @Query("SELECT i FROM Invoice i WHERE i.tenant.id = :tenantId AND i.deleted = false " +
-           "AND (:status IS NULL OR i.status = :status) " +
-           "AND (:buyerEntityId IS NULL OR i.buyer.id = :buyerId) " +
-           "AND (:fromDate IS NULL OR i.invoiceDate >= :fromDate) " +
-           "AND (:toDate IS NULL OR i.invoiceDate <= :toDate) " +
-           "AND (:searchTerm IS NULL OR LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Invoice> searchInvoices(@Param("tenantId") Long tenantId,
-                                 @Param("status") InvoiceStatus status,
-                                 @Param("buyerId") Long buyerId,
-                                 @Param("fromDate") LocalDateTime fromDate,
-                                 @Param("toDate") LocalDateTime toDate,
-                                 @Param("searchTerm") String searchTerm,
-                                 Pageable pageable);
+    /**
+     * One page of invoice list rows: the invoice's own columns plus the recipient's name and GSTIN,
+     * without loading invoices, line items or dispatch batch links. Null filters are ignored.
+     */
+    @Query(value = "SELECT i.id AS id, i.invoiceNumber AS invoiceNumber, i.invoiceDate AS invoiceDate, " +
+                   "i.invoiceType AS invoiceType, i.workType AS workType, i.isManualInvoice AS isManualInvoice, " +
+                   "i.status AS status, i.orderId AS orderId, i.customerPoNumber AS customerPoNumber, " +
+                   "b.id AS buyerId, v.id AS vendorId, " +
+                   "COALESCE(be.buyerEntityName, ve.vendorEntityName) AS recipientName, " +
+                   "COALESCE(be.gstinUin, ve.gstinUin) AS recipientGstin, " +
+                   "i.totalTaxableValue AS totalTaxableValue, i.totalCgstAmount AS totalCgstAmount, " +
+                   "i.totalSgstAmount AS totalSgstAmount, i.totalIgstAmount AS totalIgstAmount, " +
+                   "i.totalInvoiceValue AS totalInvoiceValue, i.totalPaidAmount AS totalPaidAmount, " +
+                   "i.dueDate AS dueDate, i.irn AS irn, i.ewayBillNumber AS ewayBillNumber, i.createdAt AS createdAt " +
+                   "FROM Invoice i " +
+                   "LEFT JOIN i.buyer b LEFT JOIN i.vendor v " +
+                   "LEFT JOIN i.buyerBillingEntity be LEFT JOIN i.vendorBillingEntity ve " +
+                   "WHERE i.tenant.id = :tenantId AND i.deleted = false " +
+                   "AND (:status IS NULL OR i.status = :status) " +
+                   "AND (:buyerId IS NULL OR b.id = :buyerId) " +
+                   "AND (:fromDate IS NULL OR i.invoiceDate >= :fromDate) " +
+                   "AND (:toDate IS NULL OR i.invoiceDate <= :toDate) " +
+                   "AND (:searchTerm IS NULL OR LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+           countQuery = "SELECT COUNT(i) FROM Invoice i WHERE i.tenant.id = :tenantId AND i.deleted = false " +
+                        "AND (:status IS NULL OR i.status = :status) " +
+                        "AND (:buyerId IS NULL OR i.buyer.id = :buyerId) " +
+                        "AND (:fromDate IS NULL OR i.invoiceDate >= :fromDate) " +
+                        "AND (:toDate IS NULL OR i.invoiceDate <= :toDate) " +
+                        "AND (:searchTerm IS NULL OR LOWER(i.invoiceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<InvoiceSummary> findInvoiceSummaries(@Param("tenantId") Long tenantId,
+                                              @Param("status") InvoiceStatus status,
+                                              @Param("buyerId") Long buyerId,
+                                              @Param("fromDate") LocalDateTime fromDate,
+                                              @Param("toDate") LocalDateTime toDate,
+                                              @Param("searchTerm") String searchTerm,
+                                              Pageable pageable);
 
     // Count by status and tenant
     long countByTenantIdAndStatusAndDeletedFalse(Long tenantId, InvoiceStatus status);
@@ -71,4 +98,55 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
                                               @Param("status") InvoiceStatus status,
                                               @Param("fromDate") LocalDateTime fromDate,
                                               @Param("toDate") LocalDateTime toDate);
-}
\ No newline at end of file
+
+    // Ids of invoices eligible for E-Way Bill JSON export, in document date order
+    @Query("SELECT i.id FROM Invoice i WHERE i.tenant.id = :tenantId AND i.deleted = false " +
+           "AND i.status IN :statuses AND i.invoiceDate >= :fromDate AND i.invoiceDate < :toDate " +
+           "ORDER BY i.invoiceDate, i.id")
+    List<Long> findIdsByTenantIdAndStatusInAndInvoiceDateRange(@Param("tenantId") Long tenantId,
+                                                               @Param("statuses") Collection<InvoiceStatus> statuses,
+                                                               @Param("fromDate") LocalDateTime fromDate,
+                                                               @Param("toDate") LocalDateTime toDate);
+
+    @Query("SELECT i.id FROM Invoice i WHERE i.tenant.id = :tenantId AND i.deleted = false " +
+           "AND i.status IN :statuses AND i.id IN :ids")
+    List<Long> findIdsByTenantIdAndStatusInAndIdIn(@Param("tenantId") Long tenantId,
+                                                   @Param("statuses") Collection<InvoiceStatus> statuses,
+                                                   @Param("ids") Collection<Long> ids);
+
+    // Load a batch of invoices with everything the E-Way Bill mapping reads, in one query
+    @EntityGraph(attributePaths = {"lineItems", "buyer", "buyerBillingEntity", "buyerShippingEntity",
+                                   "vendor", "vendorBillingEntity", "vendorShippingEntity"})
+    @Query("SELECT i FROM Invoice i WHERE i.tenant.id = :tenantId AND i.deleted = false AND i.id IN :ids")
+    List<Invoice> findWithEwayBillDetailsByTenantIdAndIdIn(@Param("tenantId") Long tenantId,
+                                                          @Param("ids") Collection<Long> ids);
+
+    /**
+     * Invoice list row, see {@link #findInvoiceSummaries}
+     */
+    interface InvoiceSummary {
+        Long getId();
+        String getInvoiceNumber();
+        LocalDateTime getInvoiceDate();
+        InvoiceType getInvoiceType();
+        WorkType getWorkType();
+        Boolean getIsManualInvoice();
+        InvoiceStatus getStatus();
+        Long getOrderId();
+        String getCustomerPoNumber();
+        Long getBuyerId();
+        Long getVendorId();
+        String getRecipientName();
+        String getRecipientGstin();
+        BigDecimal getTotalTaxableValue();
+        BigDecimal getTotalCgstAmount();
+        BigDecimal getTotalSgstAmount();
+        BigDecimal getTotalIgstAmount();
+        BigDecimal getTotalInvoiceValue();
+        BigDecimal getTotalPaidAmount();
+        LocalDate getDueDate();
+        String getIrn();
+        String getEwayBillNumber();
+        LocalDateTime getCreatedAt();
+    }
+}
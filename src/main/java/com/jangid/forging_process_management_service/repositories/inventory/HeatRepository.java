@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,20 @@ public interface HeatRepository extends CrudRepository<Heat, Long> {
   // For heat status management - can find any heat regardless of active status
   Optional<Heat> findByIdAndDeletedFalse(long heatId);
 
+  /**
+   * Prefetch active heats with their raw material product and product in a single query
+   */
+  @Query("""
+        SELECT h
+        FROM heat h
+        JOIN FETCH h.rawMaterialProduct rmp
+        JOIN FETCH rmp.product p
+        WHERE h.id IN :heatIds
+          AND h.active = true
+          AND h.deleted = false
+    """)
+  List<Heat> findActiveHeatsWithProductByIdIn(@Param("heatIds") Collection<Long> heatIds);
+
 
   @Query("""
         SELECT h
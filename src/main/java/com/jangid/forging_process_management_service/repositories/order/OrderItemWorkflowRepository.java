@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +20,11 @@ public interface OrderItemWorkflowRepository extends JpaRepository<OrderItemWork
    */
   @Query("SELECT oiw FROM OrderItemWorkflow oiw WHERE oiw.itemWorkflow.id = :itemWorkflowId")
   Optional<OrderItemWorkflow> findByItemWorkflowId(@Param("itemWorkflowId") Long itemWorkflowId);
+
+  /**
+   * Find the OrderItemWorkflows of several ItemWorkflows, with their order item and order
+   */
+  @Query("SELECT oiw FROM OrderItemWorkflow oiw JOIN FETCH oiw.orderItem oi JOIN FETCH oi.order " +
+         "WHERE oiw.itemWorkflow.id IN :itemWorkflowIds")
+  List<OrderItemWorkflow> findWithOrderByItemWorkflowIdIn(@Param("itemWorkflowIds") Collection<Long> itemWorkflowIds);
 }
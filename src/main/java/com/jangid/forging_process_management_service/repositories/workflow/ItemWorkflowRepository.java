@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface ItemWorkflowRepository extends JpaRepository<ItemWorkflow, Long
 
     List<ItemWorkflow> findByItemIdAndDeletedFalse(Long itemId);
 
+    @Query("SELECT iw FROM ItemWorkflow iw JOIN FETCH iw.item WHERE iw.id IN :ids")
+    List<ItemWorkflow> findWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT iw FROM ItemWorkflow iw WHERE iw.workflowIdentifier = :workflowIdentifier AND iw.deleted = false")
     List<ItemWorkflow> findByWorkflowIdentifierAndDeletedFalse(@Param("workflowIdentifier") String workflowIdentifier);
 
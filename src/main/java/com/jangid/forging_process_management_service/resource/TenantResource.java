@@ -8,6 +8,8 @@ import com.jangid.forging_process_management_service.utils.GenericExceptionHandl
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.hibernate.Hibernate;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,7 +42,8 @@ public class TenantResource {
   public ResponseEntity<?> getTenant() {
     try {
       Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
-      Tenant tenant = tenantService.getTenantById(tenantId);
+      // Loaded, as the tenant may be an uninitialized reference that cannot be serialized
+      Tenant tenant = Hibernate.unproxy(tenantService.getTenantById(tenantId), Tenant.class);
       return ResponseEntity.ok(tenant);
     } catch (Exception exception) {
       return GenericExceptionHandler.handleException(exception, "getTenantById");
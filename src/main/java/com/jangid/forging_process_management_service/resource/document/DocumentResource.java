@@ -4,33 +4,44 @@ import com.jangid.forging_process_management_service.configuration.security.Tena
 import com.jangid.forging_process_management_service.entities.document.Document;
 import com.jangid.forging_process_management_service.entities.document.DocumentCategory;
 import com.jangid.forging_process_management_service.entities.document.DocumentLink;
+import com.jangid.forging_process_management_service.service.document.DecompressedDocumentCache;
 import com.jangid.forging_process_management_service.service.document.DocumentService;
+import com.jangid.forging_process_management_service.service.document.StorageQuotaReservationService;
 import com.jangid.forging_process_management_service.utils.GenericResourceUtils;
 import com.jangid.forging_process_management_service.utils.GenericExceptionHandler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,6 +52,11 @@ import java.util.stream.Collectors;
 public class DocumentResource {
 
     private final DocumentService documentService;
+    private final DecompressedDocumentCache decompressedDocumentCache;
+    private final StorageQuotaReservationService storageQuotaReservations;
+
+    @Value("${fopmas.documents.download.cache-max-age-seconds:86400}")
+    private long downloadCacheMaxAgeSeconds;
 
     @PostMapping("entities/{entityType}/{entityId}/documents")
     public ResponseEntity<?> attachDocumentsToEntity(
@@ -74,10 +90,20 @@ public class DocumentResource {
             // Convert files to list
             List<MultipartFile> fileList = Arrays.asList(files);
 
+            // Reserve the upload's size against the storage quota before the upload transaction takes a connection;
+            // the upload takes the reservation over, it is released here if the upload fails before that
+            StorageQuotaReservationService.Reservation reservation = storageQuotaReservations.reserve(
+                tenantIdLongValue, fileList.stream().mapToLong(MultipartFile::getSize).sum());
+
             // Attach documents
-            List<Document> documents = documentService.attachDocumentsToEntity(
-                tenantIdLongValue, entityTypeEnum, entityIdLong, fileList,
-                    category, title, description, tags);
+            List<Document> documents;
+            try {
+                documents = documentService.attachDocumentsToEntity(
+                    tenantIdLongValue, entityTypeEnum, entityIdLong, fileList,
+                        category, title, description, tags, reservation);
+            } finally {
+                storageQuotaReservations.releaseUnlessAttached(reservation);
+            }
 
             // Build response
             Map<String, Object> response = new HashMap<>();
@@ -129,8 +155,46 @@ public class DocumentResource {
         }
     }
 
+    @GetMapping("entities/{entityType}/{entityId}/documents/archive")
+    public ResponseEntity<?> downloadEntityDocumentsArchive(
+            @PathVariable String entityType,
+            @PathVariable String entityId) {
+
+        try {
+            Long tenantIdLongValue = TenantContextHolder.getAuthenticatedTenantId();
+
+            // Parse entity type
+            DocumentLink.EntityType entityTypeEnum = DocumentLink.EntityType.valueOf(entityType.toUpperCase());
+
+            // Parse entity ID
+            Long entityIdLong = GenericResourceUtils.convertResourceIdToLong(entityId)
+                    .orElseThrow(() -> new RuntimeException("Invalid entity ID: " + entityId));
+
+            List<Document> documents = documentService.getDocumentsForEntity(tenantIdLongValue, entityTypeEnum, entityIdLong);
+            if (documents.isEmpty()) {
+                throw new RuntimeException("No documents found for " + entityTypeEnum + " " + entityIdLong);
+            }
+
+            // The archive is built while it is sent, one stored file at a time
+            String archiveName = entityTypeEnum.name().toLowerCase() + "-" + entityIdLong + "-documents.zip";
+            StreamingResponseBody body = outputStream -> {
+                int archived = documentService.writeDocumentArchive(documents, outputStream);
+                log.debug("Streamed archive {} with {} of {} documents", archiveName, archived, documents.size());
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archiveName + "\"")
+                    .body(body);
+
+        } catch (Exception exception) {
+            return GenericExceptionHandler.handleException(exception, "downloadEntityDocumentsArchive");
+        }
+    }
+
     @GetMapping("documents/{documentId}/download")
-    public ResponseEntity<Resource> downloadDocument(@PathVariable String documentId) {
+    public ResponseEntity<?> downloadDocument(
+            @PathVariable String documentId,
+            @RequestHeader HttpHeaders requestHeaders) {
         try {
             Long tenantIdLongValue = TenantContextHolder.getAuthenticatedTenantId();
 
@@ -138,48 +202,90 @@ public class DocumentResource {
                     .orElseThrow(() -> new RuntimeException("Invalid document ID: " + documentId));
 
             Document document = documentService.getDocumentByIdAndTenantId(docId, tenantIdLongValue);
+            boolean storedCompressed = Boolean.TRUE.equals(document.getIsCompressed());
+            boolean rangeRequested = StringUtils.hasText(requestHeaders.getFirst(HttpHeaders.RANGE));
+
+            // Compressed documents are sent gzip encoded as stored, unless byte ranges of the original content are requested
+            boolean gzipEncoded = storedCompressed && !rangeRequested
+                    && acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+            // Documents never change once uploaded, so their content hash identifies the representation
+            String eTag = "\"" + document.getFileHash() + (gzipEncoded ? "-gzip" : "") + "\"";
+            long lastModified = document.getCreatedAt() != null
+                    ? document.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : -1;
+
+            HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.setETag(eTag);
+            if (lastModified >= 0) {
+                responseHeaders.setLastModified(lastModified);
+            }
+            responseHeaders.setCacheControl(CacheControl.maxAge(downloadCacheMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate());
+            responseHeaders.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (storedCompressed) {
+                responseHeaders.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
 
-            Resource resource;
-            Path storedFilePath = Paths.get(document.getFilePath());
-            
-            // Check if stored file exists
-            if (!Files.exists(storedFilePath)) {
-                throw new RuntimeException("Stored file not found: " + document.getFilePath());
+            // Conditional GET is answered before touching the stored file
+            if (isNotModified(requestHeaders, eTag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(responseHeaders).build();
             }
-            
-            // Handle based on whether the stored file is compressed or not
-            if (document.getIsCompressed()) {
-                // Stored file is compressed, decompress before serving
-                try {
-                    byte[] decompressedData = documentService.decompressFile(storedFilePath);
-                    resource = new ByteArrayResource(decompressedData);
-                    
-                    log.debug("Serving decompressed file: {} (decompressed: {} bytes, stored compressed: {} bytes)", 
-                        document.getOriginalFileName(), 
-                        decompressedData.length, 
-                        Files.size(storedFilePath));
-                        
-                } catch (Exception e) {
-                    log.error("Failed to decompress file {}: {}", document.getOriginalFileName(), e.getMessage());
-                    throw new RuntimeException("Failed to decompress file for download", e);
+
+            responseHeaders.setContentType(StringUtils.hasText(document.getMimeType())
+                    ? MediaType.parseMediaType(document.getMimeType())
+                    : MediaType.APPLICATION_OCTET_STREAM);
+            responseHeaders.set(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + document.getOriginalFileName() + "\"");
+
+            Path storedFilePath = documentService.getStoredFilePath(document);
+
+            if (rangeRequested) {
+                if (isRangeCurrent(requestHeaders, eTag, lastModified)) {
+                    // Ranges of compressed documents are served from a seekable decompressed copy
+                    Resource content = storedCompressed
+                            ? openDecompressedCopy(tenantIdLongValue, document)
+                            : new FileSystemResource(storedFilePath);
+                    return partialContent(requestHeaders, responseHeaders, content);
                 }
-            } else {
-                // Stored file is not compressed, serve directly
-                resource = new UrlResource(storedFilePath.toUri());
-                
-                if (!resource.isReadable()) {
-                    throw new RuntimeException("File not readable");
+
+                // The client's copy is outdated (If-Range did not match), send the whole content
+                if (document.getFileSizeBytes() != null) {
+                    responseHeaders.setContentLength(document.getFileSizeBytes());
                 }
-                
-                log.debug("Serving original file: {} ({} bytes)", 
-                    document.getOriginalFileName(), Files.size(storedFilePath));
+                StreamingResponseBody body = outputStream -> documentService.writeDocumentContent(document, outputStream);
+                return ResponseEntity.ok().headers(responseHeaders).body(body);
             }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(document.getMimeType()))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + document.getOriginalFileName() + "\"")
-                    .body(resource);
+            long storedFileSize = Files.size(storedFilePath);
+
+            // Stored file is not compressed, serve it straight from disk
+            if (!storedCompressed) {
+                log.debug("Serving original file: {} ({} bytes)", document.getOriginalFileName(), storedFileSize);
+                return ResponseEntity.ok()
+                        .headers(responseHeaders)
+                        .contentLength(storedFileSize)
+                        .body(new FileSystemResource(storedFilePath));
+            }
+
+            // Stored file is GZIP compressed and the client accepts gzip, send the stored bytes as they are
+            if (gzipEncoded) {
+                log.debug("Serving compressed file as gzip content encoding: {} ({} bytes)",
+                    document.getOriginalFileName(), storedFileSize);
+                return ResponseEntity.ok()
+                        .headers(responseHeaders)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .contentLength(storedFileSize)
+                        .body(new FileSystemResource(storedFilePath));
+            }
+
+            // Otherwise inflate while streaming, without holding the decompressed file in memory
+            log.debug("Serving decompressed file: {} (original: {} bytes, stored compressed: {} bytes)",
+                document.getOriginalFileName(), document.getFileSizeBytes(), storedFileSize);
+            if (document.getFileSizeBytes() != null) {
+                responseHeaders.setContentLength(document.getFileSizeBytes());
+            }
+            StreamingResponseBody body = outputStream -> documentService.writeDocumentContent(document, outputStream);
+            return ResponseEntity.ok().headers(responseHeaders).body(body);
 
         } catch (Exception exception) {
             log.error("Failed to download document {}", documentId, exception);
@@ -187,6 +293,104 @@ public class DocumentResource {
         }
     }
 
+    /**
+     * Decompressed copy of a compressed document, held open until the response has been written
+     */
+    private Resource openDecompressedCopy(Long tenantId, Document document) throws IOException {
+        DecompressedDocumentCache.OpenCopy copy = decompressedDocumentCache.open(tenantId, document.getFileHash(),
+                () -> documentService.openDocumentContent(document));
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "decompressedDocumentCopy", () -> closeQuietly(copy), RequestAttributes.SCOPE_REQUEST);
+        return copy;
+    }
+
+    private void closeQuietly(DecompressedDocumentCache.OpenCopy copy) {
+        try {
+            copy.close();
+        } catch (IOException e) {
+            log.debug("Could not close {}: {}", copy.getDescription(), e.getMessage());
+        }
+    }
+
+    /**
+     * 206 response with the requested byte ranges of the content, or 416 when none of them can be satisfied
+     */
+    private ResponseEntity<?> partialContent(HttpHeaders requestHeaders, HttpHeaders responseHeaders, Resource content)
+            throws IOException {
+        try {
+            List<ResourceRegion> regions = HttpRange.toResourceRegions(requestHeaders.getRange(), content);
+            // Content-Range and Content-Length are written per region by the message converter
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(responseHeaders);
+            return regions.size() == 1 ? response.body(regions.get(0)) : response.body(regions);
+        } catch (IllegalArgumentException e) {
+            log.debug("Unsatisfiable range {} for {}: {}", requestHeaders.getFirst(HttpHeaders.RANGE), content.getDescription(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .headers(responseHeaders)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + content.contentLength())
+                    .build();
+        }
+    }
+
+    /**
+     * Whether If-None-Match (weak comparison) or, without it, If-Modified-Since shows the client's copy is current
+     */
+    private boolean isNotModified(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return ifNoneMatch.stream()
+                    .anyMatch(tag -> "*".equals(tag) || withoutWeakPrefix(tag).equals(eTag));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Whether the Range header applies: there is no If-Range, or it matches the ETag (strong comparison) or the
+     * Last-Modified date exactly
+     */
+    private boolean isRangeCurrent(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return lastModified >= 0 && lastModified / 1000 == requestHeaders.getFirstDate(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String withoutWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip (listed, and not with q=0)
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.matches("(?i)q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     @DeleteMapping("documents/{documentId}")
     public ResponseEntity<?> deleteDocument(@PathVariable String documentId) {
         try {
@@ -371,7 +575,8 @@ public class DocumentResource {
             @RequestParam(required = false, defaultValue = "0") Integer page,
             @RequestParam(required = false, defaultValue = "20") Integer size,
             @RequestParam(required = false, defaultValue = "uploadDate") String sortBy,
-            @RequestParam(required = false, defaultValue = "DESC") String sortDirection) {
+            @RequestParam(required = false, defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor) {
 
         try {
             Long tenantIdLongValue = TenantContextHolder.getAuthenticatedTenantId();
@@ -404,37 +609,12 @@ public class DocumentResource {
             searchRequest.setSize(size);
             searchRequest.setSortBy(sortBy);
             searchRequest.setSortDirection(sortDirection);
+            searchRequest.setCursor(cursor);
 
             // Execute search
-            Page<Document> searchResults = documentService.searchDocuments(tenantIdLongValue, searchRequest);
+            DocumentService.DocumentSearchResult searchResults = documentService.searchDocuments(tenantIdLongValue, searchRequest);
 
-            // Build response
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("documents", searchResults.getContent().stream()
-                    .map(this::mapDocumentToResponse)
-                    .collect(Collectors.toList()));
-            
-            // Pagination info
-            Map<String, Object> pagination = new HashMap<>();
-            pagination.put("currentPage", searchResults.getNumber());
-            pagination.put("totalPages", searchResults.getTotalPages());
-            pagination.put("totalElements", searchResults.getTotalElements());
-            pagination.put("pageSize", searchResults.getSize());
-            pagination.put("hasNext", searchResults.hasNext());
-            pagination.put("hasPrevious", searchResults.hasPrevious());
-            pagination.put("isFirst", searchResults.isFirst());
-            pagination.put("isLast", searchResults.isLast());
-            response.put("pagination", pagination);
-
-            // Search info
-            Map<String, Object> searchInfo = new HashMap<>();
-            searchInfo.put("searchCriteria", buildSearchCriteriaInfo(searchRequest));
-            searchInfo.put("appliedFilters", countAppliedFilters(searchRequest));
-            searchInfo.put("resultCount", searchResults.getContent().size());
-            response.put("searchInfo", searchInfo);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(buildSearchResponse(searchRequest, searchResults));
 
         } catch (Exception exception) {
             return GenericExceptionHandler.handleException(exception, "searchDocuments");
@@ -455,41 +635,55 @@ public class DocumentResource {
             if (searchRequest.getSortDirection() == null) searchRequest.setSortDirection("DESC");
 
             // Execute search
-            Page<Document> searchResults = documentService.searchDocuments(tenantIdLongValue, searchRequest);
-
-            // Build response
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("documents", searchResults.getContent().stream()
-                    .map(this::mapDocumentToResponse)
-                    .collect(Collectors.toList()));
-            
-            // Pagination info
-            Map<String, Object> pagination = new HashMap<>();
-            pagination.put("currentPage", searchResults.getNumber());
-            pagination.put("totalPages", searchResults.getTotalPages());
-            pagination.put("totalElements", searchResults.getTotalElements());
-            pagination.put("pageSize", searchResults.getSize());
-            pagination.put("hasNext", searchResults.hasNext());
-            pagination.put("hasPrevious", searchResults.hasPrevious());
-            pagination.put("isFirst", searchResults.isFirst());
-            pagination.put("isLast", searchResults.isLast());
-            response.put("pagination", pagination);
-
-            // Search info
-            Map<String, Object> searchInfo = new HashMap<>();
-            searchInfo.put("searchCriteria", buildSearchCriteriaInfo(searchRequest));
-            searchInfo.put("appliedFilters", countAppliedFilters(searchRequest));
-            searchInfo.put("resultCount", searchResults.getContent().size());
-            response.put("searchInfo", searchInfo);
+            DocumentService.DocumentSearchResult searchResults = documentService.searchDocuments(tenantIdLongValue, searchRequest);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(buildSearchResponse(searchRequest, searchResults));
 
         } catch (Exception exception) {
             return GenericExceptionHandler.handleException(exception, "searchDocumentsAdvanced");
         }
     }
 
+    /**
+     * Build the search response: documents, pagination (totals only for offset pages) and search info
+     */
+    private Map<String, Object> buildSearchResponse(DocumentService.DocumentSearchRequest searchRequest,
+                                                    DocumentService.DocumentSearchResult searchResults) {
+        Slice<Document> documents = searchResults.documents();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("documents", documents.getContent().stream()
+                .map(this::mapDocumentToResponse)
+                .collect(Collectors.toList()));
+
+        // Pagination info
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("currentPage", documents.getNumber());
+        pagination.put("pageSize", documents.getSize());
+        pagination.put("hasNext", documents.hasNext());
+        pagination.put("hasPrevious", documents.hasPrevious());
+        pagination.put("isFirst", documents.isFirst());
+        pagination.put("isLast", documents.isLast());
+        if (documents instanceof Page<Document> page) {
+            pagination.put("totalPages", page.getTotalPages());
+            pagination.put("totalElements", page.getTotalElements());
+        }
+        if (searchResults.nextCursor() != null) {
+            pagination.put("nextCursor", searchResults.nextCursor());
+        }
+        response.put("pagination", pagination);
+
+        // Search info
+        Map<String, Object> searchInfo = new HashMap<>();
+        searchInfo.put("searchCriteria", buildSearchCriteriaInfo(searchRequest));
+        searchInfo.put("appliedFilters", countAppliedFilters(searchRequest));
+        searchInfo.put("resultCount", documents.getContent().size());
+        response.put("searchInfo", searchInfo);
+
+        return response;
+    }
+
     /**
      * Build search criteria information for response
      */
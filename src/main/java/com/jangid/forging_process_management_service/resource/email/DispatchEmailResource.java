@@ -173,7 +173,7 @@ public class DispatchEmailResource {
                 log.info("Validating SMTP credentials before async email send...");
                 
                 // Quick validation (2-3 seconds) - will throw exception if credentials are wrong
-                dispatchEmailService.validateSmtpCredentials(smtpConfig);
+                dispatchEmailService.validateSmtpCredentials(tenantId, smtpConfig);
                 
                 log.info("SMTP credentials validated. Queueing email for async send...");
                 
@@ -8,6 +8,8 @@ import com.jangid.forging_process_management_service.dto.gst.ChallanGenerationRe
 import com.jangid.forging_process_management_service.entities.gst.ChallanStatus;
 import com.jangid.forging_process_management_service.entities.gst.DeliveryChallan;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanRepresentation;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.DeliveryChallanSummaryRepresentation;
+import com.jangid.forging_process_management_service.repositories.gst.DeliveryChallanRepository;
 import com.jangid.forging_process_management_service.service.gst.ChallanService;
 import com.jangid.forging_process_management_service.utils.ConvertorUtils;
 import com.jangid.forging_process_management_service.utils.GenericExceptionHandler;
@@ -60,22 +62,16 @@ public class ChallanResource {
       Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
       Pageable pageable = PageRequest.of(page, size, sort);
 
-      Page<DeliveryChallan> challans;
       Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
 
-      if (status != null || fromDate != null || toDate != null || search != null) {
-        // Use search with filters
-        ChallanStatus challanStatus = status != null ? ChallanStatus.valueOf(status) : null;
-        LocalDateTime fromDateTime = fromDate != null ? ConvertorUtils.convertStringToLocalDateTime(fromDate) : null;
-        LocalDateTime toDateTime = toDate != null ? ConvertorUtils.convertStringToLocalDateTime(toDate) : null;
+      ChallanStatus challanStatus = status != null ? ChallanStatus.valueOf(status) : null;
+      LocalDateTime fromDateTime = fromDate != null ? ConvertorUtils.convertStringToLocalDateTime(fromDate) : null;
+      LocalDateTime toDateTime = toDate != null ? ConvertorUtils.convertStringToLocalDateTime(toDate) : null;
 
-        challans = challanService.searchChallans(tenantId, challanStatus, fromDateTime, toDateTime, search, pageable);
-      } else {
-        // Get all challans without specific filters
-        challans = challanService.getChallansByTenant(tenantId, pageable);
-      }
+      Page<DeliveryChallanRepository.ChallanSummary> challans = challanService.getChallanSummaries(
+          tenantId, challanStatus, fromDateTime, toDateTime, search, pageable);
 
-      Page<DeliveryChallanRepresentation> response = challans.map(challanAssembler::disassemble);
+      Page<DeliveryChallanSummaryRepresentation> response = challans.map(challanAssembler::disassembleSummary);
       return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception exception) {
       return GenericExceptionHandler.handleException(exception, "getAllChallans");
@@ -246,9 +242,9 @@ public class ChallanResource {
       ChallanStatus challanStatus = ChallanStatus.valueOf(status);
       Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-      Page<DeliveryChallan> challans = challanService.searchChallans(
+      Page<DeliveryChallanRepository.ChallanSummary> challans = challanService.getChallanSummaries(
           tenantId, challanStatus, null, null, null, pageable);
-      Page<DeliveryChallanRepresentation> response = challans.map(challanAssembler::disassemble);
+      Page<DeliveryChallanSummaryRepresentation> response = challans.map(challanAssembler::disassembleSummary);
 
       return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception exception) {
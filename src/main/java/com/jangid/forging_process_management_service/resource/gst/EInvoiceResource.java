@@ -1,5 +1,6 @@
 package com.jangid.forging_process_management_service.resource.gst;
 
+import com.jangid.forging_process_management_service.assemblers.gst.GspJobAssembler;
 import com.jangid.forging_process_management_service.assemblers.gst.InvoiceAssembler;
 import com.jangid.forging_process_management_service.configuration.security.TenantContextHolder;
 import com.jangid.forging_process_management_service.dto.gst.einvoice.*;
@@ -12,6 +13,7 @@ import com.jangid.forging_process_management_service.repository.gst.TenantEInvoi
 import com.jangid.forging_process_management_service.service.gst.EInvoiceAuthServiceWithSession;
 import com.jangid.forging_process_management_service.service.gst.EInvoiceSessionService;
 import com.jangid.forging_process_management_service.service.gst.GspEInvoiceService;
+import com.jangid.forging_process_management_service.service.gst.GspJobService;
 import com.jangid.forging_process_management_service.service.gst.GspServerConfigService;
 import com.jangid.forging_process_management_service.service.document.DocumentService;
 import com.jangid.forging_process_management_service.entities.document.Document;
@@ -56,6 +58,8 @@ public class EInvoiceResource {
     private final InvoiceAssembler invoiceAssembler;
     private final DocumentService documentService;
     private final GspServerConfigService gspServerConfigService;
+    private final GspJobService gspJobService;
+    private final GspJobAssembler gspJobAssembler;
 
     /**
      * Get available GSP servers for E-Invoice
@@ -278,6 +282,80 @@ public class EInvoiceResource {
         }
     }
 
+    /**
+     * Queue E-Invoice generation for an invoice and return immediately
+     * Poll GET /api/gsp/jobs/{jobId} for the IRN; the invoice is updated when the job succeeds
+     */
+    @PostMapping("/einvoice/invoices/{invoiceId}/generate-async")
+    @ApiOperation(value = "Queue E-Invoice generation for invoice",
+                  notes = "Queues the GSP call and returns the job (202 Accepted). Submitting again for the same invoice " +
+                          "returns the existing job unless it failed. " +
+                          "Requires either sessionToken (if session exists) or username/password (for new session).")
+    public ResponseEntity<?> generateEInvoiceAsync(
+        @ApiParam(value = "Invoice ID", required = true) @PathVariable Long invoiceId,
+        @ApiParam(value = "E-Invoice generation request with session credentials", required = true)
+        @Valid @RequestBody EInvoiceGenerateRequest request) {
+
+        Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+        log.info("Queuing E-Invoice generation for invoice: {}, tenant: {}", invoiceId, tenantId);
+
+        try {
+            String sessionToken = resolveSessionToken(tenantId, request.getSessionCredentials());
+
+            GspJobService.SubmittedJob submitted = gspJobService.submitEInvoiceGeneration(
+                tenantId, invoiceId, request.getEinvoiceData(), sessionToken, request.getSessionCredentials().getGspServerId());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("queued", submitted.queued());
+            result.put("sessionToken", sessionToken); // Return session token for frontend to cache
+            result.put("job", gspJobAssembler.dissemble(submitted.job()));
+            return ResponseEntity.accepted().body(result);
+
+        } catch (Exception e) {
+            log.error("Failed to queue E-Invoice generation for invoice {}: {}", invoiceId, e.getMessage(), e);
+            return GenericExceptionHandler.handleException(e, "generateEInvoiceAsync");
+        }
+    }
+
+    /**
+     * Queue E-Invoice generation for several approved invoices
+     * Poll GET /api/gsp/jobs?batchReference=... for progress
+     */
+    @PostMapping("/einvoice/invoices/bulk-generate")
+    @ApiOperation(value = "Queue E-Invoice generation for multiple approved invoices",
+                  notes = "Queues one job per invoice and returns the batch reference (202 Accepted). " +
+                          "Draft or cancelled invoices and invoices that already have an IRN are reported as rejected. " +
+                          "Requires either sessionToken (if session exists) or username/password (for new session).")
+    public ResponseEntity<?> bulkGenerateEInvoices(
+        @ApiParam(value = "Invoices with E-Invoice data and session credentials", required = true)
+        @Valid @RequestBody EInvoiceBulkGenerateRequest request) {
+
+        Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+        log.info("Queuing bulk E-Invoice generation for {} invoice(s), tenant: {}", request.getInvoices().size(), tenantId);
+
+        try {
+            String sessionToken = resolveSessionToken(tenantId, request.getSessionCredentials());
+
+            GspJobService.BulkSubmission submission = gspJobService.submitBulkEInvoiceGeneration(
+                tenantId, request.getInvoices(), sessionToken, request.getSessionCredentials().getGspServerId());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("batchReference", submission.batchReference());
+            result.put("sessionToken", sessionToken);
+            result.put("submittedCount", submission.jobs().size());
+            result.put("rejectedCount", submission.rejected().size());
+            result.put("jobs", submission.jobs().stream()
+                .map(submitted -> gspJobAssembler.dissemble(submitted.job()))
+                .toList());
+            result.put("rejected", submission.rejected());
+            return ResponseEntity.accepted().body(result);
+
+        } catch (Exception e) {
+            log.error("Failed to queue bulk E-Invoice generation: {}", e.getMessage(), e);
+            return GenericExceptionHandler.handleException(e, "bulkGenerateEInvoices");
+        }
+    }
+
     /**
      * Get E-Invoice details by IRN with session-based credentials
      */
@@ -408,6 +486,39 @@ public class EInvoiceResource {
         }
     }
 
+    /**
+     * Queue E-Way Bill generation from IRN and return immediately
+     */
+    @PostMapping("/einvoice/irn/{irn}/generate-ewb-async")
+    @ApiOperation(value = "Queue E-Way Bill generation from IRN",
+                  notes = "Queues the GSP call and returns the job (202 Accepted). The invoice is updated when the job succeeds. " +
+                          "Requires either sessionToken (if session exists) or username/password (for new session).")
+    public ResponseEntity<?> generateEwayBillByIrnAsync(
+        @ApiParam(value = "Invoice Reference Number (IRN)", required = true) @PathVariable String irn,
+        @ApiParam(value = "E-Way Bill generation request with session credentials", required = true)
+        @Valid @RequestBody EInvoiceEwbByIrnRequest request) {
+
+        Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+        log.info("Queuing E-Way Bill generation from IRN: {}, tenant: {}", irn, tenantId);
+
+        try {
+            String sessionToken = resolveSessionToken(tenantId, request.getSessionCredentials());
+
+            GspJobService.SubmittedJob submitted = gspJobService.submitEwayBillByIrn(
+                tenantId, irn, request.getEwbData(), sessionToken, request.getSessionCredentials().getGspServerId());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("queued", submitted.queued());
+            result.put("sessionToken", sessionToken);
+            result.put("job", gspJobAssembler.dissemble(submitted.job()));
+            return ResponseEntity.accepted().body(result);
+
+        } catch (Exception e) {
+            log.error("Failed to queue E-Way Bill generation from IRN {}: {}", irn, e.getMessage(), e);
+            return GenericExceptionHandler.handleException(e, "generateEwayBillByIrnAsync");
+        }
+    }
+
     /**
      * Generate E-Invoice with E-Way Bill and return merged PDF
      * 
@@ -1,7 +1,9 @@
 package com.jangid.forging_process_management_service.resource.gst;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jangid.forging_process_management_service.assemblers.gst.GspJobAssembler;
 import com.jangid.forging_process_management_service.configuration.security.TenantContextHolder;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillBulkExportRequest;
 import com.jangid.forging_process_management_service.dto.gst.EwayBillGenerateRequest;
 import com.jangid.forging_process_management_service.dto.gst.EwayBillJsonFormat;
 import com.jangid.forging_process_management_service.dto.gst.gsp.*;
@@ -13,10 +15,12 @@ import com.jangid.forging_process_management_service.entities.gst.TenantEwayBill
 import com.jangid.forging_process_management_service.repositories.gst.DeliveryChallanRepository;
 import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
 import com.jangid.forging_process_management_service.repository.gst.TenantEwayBillCredentialsRepository;
+import com.jangid.forging_process_management_service.service.gst.EwayBillBulkExportService;
 import com.jangid.forging_process_management_service.service.gst.EwayBillExportService;
 import com.jangid.forging_process_management_service.service.gst.EwayBillGenerationService;
 import com.jangid.forging_process_management_service.service.gst.GspAuthServiceWithSession;
 import com.jangid.forging_process_management_service.service.gst.GspEwayBillService;
+import com.jangid.forging_process_management_service.service.gst.GspJobService;
 import com.jangid.forging_process_management_service.service.document.DocumentService;
 import com.jangid.forging_process_management_service.entities.document.Document;
 import com.jangid.forging_process_management_service.entities.document.DocumentLink;
@@ -37,12 +41,15 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Unified REST API for E-Way Bill operations
@@ -56,6 +63,7 @@ import java.util.Map;
 public class EwayBillResource {
 
   private final EwayBillExportService ewayBillExportService;
+  private final EwayBillBulkExportService ewayBillBulkExportService;
   private final InvoiceRepository invoiceRepository;
   private final DeliveryChallanRepository challanRepository;
   private final ObjectMapper objectMapper;
@@ -67,6 +75,8 @@ public class EwayBillResource {
   private final EwayBillGenerationService ewayBillGenerationService;
   private final DocumentService documentService;
   private final GspServerConfigService gspServerConfigService;
+  private final GspJobService gspJobService;
+  private final GspJobAssembler gspJobAssembler;
 
   /**
    * Get available GSP servers for E-Way Bill
@@ -210,6 +220,56 @@ public class EwayBillResource {
 
   // ==================== GSP API Integration Endpoints ====================
 
+  /**
+   * Download E-Way Bill JSON for many invoices or challans at once
+   * Streams either one combined portal-format file or a ZIP of per-document files
+   */
+  @PostMapping("/eway-bill/export")
+  @ApiOperation(value = "Bulk download of E-Way Bill JSON for manual upload to GST portal",
+                notes = "Selects invoices or challans by id or by document date range and streams one NIC-compliant " +
+                        "bulk JSON file (format BULK_JSON) or a ZIP with one file per document (format ZIP). " +
+                        "X-Eway-Bill-Count is the number of documents in the file. Documents that are missing, " +
+                        "not in an exportable status or could not be mapped are listed in the X-Eway-Bill-Skipped-Ids header.")
+  public ResponseEntity<?> exportEwayBills(
+      @ApiParam(value = "Documents to export and output format", required = true)
+      @Valid @RequestBody EwayBillBulkExportRequest request) {
+
+    Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+    log.info("Bulk E-Way Bill export of {}s for tenant: {}", request.getDocumentType(), tenantId);
+
+    try {
+      // Resolve the documents up front so selection errors are returned as a normal error response
+      EwayBillBulkExportService.ExportPlan plan = ewayBillBulkExportService.plan(tenantId, request);
+
+      // Rendered before the response starts, so the headers count the documents actually written
+      EwayBillBulkExportService.RenderedExport export = ewayBillBulkExportService.render(tenantId, plan);
+      StreamingResponseBody body = outputStream -> {
+        try {
+          Files.copy(export.file(), outputStream);
+        } finally {
+          Files.deleteIfExists(export.file());
+        }
+      };
+
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + plan.fileName())
+          .header("X-Eway-Bill-Count", String.valueOf(export.exportedCount()))
+          .contentLength(export.size())
+          .contentType(plan.format() == EwayBillBulkExportRequest.ExportFormat.ZIP
+                       ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_JSON);
+      if (!export.skipped().isEmpty()) {
+        response.header("X-Eway-Bill-Skipped-Ids", export.skipped().keySet().stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(",")));
+      }
+      return response.body(body);
+
+    } catch (Exception e) {
+      log.error("Error exporting E-Way Bill JSON for tenant {}: {}", tenantId, e.getMessage(), e);
+      return GenericExceptionHandler.handleException(e, "exportEwayBills");
+    }
+  }
+
   /**
    * Generate E-Way Bill via GSP API for a specific invoice with session-based credentials
    */
@@ -243,8 +303,8 @@ public class EwayBillResource {
       // Step 2: Extract GSP Server ID from request
       String gspServerId = request.getSessionCredentials().getGspServerId();
 
-      // Step 3: Delegate to service layer with retry logic and session token
-      GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBillWithRetry(
+      // Step 3: Delegate to service layer with session token
+      GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBill(
           tenantId, invoice, request.getEwayBillData(), sessionToken, gspServerId);
 
       // Build success response
@@ -268,6 +328,41 @@ public class EwayBillResource {
     }
   }
 
+  /**
+   * Queue E-Way Bill generation for an invoice and return immediately
+   * Poll GET /api/gsp/jobs/{jobId} for the result; the invoice is updated when the job succeeds
+   */
+  @PostMapping("/invoices/{invoiceId}/eway-bill/gsp/generate-async")
+  @ApiOperation(value = "Queue E-Way Bill generation for invoice",
+                notes = "Queues the GSP call and returns the job (202 Accepted). Submitting again for the same invoice " +
+                        "returns the existing job unless it failed. " +
+                        "Requires either sessionToken (if session exists) or username/password (for new session).")
+  public ResponseEntity<?> generateEwayBillViaGspAsync(
+      @ApiParam(value = "Invoice ID", required = true) @PathVariable Long invoiceId,
+      @ApiParam(value = "E-Way Bill generation request with session credentials", required = true)
+      @Valid @RequestBody EwayBillGenerateRequest request) {
+
+    Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+    log.info("Queuing E-Way Bill generation for invoice: {}, tenant: {}", invoiceId, tenantId);
+
+    try {
+      String sessionToken = resolveSessionToken(tenantId, request.getSessionCredentials());
+
+      GspJobService.SubmittedJob submitted = gspJobService.submitInvoiceEwayBill(
+          tenantId, invoiceId, request.getEwayBillData(), sessionToken, request.getSessionCredentials().getGspServerId());
+
+      Map<String, Object> result = new HashMap<>();
+      result.put("queued", submitted.queued());
+      result.put("sessionToken", sessionToken); // Return session token for frontend to cache
+      result.put("job", gspJobAssembler.dissemble(submitted.job()));
+      return ResponseEntity.accepted().body(result);
+
+    } catch (Exception e) {
+      log.error("Failed to queue E-Way Bill generation for invoice {}: {}", invoiceId, e.getMessage(), e);
+      return GenericExceptionHandler.handleException(e, "generateEwayBillViaGspAsync");
+    }
+  }
+
   /**
    * Get E-Way Bill details from GSP API by E-Way Bill number with session-based credentials
    */
@@ -641,8 +736,8 @@ public class EwayBillResource {
       // Step 1.5: Extract GSP Server ID from request
       String gspServerId = request.getSessionCredentials().getGspServerId();
 
-      // Step 2: Delegate to service layer with retry logic and session token
-      GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBillWithRetry(
+      // Step 2: Delegate to service layer with session token
+      GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBill(
           tenantId, challan, request.getEwayBillData(), sessionToken, gspServerId);
 
       // Build success response
@@ -666,6 +761,39 @@ public class EwayBillResource {
     }
   }
 
+  /**
+   * Queue E-Way Bill generation for a delivery challan and return immediately
+   */
+  @PostMapping("/challans/{challanId}/eway-bill/gsp/generate-async")
+  @ApiOperation(value = "Queue E-Way Bill generation for delivery challan",
+                notes = "Queues the GSP call and returns the job (202 Accepted). The challan is updated when the job succeeds. " +
+                        "Requires either sessionToken (if session exists) or username/password (for new session).")
+  public ResponseEntity<?> generateChallanEwayBillViaGspAsync(
+      @ApiParam(value = "Challan ID", required = true) @PathVariable Long challanId,
+      @ApiParam(value = "E-Way Bill generation request with session credentials", required = true)
+      @Valid @RequestBody EwayBillGenerateRequest request) {
+
+    Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+    log.info("Queuing E-Way Bill generation for challan: {}, tenant: {}", challanId, tenantId);
+
+    try {
+      String sessionToken = resolveSessionToken(tenantId, request.getSessionCredentials());
+
+      GspJobService.SubmittedJob submitted = gspJobService.submitChallanEwayBill(
+          tenantId, challanId, request.getEwayBillData(), sessionToken, request.getSessionCredentials().getGspServerId());
+
+      Map<String, Object> result = new HashMap<>();
+      result.put("queued", submitted.queued());
+      result.put("sessionToken", sessionToken);
+      result.put("job", gspJobAssembler.dissemble(submitted.job()));
+      return ResponseEntity.accepted().body(result);
+
+    } catch (Exception e) {
+      log.error("Failed to queue E-Way Bill generation for challan {}: {}", challanId, e.getMessage(), e);
+      return GenericExceptionHandler.handleException(e, "generateChallanEwayBillViaGspAsync");
+    }
+  }
+
   /**
    * Print E-Way Bill via GSP API for delivery challan with session-based credentials
    * First checks if E-Way Bill PDF already exists as a document (cached)
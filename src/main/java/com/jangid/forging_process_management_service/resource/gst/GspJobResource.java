@@ -0,0 +1,97 @@
+package com.jangid.forging_process_management_service.resource.gst;
+
+import com.jangid.forging_process_management_service.assemblers.gst.GspJobAssembler;
+import com.jangid.forging_process_management_service.configuration.security.TenantContextHolder;
+import com.jangid.forging_process_management_service.entities.gst.GspJob;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.GspJobRepresentation;
+import com.jangid.forging_process_management_service.service.gst.GspJobService;
+import com.jangid.forging_process_management_service.utils.GenericExceptionHandler;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API for polling queued E-Invoice / E-Way Bill GSP jobs
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Slf4j
+@Api(tags = "GSP Job Status")
+public class GspJobResource {
+
+    private static final int MAX_JOB_IDS = 500;
+
+    private final GspJobService gspJobService;
+    private final GspJobAssembler gspJobAssembler;
+
+    @GetMapping("/gsp/jobs/{jobId}")
+    @ApiOperation(value = "Get the status of a queued GSP job")
+    public ResponseEntity<?> getJob(
+        @ApiParam(value = "Job ID", required = true) @PathVariable Long jobId) {
+        try {
+            Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+            return ResponseEntity.ok(gspJobAssembler.dissemble(gspJobService.getJob(tenantId, jobId)));
+        } catch (Exception e) {
+            log.error("Error fetching GSP job {}: {}", jobId, e.getMessage());
+            return GenericExceptionHandler.handleException(e, "getJob");
+        }
+    }
+
+    @GetMapping("/gsp/jobs")
+    @ApiOperation(value = "Get the status of several GSP jobs",
+                  notes = "Pass either the batchReference returned by a bulk submission or a list of job ids. " +
+                          "The response includes a count per status so clients can stop polling once nothing is pending.")
+    public ResponseEntity<?> getJobs(
+        @ApiParam(value = "Batch reference of a bulk submission") @RequestParam(required = false) String batchReference,
+        @ApiParam(value = "Job IDs") @RequestParam(required = false) List<Long> ids) {
+        try {
+            Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+            List<GspJob> jobs;
+            if (batchReference != null && !batchReference.isBlank()) {
+                jobs = gspJobService.getBatchJobs(tenantId, batchReference);
+            } else if (ids != null && !ids.isEmpty()) {
+                if (ids.size() > MAX_JOB_IDS) {
+                    throw new IllegalArgumentException("At most " + MAX_JOB_IDS + " job ids can be requested at once");
+                }
+                jobs = gspJobService.getJobs(tenantId, ids);
+            } else {
+                throw new IllegalArgumentException("Either batchReference or ids is required");
+            }
+
+            Map<String, Long> statusCounts = new HashMap<>();
+            for (GspJob.JobStatus status : GspJob.JobStatus.values()) {
+                statusCounts.put(status.name(), 0L);
+            }
+            jobs.forEach(job -> statusCounts.merge(job.getStatus().name(), 1L, Long::sum));
+
+            List<GspJobRepresentation> representations = jobs.stream().map(gspJobAssembler::dissemble).toList();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("batchReference", batchReference);
+            result.put("total", jobs.size());
+            result.put("statusCounts", statusCounts);
+            result.put("finished", jobs.stream().allMatch(GspJob::isFinished));
+            result.put("jobs", representations);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error fetching GSP jobs: {}", e.getMessage());
+            return GenericExceptionHandler.handleException(e, "getJobs");
+        }
+    }
+}
@@ -5,10 +5,15 @@ import com.jangid.forging_process_management_service.configuration.security.Tena
 import com.jangid.forging_process_management_service.entities.gst.Invoice;
 import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
 import com.jangid.forging_process_management_service.entities.dispatch.DispatchBatch;
+import com.jangid.forging_process_management_service.dto.gst.InvoiceBulkGenerationRequest;
 import com.jangid.forging_process_management_service.dto.gst.InvoiceGenerationRequest;
 import com.jangid.forging_process_management_service.dto.gst.CancelInvoiceRequest;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceBulkGenerationRepresentation;
 import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceRepresentation;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceSummaryRepresentation;
 import com.jangid.forging_process_management_service.entitiesRepresentation.dispatch.DispatchBatchRepresentation;
+import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
+import com.jangid.forging_process_management_service.service.gst.InvoiceBulkGenerationService;
 import com.jangid.forging_process_management_service.service.gst.InvoiceService;
 import com.jangid.forging_process_management_service.assemblers.dispatch.DispatchBatchAssembler;
 import com.jangid.forging_process_management_service.utils.ConvertorUtils;
@@ -43,6 +48,7 @@ import java.util.Map;
 public class InvoiceResource {
 
   private final InvoiceService invoiceService;
+  private final InvoiceBulkGenerationService invoiceBulkGenerationService;
   private final InvoiceAssembler invoiceAssembler;
   private final DispatchBatchAssembler dispatchBatchAssembler;
 
@@ -66,22 +72,14 @@ public class InvoiceResource {
       Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
       Pageable pageable = PageRequest.of(page, size, sort);
 
-      Page<Invoice> invoices;
+      InvoiceStatus invoiceStatus = status != null ? InvoiceStatus.valueOf(status) : null;
+      LocalDateTime fromDateTime = fromDate != null ? ConvertorUtils.convertStringToLocalDateTime(fromDate) : null;
+      LocalDateTime toDateTime = toDate != null ? ConvertorUtils.convertStringToLocalDateTime(toDate) : null;
 
-      if (status != null || buyerId != null || fromDate != null || toDate != null || search != null) {
-        // Use search with filters
-        InvoiceStatus invoiceStatus = status != null ? InvoiceStatus.valueOf(status) : null;
-        LocalDateTime fromDateTime = fromDate != null ? ConvertorUtils.convertStringToLocalDateTime(fromDate) : null;
-        LocalDateTime toDateTime = toDate != null ? ConvertorUtils.convertStringToLocalDateTime(toDate) : null;
+      Page<InvoiceRepository.InvoiceSummary> invoices = invoiceService.getInvoiceSummaries(
+          tenantId, invoiceStatus, buyerId, fromDateTime, toDateTime, search, pageable);
 
-        invoices = invoiceService.searchInvoices(tenantId, invoiceStatus, buyerId,
-                                                 fromDateTime, toDateTime, search, pageable);
-      } else {
-        // Get all invoices without specific filters
-        invoices = invoiceService.getInvoicesByTenant(tenantId, pageable);
-      }
-
-      Page<InvoiceRepresentation> response = invoices.map(invoiceAssembler::disassemble);
+      Page<InvoiceSummaryRepresentation> response = invoices.map(invoiceAssembler::disassembleSummary);
       return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception exception) {
       return GenericExceptionHandler.handleException(exception, "getAllInvoices");
@@ -155,6 +153,27 @@ public class InvoiceResource {
     }
   }
 
+  /**
+   * Generate draft invoices for several ready-to-dispatch batches, grouped per buyer, per purchase order or one per batch.
+   * Returns a per-invoice report; batches or invoices that fail do not stop the others.
+   */
+  @PostMapping("/accounting/invoices/bulk-generate")
+  @ApiOperation(value = "Generate draft invoices for multiple ready-to-dispatch batches with a per-invoice report")
+  public ResponseEntity<?> bulkGenerateInvoices(
+      @ApiParam(value = "Bulk invoice generation request", required = true)
+      @Valid @RequestBody InvoiceBulkGenerationRequest request) {
+    try {
+      Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+      log.info("Bulk generating invoices for tenant: {} from {} dispatch batch(es)",
+               tenantId, request.getDispatchBatchIds().size());
+
+      InvoiceBulkGenerationRepresentation result = invoiceBulkGenerationService.generateInvoices(tenantId, request);
+      return new ResponseEntity<>(result, HttpStatus.OK);
+    } catch (Exception exception) {
+      return GenericExceptionHandler.handleException(exception, "bulkGenerateInvoices");
+    }
+  }
+
   /**
    * Approve an invoice.
    */
@@ -248,8 +267,9 @@ public class InvoiceResource {
       InvoiceStatus invoiceStatus = InvoiceStatus.valueOf(status);
       Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-      Page<Invoice> invoices = invoiceService.getInvoicesByStatus(tenantId, invoiceStatus, pageable);
-      Page<InvoiceRepresentation> response = invoices.map(invoiceAssembler::disassemble);
+      Page<InvoiceRepository.InvoiceSummary> invoices = invoiceService.getInvoiceSummaries(
+          tenantId, invoiceStatus, null, null, null, null, pageable);
+      Page<InvoiceSummaryRepresentation> response = invoices.map(invoiceAssembler::disassembleSummary);
 
       return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception exception) {
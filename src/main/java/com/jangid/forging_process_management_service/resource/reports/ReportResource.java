@@ -1,5 +1,6 @@
 package com.jangid.forging_process_management_service.resource.reports;
 
+import com.jangid.forging_process_management_service.dto.reports.ReceivablesAgingReport;
 import com.jangid.forging_process_management_service.dto.reports.SalesSummaryReport;
 import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
 import com.jangid.forging_process_management_service.service.reports.ReportService;
@@ -11,13 +12,17 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -97,5 +102,58 @@ public class ReportResource {
       return GenericExceptionHandler.handleException(exception, "getSalesSummaryReport");
     }
   }
-}
 
+  /**
+   * Get Receivables Aging Report
+   * 
+   * Outstanding amounts of open invoices net of received payments, bucketed by days past due
+   * (not due, 0-30, 31-60, 61-90, over 90) per customer, as JSON or as a CSV download
+   * 
+   * @param asOfDate Date to age the invoices at (format: yyyy-MM-dd), defaults to today
+   * @param buyerId Optional buyer/customer filter
+   * @param format JSON (default) or CSV
+   * @return Receivables Aging Report
+   */
+  @GetMapping("/receivables-aging")
+  @ApiOperation(value = "Get Receivables Aging Report",
+                notes = "Outstanding receivables per customer in 0-30/31-60/61-90/90+ days past due buckets")
+  public ResponseEntity<?> getReceivablesAgingReport(
+      @ApiParam(value = "Aging date (yyyy-MM-dd), defaults to today", required = false, example = "2024-12-31")
+      @RequestParam(required = false) String asOfDate,
+
+      @ApiParam(value = "Buyer/Customer ID filter", required = false)
+      @RequestParam(required = false) Long buyerId,
+
+      @ApiParam(value = "Response format (JSON, CSV)", required = false, defaultValue = "JSON")
+      @RequestParam(required = false, defaultValue = "JSON") String format) {
+
+    try {
+      Long tenantId = TenantContextHolder.getAuthenticatedTenantId();
+      log.info("Generating receivables aging report for tenant: {}, as of: {}", tenantId, asOfDate);
+
+      boolean csv = "CSV".equalsIgnoreCase(format);
+      if (!csv && !"JSON".equalsIgnoreCase(format)) {
+        return new ResponseEntity<>("Invalid format value. Must be one of: JSON, CSV", HttpStatus.BAD_REQUEST);
+      }
+
+      LocalDate agingDate = asOfDate != null && !asOfDate.isEmpty()
+                            ? ConvertorUtils.convertStringToLocalDate(asOfDate) : LocalDate.now();
+
+      ReceivablesAgingReport report = reportService.getReceivablesAgingReport(tenantId, agingDate, buyerId);
+
+      if (!csv) {
+        return new ResponseEntity<>(report, HttpStatus.OK);
+      }
+
+      StreamingResponseBody body = outputStream -> reportService.writeReceivablesAgingCsv(report, outputStream);
+      return ResponseEntity.ok()
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=receivables_aging_" + agingDate + ".csv")
+          .contentType(MediaType.parseMediaType("text/csv"))
+          .body(body);
+
+    } catch (Exception exception) {
+      log.error("Error generating receivables aging report", exception);
+      return GenericExceptionHandler.handleException(exception, "getReceivablesAgingReport");
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package com.jangid.forging_process_management_service.resource.security;
 
 import com.jangid.forging_process_management_service.configuration.security.JwtTokenProvider;
-import com.jangid.forging_process_management_service.entities.Tenant;
 import com.jangid.forging_process_management_service.entities.security.TenantContext;
 import com.jangid.forging_process_management_service.entitiesRepresentation.security.LoginRequestRepresentation;
 import com.jangid.forging_process_management_service.entitiesRepresentation.security.LoginResponseRepresentation;
@@ -61,13 +60,13 @@ public class LoginController {
         .map(GrantedAuthority::getAuthority)
         .collect(Collectors.toSet());
 
-    Tenant tenant = tenantService.getTenantByTenantName(tenantName);
+    long tenantId = tenantService.getTenantIdByTenantName(tenantName);
 
     // Respond with token, user details, and roles
     LoginResponseRepresentation response = new LoginResponseRepresentation(
         token, 
         authentication.getName(), 
-        tenant.getId(), 
+        tenantId,
         tenantName,
         roles
     );
@@ -1,16 +1,25 @@
 package com.jangid.forging_process_management_service.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jangid.forging_process_management_service.entities.Tenant;
 import com.jangid.forging_process_management_service.exception.ResourceNotFoundException;
 import com.jangid.forging_process_management_service.repositories.TenantRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -21,20 +30,55 @@ import java.util.Optional;
 @Service
 public class TenantService {
   private final TenantRepository tenantRepository;
+  private final EntityManagerFactory entityManagerFactory;
+  private final MeterRegistry meterRegistry;
 
-  public TenantService(TenantRepository tenantRepository) {
+  // Identity of live tenants, resolved on every request by the authorization filter and the tenant checks of
+  // the services. Only ids and names are cached, never the mutable entity; absent tenants are not cached.
+  // The application never renames or deletes a tenant, so entries are not evicted: a name or deleted flag
+  // changed directly in the database is picked up once the entry expires (app.tenant.lookup-cache.ttl-seconds).
+  private final Cache<String, Long> tenantIdsByName;
+  private final Cache<Long, String> tenantNamesById;
+
+  public TenantService(TenantRepository tenantRepository,
+                       EntityManagerFactory entityManagerFactory,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.tenant.lookup-cache.max-size:1000}") long lookupCacheMaxSize,
+                       @Value("${app.tenant.lookup-cache.ttl-seconds:600}") long lookupCacheTtlSeconds) {
     this.tenantRepository = tenantRepository;
+    this.entityManagerFactory = entityManagerFactory;
+    this.meterRegistry = meterRegistry;
+    this.tenantIdsByName = Caffeine.newBuilder()
+        .maximumSize(lookupCacheMaxSize)
+        .expireAfterWrite(Duration.ofSeconds(lookupCacheTtlSeconds))
+        .build();
+    this.tenantNamesById = Caffeine.newBuilder()
+        .maximumSize(lookupCacheMaxSize)
+        .expireAfterWrite(Duration.ofSeconds(lookupCacheTtlSeconds))
+        .build();
   }
 
   @Transactional
   public Tenant createTenant(Tenant tenant) {
     tenant.setCreatedAt(LocalDateTime.now());
-    return tenantRepository.save(tenant);
+    Tenant savedTenant = tenantRepository.save(tenant);
+    cacheAfterCommit(savedTenant);
+    return savedTenant;
   }
 
-  @Cacheable(value = "tenants", key = "#tenantId")
+  /**
+   * The live tenant with this id. Within a transaction or request that holds a persistence context, a tenant known to
+   * the lookup cache is returned as a reference, which is only loaded if its state is read; most callers just attach
+   * it to the entities they create.
+   */
   public Tenant getTenantById(long tenantId){
-    Optional<Tenant> optionalTenant = tenantRepository.findByIdAndDeletedFalse(tenantId);
+    if (tenantNamesById.getIfPresent(tenantId) != null) {
+      EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+      if (entityManager != null) {
+        return entityManager.getReference(Tenant.class, tenantId);
+      }
+    }
+    Optional<Tenant> optionalTenant = findTenantById(tenantId);
     if (optionalTenant.isEmpty()){
       log.error("Tenant with id="+tenantId+" not found!");
       throw new RuntimeException("Tenant with id="+tenantId+" not found!");
@@ -43,16 +87,32 @@ public class TenantService {
   }
 
   public Tenant getTenantByTenantName(String tenantName){
+    meterRegistry.counter("tenant.lookup.queries", "by", "name").increment();
     Optional<Tenant> optionalTenant = tenantRepository.findByTenantNameAndDeletedFalse(tenantName);
     if (optionalTenant.isEmpty()){
       log.error("Tenant with name="+tenantName+" not found!");
       throw new RuntimeException("Tenant with name="+tenantName+" not found!");
     }
+    cache(optionalTenant.get());
     return optionalTenant.get();
   }
 
+  /**
+   * Id of the live tenant with this name, from the lookup cache when possible
+   */
+  public long getTenantIdByTenantName(String tenantName){
+    Long tenantId = tenantIdsByName.getIfPresent(tenantName);
+    if (tenantId != null) {
+      return tenantId;
+    }
+    return getTenantByTenantName(tenantName).getId();
+  }
+
   public boolean isTenantExists(long tenantId){
-    Optional<Tenant> optionalTenant = tenantRepository.findByIdAndDeletedFalse(tenantId);
+    if (tenantNamesById.getIfPresent(tenantId) != null) {
+      return true;
+    }
+    Optional<Tenant> optionalTenant = findTenantById(tenantId);
     if (optionalTenant.isEmpty()){
       log.error("Tenant with id="+tenantId+" not found!");
       return false;
@@ -73,7 +133,6 @@ public class TenantService {
   }
 
   @Transactional
-  @CacheEvict(value = "tenants", key = "#tenantId")
   public Tenant updateTenantConfigurations(Long tenantId, Map<String, Object> configurations) {
     Tenant tenant = getTenantById(tenantId);
     
@@ -91,6 +150,34 @@ public class TenantService {
     return tenantRepository.save(tenant);
   }
 
+  private Optional<Tenant> findTenantById(long tenantId) {
+    meterRegistry.counter("tenant.lookup.queries", "by", "id").increment();
+    Optional<Tenant> optionalTenant = tenantRepository.findByIdAndDeletedFalse(tenantId);
+    optionalTenant.ifPresent(this::cache);
+    return optionalTenant;
+  }
+
+  private void cache(Tenant tenant) {
+    if (tenant.isDeleted()) {
+      return;
+    }
+    tenantIdsByName.put(tenant.getTenantName(), tenant.getId());
+    tenantNamesById.put(tenant.getId(), tenant.getTenantName());
+  }
+
+  private void cacheAfterCommit(Tenant tenant) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      cache(tenant);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        cache(tenant);
+      }
+    });
+  }
+
   @Cacheable(value = "tenantConfigurations", key = "#tenantId + '_' + #configurationKey")
   public Object getTenantConfiguration(Long tenantId, String configurationKey) {
     Tenant tenant = getTenantById(tenantId);
@@ -37,8 +37,12 @@ import com.jangid.forging_process_management_service.utils.ConvertorUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManager;
+
 import lombok.extern.slf4j.Slf4j;
 
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
@@ -53,19 +57,28 @@ import com.jangid.forging_process_management_service.service.document.DocumentSe
 
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Slf4j
 @Service
 public class DispatchBatchService {
 
+  /**
+   * Statuses a batch can be reverted to READY_TO_DISPATCH from when its invoice is deleted or cancelled
+   */
+  private static final Set<DispatchBatch.DispatchBatchStatus> REVERTIBLE_TO_READY_STATUSES = EnumSet.complementOf(
+      EnumSet.of(DispatchBatch.DispatchBatchStatus.DISPATCHED, DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH));
+
   private final DispatchBatchRepository dispatchBatchRepository;
   private final DispatchProcessedItemConsumptionRepository dispatchProcessedItemConsumptionRepository;
   private final TenantService tenantService;
@@ -76,6 +89,7 @@ public class DispatchBatchService {
   private final ObjectMapper objectMapper;
   private final RawMaterialHeatService rawMaterialHeatService;
   private final DocumentService documentService;
+  private final EntityManager entityManager;
 
   @Autowired
   public DispatchBatchService(
@@ -88,7 +102,8 @@ public class DispatchBatchService {
       DispatchBatchAssembler dispatchBatchAssembler,
       ObjectMapper objectMapper,
       RawMaterialHeatService rawMaterialHeatService,
-      DocumentService documentService) {
+      DocumentService documentService,
+      EntityManager entityManager) {
     this.dispatchBatchRepository = dispatchBatchRepository;
     this.dispatchProcessedItemConsumptionRepository = dispatchProcessedItemConsumptionRepository;
     this.tenantService = tenantService;
@@ -99,6 +114,7 @@ public class DispatchBatchService {
     this.objectMapper = objectMapper;
     this.rawMaterialHeatService = rawMaterialHeatService;
     this.documentService = documentService;
+    this.entityManager = entityManager;
   }
 
   // Lazy injection to avoid circular dependency (DispatchBatchService -> InvoiceService -> DispatchBatchService)
@@ -1720,6 +1736,17 @@ public class DispatchBatchService {
     return dispatchBatchOptional.get();
   }
 
+  /**
+   * Dispatch batches of a tenant with the associations needed to build invoices, loaded in one query.
+   * Ids that do not exist (or belong to another tenant) are simply absent from the result.
+   */
+  public List<DispatchBatch> getDispatchBatchesForInvoicing(long tenantId, Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return dispatchBatchRepository.findForInvoicingByTenantIdAndIdIn(tenantId, ids);
+  }
+
   public List<DispatchStatisticsRepresentation> getDispatchStatisticsByMonthRange(
       long tenantId, int fromMonth, int fromYear, int toMonth, int toYear) {
     tenantService.validateTenantExists(tenantId);
@@ -1951,36 +1978,34 @@ public class DispatchBatchService {
 
   /**
    * Update multiple dispatch batches to INVOICE_DRAFT_CREATED status (when draft invoice is created)
+   * All batches are moved in a single statement; if any batch is not in READY_TO_DISPATCH the whole call fails.
    */
   @Transactional
   public void updateMultipleBatchesToInvoiceDraftCreated(List<Long> dispatchBatchIds) {
     log.info("Updating {} dispatch batches to INVOICE_DRAFT_CREATED status", dispatchBatchIds.size());
 
-    List<DispatchBatch> updatedBatches = new ArrayList<>();
-
-    for (Long batchId : dispatchBatchIds) {
-      DispatchBatch updatedBatch = updateStatusToInvoiceDraftCreated(batchId);
-      updatedBatches.add(updatedBatch);
-    }
+    int updatedCount = transitionMultipleBatches(dispatchBatchIds,
+                                                 EnumSet.of(DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH),
+                                                 DispatchBatch.DispatchBatchStatus.INVOICE_DRAFT_CREATED,
+                                                 "Dispatch batches must be in READY_TO_DISPATCH status to create draft invoice");
 
-    log.info("Successfully updated {} dispatch batches to INVOICE_DRAFT_CREATED status", updatedBatches.size());
+    log.info("Successfully updated {} dispatch batches to INVOICE_DRAFT_CREATED status", updatedCount);
   }
 
   /**
    * Update multiple dispatch batches from INVOICE_DRAFT_CREATED to DISPATCH_INVOICE_APPROVED status (for multi-batch invoices after approval)
+   * All batches are moved in a single statement; if any batch is not in INVOICE_DRAFT_CREATED the whole call fails.
    */
   @Transactional
   public void updateMultipleBatchesFromDraftToApproved(List<Long> dispatchBatchIds) {
     log.info("Updating {} dispatch batches from INVOICE_DRAFT_CREATED to DISPATCH_INVOICE_APPROVED status", dispatchBatchIds.size());
 
-    List<DispatchBatch> updatedBatches = new ArrayList<>();
-
-    for (Long batchId : dispatchBatchIds) {
-      DispatchBatch updatedBatch = updateStatusFromDraftToApproved(batchId);
-      updatedBatches.add(updatedBatch);
-    }
+    int updatedCount = transitionMultipleBatches(dispatchBatchIds,
+                                                 EnumSet.of(DispatchBatch.DispatchBatchStatus.INVOICE_DRAFT_CREATED),
+                                                 DispatchBatch.DispatchBatchStatus.DISPATCH_INVOICE_APPROVED,
+                                                 "Dispatch batches must be in INVOICE_DRAFT_CREATED status to approve invoice");
 
-    log.info("Successfully updated {} dispatch batches from INVOICE_DRAFT_CREATED to DISPATCH_INVOICE_APPROVED status", updatedBatches.size());
+    log.info("Successfully updated {} dispatch batches from INVOICE_DRAFT_CREATED to DISPATCH_INVOICE_APPROVED status", updatedCount);
   }
 
   /**
@@ -2046,6 +2071,18 @@ public class DispatchBatchService {
     return savedBatch;
   }
 
+  /**
+   * Revert multiple dispatch batches from INVOICE_DRAFT_CREATED back to READY_TO_DISPATCH (for invoice deletion)
+   */
+  @Transactional
+  public void revertMultipleBatchesFromDraftToReadyToDispatch(List<Long> dispatchBatchIds) {
+    log.info("Reverting {} dispatch batches from INVOICE_DRAFT_CREATED to READY_TO_DISPATCH status", dispatchBatchIds.size());
+
+    int revertedCount = revertMultipleBatchesToReadyToDispatch(dispatchBatchIds);
+
+    log.info("Successfully reverted {} dispatch batches from INVOICE_DRAFT_CREATED to READY_TO_DISPATCH status", revertedCount);
+  }
+
   /**
    * Revert multiple dispatch batches from DISPATCH_INVOICE_APPROVED back to READY_TO_DISPATCH (for invoice cancellation)
    */
@@ -2053,13 +2090,93 @@ public class DispatchBatchService {
   public void updateMultipleBatchesFromApprovedToReadyToDispatch(List<Long> dispatchBatchIds) {
     log.info("Reverting {} dispatch batches from DISPATCH_INVOICE_APPROVED to READY_TO_DISPATCH status", dispatchBatchIds.size());
 
-    List<DispatchBatch> updatedBatches = new ArrayList<>();
+    int revertedCount = revertMultipleBatchesToReadyToDispatch(dispatchBatchIds);
 
-    for (Long batchId : dispatchBatchIds) {
-      DispatchBatch updatedBatch = revertStatusFromApprovedToReadyToDispatch(batchId);
-      updatedBatches.add(updatedBatch);
+    log.info("Successfully reverted {} dispatch batches from DISPATCH_INVOICE_APPROVED to READY_TO_DISPATCH status", revertedCount);
+  }
+
+  /**
+   * Revert batches to READY_TO_DISPATCH in a single statement.
+   * Like the single-batch reverts, any non-dispatched status is reverted; batches already in
+   * READY_TO_DISPATCH are left untouched, and a dispatched or missing batch fails the whole call.
+   */
+  private int revertMultipleBatchesToReadyToDispatch(List<Long> dispatchBatchIds) {
+    Set<Long> ids = new LinkedHashSet<>(dispatchBatchIds);
+    List<Long> revertedIds = dispatchBatchRepository.transitionStatus(
+        ids, statusNames(REVERTIBLE_TO_READY_STATUSES), DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH.name());
+    refreshLoadedBatches(revertedIds);
+
+    if (revertedIds.size() < ids.size()) {
+      Set<Long> notReverted = new LinkedHashSet<>(ids);
+      revertedIds.forEach(notReverted::remove);
+
+      Map<Long, Object[]> statusById = findBatchStatuses(notReverted);
+      List<String> mismatches = new ArrayList<>();
+      for (Long id : notReverted) {
+        Object[] row = statusById.get(id);
+        if (row == null || row[2] != DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH) {
+          mismatches.add(describeBatchStatus(id, row));
+        }
+      }
+      if (!mismatches.isEmpty()) {
+        throw new IllegalStateException("Cannot revert status of dispatched or missing batches: " + String.join(", ", mismatches));
+      }
+      log.info("{} dispatch batches were already in READY_TO_DISPATCH status", notReverted.size());
     }
+    return revertedIds.size();
+  }
+
+  /**
+   * Move batches from one of the expected statuses to the target status in a single statement.
+   * If any batch is missing or in another status the transaction is failed with the offending batches listed.
+   */
+  private int transitionMultipleBatches(List<Long> dispatchBatchIds,
+                                        Set<DispatchBatch.DispatchBatchStatus> expectedStatuses,
+                                        DispatchBatch.DispatchBatchStatus targetStatus,
+                                        String mismatchMessage) {
+    Set<Long> ids = new LinkedHashSet<>(dispatchBatchIds);
+    List<Long> updatedIds = dispatchBatchRepository.transitionStatus(ids, statusNames(expectedStatuses), targetStatus.name());
+    refreshLoadedBatches(updatedIds);
+
+    if (updatedIds.size() < ids.size()) {
+      Set<Long> notUpdated = new LinkedHashSet<>(ids);
+      updatedIds.forEach(notUpdated::remove);
+
+      Map<Long, Object[]> statusById = findBatchStatuses(notUpdated);
+      String mismatches = notUpdated.stream()
+          .map(id -> describeBatchStatus(id, statusById.get(id)))
+          .collect(Collectors.joining(", "));
+      log.error("{} of {} dispatch batches could not be moved to {}: {}", notUpdated.size(), ids.size(), targetStatus, mismatches);
+      throw new IllegalStateException(mismatchMessage + ". Mismatched batches: " + mismatches);
+    }
+    return updatedIds.size();
+  }
+
+  /**
+   * Refresh the transitioned batches already loaded in this transaction (e.g. by invoice generation), so they carry the
+   * new status and version instead of failing the optimistic lock check when flushed later.
+   * Batches not loaded yet are left alone; they are read fresh when first used.
+   */
+  private void refreshLoadedBatches(List<Long> transitionedIds) {
+    Session session = entityManager.unwrap(Session.class);
+    for (Long id : transitionedIds) {
+      DispatchBatch dispatchBatch = session.getReference(DispatchBatch.class, id);
+      if (Hibernate.isInitialized(dispatchBatch)) {
+        session.refresh(dispatchBatch);
+      }
+    }
+  }
+
+  private Map<Long, Object[]> findBatchStatuses(Set<Long> ids) {
+    return dispatchBatchRepository.findBatchStatusesByIdIn(ids).stream()
+        .collect(Collectors.toMap(row -> (Long) row[0], row -> row));
+  }
+
+  private String describeBatchStatus(Long id, Object[] row) {
+    return row == null ? "id " + id + " (not found)" : row[1] + " (" + row[2] + ")";
+  }
 
-    log.info("Successfully reverted {} dispatch batches from DISPATCH_INVOICE_APPROVED to READY_TO_DISPATCH status", updatedBatches.size());
+  private List<String> statusNames(Set<DispatchBatch.DispatchBatchStatus> statuses) {
+    return statuses.stream().map(Enum::name).toList();
   }
 }
@@ -0,0 +1,229 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of decompressed copies of compressed documents, so byte ranges of their original content can be served
+ * from a seekable file. Entries are keyed by tenant and content hash (the content never changes) and the least
+ * recently used ones are removed once the cache grows beyond its size limit.
+ */
+@Slf4j
+@Component
+public class DecompressedDocumentCache {
+
+    /**
+     * Source of the decompressed content of a cache entry
+     */
+    @FunctionalInterface
+    public interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    private final Object evictionLock = new Object();
+
+    public DecompressedDocumentCache(@Value("${fopmas.documents.storage.base-path:/var/fopmas/documents}") String basePath,
+                                     @Value("${fopmas.documents.decompressed-cache.max-size-bytes:1073741824}") long maxSizeBytes) {
+        this.cacheDir = Paths.get(basePath, "cache", "decompressed");
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Open the decompressed copy of the content, writing it from the source on a miss. The copy is opened before it
+     * is returned, so it stays readable when the entry is evicted while a download is still reading it.
+     */
+    public OpenCopy open(Long tenantId, String contentHash, ContentSource source) throws IOException {
+        Path cachedFile = cacheDir.resolve(tenantId + "-" + contentHash);
+        try {
+            FileChannel channel = FileChannel.open(cachedFile, StandardOpenOption.READ);
+            touch(cachedFile);
+            return new OpenCopy(channel, cachedFile);
+        } catch (NoSuchFileException e) {
+            // Not cached yet, or evicted since
+        }
+
+        Files.createDirectories(cacheDir);
+        Path partFile = cacheDir.resolve(UUID.randomUUID() + ".part");
+        FileChannel channel = null;
+        try (InputStream content = source.open()) {
+            Files.copy(content, partFile);
+            // Opened before the move, as another miss may evict the entry as soon as it is in place
+            channel = FileChannel.open(partFile, StandardOpenOption.READ);
+            // Concurrent misses write identical content, whichever move comes last wins
+            Files.move(partFile, cachedFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            throw e;
+        } finally {
+            Files.deleteIfExists(partFile);
+        }
+        log.debug("Cached decompressed copy of {} for tenant {} ({} bytes)", contentHash, tenantId, channel.size());
+
+        evictIfOversized(cachedFile);
+        return new OpenCopy(channel, cachedFile);
+    }
+
+    private void touch(Path cachedFile) {
+        try {
+            Files.setLastModifiedTime(cachedFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Could not update last use of {}: {}", cachedFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove least recently used entries (never the one just added) until the cache fits its size limit
+     */
+    private void evictIfOversized(Path justAdded) {
+        synchronized (evictionLock) {
+            List<Path> entries;
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                entries = files
+                    .filter(file -> !file.getFileName().toString().endsWith(".part"))
+                    .sorted(Comparator.comparingLong(this::lastModifiedMillis))
+                    .collect(Collectors.toList());
+            } catch (IOException e) {
+                log.warn("Could not list decompressed document cache {}: {}", cacheDir, e.getMessage());
+                return;
+            }
+
+            long totalSize = entries.stream().mapToLong(this::sizeOf).sum();
+            for (Path entry : entries) {
+                if (totalSize <= maxSizeBytes) {
+                    break;
+                }
+                if (entry.equals(justAdded)) {
+                    continue;
+                }
+                long size = sizeOf(entry);
+                try {
+                    // Downloads reading the entry hold it open (see open), so deleting it does not cut them off
+                    Files.deleteIfExists(entry);
+                    totalSize -= size;
+                    log.debug("Evicted decompressed copy {} ({} bytes)", entry.getFileName(), size);
+                } catch (IOException e) {
+                    log.warn("Could not evict decompressed copy {}: {}", entry, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Decompressed copy held open for reading. Each input stream reads the copy from its start, and closing one
+     * leaves the file open, so byte ranges can be read one after another until the copy itself is closed.
+     */
+    public static final class OpenCopy extends AbstractResource implements Closeable {
+
+        private final FileChannel channel;
+        private final Path file;
+
+        private OpenCopy(FileChannel channel, Path file) {
+            this.channel = channel;
+            this.file = file;
+        }
+
+        @Override
+        public boolean exists() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new PositionalInputStream(channel);
+        }
+
+        @Override
+        public String getDescription() {
+            return "decompressed copy [" + file + "]";
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads the channel from its start with positional reads, without moving or closing the channel
+     */
+    private static final class PositionalInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+
+        private PositionalInputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, length), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0L, Math.min(n, channel.size() - position));
+            position += skipped;
+            return skipped;
+        }
+    }
+
+    private long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
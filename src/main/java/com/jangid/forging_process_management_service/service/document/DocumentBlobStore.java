@@ -0,0 +1,391 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.entities.Tenant;
+import com.jangid.forging_process_management_service.entities.document.Document;
+import com.jangid.forging_process_management_service.entities.document.DocumentBlob;
+import com.jangid.forging_process_management_service.repositories.document.DocumentBlobRepository;
+import com.jangid.forging_process_management_service.repositories.document.DocumentMetadataRepository;
+import com.jangid.forging_process_management_service.repositories.document.DocumentRepository;
+import com.jangid.forging_process_management_service.repositories.document.TenantStorageQuotaRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Content-addressed storage of document files.
+ *
+ * Each tenant stores a given content once, at {base}/tenants/{tenant_id}/blobs/{hash[0:2]}/{hash}[.gz], described by a
+ * reference-counted {@link DocumentBlob}. Uploading content the tenant already has only adds a reference; the file is
+ * deleted (after commit) when the last referencing document goes. The storage quota is charged once per blob.
+ *
+ * Content is stored as uploaded; compression candidates are queued for the {@link DocumentCompressionWorker}, which
+ * swaps in a compressed file through {@link #replaceWithCompressed}. The file it replaces is kept for a grace period, as
+ * downloads and archives that loaded their documents before the swap still open the old path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentBlobStore {
+
+    private static final int MAX_REFERENCE_ATTEMPTS = 3;
+    private static final int REPLACED_FILE_SWEEP_BATCH_SIZE = 100;
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentMetadataRepository documentMetadataRepository;
+    private final TenantStorageQuotaRepository quotaRepository;
+    private final StorageQuotaReservationService quotaReservations;
+
+    @Value("${fopmas.documents.storage.base-path:/var/fopmas/documents}")
+    private String basePath;
+
+    @Value("${fopmas.documents.compression.replaced-file-grace-minutes:60}")
+    private long replacedFileGraceMinutes;
+
+    /**
+     * Store content for one more document of the tenant and return its blob, with the new reference counted.
+     * The content is staged to disk in a single pass while it is hashed; if the tenant already has it, the staged file
+     * is dropped and nothing is charged to the quota. New compression candidates are left for the compression worker.
+     */
+    @Transactional
+    public DocumentBlob store(Tenant tenant, InputStream content, String mimeType, boolean compressionCandidate)
+            throws IOException {
+        Path stagedFile = newStagingFile(tenant.getId());
+        try {
+            StagedContent staged = stage(content, stagedFile);
+            return reference(tenant.getId(), staged, mimeType, compressionCandidate);
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    /**
+     * New file in the tenant's staging directory, on the same file system as its blobs so it can be moved into place
+     */
+    public Path newStagingFile(Long tenantId) throws IOException {
+        Path stagingDir = tenantBlobDir(tenantId).resolve("staging");
+        Files.createDirectories(stagingDir);
+        return stagingDir.resolve(UUID.randomUUID() + ".part");
+    }
+
+    /**
+     * Replace the stored file of a blob claimed by the compression worker with its GZIP compressed version.
+     * The blob and its documents point at the compressed file from commit on and the saved bytes are released from the
+     * quota. The uncompressed file stays in place for the grace period and is then deleted by
+     * {@link #deleteReplacedFiles}. Nothing changes when the blob lost its last reference
+     * or was processed by another worker meanwhile.
+     *
+     * @return whether the compressed file was swapped in
+     */
+    @Transactional
+    public boolean replaceWithCompressed(Long blobId, Path compressedFile, String codec) throws IOException {
+        Optional<DocumentBlob> lockedBlob = documentBlobRepository.findByIdForUpdate(blobId);
+        if (lockedBlob.isEmpty()) {
+            log.info("Blob {} was released while being compressed", blobId);
+            return false;
+        }
+        DocumentBlob blob = lockedBlob.get();
+        if (blob.getCompressionStatus() != DocumentBlob.CompressionStatus.RUNNING || Boolean.TRUE.equals(blob.getIsCompressed())) {
+            log.info("Blob {} is no longer claimed for compression ({})", blobId, blob.getCompressionStatus());
+            return false;
+        }
+
+        Long tenantId = blob.getTenant().getId();
+        Path uncompressedFile = Paths.get(blob.getStoragePath());
+        Path compressedPath = blobPath(tenantId, blob.getContentHash(), true);
+        long storedSize = Files.size(compressedFile);
+        long savedBytes = blob.getStoredSizeBytes() - storedSize;
+
+        Files.createDirectories(compressedPath.getParent());
+        Files.move(compressedFile, compressedPath, StandardCopyOption.ATOMIC_MOVE);
+        deleteOnRollback(compressedPath);
+
+        if (blob.getReplacedStoragePath() != null && !blob.getReplacedStoragePath().equals(uncompressedFile.toString())) {
+            // Not expected, as a blob is compressed once; its grace period is cut short rather than the file leaked
+            deleteFileOnCommit(Paths.get(blob.getReplacedStoragePath()));
+        }
+        blob.setReplacedStoragePath(uncompressedFile.toString());
+        blob.setReplacedFileDeleteAfter(LocalDateTime.now().plusMinutes(replacedFileGraceMinutes));
+        blob.setStoragePath(compressedPath.toString());
+        blob.setIsCompressed(true);
+        blob.setStoredSizeBytes(storedSize);
+        blob.setCompressionCodec(codec);
+        blob.setCompressionStatus(DocumentBlob.CompressionStatus.DONE);
+        blob.setCompressionLockedUntil(null);
+        documentBlobRepository.save(blob);
+
+        int documents = documentRepository.updateStoredFileOfBlob(blobId, compressedPath.toString(),
+            compressedPath.getFileName().toString(), storedSize);
+        documentMetadataRepository.updateStorageMetadataOfBlob(blobId, String.valueOf(storedSize));
+        quotaRepository.removeUsedStorage(tenantId, savedBytes);
+
+        log.info("Compressed blob {} of tenant {} with {}: {} -> {} bytes, {} document(s) updated",
+            blobId, tenantId, codec, blob.getOriginalSizeBytes(), storedSize, documents);
+        return true;
+    }
+
+    /**
+     * Drop the document's reference to its blob. The last reference removes the blob, releases its bytes from the
+     * quota and deletes its file once the transaction commits.
+     */
+    @Transactional
+    public void release(Document document) {
+        DocumentBlob blobReference = document.getBlob();
+        if (blobReference == null) {
+            return;
+        }
+        // Deleted documents no longer point at the blob, so it can be removed with its last reference
+        document.setBlob(null);
+
+        Optional<DocumentBlob> lockedBlob = documentBlobRepository.findByIdForUpdate(blobReference.getId());
+        if (lockedBlob.isEmpty()) {
+            log.warn("Blob {} of document {} no longer exists", blobReference.getId(), document.getId());
+            return;
+        }
+
+        DocumentBlob blob = lockedBlob.get();
+        int remainingReferences = blob.getReferenceCount() - 1;
+        if (remainingReferences > 0) {
+            blob.setReferenceCount(remainingReferences);
+            documentBlobRepository.save(blob);
+            log.debug("Released blob {} of document {}, {} references left", blob.getId(), document.getId(), remainingReferences);
+            return;
+        }
+
+        Long tenantId = document.getTenant().getId();
+        documentBlobRepository.delete(blob);
+        quotaRepository.removeUsedStorage(tenantId, blob.getStoredSizeBytes());
+        deleteFileOnCommit(Paths.get(blob.getStoragePath()));
+        if (blob.getReplacedStoragePath() != null) {
+            deleteFileOnCommit(Paths.get(blob.getReplacedStoragePath()));
+        }
+        log.info("Released last reference to blob {} of tenant {}, {} bytes freed", blob.getId(), tenantId, blob.getStoredSizeBytes());
+    }
+
+    /**
+     * Delete the files replaced by compressed ones whose grace period is over. Several instances may sweep at once;
+     * deleting a file twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${fopmas.documents.compression.replaced-file-sweep-interval-ms:60000}")
+    public void deleteReplacedFiles() {
+        List<DocumentBlob> due = documentBlobRepository.findReplacedFilesDue(LocalDateTime.now(), REPLACED_FILE_SWEEP_BATCH_SIZE);
+        for (DocumentBlob blob : due) {
+            Path replacedFile = Paths.get(blob.getReplacedStoragePath());
+            try {
+                Files.deleteIfExists(replacedFile);
+            } catch (IOException e) {
+                log.error("Failed to delete replaced file {} of blob {}, retrying on the next sweep", replacedFile, blob.getId(), e);
+                continue;
+            }
+            documentBlobRepository.clearReplacedFile(blob.getId(), blob.getReplacedStoragePath());
+            log.info("Deleted file {} replaced by the compressed file of blob {}", replacedFile, blob.getId());
+        }
+    }
+
+    /**
+     * Add a reference to the tenant's blob for the staged content, creating the blob (and moving the staged file into
+     * place) when the tenant does not have this content yet
+     */
+    private DocumentBlob reference(Long tenantId, StagedContent staged, String mimeType, boolean compressionCandidate)
+            throws IOException {
+        Path blobPath = blobPath(tenantId, staged.contentHash(), false);
+        DocumentBlob.CompressionStatus compressionStatus = compressionCandidate
+            ? DocumentBlob.CompressionStatus.PENDING : DocumentBlob.CompressionStatus.NONE;
+
+        for (int attempt = 1; attempt <= MAX_REFERENCE_ATTEMPTS; attempt++) {
+            boolean created = documentBlobRepository.insertIfAbsent(tenantId, staged.contentHash(), blobPath.toString(),
+                staged.size(), mimeType, compressionStatus.name()) == 1;
+
+            Optional<DocumentBlob> lockedBlob =
+                documentBlobRepository.findByTenantIdAndContentHashForUpdate(tenantId, staged.contentHash());
+            if (lockedBlob.isEmpty()) {
+                // The existing blob lost its last reference in a concurrent transaction, create it again
+                continue;
+            }
+
+            DocumentBlob blob = lockedBlob.get();
+            if (created) {
+                chargeQuota(tenantId, blob.getStoredSizeBytes());
+                Files.createDirectories(blobPath.getParent());
+                Files.move(staged.file(), blobPath, StandardCopyOption.ATOMIC_MOVE);
+                deleteOnRollback(blobPath);
+                log.info("Stored new blob {} for tenant {} ({} bytes, compression: {})",
+                    staged.contentHash(), tenantId, staged.size(), compressionStatus);
+            } else {
+                log.info("Tenant {} already stores content {}, referencing blob {}", tenantId, staged.contentHash(), blob.getId());
+            }
+
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            return documentBlobRepository.save(blob);
+        }
+
+        throw new IllegalStateException("Could not reference stored content " + staged.contentHash() + " for tenant " + tenantId);
+    }
+
+    /**
+     * Charge the bytes to the upload's quota reservation (added to the used storage when the upload commits), or else
+     * add them to the tenant's used storage, unless that would exceed an enabled quota
+     */
+    private void chargeQuota(Long tenantId, long bytes) {
+        if (quotaReservations.chargeReservation(tenantId, bytes)) {
+            return;
+        }
+        if (quotaRepository.addUsedStorageWithinQuota(tenantId, bytes) == 0
+            && quotaRepository.findByTenant_Id(tenantId).isPresent()) {
+            throw new RuntimeException(String.format(
+                "Upload would exceed storage quota. Required: %d bytes", bytes));
+        }
+    }
+
+    /**
+     * Write the content to the staging file in one pass, computing its SHA-256 on the way
+     */
+    private StagedContent stage(InputStream input, Path stagedFile) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        DigestInputStream digestInput = new DigestInputStream(input, digest);
+
+        long size;
+        try (OutputStream out = Files.newOutputStream(stagedFile)) {
+            size = digestInput.transferTo(out);
+        }
+
+        return new StagedContent(stagedFile, toHex(digest.digest()), size);
+    }
+
+    /**
+     * Move the file aside now and delete it after commit; on rollback it is moved back, as the blob row is restored.
+     * Moving it aside before commit keeps an upload of the same content, which waits for this transaction, from
+     * having its new file deleted.
+     */
+    private void deleteFileOnCommit(Path file) {
+        Path removedFile = file.resolveSibling(file.getFileName() + ".removed-" + UUID.randomUUID());
+        try {
+            Files.move(file, removedFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            log.warn("Blob file not found for deletion: {}", file);
+            return;
+        } catch (IOException e) {
+            log.error("Failed to move blob file {} aside for deletion", file, e);
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(removedFile);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    deleteQuietly(removedFile);
+                    return;
+                }
+                try {
+                    Files.move(removedFile, file, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.error("Failed to restore blob file {} after rollback", file, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * On rollback the file moved into place by this transaction is deleted, as no committed blob points at it. The
+     * file is left alone if another transaction has since moved its own copy to the same path.
+     */
+    private void deleteOnRollback(Path movedFile) throws IOException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Object fileKey = Files.readAttributes(movedFile, BasicFileAttributes.class).fileKey();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && isSameFile(movedFile, fileKey)) {
+                    deleteQuietly(movedFile);
+                }
+            }
+        });
+    }
+
+    private boolean isSameFile(Path file, Object fileKey) {
+        if (fileKey == null) {
+            return true;
+        }
+        try {
+            return fileKey.equals(Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            log.info("Blob file deleted permanently: {}", file);
+        } catch (IOException e) {
+            // The file can be cleaned up later via a maintenance job
+            log.error("Failed to delete blob file {}", file, e);
+        }
+    }
+
+    private Path tenantBlobDir(Long tenantId) {
+        return Paths.get(basePath, "tenants", String.valueOf(tenantId), "blobs");
+    }
+
+    private Path blobPath(Long tenantId, String contentHash, boolean compressed) {
+        return tenantBlobDir(tenantId)
+            .resolve(contentHash.substring(0, 2))
+            .resolve(compressed ? contentHash + ".gz" : contentHash);
+    }
+
+    private MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toHex(byte[] hash) {
+        StringBuilder hexString = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    /**
+     * Staged upload and what was learnt while writing it
+     */
+    private record StagedContent(Path file, String contentHash, long size) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Codec tried by the background compression worker.
+ * Compressed files are read back through GZIPInputStream and served as gzip content encoding, so a codec must write
+ * the GZIP format; codecs differ in how they trade time for size. The name is recorded with the blob and in the
+ * compression statistics.
+ */
+public interface DocumentCompressionCodec {
+
+    String name();
+
+    /**
+     * Stream compressing into the target; closing it finishes the compressed data and closes the target
+     */
+    OutputStream compress(OutputStream target) throws IOException;
+}
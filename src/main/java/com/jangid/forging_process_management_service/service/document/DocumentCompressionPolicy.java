@@ -0,0 +1,131 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.entities.document.DocumentCompressionStat;
+import com.jangid.forging_process_management_service.repositories.document.DocumentCompressionStatRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Which codecs the compression worker tries on a blob, and which result it keeps.
+ *
+ * Until a tenant has a number of trials for a MIME type every codec is tried; after that only the codec that most
+ * often produced the stored file, and none for MIME types whose files were never worth compressing. A share of
+ * blobs is still run through every codec, so the choice follows changes in the tenant's files.
+ *
+ * The MIME type comes from the uploading client, so statistics and metrics are keyed by its base type, and only for
+ * the types listed in fopmas.documents.compression.stat-mime-types; all others share the "other" key.
+ */
+@Slf4j
+@Component
+public class DocumentCompressionPolicy {
+
+    private static final double MIN_COMPRESSION_RATIO = 10.0; // Store compressed only when it saves at least 10%
+    private static final double EQUIVALENT_SIZE_MARGIN = 0.01; // Results within 1% of the smallest count as equally small
+    // The types fopmas.documents.upload.allowed-types admits
+    private static final String DEFAULT_STAT_MIME_TYPES = "application/pdf,application/msword,"
+        + "application/vnd.openxmlformats-officedocument.wordprocessingml.document,application/vnd.ms-excel,"
+        + "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet,image/jpeg,image/png,image/gif,image/svg+xml";
+
+    public static final String OTHER_MIME_TYPE = "other";
+
+    private final DocumentCompressionStatRepository statRepository;
+    private final List<DocumentCompressionCodec> codecs;
+    private final Set<String> statMimeTypes;
+    private final int learningTrials;
+    private final double explorationRate;
+
+    public DocumentCompressionPolicy(DocumentCompressionStatRepository statRepository,
+                                     @Value("${fopmas.documents.compression.gzip-levels:1,6,9}") String gzipLevels,
+                                     @Value("${fopmas.documents.compression.policy.learning-trials:20}") int learningTrials,
+                                     @Value("${fopmas.documents.compression.policy.exploration-rate:0.1}") double explorationRate,
+                                     @Value("${fopmas.documents.compression.stat-mime-types:" + DEFAULT_STAT_MIME_TYPES + "}") String statMimeTypes) {
+        this.statRepository = statRepository;
+        this.codecs = Arrays.stream(gzipLevels.split(","))
+            .map(String::trim)
+            .map(level -> (DocumentCompressionCodec) new GzipCompressionCodec(Integer.parseInt(level)))
+            .collect(Collectors.toList());
+        this.learningTrials = learningTrials;
+        this.explorationRate = explorationRate;
+        this.statMimeTypes = Arrays.stream(statMimeTypes.split(","))
+            .map(type -> type.trim().toLowerCase(Locale.ROOT))
+            .filter(type -> !type.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Key under which trials on a file with this Content-Type are counted: the base type without parameters, or
+     * "other" when the type is missing or not listed
+     */
+    public String statMimeType(String contentType) {
+        if (contentType == null) {
+            return OTHER_MIME_TYPE;
+        }
+        int parameters = contentType.indexOf(';');
+        String baseType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim().toLowerCase(Locale.ROOT);
+        return statMimeTypes.contains(baseType) ? baseType : OTHER_MIME_TYPE;
+    }
+
+    /**
+     * Result of compressing a blob with one codec
+     */
+    public record Trial(DocumentCompressionCodec codec, Path file, long compressedSize, long elapsedMillis) {
+    }
+
+    /**
+     * Codecs to try on a blob of the tenant with this MIME type; empty when it is not worth trying any
+     */
+    public List<DocumentCompressionCodec> candidates(Long tenantId, String mimeType) {
+        List<DocumentCompressionStat> stats = statRepository.findByTenant_IdAndMimeType(tenantId, mimeType);
+        long trials = stats.stream().mapToLong(DocumentCompressionStat::getTrialCount).max().orElse(0L);
+        if (trials < learningTrials || ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            return codecs;
+        }
+
+        Optional<DocumentCompressionStat> leader = stats.stream()
+            .filter(stat -> stat.getWinCount() > 0)
+            .max(Comparator.comparingLong(DocumentCompressionStat::getWinCount));
+        if (leader.isEmpty()) {
+            log.debug("Skipping compression of {} for tenant {}, none of {} trials was worth storing", mimeType, tenantId, trials);
+            return List.of();
+        }
+
+        List<DocumentCompressionCodec> leaderCodec = codecs.stream()
+            .filter(codec -> codec.name().equals(leader.get().getCodec()))
+            .collect(Collectors.toList());
+        // The leading codec may no longer be configured
+        return leaderCodec.isEmpty() ? codecs : leaderCodec;
+    }
+
+    /**
+     * The trial to store: the fastest of the (nearly) smallest results, if it saves enough over the original size
+     */
+    public Optional<Trial> choose(List<Trial> trials, long originalSize) {
+        if (trials.isEmpty() || originalSize <= 0) {
+            return Optional.empty();
+        }
+        long smallest = trials.stream().mapToLong(Trial::compressedSize).min().getAsLong();
+        long sizeLimit = smallest + (long) (smallest * EQUIVALENT_SIZE_MARGIN);
+        Trial best = trials.stream()
+            .filter(trial -> trial.compressedSize() <= sizeLimit)
+            .min(Comparator.comparingLong(Trial::elapsedMillis))
+            .orElseThrow();
+        return savingsPercent(originalSize, best.compressedSize()) >= MIN_COMPRESSION_RATIO ? Optional.of(best) : Optional.empty();
+    }
+
+    public static double savingsPercent(long originalSize, long compressedSize) {
+        return originalSize > 0 ? ((double) (originalSize - compressedSize) / originalSize) * 100.0 : 0.0;
+    }
+}
@@ -0,0 +1,237 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.configuration.AsyncConfig;
+import com.jangid.forging_process_management_service.entities.document.DocumentBlob;
+import com.jangid.forging_process_management_service.repositories.document.DocumentBlobRepository;
+import com.jangid.forging_process_management_service.repositories.document.DocumentCompressionStatRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background compression of stored documents, so uploads do not wait for it.
+ *
+ * Every poll claims as many blobs waiting for compression as the worker pool has free slots (FOR UPDATE SKIP LOCKED,
+ * so several instances can poll concurrently). The blob's file is read once and fed to every candidate codec chosen
+ * by the {@link DocumentCompressionPolicy}; the best result, if it saves enough, is swapped in atomically by the
+ * {@link DocumentBlobStore}. A claimed blob holds a lease and is claimed again if its instance dies.
+ *
+ * Each trial is added to the tenant's compression statistics, which drive the policy, and exported as
+ * document.compression.trial{codec, mime_type} (time) and document.compression.trial.savings{codec, mime_type}
+ * (percent saved), keyed by {@link DocumentCompressionPolicy#statMimeType}. Processed blobs are counted as
+ * document.compression.blob{outcome}.
+ */
+@Slf4j
+@Service
+public class DocumentCompressionWorker {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final DocumentBlobRepository documentBlobRepository;
+    private final DocumentCompressionStatRepository statRepository;
+    private final DocumentBlobStore documentBlobStore;
+    private final DocumentCompressionPolicy compressionPolicy;
+    private final ThreadPoolTaskExecutor compressionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final Duration lease;
+
+    public DocumentCompressionWorker(DocumentBlobRepository documentBlobRepository,
+                                     DocumentCompressionStatRepository statRepository,
+                                     DocumentBlobStore documentBlobStore,
+                                     DocumentCompressionPolicy compressionPolicy,
+                                     @Qualifier(AsyncConfig.DOCUMENT_COMPRESSION_TASK_EXECUTOR) ThreadPoolTaskExecutor compressionExecutor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${fopmas.documents.compression.enabled:true}") boolean enabled,
+                                     @Value("${fopmas.documents.compression.worker.max-concurrency:2}") int maxConcurrency,
+                                     @Value("${fopmas.documents.compression.worker.lease-minutes:10}") long leaseMinutes) {
+        this.documentBlobRepository = documentBlobRepository;
+        this.statRepository = statRepository;
+        this.documentBlobStore = documentBlobStore;
+        this.compressionPolicy = compressionPolicy;
+        this.compressionExecutor = compressionExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxConcurrency = maxConcurrency;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    @Scheduled(fixedDelayString = "${fopmas.documents.compression.worker.poll-interval-ms:5000}")
+    public void dispatchPendingBlobs() {
+        if (!enabled) {
+            return;
+        }
+        int freeSlots = maxConcurrency - compressionExecutor.getActiveCount()
+            - compressionExecutor.getThreadPoolExecutor().getQueue().size();
+        if (freeSlots <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> blobIds = documentBlobRepository.claimPendingCompression(now, now.plus(lease), freeSlots);
+        if (blobIds.isEmpty()) {
+            return;
+        }
+
+        log.debug("Compressing {} stored document blob(s)", blobIds.size());
+        for (Long blobId : blobIds) {
+            try {
+                compressionExecutor.execute(() -> compress(blobId));
+            } catch (TaskRejectedException e) {
+                // Left running; it is claimed again when its lease expires
+                log.warn("Document compression pool saturated, blob {} will be retried after its lease expires", blobId);
+            }
+        }
+    }
+
+    private void compress(Long blobId) {
+        DocumentBlob blob = documentBlobRepository.findById(blobId).orElse(null);
+        if (blob == null || blob.getCompressionStatus() != DocumentBlob.CompressionStatus.RUNNING) {
+            return;
+        }
+
+        Long tenantId = blob.getTenant().getId();
+        String mimeType = compressionPolicy.statMimeType(blob.getMimeType());
+        List<DocumentCompressionPolicy.Trial> trials = new ArrayList<>();
+        String outcome;
+        try {
+            List<DocumentCompressionCodec> codecs = compressionPolicy.candidates(tenantId, mimeType);
+            if (codecs.isEmpty() || Boolean.TRUE.equals(blob.getIsCompressed())) {
+                documentBlobRepository.finishCompression(blobId, DocumentBlob.CompressionStatus.DONE.name());
+                outcome = "skipped";
+            } else {
+                trials = runTrials(tenantId, Paths.get(blob.getStoragePath()), codecs);
+                Optional<DocumentCompressionPolicy.Trial> chosen = compressionPolicy.choose(trials, blob.getOriginalSizeBytes());
+                recordTrials(tenantId, mimeType, blob.getOriginalSizeBytes(), trials, chosen);
+
+                if (chosen.isEmpty()) {
+                    documentBlobRepository.finishCompression(blobId, DocumentBlob.CompressionStatus.DONE.name());
+                    outcome = "not_worth";
+                } else {
+                    DocumentCompressionPolicy.Trial trial = chosen.get();
+                    outcome = documentBlobStore.replaceWithCompressed(blobId, trial.file(), trial.codec().name())
+                        ? "compressed" : "superseded";
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to compress blob {} of tenant {}", blobId, tenantId, e);
+            documentBlobRepository.finishCompression(blobId, DocumentBlob.CompressionStatus.FAILED.name());
+            outcome = "failed";
+        } finally {
+            // The stored result has been moved into place, the rest are dropped
+            for (DocumentCompressionPolicy.Trial trial : trials) {
+                deleteQuietly(trial.file());
+            }
+        }
+        meterRegistry.counter("document.compression.blob", "outcome", outcome).increment();
+    }
+
+    /**
+     * Compress the file with every codec in a single read, timing each codec's share of the work
+     */
+    private List<DocumentCompressionPolicy.Trial> runTrials(Long tenantId, Path source,
+                                                             List<DocumentCompressionCodec> codecs) throws IOException {
+        int count = codecs.size();
+        List<Path> files = new ArrayList<>(count);
+        List<OutputStream> outputs = new ArrayList<>(count);
+        long[] elapsedNanos = new long[count];
+        try {
+            for (DocumentCompressionCodec codec : codecs) {
+                Path file = documentBlobStore.newStagingFile(tenantId);
+                files.add(file);
+                outputs.add(codec.compress(Files.newOutputStream(file)));
+            }
+
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            try (InputStream input = Files.newInputStream(source)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    for (int i = 0; i < count; i++) {
+                        long start = System.nanoTime();
+                        outputs.get(i).write(buffer, 0, read);
+                        elapsedNanos[i] += System.nanoTime() - start;
+                    }
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                long start = System.nanoTime();
+                outputs.get(i).close();
+                elapsedNanos[i] += System.nanoTime() - start;
+            }
+        } catch (IOException | RuntimeException e) {
+            for (OutputStream output : outputs) {
+                closeQuietly(output);
+            }
+            files.forEach(this::deleteQuietly);
+            throw e;
+        }
+
+        List<DocumentCompressionPolicy.Trial> trials = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trials.add(new DocumentCompressionPolicy.Trial(codecs.get(i), files.get(i), Files.size(files.get(i)),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos[i])));
+        }
+        return trials;
+    }
+
+    private void recordTrials(Long tenantId, String mimeType, long originalSize, List<DocumentCompressionPolicy.Trial> trials,
+                              Optional<DocumentCompressionPolicy.Trial> chosen) {
+        for (DocumentCompressionPolicy.Trial trial : trials) {
+            String codec = trial.codec().name();
+            boolean won = chosen.isPresent() && chosen.get() == trial;
+            statRepository.recordTrial(tenantId, mimeType, codec, won, originalSize, trial.compressedSize(), trial.elapsedMillis());
+
+            Timer.builder("document.compression.trial")
+                .tag("codec", codec)
+                .tag("mime_type", mimeType)
+                .register(meterRegistry)
+                .record(trial.elapsedMillis(), TimeUnit.MILLISECONDS);
+            DistributionSummary.builder("document.compression.trial.savings")
+                .baseUnit("percent")
+                .tag("codec", codec)
+                .tag("mime_type", mimeType)
+                .register(meterRegistry)
+                .record(DocumentCompressionPolicy.savingsPercent(originalSize, trial.compressedSize()));
+        }
+    }
+
+    private void closeQuietly(OutputStream output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            log.debug("Failed to close compression output: {}", e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete compression work file {}: {}", file, e.getMessage());
+        }
+    }
+}
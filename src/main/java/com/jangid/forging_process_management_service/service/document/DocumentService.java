@@ -2,6 +2,7 @@ package com.jangid.forging_process_management_service.service.document;
 
 import com.jangid.forging_process_management_service.entities.Tenant;
 import com.jangid.forging_process_management_service.entities.document.Document;
+import com.jangid.forging_process_management_service.entities.document.DocumentBlob;
 import com.jangid.forging_process_management_service.entities.document.DocumentCategory;
 import com.jangid.forging_process_management_service.entities.document.DocumentType;
 import com.jangid.forging_process_management_service.entities.document.DocumentLink;
@@ -22,29 +23,40 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.util.StringUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ByteArrayOutputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 @Slf4j
@@ -57,9 +69,10 @@ public class DocumentService {
     private final DocumentMetadataRepository documentMetadataRepository;
     private final TenantStorageQuotaRepository quotaRepository;
     private final TenantRepository tenantRepository;
+    private final DocumentBlobStore documentBlobStore;
+    private final StorageQuotaReservationService storageQuotaReservations;
 
-    @Value("${fopmas.documents.storage.base-path:/var/fopmas/documents}")
-    private String basePath;
+    private static final int STREAM_BUFFER_SIZE = 8192;
 
     @Value("${fopmas.documents.upload.max-file-size:10485760}")
     private long maxFileSizeBytes;
@@ -74,7 +87,8 @@ public class DocumentService {
     private String compressionExcludedTypes; // MIME types to exclude from compression
 
     /**
-     * Attach documents to a specific entity
+     * Attach documents to a specific entity. The upload's storage quota reservation, taken before this transaction
+     * began, becomes used storage when it commits and is released if it fails.
      */
     @Transactional
     public List<Document> attachDocumentsToEntity(
@@ -85,13 +99,16 @@ public class DocumentService {
             DocumentCategory category,
             String title,
             String description,
-            String tags) {
+            String tags,
+            StorageQuotaReservationService.Reservation reservation) {
+
+        storageQuotaReservations.attachToCurrentTransaction(reservation);
 
         // Validate tenant
         Tenant tenant = tenantRepository.findByIdAndDeletedFalse(tenantId)
                 .orElseThrow(() -> new RuntimeException("Tenant not found: " + tenantId));
 
-        // Check storage quota
+        // Check per-file limits before writing anything
         checkStorageQuota(tenantId, files);
 
         List<Document> uploadedDocuments = new ArrayList<>();
@@ -111,9 +128,6 @@ public class DocumentService {
                         .build();
                 documentLinkRepository.save(link);
 
-                // Update storage quota with actual stored file size
-                updateStorageUsage(tenantId, savedDocument.getEffectiveFileSize());
-
                 uploadedDocuments.add(savedDocument);
                 log.info("Document attached: {} to {}:{}", savedDocument.getOriginalFileName(), entityType, entityId);
 
@@ -159,11 +173,8 @@ public class DocumentService {
         // Soft delete metadata entries
         documentMetadataRepository.softDeleteByDocumentId(documentId);
 
-        // Update storage quota with actual stored file size
-        updateStorageUsage(document.getTenant().getId(), -document.getEffectiveFileSize());
-
-        // Delete physical file from file system
-        deletePhysicalFile(document);
+        // Release the stored file (removed with its last reference) and its storage quota
+        releaseStoredFile(document);
         
         log.info("Document deleted: {}", document.getOriginalFileName());
     }
@@ -182,13 +193,11 @@ public class DocumentService {
         }
 
         LocalDateTime now = LocalDateTime.now();
-        long totalStorageToFree = 0;
         
         // Batch soft delete documents
         for (Document document : documentsToDelete) {
             document.setDeleted(true);
             document.setDeletedAt(now);
-            totalStorageToFree += document.getEffectiveFileSize();
         }
         documentRepository.saveAll(documentsToDelete);
 
@@ -198,14 +207,9 @@ public class DocumentService {
             documentMetadataRepository.softDeleteByDocumentId(document.getId());
         }
 
-        // Update storage quota with total freed space
-        if (totalStorageToFree > 0) {
-            updateStorageUsage(tenantId, -totalStorageToFree);
-        }
-
-        // Delete physical files from file system
+        // Release stored files (each removed with its last reference) and their storage quota
         for (Document document : documentsToDelete) {
-            deletePhysicalFile(document);
+            releaseStoredFile(document);
         }
         
         log.info("Batch deleted {} documents for entity type {} with ID {} in tenant {}", 
@@ -249,62 +253,19 @@ public class DocumentService {
         // Validate file
         validateFile(file);
 
-        // Generate unique filename and path
         String originalFilename = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
         String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + "." + fileExtension;
-        
-        // Create directory structure: /tenants/{tenant_id}/{category}/{YYYY-MM}/
-        String yearMonth = LocalDateTime.now().toString().substring(0, 7); // YYYY-MM
-        DocumentCategory effectiveCategory = (category != null ? category : DocumentCategory.OTHER);
-        String categoryPath = effectiveCategory.getPathComponent();
-        Path tenantDir = Paths.get(basePath, "tenants", String.valueOf(tenant.getId()), categoryPath, yearMonth);
-        Files.createDirectories(tenantDir);
-        
-        // Save original file
-        Path filePath = tenantDir.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Check if file should be compressed and handle compression
-        boolean isCompressed = false;
-        Path finalFilePath = filePath; // This will be the actual stored file path
-        long finalFileSize = file.getSize();
-        
-        if (shouldCompressFile(file.getContentType(), file.getSize())) {
-            try {
-                Path compressedFilePath = generateCompressedFilePath(filePath);
-                compressFile(filePath, compressedFilePath);
-                long compressedSize = Files.size(compressedFilePath);
-                
-                // Check if compression saves significant space (>10%)
-                double compressionRatio = getCompressionRatio(file.getSize(), compressedSize);
-                if (compressionRatio >= 10.0) {
-                    // Compression is beneficial: DELETE original, KEEP compressed
-                    Files.deleteIfExists(filePath);
-                    finalFilePath = compressedFilePath;
-                    finalFileSize = compressedSize;
-                    isCompressed = true;
-                    log.info("File compressed and original deleted: {} ({}% reduction, {} -> {} bytes)", 
-                        originalFilename, String.format("%.1f", compressionRatio), file.getSize(), compressedSize);
-                } else {
-                    // Compression not beneficial: DELETE compressed, KEEP original
-                    Files.deleteIfExists(compressedFilePath);
-                    // finalFilePath remains as original filePath
-                    // finalFileSize remains as original file.getSize()
-                    isCompressed = false;
-                    log.debug("Compression ratio too low ({}%), deleted compressed file, keeping original: {}", 
-                        String.format("%.1f", compressionRatio), originalFilename);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to compress file {}, keeping original: {}", originalFilename, e.getMessage());
-                // finalFilePath remains as original filePath
-                // finalFileSize remains as original file.getSize()
-                isCompressed = false;
-            }
+
+        // Store the content once per tenant, hashed in a single streaming pass and shared with any of the tenant's
+        // documents that already have the same content. Compression candidates are compressed in the background.
+        DocumentBlob blob;
+        try (InputStream uploadStream = file.getInputStream()) {
+            blob = documentBlobStore.store(tenant, uploadStream, file.getContentType(),
+                shouldCompressFile(file.getContentType(), file.getSize()));
         }
-        
-        // Calculate file hash
-        String fileHash = calculateFileHash(file.getBytes());
+        Path finalFilePath = Paths.get(blob.getStoragePath()); // This is the actual stored file path
+        boolean isCompressed = blob.getIsCompressed();
+        String fileHash = blob.getContentHash();
         
         // Auto-detect document type
         DocumentType documentType = DocumentType.fromMimeType(file.getContentType());
@@ -321,11 +282,12 @@ public class DocumentService {
         }
 
         // Create document entity
-        // Note: We store only ONE file per document (either original or compressed)
+        // Note: filePath is the shared blob file (either original or compressed)
         // - If isCompressed = false: filePath points to original file, fileSizeBytes = original size
-        // - If isCompressed = true: filePath points to compressed file, fileSizeBytes = compressed size
+        // - If isCompressed = true: filePath points to compressed file, compressedSizeBytes = compressed size
         Document document = Document.builder()
                 .tenant(tenant)
+                .blob(blob)
                 .fileName(finalFilePath.getFileName().toString()) // Actual stored filename
                 .originalFileName(originalFilename) // User's original filename for download
                 .filePath(finalFilePath.toString()) // Actual stored file path
@@ -333,7 +295,7 @@ public class DocumentService {
                 .mimeType(file.getContentType()) // Always original MIME type for user experience
                 .fileExtension(fileExtension)
                 .fileSizeBytes(file.getSize()) // Original file size for user reference
-                .compressedSizeBytes(isCompressed ? finalFileSize : null) // Actual stored size if compressed
+                .compressedSizeBytes(isCompressed ? blob.getStoredSizeBytes() : null) // Actual stored size if compressed
                 .fileHash(fileHash)
                 .documentCategory(category != null ? category : DocumentCategory.OTHER)
                 .documentType(documentType)
@@ -362,8 +324,6 @@ public class DocumentService {
             return;
         }
 
-        long totalFileSize = files.stream().mapToLong(MultipartFile::getSize).sum();
-
         // Check individual file size limits
         for (MultipartFile file : files) {
             if (file.getSize() > quota.getMaxFileSizeBytes()) {
@@ -373,23 +333,21 @@ public class DocumentService {
             }
         }
 
-        // Check total storage limit
-        if ((quota.getUsedStorageBytes() + totalFileSize) > quota.getMaxStorageBytes()) {
-            throw new RuntimeException(String.format(
-                "Upload would exceed storage quota. Available: %d bytes, Required: %d bytes",
-                (quota.getMaxStorageBytes() - quota.getUsedStorageBytes()), totalFileSize));
-        }
+        // The total storage limit is enforced by the upload's quota reservation; content the tenant already has is
+        // not charged again
     }
 
     /**
-     * Update storage usage
+     * Release a deleted document's stored file and its storage quota.
+     * Blob-backed documents drop their blob reference; documents stored before content-addressed storage own their file.
      */
-    private void updateStorageUsage(Long tenantId, long bytes) {
-        if (bytes > 0) {
-            quotaRepository.addUsedStorage(tenantId, bytes);
-        } else {
-            quotaRepository.removeUsedStorage(tenantId, Math.abs(bytes));
+    private void releaseStoredFile(Document document) {
+        if (document.getBlob() != null) {
+            documentBlobStore.release(document);
+            return;
         }
+        quotaRepository.removeUsedStorage(document.getTenant().getId(), document.getEffectiveFileSize());
+        deletePhysicalFile(document);
     }
 
     /**
@@ -469,28 +427,6 @@ public class DocumentService {
         return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
     }
 
-    /**
-     * Calculate SHA-256 hash of file
-     */
-    private String calculateFileHash(byte[] fileBytes) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(fileBytes);
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            log.error("Failed to calculate file hash", e);
-            return UUID.randomUUID().toString();
-        }
-    }
-
     /**
      * Create system-generated metadata for a document
      */
@@ -615,66 +551,121 @@ public class DocumentService {
     }
 
     /**
-     * Compress file using GZIP
+     * Get the path of the document's stored file (the compressed file when the document is stored compressed)
      */
-    private Path compressFile(Path originalFile, Path compressedFile) throws IOException {
-        try (FileInputStream fis = new FileInputStream(originalFile.toFile());
-             FileOutputStream fos = new FileOutputStream(compressedFile.toFile());
-             GZIPOutputStream gzipOut = new GZIPOutputStream(fos)) {
-            
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                gzipOut.write(buffer, 0, bytesRead);
-            }
-            
-            log.debug("File compressed: {} -> {} ({}%)", 
-                originalFile.getFileName(), 
-                compressedFile.getFileName(),
-                String.format("%.1f", getCompressionRatio(originalFile.toFile().length(), compressedFile.toFile().length())));
-            
-            return compressedFile;
+    public Path getStoredFilePath(Document document) {
+        Path storedFilePath = Paths.get(document.getFilePath());
+        if (!Files.exists(storedFilePath)) {
+            throw new RuntimeException("Stored file not found: " + document.getFilePath());
         }
+        return storedFilePath;
     }
 
     /**
-     * Decompress file using GZIP
+     * Open the document's original content for reading, decompressing on the fly when it is stored compressed.
+     * The caller must close the stream.
      */
-    public byte[] decompressFile(Path compressedFile) throws IOException {
-        try (FileInputStream fis = new FileInputStream(compressedFile.toFile());
-             GZIPInputStream gzipIn = new GZIPInputStream(fis);
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = gzipIn.read(buffer)) != -1) {
-                baos.write(buffer, 0, bytesRead);
+    public InputStream openDocumentContent(Document document) throws IOException {
+        InputStream storedContent = Files.newInputStream(getStoredFilePath(document));
+        if (!Boolean.TRUE.equals(document.getIsCompressed())) {
+            return storedContent;
+        }
+        try {
+            return new GZIPInputStream(storedContent, STREAM_BUFFER_SIZE);
+        } catch (IOException e) {
+            storedContent.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write the document's original content to the output stream using a fixed-size buffer.
+     * Uncompressed files are transferred straight from the file channel; compressed files are inflated while copying.
+     *
+     * @return Number of bytes written
+     */
+    public long writeDocumentContent(Document document, OutputStream outputStream) throws IOException {
+        if (Boolean.TRUE.equals(document.getIsCompressed())) {
+            try (InputStream content = openDocumentContent(document)) {
+                return content.transferTo(outputStream);
             }
-            
-            return baos.toByteArray();
+        }
+
+        try (FileChannel channel = FileChannel.open(getStoredFilePath(document), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
         }
     }
 
     /**
-     * Calculate compression ratio
+     * Write the documents as a ZIP archive, one entry per document with its original content, reading each stored file
+     * sequentially. Compressed files are inflated while copying into their entry, so memory use stays constant however
+     * large the archive. Content that was not worth compressing on upload is stored in the archive without deflating
+     * it again. Documents whose stored file is missing are left out.
+     *
+     * @return Number of documents written
      */
-    private double getCompressionRatio(long originalSize, long compressedSize) {
-        if (originalSize == 0) return 0.0;
-        return ((double) (originalSize - compressedSize) / originalSize) * 100.0;
+    public int writeDocumentArchive(List<Document> documents, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream, STREAM_BUFFER_SIZE));
+        Set<String> entryNames = new HashSet<>();
+        int written = 0;
+
+        for (Document document : documents) {
+            if (!Files.exists(Paths.get(document.getFilePath()))) {
+                log.warn("Leaving document {} out of archive, stored file not found: {}", document.getId(), document.getFilePath());
+                continue;
+            }
+
+            ZipEntry entry = new ZipEntry(uniqueArchiveEntryName(document.getOriginalFileName(), entryNames));
+            if (document.getCreatedAt() != null) {
+                entry.setTimeLocal(document.getCreatedAt());
+            }
+            zip.setLevel(Boolean.TRUE.equals(document.getIsCompressed()) ? Deflater.DEFAULT_COMPRESSION : Deflater.NO_COMPRESSION);
+            zip.putNextEntry(entry);
+            writeDocumentContent(document, zip);
+            zip.closeEntry();
+            written++;
+        }
+
+        // Writes the central directory; the response stream itself is closed by the container
+        zip.finish();
+        zip.flush();
+        return written;
     }
 
     /**
-     * Generate compressed file path
+     * Archive entry name for the file name, numbered when another entry already has it ("drawing (2).pdf")
      */
-    private Path generateCompressedFilePath(Path originalPath) {
-        String compressedFileName = originalPath.getFileName().toString() + ".gz";
-        return originalPath.getParent().resolve(compressedFileName);
+    private String uniqueArchiveEntryName(String fileName, Set<String> entryNames) {
+        String name = StringUtils.hasText(fileName) ? fileName.replace('\\', '_').replace('/', '_') : "document";
+        if (entryNames.add(name.toLowerCase())) {
+            return name;
+        }
+
+        int extensionStart = name.lastIndexOf('.');
+        String baseName = extensionStart > 0 ? name.substring(0, extensionStart) : name;
+        String extension = extensionStart > 0 ? name.substring(extensionStart) : "";
+        for (int copy = 2; ; copy++) {
+            String candidate = baseName + " (" + copy + ")" + extension;
+            if (entryNames.add(candidate.toLowerCase())) {
+                return candidate;
+            }
+        }
     }
 
     /**
-     * Search documents with comprehensive filtering and pagination
+     * Search documents with comprehensive filtering and pagination.
+     *
+     * Keyword and metadata searches run against the full-text index and come back by relevance (newest first among
+     * equals); they return a cursor for the next page, which keyset paging follows without re-reading the skipped rows.
+     * Plain browsing by the other filters keeps the requested sort and offset pages.
      */
-    public Page<Document> searchDocuments(Long tenantId, DocumentSearchRequest searchRequest) {
+    public DocumentSearchResult searchDocuments(Long tenantId, DocumentSearchRequest searchRequest) {
         // Build pageable with sorting
         Pageable pageable = buildPageable(searchRequest);
         
@@ -682,17 +673,70 @@ public class DocumentService {
         DocumentCategory category = parseDocumentCategory(searchRequest.getDocumentCategory());
         DocumentType documentType = parseDocumentType(searchRequest.getDocumentType());
         DocumentLink.EntityType entityType = parseEntityType(searchRequest.getEntityType());
-        
-        // Use the simplified search method with essential filters only
-        return documentRepository.searchDocumentsSimple(
-            tenantId,
-            searchRequest.getKeyword(),
-            category,
-            documentType,
-            searchRequest.getFileExtension(),
-            entityType,
-            pageable
-        );
+
+        boolean rankedSearch = StringUtils.hasText(searchRequest.getKeyword())
+            || StringUtils.hasText(searchRequest.getMetadataKey())
+            || StringUtils.hasText(searchRequest.getMetadataValue())
+            || StringUtils.hasText(searchRequest.getCursor());
+        if (!rankedSearch) {
+            Page<Document> documents = documentRepository.searchDocumentsSimple(
+                tenantId,
+                category,
+                documentType,
+                searchRequest.getFileExtension(),
+                entityType,
+                pageable
+            );
+            return new DocumentSearchResult(documents, null);
+        }
+
+        return searchRanked(tenantId, searchRequest, pageable, category, documentType, entityType);
+    }
+
+    private DocumentSearchResult searchRanked(Long tenantId, DocumentSearchRequest searchRequest, Pageable pageable,
+                                              DocumentCategory category, DocumentType documentType,
+                                              DocumentLink.EntityType entityType) {
+        String keyword = StringUtils.hasText(searchRequest.getKeyword()) ? searchRequest.getKeyword().trim() : null;
+        String categoryName = category != null ? category.name() : null;
+        String documentTypeName = documentType != null ? documentType.name() : null;
+        String fileExtension = StringUtils.hasText(searchRequest.getFileExtension()) ? searchRequest.getFileExtension() : null;
+        String entityTypeName = entityType != null ? entityType.name() : null;
+        String metadataKey = StringUtils.hasText(searchRequest.getMetadataKey()) ? searchRequest.getMetadataKey() : null;
+        String metadataValue = StringUtils.hasText(searchRequest.getMetadataValue()) ? searchRequest.getMetadataValue() : null;
+
+        SearchCursor after = StringUtils.hasText(searchRequest.getCursor())
+            ? SearchCursor.decode(searchRequest.getCursor()) : SearchCursor.FIRST;
+        // Keyset pages start after the cursor; without one the requested page is skipped to
+        long offset = StringUtils.hasText(searchRequest.getCursor()) ? 0 : pageable.getOffset();
+
+        // One extra row tells whether there is a next page
+        List<DocumentRepository.SearchHit> hits = documentRepository.searchRanked(
+            tenantId, keyword, categoryName, documentTypeName, fileExtension, entityTypeName, metadataKey, metadataValue,
+            after.rank(), after.createdAt(), after.id(), pageable.getPageSize() + 1, offset);
+        boolean hasNext = hits.size() > pageable.getPageSize();
+        if (hasNext) {
+            hits = hits.subList(0, pageable.getPageSize());
+        }
+
+        List<Long> ids = hits.stream().map(DocumentRepository.SearchHit::getId).collect(Collectors.toList());
+        Map<Long, Document> documentsById = documentRepository.findByIdIn(ids).stream()
+            .collect(Collectors.toMap(Document::getId, document -> document));
+        List<Document> documents = ids.stream()
+            .map(documentsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? SearchCursor.of(hits.get(hits.size() - 1)).encode() : null;
+        Pageable resultPageable = PageRequest.of(StringUtils.hasText(searchRequest.getCursor()) ? 0 : pageable.getPageNumber(),
+                                                 pageable.getPageSize());
+
+        if (StringUtils.hasText(searchRequest.getCursor())) {
+            // Deep pages skip the count, which would read every match again
+            return new DocumentSearchResult(new SliceImpl<>(documents, resultPageable, hasNext), nextCursor);
+        }
+        long total = documentRepository.countRanked(
+            tenantId, keyword, categoryName, documentTypeName, fileExtension, entityTypeName, metadataKey, metadataValue);
+        return new DocumentSearchResult(new PageImpl<>(documents, resultPageable, total), nextCursor);
     }
 
     /**
@@ -842,6 +886,9 @@ public class DocumentService {
         private String sortBy;
         private String sortDirection;
 
+        // Keyset paging: nextCursor of the previous page of a keyword search
+        private String cursor;
+
         // Getters and setters
         public String getKeyword() { return keyword; }
         public void setKeyword(String keyword) { this.keyword = keyword; }
@@ -920,6 +967,43 @@ public class DocumentService {
         
         public String getSortDirection() { return sortDirection; }
         public void setSortDirection(String sortDirection) { this.sortDirection = sortDirection; }
+
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
+    }
+
+    /**
+     * A page of search results. Offset pages are a {@link Page} with totals; keyset pages only know whether more
+     * follow. nextCursor continues a keyword search after this page (null when there is none).
+     */
+    public record DocumentSearchResult(Slice<Document> documents, String nextCursor) {
+    }
+
+    /**
+     * Position in the ranked search order, handed to clients as an opaque URL-safe token
+     */
+    private record SearchCursor(float rank, LocalDateTime createdAt, long id) {
+
+        static final SearchCursor FIRST = new SearchCursor(Float.POSITIVE_INFINITY, LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+        static SearchCursor of(DocumentRepository.SearchHit hit) {
+            return new SearchCursor(hit.getRank(), hit.getCreatedAt(), hit.getId());
+        }
+
+        static SearchCursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new SearchCursor(Float.parseFloat(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor: " + token);
+            }
+        }
+
+        String encode() {
+            // Float.toString round-trips the exact float4 rank the database compares against
+            String position = Float.toString(rank) + "|" + createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
     }
     
     // ======================================================================
@@ -957,9 +1041,9 @@ public class DocumentService {
         Tenant tenant = tenantRepository.findByIdAndDeletedFalse(tenantId)
                 .orElseThrow(() -> new RuntimeException("Tenant not found: " + tenantId));
         
-        // Check storage quota
-        long fileSize = pdfBytes.length;
-        checkStorageQuotaForSize(tenantId, fileSize);
+        // Make sure the tenant has a storage quota; it is charged when new content is stored
+        quotaRepository.findByTenant_Id(tenantId)
+                .orElseGet(() -> createDefaultQuota(tenantId));
         
         try {
             // Create document from PDF bytes
@@ -985,9 +1069,6 @@ public class DocumentService {
                     .build();
             documentLinkRepository.save(link);
             
-            // Update storage quota
-            updateStorageUsage(tenantId, savedDocument.getEffectiveFileSize());
-            
             log.info("PDF document attached: {} to {}:{}", fileName, entityType, entityId);
             return savedDocument;
             
@@ -1010,42 +1091,32 @@ public class DocumentService {
             String description,
             String tags) throws IOException {
         
-        // Generate unique filename
         String fileExtension = getFileExtension(fileName);
-        String uniqueFilename = UUID.randomUUID().toString() + "." + fileExtension;
-        
-        // Create directory structure
-        String yearMonth = LocalDateTime.now().toString().substring(0, 7); // YYYY-MM
         DocumentCategory effectiveCategory = (category != null ? category : DocumentCategory.OTHER);
-        String categoryPath = effectiveCategory.getPathComponent();
-        Path tenantDir = Paths.get(basePath, "tenants", String.valueOf(tenant.getId()), categoryPath, yearMonth);
-        Files.createDirectories(tenantDir);
         
-        // Save file
-        Path filePath = tenantDir.resolve(uniqueFilename);
-        Files.write(filePath, fileBytes);
+        // Store the content (PDFs are typically not compressed as they're already compressed)
+        DocumentBlob blob = documentBlobStore.store(tenant, new ByteArrayInputStream(fileBytes), contentType, false);
+        Path filePath = Paths.get(blob.getStoragePath());
         
-        // Calculate checksum
-        String checksum = calculateFileHash(fileBytes);
-        
-        // Build document entity (PDFs are typically not compressed as they're already compressed)
+        // Build document entity
         return Document.builder()
                 .tenant(tenant)
-                .fileName(uniqueFilename)
+                .blob(blob)
+                .fileName(filePath.getFileName().toString())
                 .originalFileName(fileName)
                 .filePath(filePath.toString())
                 .compressedFilePath(null)
                 .mimeType(contentType)
                 .fileExtension(fileExtension)
                 .fileSizeBytes((long) fileBytes.length)
-                .compressedSizeBytes(null)
-                .fileHash(checksum)
+                .compressedSizeBytes(blob.getIsCompressed() ? blob.getStoredSizeBytes() : null)
+                .fileHash(blob.getContentHash())
                 .documentCategory(effectiveCategory)
                 .description(title != null && description != null ? title + ": " + description : (title != null ? title : description))
                 .tags(tags)
                 .documentType(DocumentType.PDF)
                 .uploadSource("SYSTEM_GENERATED")
-                .isCompressed(false)
+                .isCompressed(blob.getIsCompressed())
                 .isActive(true)
                 .deleted(false)
                 .build();
@@ -1054,49 +1125,17 @@ public class DocumentService {
     /**
      * Read document file and return byte array
      * Handles both compressed and uncompressed files
+     * Meant for small generated files (cached PDFs); downloads stream the content instead
      * 
      * @param document Document entity
      * @return File content as byte array
      */
     public byte[] readDocumentFile(Document document) {
-        try {
-            Path filePath = Paths.get(document.getFilePath());
-            
-            if (!Files.exists(filePath)) {
-                throw new RuntimeException("Document file not found: " + document.getFilePath());
-            }
-            
-            byte[] fileBytes = Files.readAllBytes(filePath);
-            
-            // If file is compressed, decompress it
-            if (document.getIsCompressed() != null && document.getIsCompressed()) {
-                return decompressFile(filePath);
-            }
-            
-            return fileBytes;
-            
+        try (InputStream content = openDocumentContent(document)) {
+            return content.readAllBytes();
         } catch (Exception e) {
             log.error("Failed to read document file: {}", document.getFilePath(), e);
             throw new RuntimeException("Failed to read document file: " + document.getOriginalFileName(), e);
         }
     }
-    
-    /**
-     * Check storage quota for a specific file size
-     */
-    private void checkStorageQuotaForSize(Long tenantId, long fileSize) {
-        TenantStorageQuota quota = quotaRepository.findByTenant_Id(tenantId)
-                .orElseThrow(() -> new RuntimeException("Storage quota not found for tenant: " + tenantId));
-        
-        long newUsage = quota.getUsedStorageBytes() + fileSize;
-        
-        if (newUsage > quota.getMaxStorageBytes()) {
-            throw new RuntimeException(String.format(
-                "Storage quota exceeded. Required: %d bytes, Available: %d bytes",
-                fileSize,
-                quota.getMaxStorageBytes() - quota.getUsedStorageBytes()
-            ));
-        }
-    }
 }
-
@@ -0,0 +1,36 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP at a fixed deflate level, from 1 (fastest) to 9 (smallest)
+ */
+public class GzipCompressionCodec implements DocumentCompressionCodec {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final int level;
+
+    public GzipCompressionCodec(int level) {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("Invalid GZIP compression level: " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    public String name() {
+        return "gzip-" + level;
+    }
+
+    @Override
+    public OutputStream compress(OutputStream target) throws IOException {
+        return new GZIPOutputStream(target, STREAM_BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
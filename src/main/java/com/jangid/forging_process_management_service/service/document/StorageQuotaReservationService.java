@@ -0,0 +1,241 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.entities.document.StorageQuotaReservation;
+import com.jangid.forging_process_management_service.repositories.document.StorageQuotaReservationRepository;
+import com.jangid.forging_process_management_service.repositories.document.TenantStorageQuotaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reserve / commit / release protocol for the tenant storage quota.
+ *
+ * An upload reserves its size before its transaction begins, in a transaction of its own, with a conditional update
+ * (used + reserved + size <= max), so concurrent uploads cannot all pass the check and overshoot the quota. Reserving
+ * up front means an upload never holds two pooled connections at once. The upload transaction then takes the
+ * reservation over with {@link #attachToCurrentTransaction}; the caller releases it if the upload never got that far
+ * ({@link #releaseUnlessAttached}). Content
+ * stored by the upload is charged to its reservation; when the upload transaction commits, the stored bytes are added
+ * to the used storage and the reservation is released in the same update. If the upload fails the reservation is
+ * released. Reservations of instances that died mid-upload expire and are released by a sweeper.
+ */
+@Slf4j
+@Service
+public class StorageQuotaReservationService {
+
+    private static final Object ACTIVE_RESERVATIONS_KEY = StorageQuotaReservationService.class.getName() + ".ACTIVE";
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final TenantStorageQuotaRepository quotaRepository;
+    private final StorageQuotaReservationRepository reservationRepository;
+    private final TransactionTemplate separateTransaction;
+    private final Duration reservationTtl;
+
+    public StorageQuotaReservationService(TenantStorageQuotaRepository quotaRepository,
+                                          StorageQuotaReservationRepository reservationRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${fopmas.documents.quota.reservation-ttl-minutes:30}") long reservationTtlMinutes) {
+        this.quotaRepository = quotaRepository;
+        this.reservationRepository = reservationRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reservationTtl = Duration.ofMinutes(reservationTtlMinutes);
+    }
+
+    /**
+     * Storage reserved for an upload and how much of it has been charged. Empty when there was nothing to reserve.
+     */
+    public static final class Reservation {
+        private final Long id;
+        private final Long tenantId;
+        private final long reservedBytes;
+        private long chargedBytes;
+        private boolean attached;
+
+        private Reservation(Long id, Long tenantId, long reservedBytes) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.reservedBytes = reservedBytes;
+        }
+
+        private boolean isEmpty() {
+            return id == null;
+        }
+    }
+
+    /**
+     * Reserve storage for an upload, before its transaction begins. Tenants whose quota row is not committed yet have
+     * nothing to reserve against, their stored content is checked against the quota as it is charged.
+     *
+     * @throws RuntimeException when the reservation would exceed the tenant's storage quota
+     */
+    public Reservation reserve(Long tenantId, long bytes) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Storage quota must be reserved before the upload transaction begins");
+        }
+        if (bytes <= 0) {
+            return new Reservation(null, tenantId, 0);
+        }
+
+        Long reservationId = separateTransaction.execute(status -> insertReservation(tenantId, bytes));
+        if (reservationId != null) {
+            log.debug("Reserved {} bytes of storage for tenant {} (reservation {})", bytes, tenantId, reservationId);
+        }
+        return new Reservation(reservationId, tenantId, bytes);
+    }
+
+    /**
+     * Hand the reservation over to the upload running in the current transaction; it is committed or released with
+     * that transaction
+     */
+    public void attachToCurrentTransaction(Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Storage quota reservations need an active transaction");
+        }
+        if (reservation.isEmpty() || reservation.attached) {
+            return;
+        }
+
+        reservation.attached = true;
+        activeReservations(true).add(reservation);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commit(reservation);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ACTIVE_RESERVATIONS_KEY);
+                if (status != STATUS_COMMITTED) {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Release a reservation whose upload failed before its transaction took it over
+     */
+    public void releaseUnlessAttached(Reservation reservation) {
+        if (reservation != null && !reservation.isEmpty() && !reservation.attached) {
+            release(reservation);
+        }
+    }
+
+    /**
+     * Charge newly stored bytes to a reservation of the current transaction. The used storage is updated when the
+     * transaction commits.
+     *
+     * @return false when the transaction holds no reservation of the tenant with enough room left
+     */
+    public boolean chargeReservation(Long tenantId, long bytes) {
+        List<Reservation> reservations = activeReservations(false);
+        if (reservations == null) {
+            return false;
+        }
+        for (Reservation reservation : reservations) {
+            if (reservation.tenantId.equals(tenantId) && reservation.chargedBytes + bytes <= reservation.reservedBytes) {
+                reservation.chargedBytes += bytes;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Release reservations that outlived their time to live, left behind by instances that stopped mid-upload
+     */
+    @Scheduled(fixedDelayString = "${fopmas.documents.quota.reservation-sweep-interval-ms:60000}")
+    public void releaseExpiredReservations() {
+        separateTransaction.executeWithoutResult(status -> {
+            List<StorageQuotaReservationRepository.ExpiredReservation> expired =
+                reservationRepository.deleteExpired(LocalDateTime.now(), SWEEP_BATCH_SIZE);
+            if (expired.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Long> bytesByTenant = expired.stream()
+                .collect(Collectors.groupingBy(StorageQuotaReservationRepository.ExpiredReservation::getTenantId,
+                    Collectors.summingLong(StorageQuotaReservationRepository.ExpiredReservation::getReservedBytes)));
+            bytesByTenant.forEach(quotaRepository::releaseReservedStorage);
+            log.warn("Released {} expired storage quota reservation(s) of {} tenant(s)", expired.size(), bytesByTenant.size());
+        });
+    }
+
+    private Long insertReservation(Long tenantId, long bytes) {
+        if (quotaRepository.reserveStorage(tenantId, bytes) == 0) {
+            if (quotaRepository.findByTenant_Id(tenantId).isEmpty()) {
+                return null;
+            }
+            throw new RuntimeException(String.format(
+                "Upload would exceed storage quota. Required: %d bytes", bytes));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StorageQuotaReservation reservation = reservationRepository.save(StorageQuotaReservation.builder()
+            .tenantId(tenantId)
+            .reservedBytes(bytes)
+            .createdAt(now)
+            .expiresAt(now.plus(reservationTtl))
+            .build());
+        return reservation.getId();
+    }
+
+    /**
+     * Runs inside the upload transaction just before it commits, so the stored bytes become used storage atomically
+     * with the upload. A reservation the sweeper already released is charged like unreserved content instead.
+     */
+    private void commit(Reservation reservation) {
+        if (reservationRepository.deleteReservation(reservation.id) == 1) {
+            quotaRepository.commitReservedStorage(reservation.tenantId, reservation.reservedBytes, reservation.chargedBytes);
+            return;
+        }
+        log.warn("Storage quota reservation {} of tenant {} expired before its upload committed", reservation.id, reservation.tenantId);
+        if (reservation.chargedBytes > 0
+            && quotaRepository.addUsedStorageWithinQuota(reservation.tenantId, reservation.chargedBytes) == 0) {
+            throw new RuntimeException(String.format(
+                "Upload would exceed storage quota. Required: %d bytes", reservation.chargedBytes));
+        }
+    }
+
+    private void release(Reservation reservation) {
+        try {
+            separateTransaction.executeWithoutResult(status -> {
+                if (reservationRepository.deleteReservation(reservation.id) == 1) {
+                    quotaRepository.releaseReservedStorage(reservation.tenantId, reservation.reservedBytes);
+                }
+            });
+            log.debug("Released storage quota reservation {} of tenant {}", reservation.id, reservation.tenantId);
+        } catch (RuntimeException e) {
+            // Released by the sweeper once it expires
+            log.error("Failed to release storage quota reservation {} of tenant {}", reservation.id, reservation.tenantId, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Reservation> activeReservations(boolean create) {
+        List<Reservation> reservations =
+            (List<Reservation>) TransactionSynchronizationManager.getResource(ACTIVE_RESERVATIONS_KEY);
+        if (reservations == null && create) {
+            reservations = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(ACTIVE_RESERVATIONS_KEY, reservations);
+        }
+        return reservations;
+    }
+}
@@ -0,0 +1,203 @@
+package com.jangid.forging_process_management_service.service.email;
+
+import com.jangid.forging_process_management_service.dto.email.DispatchEmailRequest;
+import com.jangid.forging_process_management_service.entities.email.DispatchEmailRetry;
+import com.jangid.forging_process_management_service.repositories.email.DispatchEmailRetryRepository;
+import com.jangid.forging_process_management_service.service.security.EncryptionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persistent retry queue for dispatch notification emails.
+ * Emails that fail to send, or that cannot be handed to the email executor because it is saturated,
+ * are stored fully rendered and retried with exponential backoff until they are sent or the
+ * maximum number of attempts is reached.
+ *
+ * Due emails are claimed under a lease in a short transaction, sent outside any transaction, and their
+ * outcome is recorded in a second short transaction, so a slow mail server holds neither a database
+ * connection nor row locks.
+ */
+@Slf4j
+@Service
+public class DispatchEmailRetryService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DispatchEmailRetryRepository dispatchEmailRetryRepository;
+    private final EncryptionService encryptionService;
+    private final SmtpMailSenderCache smtpMailSenderCache;
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int batchSize;
+    private final Duration lease;
+
+    private final Counter enqueuedCounter;
+    private final Counter retrySucceededCounter;
+    private final Counter retryFailedCounter;
+    private final Counter abandonedCounter;
+
+    public DispatchEmailRetryService(DispatchEmailRetryRepository dispatchEmailRetryRepository,
+                                     EncryptionService encryptionService,
+                                     SmtpMailSenderCache smtpMailSenderCache,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.email.retry.max-attempts:6}") int maxAttempts,
+                                     @Value("${app.email.retry.initial-backoff-seconds:60}") long initialBackoffSeconds,
+                                     @Value("${app.email.retry.max-backoff-minutes:60}") long maxBackoffMinutes,
+                                     @Value("${app.email.retry.batch-size:10}") int batchSize,
+                                     @Value("${app.email.retry.lease-minutes:10}") long leaseMinutes) {
+        this.dispatchEmailRetryRepository = dispatchEmailRetryRepository;
+        this.encryptionService = encryptionService;
+        this.smtpMailSenderCache = smtpMailSenderCache;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofMinutes(maxBackoffMinutes);
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+
+        this.enqueuedCounter = meterRegistry.counter("dispatch.email.retry", "outcome", "enqueued");
+        this.retrySucceededCounter = meterRegistry.counter("dispatch.email.retry", "outcome", "succeeded");
+        this.retryFailedCounter = meterRegistry.counter("dispatch.email.retry", "outcome", "failed");
+        this.abandonedCounter = meterRegistry.counter("dispatch.email.retry", "outcome", "abandoned");
+    }
+
+    /**
+     * Store a rendered email for a later send attempt
+     *
+     * @param delayFirstAttempt false to make the email due immediately (e.g. the executor was saturated),
+     *                          true to wait one backoff interval (the send already failed once)
+     */
+    @Transactional
+    public DispatchEmailRetry enqueue(Long tenantId, Long dispatchBatchId, String dispatchBatchNumber, String recipient,
+                                      byte[] rawMessage, DispatchEmailRequest.SmtpConfig smtpConfig,
+                                      boolean delayFirstAttempt, String error) {
+        int attemptCount = delayFirstAttempt ? 1 : 0;
+        DispatchEmailRetry retry = DispatchEmailRetry.builder()
+                .tenantId(tenantId)
+                .dispatchBatchId(dispatchBatchId)
+                .dispatchBatchNumber(dispatchBatchNumber)
+                .recipient(recipient)
+                .rawMessage(rawMessage)
+                .smtpHost(smtpConfig.getHost())
+                .smtpPort(smtpConfig.getPort() != null ? smtpConfig.getPort() : 587)
+                .smtpUsername(smtpConfig.getUsername())
+                .smtpPasswordEncrypted(encryptionService.encrypt(smtpConfig.getPassword()))
+                .smtpUseTls(smtpConfig.getUseTls() != null ? smtpConfig.getUseTls() : true)
+                .smtpUseAuth(smtpConfig.getUseAuth() != null ? smtpConfig.getUseAuth() : true)
+                .status(DispatchEmailRetry.RetryStatus.PENDING)
+                .attemptCount(attemptCount)
+                .nextAttemptAt(delayFirstAttempt ? LocalDateTime.now().plus(backoffFor(attemptCount)) : LocalDateTime.now())
+                .lastError(truncate(error))
+                .build();
+
+        DispatchEmailRetry saved = dispatchEmailRetryRepository.save(retry);
+        enqueuedCounter.increment();
+        log.info("Queued dispatch email {} for batch {} to {} for retry at {}",
+                 saved.getId(), dispatchBatchNumber, recipient, saved.getNextAttemptAt());
+        return saved;
+    }
+
+    /**
+     * Send up to batch-size due emails. Each one is claimed just before it is sent, so its lease only has to
+     * cover a single send. Several instances can poll concurrently; each email is claimed by one of them.
+     */
+    @Scheduled(fixedDelayString = "${app.email.retry.poll-interval-ms:30000}")
+    public void processDueRetries() {
+        int processed = 0;
+        while (processed < batchSize) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> claimedIds = dispatchEmailRetryRepository.claimDueRetries(now, now.plus(lease), 1);
+            if (claimedIds.isEmpty()) {
+                break;
+            }
+            dispatchEmailRetryRepository.findById(claimedIds.get(0)).ifPresent(this::attemptSend);
+            processed++;
+        }
+        if (processed > 0) {
+            log.info("Retried {} queued dispatch emails", processed);
+        }
+    }
+
+    private void attemptSend(DispatchEmailRetry retry) {
+        DispatchEmailRequest.SmtpConfig smtpConfig = DispatchEmailRequest.SmtpConfig.builder()
+                .host(retry.getSmtpHost())
+                .port(retry.getSmtpPort())
+                .username(retry.getSmtpUsername())
+                .password(encryptionService.decrypt(retry.getSmtpPasswordEncrypted()))
+                .useTls(retry.getSmtpUseTls())
+                .useAuth(retry.getSmtpUseAuth())
+                .build();
+
+        // Counted when the email was claimed
+        int attempt = retry.getAttemptCount();
+        try {
+            SmtpMailSenderCache.ReusableSmtpSender sender = smtpMailSenderCache.getSender(retry.getTenantId(), smtpConfig);
+            MimeMessage message = sender.parseMimeMessage(retry.getRawMessage());
+            sender.send(message);
+
+            retry.setStatus(DispatchEmailRetry.RetryStatus.SENT);
+            retry.setSentAt(LocalDateTime.now());
+            retry.setLastError(null);
+            clearSensitiveData(retry);
+            retrySucceededCounter.increment();
+            log.info("Queued dispatch email {} for batch {} sent to {} on attempt {}",
+                     retry.getId(), retry.getDispatchBatchNumber(), retry.getRecipient(), attempt);
+        } catch (Exception e) {
+            retry.setLastError(truncate(e.getMessage()));
+            if (attempt >= maxAttempts) {
+                retry.setStatus(DispatchEmailRetry.RetryStatus.FAILED);
+                clearSensitiveData(retry);
+                abandonedCounter.increment();
+                log.error("Giving up on dispatch email {} for batch {} to {} after {} attempts. Last error: {}",
+                          retry.getId(), retry.getDispatchBatchNumber(), retry.getRecipient(), attempt, e.getMessage());
+            } else {
+                retry.setNextAttemptAt(LocalDateTime.now().plus(backoffFor(attempt)));
+                retryFailedCounter.increment();
+                log.warn("Dispatch email {} for batch {} to {} failed on attempt {}; next attempt at {}. Error: {}",
+                         retry.getId(), retry.getDispatchBatchNumber(), retry.getRecipient(), attempt,
+                         retry.getNextAttemptAt(), e.getMessage());
+            }
+        }
+        // Ends the lease: a sent or abandoned email is no longer pending, a failed one is due at its backoff
+        dispatchEmailRetryRepository.save(retry);
+    }
+
+    /**
+     * Exponential backoff: initial * 2^(attempt - 1), capped at the maximum backoff
+     */
+    private Duration backoffFor(int attemptCount) {
+        if (attemptCount <= 0) {
+            return Duration.ZERO;
+        }
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attemptCount - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * Once an email is finished with, neither the credentials nor the attachments are kept
+     */
+    private void clearSensitiveData(DispatchEmailRetry retry) {
+        retry.setSmtpPasswordEncrypted(null);
+        retry.setRawMessage(new byte[0]);
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jangid.forging_process_management_service.service.email;
 
+import com.jangid.forging_process_management_service.configuration.AsyncConfig;
 import com.jangid.forging_process_management_service.dto.email.DispatchEmailRequest;
 import com.jangid.forging_process_management_service.entities.Tenant;
 import com.jangid.forging_process_management_service.entities.dispatch.DispatchBatch;
@@ -10,105 +11,71 @@ import com.jangid.forging_process_management_service.service.document.DocumentSe
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Properties;
 
 /**
  * Service for sending dispatch notification emails with attachments
- * Uses runtime SMTP configuration - no credentials stored
+ * Uses runtime SMTP configuration - credentials are only persisted (encrypted) while an email waits in the retry queue
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DispatchEmailService {
 
     private final DocumentService documentService;
     private final TenantService tenantService;
+    private final SmtpMailSenderCache smtpMailSenderCache;
+    private final DispatchEmailRetryService dispatchEmailRetryService;
+    private final TaskExecutor dispatchEmailTaskExecutor;
 
     @org.springframework.beans.factory.annotation.Value("${fopmas.documents.storage.base-path:/var/fopmas/documents}")
     private String basePath;
 
-    /**
-     * Create JavaMailSender with runtime SMTP configuration
-     */
-    private JavaMailSender createMailSender(DispatchEmailRequest.SmtpConfig smtpConfig) {
-        if (smtpConfig == null) {
-            throw new IllegalArgumentException("SMTP configuration is required");
-        }
-
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost(smtpConfig.getHost());
-        mailSender.setPort(smtpConfig.getPort() != null ? smtpConfig.getPort() : 587);
-        
-        if (smtpConfig.getUsername() != null && !smtpConfig.getUsername().trim().isEmpty()) {
-            mailSender.setUsername(smtpConfig.getUsername());
-        }
-        
-        if (smtpConfig.getPassword() != null && !smtpConfig.getPassword().trim().isEmpty()) {
-            // Remove spaces from password (common issue with Gmail App Passwords)
-            String cleanPassword = smtpConfig.getPassword().replaceAll("\\s+", "");
-            mailSender.setPassword(cleanPassword);
-        }
-
-        Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", smtpConfig.getUseAuth() != null ? smtpConfig.getUseAuth() : true);
-        props.put("mail.smtp.starttls.enable", smtpConfig.getUseTls() != null ? smtpConfig.getUseTls() : true);
-        props.put("mail.smtp.starttls.required", smtpConfig.getUseTls() != null ? smtpConfig.getUseTls() : true);
-        
-        // Increased timeouts to handle large attachments and slower SMTP servers
-        // These values are standard for production email sending
-        props.put("mail.smtp.connectiontimeout", "30000");  // 30 seconds to establish connection
-        props.put("mail.smtp.timeout", "60000");            // 60 seconds for server responses
-        props.put("mail.smtp.writetimeout", "60000");       // 60 seconds for writing data
-        
-        props.put("mail.debug", "false");
-        
-        // For custom domains with Zoho/other hosting - trust SSL certificates
-        // This handles cases where SMTP host (smtp.customdomain.com) has a certificate 
-        // issued for a different hostname (smtp.zoho.com)
-        props.put("mail.smtp.ssl.trust", "*");
-        props.put("mail.smtp.ssl.checkserveridentity", "false");
-
-        return mailSender;
+    public DispatchEmailService(DocumentService documentService,
+                                TenantService tenantService,
+                                SmtpMailSenderCache smtpMailSenderCache,
+                                DispatchEmailRetryService dispatchEmailRetryService,
+                                @Qualifier(AsyncConfig.DISPATCH_EMAIL_TASK_EXECUTOR) TaskExecutor dispatchEmailTaskExecutor) {
+        this.documentService = documentService;
+        this.tenantService = tenantService;
+        this.smtpMailSenderCache = smtpMailSenderCache;
+        this.dispatchEmailRetryService = dispatchEmailRetryService;
+        this.dispatchEmailTaskExecutor = dispatchEmailTaskExecutor;
     }
 
     /**
      * Validate SMTP credentials by testing connection
      * This is a quick test (2-3 seconds) to verify credentials before async send
      */
-    public void validateSmtpCredentials(DispatchEmailRequest.SmtpConfig smtpConfig) throws MessagingException {
+    public void validateSmtpCredentials(Long tenantId, DispatchEmailRequest.SmtpConfig smtpConfig) throws MessagingException {
         if (smtpConfig == null) {
             throw new IllegalArgumentException("SMTP configuration is required");
         }
 
         log.info("Validating SMTP credentials for host: {}", smtpConfig.getHost());
         
-        JavaMailSenderImpl mailSender = (JavaMailSenderImpl) createMailSender(smtpConfig);
-        
         try {
-            // Test connection by getting a transport and connecting
-            mailSender.testConnection();
+            // Test connection by opening the cached sender's connection; the following send reuses it
+            smtpMailSenderCache.getSender(tenantId, smtpConfig).testConnection();
             log.info("SMTP credentials validated successfully for: {}", smtpConfig.getUsername());
         } catch (MessagingException e) {
             log.error("SMTP credential validation failed for: {}. Error: {}", 
                     smtpConfig.getUsername(), e.getMessage());
+            smtpMailSenderCache.evict(tenantId, smtpConfig);
             
             // Extract root cause for better error reporting
             Throwable rootCause = e;
@@ -162,9 +129,10 @@ public class DispatchEmailService {
     /**
      * Send dispatch notification email with selected documents
      * Uses runtime SMTP configuration provided by user
-     * Async method - errors are logged but not propagated
+     * The message (including attachments) is rendered on the calling thread, so uploaded files are read
+     * while the request is still alive, and then sent on the bounded dispatch email executor.
+     * If the executor is saturated, or the send fails, the email goes to the persistent retry queue.
      */
-    @Async
     public void sendDispatchNotificationAsync(
             DispatchBatch dispatchBatch,
             Long tenantId,
@@ -175,18 +143,45 @@ public class DispatchEmailService {
             String customMessage,
             List<String> ccRecipients,
             DispatchEmailRequest.SmtpConfig smtpConfig,
-            MultipartFile[] uploadedFiles) {
-        
+            MultipartFile[] uploadedFiles) throws MessagingException, IOException {
+
+        SmtpMailSenderCache.ReusableSmtpSender mailSender = smtpMailSenderCache.getSender(tenantId, smtpConfig);
+        MimeMessage mimeMessage = buildDispatchNotification(mailSender, dispatchBatch, tenantId, toEmail, fromEmail, documentIds,
+                                                            customSubject, customMessage, ccRecipients, smtpConfig, uploadedFiles);
+
+        // Snapshot the rendered message so the worker (and any retry) never touches request-scoped uploads
+        ByteArrayOutputStream rawMessage = new ByteArrayOutputStream();
+        mimeMessage.writeTo(rawMessage);
+        byte[] rawMessageBytes = rawMessage.toByteArray();
+
+        Long dispatchBatchId = dispatchBatch.getId();
+        String dispatchBatchNumber = dispatchBatch.getDispatchBatchNumber();
+
         try {
-            log.info("Starting async email send for batch: {} to: {}", 
-                    dispatchBatch.getDispatchBatchNumber(), toEmail);
-            
-            sendDispatchNotification(dispatchBatch, tenantId, toEmail, fromEmail, documentIds, 
-                                   customSubject, customMessage, ccRecipients, smtpConfig, uploadedFiles);
-            
-            log.info("Async email send completed successfully for batch: {}", 
-                    dispatchBatch.getDispatchBatchNumber());
-                    
+            dispatchEmailTaskExecutor.execute(() -> sendQueuedNotification(
+                    tenantId, dispatchBatchId, dispatchBatchNumber, toEmail, rawMessageBytes, smtpConfig));
+            log.info("Queued async email send for batch: {} to: {}", dispatchBatchNumber, toEmail);
+        } catch (TaskRejectedException e) {
+            log.warn("Dispatch email executor is saturated; persisting email for batch: {} to: {} for retry",
+                     dispatchBatchNumber, toEmail);
+            dispatchEmailRetryService.enqueue(tenantId, dispatchBatchId, dispatchBatchNumber, toEmail, rawMessageBytes,
+                                              smtpConfig, false, "Dispatch email executor saturated");
+        }
+    }
+
+    /**
+     * Runs on the dispatch email executor
+     */
+    private void sendQueuedNotification(Long tenantId, Long dispatchBatchId, String dispatchBatchNumber, String toEmail,
+                                        byte[] rawMessage, DispatchEmailRequest.SmtpConfig smtpConfig) {
+        try {
+            log.info("Starting async email send for batch: {} to: {}", dispatchBatchNumber, toEmail);
+
+            SmtpMailSenderCache.ReusableSmtpSender mailSender = smtpMailSenderCache.getSender(tenantId, smtpConfig);
+            mailSender.send(mailSender.parseMimeMessage(rawMessage));
+
+            log.info("Async email send completed successfully for batch: {}", dispatchBatchNumber);
+
         } catch (Exception e) {
             // Check if it's a timeout after successful send
             String errorMsg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
@@ -197,11 +192,13 @@ public class DispatchEmailService {
                 // This is common with some SMTP servers that don't send final ACK quickly
                 log.warn("SMTP timeout occurred for batch: {}. Email likely sent successfully but server didn't respond in time. " +
                         "Consider this a successful send unless recipient reports non-delivery.", 
-                        dispatchBatch.getDispatchBatchNumber());
+                        dispatchBatchNumber);
             } else {
-                // Actual failure - log as error
-                log.error("Failed to send dispatch notification email for batch: {} to: {}. Error: {}", 
-                        dispatchBatch.getDispatchBatchNumber(), toEmail, e.getMessage(), e);
+                // Actual failure - hand over to the persistent retry queue instead of dropping the email
+                log.error("Failed to send dispatch notification email for batch: {} to: {}. Queueing for retry. Error: {}", 
+                        dispatchBatchNumber, toEmail, e.getMessage(), e);
+                dispatchEmailRetryService.enqueue(tenantId, dispatchBatchId, dispatchBatchNumber, toEmail, rawMessage,
+                                                  smtpConfig, true, e.getMessage());
             }
         }
     }
@@ -235,8 +232,50 @@ public class DispatchEmailService {
             throw new IllegalArgumentException("SMTP configuration is required");
         }
 
-        // Create mail sender with runtime SMTP config
-        JavaMailSender mailSender = createMailSender(smtpConfig);
+        // Reuse the cached sender (and its open connection) for this tenant's SMTP config
+        SmtpMailSenderCache.ReusableSmtpSender mailSender = smtpMailSenderCache.getSender(tenantId, smtpConfig);
+        MimeMessage mimeMessage = buildDispatchNotification(mailSender, dispatchBatch, tenantId, toEmail, fromEmail, documentIds,
+                                                            customSubject, customMessage, ccRecipients, smtpConfig, uploadedFiles);
+
+        // Send email
+        try {
+            mailSender.send(mimeMessage);
+            log.info("Dispatch notification email sent successfully for batch: {} to: {}", 
+                    dispatchBatch.getDispatchBatchNumber(), toEmail);
+        } catch (Exception e) {
+            // Check if it's a timeout exception
+            String errorMsg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
+            boolean isTimeout = errorMsg.contains("timeout") || errorMsg.contains("timed out");
+            
+            if (isTimeout) {
+                // Log as warning - email was likely sent but server response was slow
+                log.warn("SMTP timeout for batch: {} to: {}. Email likely delivered but server response was slow. " +
+                        "Message: {}", dispatchBatch.getDispatchBatchNumber(), toEmail, e.getMessage());
+                // Don't rethrow - consider this a success
+            } else {
+                // Actual send failure - rethrow
+                log.error("Failed to send email for batch: {} to: {}. Error: {}", 
+                        dispatchBatch.getDispatchBatchNumber(), toEmail, e.getMessage());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Render the dispatch notification (headers, body and attachments)
+     */
+    private MimeMessage buildDispatchNotification(
+            SmtpMailSenderCache.ReusableSmtpSender mailSender,
+            DispatchBatch dispatchBatch,
+            Long tenantId,
+            String toEmail,
+            String fromEmail,
+            List<Long> documentIds,
+            String customSubject,
+            String customMessage,
+            List<String> ccRecipients,
+            DispatchEmailRequest.SmtpConfig smtpConfig,
+            MultipartFile[] uploadedFiles) throws MessagingException, IOException {
 
         // Get tenant details for default from email if not provided
         Tenant tenant = tenantService.getTenantById(tenantId);
@@ -279,28 +318,7 @@ public class DispatchEmailService {
             attachUploadedFiles(helper, uploadedFiles);
         }
 
-        // Send email
-        try {
-            mailSender.send(mimeMessage);
-            log.info("Dispatch notification email sent successfully for batch: {} to: {}", 
-                    dispatchBatch.getDispatchBatchNumber(), toEmail);
-        } catch (Exception e) {
-            // Check if it's a timeout exception
-            String errorMsg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
-            boolean isTimeout = errorMsg.contains("timeout") || errorMsg.contains("timed out");
-            
-            if (isTimeout) {
-                // Log as warning - email was likely sent but server response was slow
-                log.warn("SMTP timeout for batch: {} to: {}. Email likely delivered but server response was slow. " +
-                        "Message: {}", dispatchBatch.getDispatchBatchNumber(), toEmail, e.getMessage());
-                // Don't rethrow - consider this a success
-            } else {
-                // Actual send failure - rethrow
-                log.error("Failed to send email for batch: {} to: {}. Error: {}", 
-                        dispatchBatch.getDispatchBatchNumber(), toEmail, e.getMessage());
-                throw e;
-            }
-        }
+        return mimeMessage;
     }
     
     /**
@@ -343,17 +361,8 @@ public class DispatchEmailService {
                   continue;
                 }
 
-                // Read file content
-                byte[] fileContent = Files.readAllBytes(filePath);
-
-                // Decompress if needed
-                if (Boolean.TRUE.equals(document.getIsCompressed())) {
-                  fileContent = decompressFile(fileContent);
-                }
-
-                // Add attachment
-                ByteArrayResource resource = new ByteArrayResource(fileContent);
-                helper.addAttachment(document.getOriginalFileName(), resource);
+                // Add attachment, read (and decompressed if needed) from disk when the message is written
+                helper.addAttachment(document.getOriginalFileName(), () -> documentService.openDocumentContent(document));
 
                 log.debug("Attached document: {} to email", document.getOriginalFileName());
               }
@@ -468,21 +477,4 @@ public class DispatchEmailService {
         return sb.toString();
     }
 
-    /**
-     * Decompress file content (simplified - assuming GZIP)
-     */
-    private byte[] decompressFile(byte[] compressedData) throws IOException {
-        try (java.io.ByteArrayInputStream bis = new java.io.ByteArrayInputStream(compressedData);
-             java.util.zip.GZIPInputStream gis = new java.util.zip.GZIPInputStream(bis);
-             java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream()) {
-            
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = gis.read(buffer)) > 0) {
-                bos.write(buffer, 0, len);
-            }
-            return bos.toByteArray();
-        }
-    }
-
 }
@@ -0,0 +1,225 @@
+package com.jangid.forging_process_management_service.service.email;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.jangid.forging_process_management_service.dto.email.DispatchEmailRequest;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of SMTP senders keyed by tenant and SMTP configuration.
+ * Each sender keeps its SMTP connection open between sends so a burst of dispatch emails
+ * for the same tenant reuses one connection instead of opening one per email.
+ * Idle senders are evicted and their connections closed.
+ */
+@Slf4j
+@Component
+public class SmtpMailSenderCache {
+
+    private final Cache<String, ReusableSmtpSender> senders;
+
+    public SmtpMailSenderCache(@Value("${app.email.smtp.sender-cache.max-size:100}") long maxSize,
+                               @Value("${app.email.smtp.sender-cache.idle-timeout-seconds:120}") long idleTimeoutSeconds) {
+        this.senders = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofSeconds(idleTimeoutSeconds))
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String key, ReusableSmtpSender sender, RemovalCause cause) -> {
+                    if (sender != null) {
+                        sender.close();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the sender for a tenant's SMTP configuration, creating it on first use
+     */
+    public ReusableSmtpSender getSender(Long tenantId, DispatchEmailRequest.SmtpConfig smtpConfig) {
+        if (smtpConfig == null) {
+            throw new IllegalArgumentException("SMTP configuration is required");
+        }
+        return senders.get(cacheKey(tenantId, smtpConfig), key -> new ReusableSmtpSender(createMailSender(smtpConfig)));
+    }
+
+    /**
+     * Drop the cached sender for a configuration, e.g. after its credentials were rejected
+     */
+    public void evict(Long tenantId, DispatchEmailRequest.SmtpConfig smtpConfig) {
+        senders.invalidate(cacheKey(tenantId, smtpConfig));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        senders.invalidateAll();
+        senders.cleanUp();
+    }
+
+    /**
+     * Create JavaMailSender with runtime SMTP configuration
+     */
+    static JavaMailSenderImpl createMailSender(DispatchEmailRequest.SmtpConfig smtpConfig) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(smtpConfig.getHost());
+        mailSender.setPort(smtpConfig.getPort() != null ? smtpConfig.getPort() : 587);
+
+        if (smtpConfig.getUsername() != null && !smtpConfig.getUsername().trim().isEmpty()) {
+            mailSender.setUsername(smtpConfig.getUsername());
+        }
+
+        if (smtpConfig.getPassword() != null && !smtpConfig.getPassword().trim().isEmpty()) {
+            // Remove spaces from password (common issue with Gmail App Passwords)
+            String cleanPassword = smtpConfig.getPassword().replaceAll("\\s+", "");
+            mailSender.setPassword(cleanPassword);
+        }
+
+        Properties props = mailSender.getJavaMailProperties();
+        props.put("mail.transport.protocol", "smtp");
+        props.put("mail.smtp.auth", smtpConfig.getUseAuth() != null ? smtpConfig.getUseAuth() : true);
+        props.put("mail.smtp.starttls.enable", smtpConfig.getUseTls() != null ? smtpConfig.getUseTls() : true);
+        props.put("mail.smtp.starttls.required", smtpConfig.getUseTls() != null ? smtpConfig.getUseTls() : true);
+
+        // Increased timeouts to handle large attachments and slower SMTP servers
+        // These values are standard for production email sending
+        props.put("mail.smtp.connectiontimeout", "30000");  // 30 seconds to establish connection
+        props.put("mail.smtp.timeout", "60000");            // 60 seconds for server responses
+        props.put("mail.smtp.writetimeout", "60000");       // 60 seconds for writing data
+
+        props.put("mail.debug", "false");
+
+        // For custom domains with Zoho/other hosting - trust SSL certificates
+        // This handles cases where SMTP host (smtp.customdomain.com) has a certificate
+        // issued for a different hostname (smtp.zoho.com)
+        props.put("mail.smtp.ssl.trust", "*");
+        props.put("mail.smtp.ssl.checkserveridentity", "false");
+
+        return mailSender;
+    }
+
+    private static String cacheKey(Long tenantId, DispatchEmailRequest.SmtpConfig smtpConfig) {
+        // The password is part of the identity (a changed password must not reuse an authenticated
+        // connection) but is only kept as a digest in the key
+        return tenantId + "|" + smtpConfig.getHost() + ":" + smtpConfig.getPort() + "|" + smtpConfig.getUsername() + "|" +
+               sha256(smtpConfig.getPassword()) + "|" + smtpConfig.getUseTls() + "|" + smtpConfig.getUseAuth();
+    }
+
+    private static String sha256(String value) {
+        if (value == null) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * SMTP sender that keeps one connected transport open between sends.
+     * Sends are serialized per sender because a transport is not thread-safe;
+     * a dropped or failed connection is closed and reopened on the next send.
+     */
+    public static final class ReusableSmtpSender {
+
+        private final JavaMailSenderImpl mailSender;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Transport transport;
+
+        ReusableSmtpSender(JavaMailSenderImpl mailSender) {
+            this.mailSender = mailSender;
+        }
+
+        public MimeMessage createMimeMessage() {
+            return mailSender.createMimeMessage();
+        }
+
+        /**
+         * Rebuild a message previously serialized with {@link MimeMessage#writeTo}
+         */
+        public MimeMessage parseMimeMessage(byte[] rawMessage) throws MessagingException {
+            return new MimeMessage(mailSender.getSession(), new ByteArrayInputStream(rawMessage));
+        }
+
+        /**
+         * Open (or verify) the connection; doubles as a credential check
+         */
+        public void testConnection() throws MessagingException {
+            lock.lock();
+            try {
+                ensureConnected();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void send(MimeMessage message) throws MessagingException {
+            lock.lock();
+            try {
+                ensureConnected();
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new Date());
+                }
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                closeTransport();
+                throw e;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closeTransport();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void ensureConnected() throws MessagingException {
+            if (transport != null && transport.isConnected()) {
+                return;
+            }
+            closeTransport();
+            Transport newTransport = mailSender.getSession().getTransport(mailSender.getProtocol());
+            newTransport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            transport = newTransport;
+            log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        }
+
+        private void closeTransport() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection to {}: {}", mailSender.getHost(), e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
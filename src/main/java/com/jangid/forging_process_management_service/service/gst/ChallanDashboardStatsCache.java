@@ -0,0 +1,59 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived per-tenant cache of the challan dashboard statistics, which the billing pages load on every visit.
+ * Challan state transitions evict the tenant's entry; the TTL bounds staleness from changes that do not
+ * (dispatch batches becoming ready, for example).
+ */
+@Slf4j
+@Component
+public class ChallanDashboardStatsCache {
+
+  private final Cache<Long, Map<String, Object>> stats;
+
+  public ChallanDashboardStatsCache(@Value("${app.challan.dashboard-cache.max-size:1000}") long maxSize,
+                                    @Value("${app.challan.dashboard-cache.ttl-seconds:30}") long ttlSeconds) {
+    this.stats = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .build();
+  }
+
+  /**
+   * The tenant's cached statistics, computing and caching them on a miss
+   */
+  public Map<String, Object> get(Long tenantId, Supplier<Map<String, Object>> loader) {
+    return stats.get(tenantId, ignored -> loader.get());
+  }
+
+  /**
+   * Drop the tenant's statistics. Inside a transaction they are dropped again after commit,
+   * so statistics computed from the pre-commit data in the meantime are not served either.
+   */
+  public void evict(Long tenantId) {
+    stats.invalidate(tenantId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          stats.invalidate(tenantId);
+        }
+      });
+    }
+    log.debug("Evicted challan dashboard statistics of tenant {}", tenantId);
+  }
+}
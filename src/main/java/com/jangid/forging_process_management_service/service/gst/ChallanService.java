@@ -52,6 +52,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -77,6 +78,7 @@ public class ChallanService {
   private final OrderItemWorkflowRepository orderItemWorkflowRepository;
   private final VendorDispatchBatchRepository vendorDispatchBatchRepository;
   private final TenantVendorChallanSettingsRepository tenantVendorChallanSettingsRepository;
+  private final ChallanDashboardStatsCache challanDashboardStatsCache;
 
   /**
    * Generate challan from dispatch batches
@@ -212,6 +214,7 @@ public class ChallanService {
       dispatchBatchRepository.save(batch);
       log.debug("Updated dispatch batch {} status to CHALLAN_CREATED", batch.getDispatchBatchNumber());
     }
+    challanDashboardStatsCache.evict(tenantId);
 
     log.info("Successfully generated challan {} with GENERATED status for {} dispatch batch(es)", 
              challan.getChallanNumber(), dispatchBatches.size());
@@ -247,25 +250,15 @@ public class ChallanService {
   }
 
   /**
-   * Get all challans for a tenant with pagination
+   * Challan summaries for list views, optionally filtered (null filters are ignored).
+   * Fetched as one projection query per page, without loading line items or related entities.
    */
   @Transactional(readOnly = true)
-  public Page<DeliveryChallan> getChallansByTenant(Long tenantId, Pageable pageable) {
-    return challanRepository.findByTenantIdAndDeletedFalse(tenantId, pageable);
-  }
-
-  /**
-   * Search challans with filters
-   */
-  @Transactional(readOnly = true)
-  public Page<DeliveryChallan> searchChallans(Long tenantId, ChallanStatus status, 
-                                               LocalDateTime fromDate, LocalDateTime toDate,
-                                               String search, Pageable pageable) {
-    // Implement search logic based on filters
-    if (status != null) {
-      return challanRepository.findByTenantIdAndStatusAndDeletedFalse(tenantId, status, pageable);
-    }
-    return getChallansByTenant(tenantId, pageable);
+  public Page<DeliveryChallanRepository.ChallanSummary> getChallanSummaries(Long tenantId, ChallanStatus status,
+                                                                            LocalDateTime fromDate, LocalDateTime toDate,
+                                                                            String search, Pageable pageable) {
+    String searchTerm = search != null && !search.isBlank() ? search.trim() : null;
+    return challanRepository.findChallanSummaries(tenantId, status, fromDate, toDate, searchTerm, pageable);
   }
 
     /**
@@ -337,6 +330,8 @@ public class ChallanService {
                challanId, challan.getChallanNumber(), tenantId, dispatchBatches.size());
     }
     
+    challanDashboardStatsCache.evict(tenantId);
+
     // Note: We DON'T decrement the sequence number here.
     // Instead, the generateChallanNumber method will reuse deleted challan numbers
     // by checking for deleted=true challans with the oldest deletedAt timestamp.
@@ -392,6 +387,7 @@ public class ChallanService {
       log.info("Cancelled challan: {} for tenant: {}. {} dispatch batch(es) moved back to READY_TO_DISPATCH.",
                challanId, tenantId, dispatchBatches.size());
     }
+    challanDashboardStatsCache.evict(tenantId);
     
     return challanRepository.save(challan);
   }
@@ -459,6 +455,7 @@ public class ChallanService {
     }
 
     challan.setStatus(ChallanStatus.DISPATCHED);
+    challanDashboardStatsCache.evict(tenantId);
 
     return challanRepository.save(challan);
   }
@@ -564,28 +561,26 @@ public class ChallanService {
 
   /**
    * Get challan dashboard statistics
+   * All counters come from one statement and are cached briefly per tenant; challan state transitions evict them
    * Note: challans are created as GENERATED
    */
   @Transactional(readOnly = true)
   public Map<String, Object> getChallanDashboardStats(Long tenantId) {
-    Map<String, Object> stats = new HashMap<>();
-
-    long generatedCount = challanRepository.countByTenantIdAndStatus(tenantId, ChallanStatus.GENERATED);
-    long dispatchedCount = challanRepository.countByTenantIdAndStatus(tenantId, ChallanStatus.DISPATCHED);
-    long cancelledCount = challanRepository.countByTenantIdAndStatus(tenantId, ChallanStatus.CANCELLED);
-    
-    // Count ready to dispatch batches
-    long readyToChallanCount = getReadyToDispatchBatchesCount(tenantId);
-    long readyToVendorChallanCount = getReadyToDispatchVendorBatchesCount(tenantId);
-    
-    stats.put("generatedCount", generatedCount);
-    stats.put("inTransitCount", dispatchedCount); // Dispatched = In Transit
-    stats.put("cancelledCount", cancelledCount);
-    stats.put("readyToChallanCount", readyToChallanCount);
-    stats.put("readyToVendorChallanCount", readyToVendorChallanCount);
-    stats.put("totalActiveChallans", generatedCount + dispatchedCount);
-    
-    return stats;
+    return challanDashboardStatsCache.get(tenantId, () -> {
+      DeliveryChallanRepository.ChallanDashboardCounts counts = challanRepository.getDashboardCounts(tenantId);
+
+      Map<String, Object> stats = new HashMap<>();
+      stats.put("generatedCount", counts.getGeneratedCount());
+      stats.put("inTransitCount", counts.getDispatchedCount()); // Dispatched = In Transit
+      stats.put("convertedToInvoiceCount", counts.getConvertedToInvoiceCount());
+      stats.put("cancelledCount", counts.getCancelledCount());
+      stats.put("ewayBillPendingCount", counts.getEwayBillPendingCount());
+      stats.put("readyToChallanCount", counts.getReadyToDispatchBatchCount());
+      stats.put("readyToVendorChallanCount", counts.getReadyToDispatchVendorBatchCount());
+      stats.put("totalActiveChallans", counts.getGeneratedCount() + counts.getDispatchedCount());
+
+      return Collections.unmodifiableMap(stats);
+    });
   }
 
   /**
@@ -702,6 +697,7 @@ public class ChallanService {
     vendorDispatchBatch.setVendorDispatchBatchStatus(VendorDispatchBatch.VendorDispatchBatchStatus.CHALLAN_CREATED);
     vendorDispatchBatchRepository.save(vendorDispatchBatch);
     log.debug("Updated vendor dispatch batch {} status to CHALLAN_CREATED", vendorDispatchBatch.getVendorDispatchBatchNumber());
+    challanDashboardStatsCache.evict(tenantId);
 
     log.info("Successfully generated challan {} with GENERATED status for vendor dispatch batch {}", 
              challan.getChallanNumber(), vendorDispatchBatch.getVendorDispatchBatchNumber());
@@ -945,6 +941,7 @@ public class ChallanService {
     challan.calculateTotals();
     
     log.info("Updated challan: {} for tenant: {}", challanId, tenantId);
+    challanDashboardStatsCache.evict(tenantId);
     
     return challanRepository.save(challan);
   }
@@ -3,8 +3,11 @@ package com.jangid.forging_process_management_service.service.gst;
 import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceAuthResponse;
 import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceSessionCredentialsDTO;
 import com.jangid.forging_process_management_service.dto.gst.gsp.EwayBillSessionTokenResponse;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
 import com.jangid.forging_process_management_service.entities.gst.TenantEInvoiceCredentials;
 import com.jangid.forging_process_management_service.repository.gst.TenantEInvoiceCredentialsRepository;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.StoredGspSession;
 import com.jangid.forging_process_management_service.service.security.EncryptionService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,7 @@ public class EInvoiceAuthServiceWithSession {
     private final RestTemplate restTemplate;
     private final GspServerFailoverHelper failoverHelper;
     private final GspServerConfigService gspServerConfigService;
+    private final GspAuthSingleFlight authSingleFlight;
 
     private static final DateTimeFormatter TOKEN_EXPIRY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -94,24 +98,21 @@ public class EInvoiceAuthServiceWithSession {
         }
 
         // Authenticate with GSP using provided credentials
-        EInvoiceAuthResponse authResponse = authenticateWithGsp(
-            credentials,
-            sessionCredentials.getEinvUsername(),
-            sessionCredentials.getEinvPassword(),
-            sessionCredentials.getGspServerId()
+        // Concurrent logins for the same tenant, user and password share a single GSP authentication
+        EInvoiceAuthResponse authResponse = authSingleFlight.execute(
+            GspAuthSingleFlight.key(GspSessionType.EINVOICE.name(), tenantId,
+                                    sessionCredentials.getEinvUsername(), sessionCredentials.getEinvPassword(),
+                                    sessionCredentials.getGspServerId()),
+            () -> authenticateWithGsp(
+                credentials,
+                sessionCredentials.getEinvUsername(),
+                sessionCredentials.getEinvPassword(),
+                sessionCredentials.getGspServerId()
+            )
         );
 
         // Parse token expiry from GSP response
-        LocalDateTime tokenExpiry = null;
-        if (authResponse.getTokenExpiry() != null && !authResponse.getTokenExpiry().isEmpty()) {
-            try {
-                tokenExpiry = LocalDateTime.parse(authResponse.getTokenExpiry(), TOKEN_EXPIRY_FORMATTER);
-                log.debug("Parsed GSP token expiry: {}", tokenExpiry);
-            } catch (Exception e) {
-                log.warn("Failed to parse token expiry '{}', using default timeout", 
-                        authResponse.getTokenExpiry(), e);
-            }
-        }
+        LocalDateTime tokenExpiry = parseTokenExpiry(authResponse);
 
         // Create session and get session token
         String sessionToken = sessionService.createSession(
@@ -120,6 +121,7 @@ public class EInvoiceAuthServiceWithSession {
             encryptionService.encrypt(sessionCredentials.getEinvPassword()), // Store encrypted
             authResponse.getAuthToken(),
             credentials.getEinvGstin(),
+            sessionCredentials.getGspServerId(),
             tokenExpiry
         );
 
@@ -167,6 +169,59 @@ public class EInvoiceAuthServiceWithSession {
         return sessionService.getActiveSessionCount();
     }
 
+    /**
+     * Renew the GSP auth token of a session ahead of its expiry, using the credentials stored with the session
+     * 
+     * @param renewable Session claimed for renewal
+     * @return false if the session was removed while renewing
+     */
+    public boolean renewSessionToken(GspSessionStore.RenewableGspSession renewable) {
+        StoredGspSession session = renewable.session();
+        TenantEInvoiceCredentials credentials = credentialsRepository.findByTenantId(session.getTenantId())
+            .orElseThrow(() -> new IllegalArgumentException(
+                "E-Invoice configuration not found for tenant: " + session.getTenantId()));
+
+        if (!credentials.hasValidCredentials()) {
+            throw new IllegalStateException(
+                "E-Invoice configuration incomplete or inactive for tenant: " + session.getTenantId());
+        }
+
+        String password = encryptionService.decrypt(session.getPasswordEncrypted());
+
+        EInvoiceAuthResponse authResponse = authSingleFlight.execute(
+            GspAuthSingleFlight.key(GspSessionType.EINVOICE.name(), session.getTenantId(),
+                                    session.getUsername(), password, session.getGspServerId()),
+            () -> authenticateWithGsp(
+                credentials,
+                session.getUsername(),
+                password,
+                session.getGspServerId()
+            )
+        );
+
+        return sessionService.applyRenewedToken(renewable, authResponse.getAuthToken(), parseTokenExpiry(authResponse));
+    }
+
+    /**
+     * Parse the token expiry reported by GSP
+     * 
+     * @return token expiry, or null if missing or unparseable
+     */
+    private LocalDateTime parseTokenExpiry(EInvoiceAuthResponse authResponse) {
+        if (authResponse.getTokenExpiry() == null || authResponse.getTokenExpiry().isEmpty()) {
+            return null;
+        }
+        try {
+            LocalDateTime tokenExpiry = LocalDateTime.parse(authResponse.getTokenExpiry(), TOKEN_EXPIRY_FORMATTER);
+            log.debug("Parsed GSP token expiry: {}", tokenExpiry);
+            return tokenExpiry;
+        } catch (Exception e) {
+            log.warn("Failed to parse token expiry '{}', using default timeout", 
+                    authResponse.getTokenExpiry(), e);
+            return null;
+        }
+    }
+
     /**
      * Authenticate with GSP using provided credentials with failover support
      * 
@@ -1,6 +1,11 @@
 package com.jangid.forging_process_management_service.service.gst;
 
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.StoredGspSession;
+
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -8,26 +13,28 @@ import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing E-Invoice session tokens
- * Provides in-memory session storage with automatic expiry
+ * Sessions are kept in the configured {@link GspSessionStore} (shared between instances by default)
+ * with automatic expiry
  * Similar to EwayBillSessionService
  * 
  * Security Features:
- * - No database persistence of credentials
+ * - Only a hash of the session token is persisted; credentials and auth token are encrypted at rest
  * - 30-minute inactivity timeout
  * - Automatic cleanup of expired sessions
  * - Secure token generation
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EInvoiceSessionService {
 
-    // In-memory session storage: sessionToken -> SessionData
-    private final Map<String, SessionData> sessionStore = new ConcurrentHashMap<>();
+    private final GspSessionStore sessionStore;
+
+    // Session timeout when GSP does not report a token expiry
+    private static final int SESSION_TIMEOUT_MINUTES = 30;
 
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -41,6 +48,7 @@ public class EInvoiceSessionService {
         private String einvPassword; // Encrypted in memory
         private String gspAuthToken;
         private String gstin;
+        private String gspServerId; // GSP server the session authenticated against
         private LocalDateTime createdAt;
         private LocalDateTime lastAccessedAt;
         private LocalDateTime expiresAt; // Maps to TokenExpiry from GSP
@@ -77,11 +85,12 @@ public class EInvoiceSessionService {
      * @param einvPassword E-Invoice password (will be encrypted)
      * @param gspAuthToken GSP authentication token
      * @param gstin GSTIN
+     * @param gspServerId GSP server the token was issued by (used for background renewal)
      * @param gspTokenExpiry GSP token expiry from authentication response
      * @return Session token
      */
     public String createSession(Long tenantId, String einvUsername, String einvPassword, 
-                                String gspAuthToken, String gstin, LocalDateTime gspTokenExpiry) {
+                                String gspAuthToken, String gstin, String gspServerId, LocalDateTime gspTokenExpiry) {
         // Generate secure random token
         String sessionToken = generateSecureToken();
 
@@ -92,6 +101,7 @@ public class EInvoiceSessionService {
         sessionData.setEinvPassword(einvPassword); // Store encrypted
         sessionData.setGspAuthToken(gspAuthToken);
         sessionData.setGstin(gstin);
+        sessionData.setGspServerId(gspServerId);
         sessionData.setCreatedAt(LocalDateTime.now());
         sessionData.setLastAccessedAt(LocalDateTime.now());
         
@@ -101,10 +111,14 @@ public class EInvoiceSessionService {
             sessionData.setExpiresAt(gspTokenExpiry);
             log.info("Created new E-Invoice session for tenant: {}, GSTIN: {}, GSP token expires at: {}", 
                      tenantId, gstin, gspTokenExpiry);
+        } else {
+            sessionData.setExpiresAt(LocalDateTime.now().plusMinutes(SESSION_TIMEOUT_MINUTES));
+            log.info("Created new E-Invoice session for tenant: {}, GSTIN: {}, no GSP token expiry, session expires at: {}", 
+                     tenantId, gstin, sessionData.getExpiresAt());
         }
 
         // Store session
-        sessionStore.put(sessionToken, sessionData);
+        sessionStore.save(GspSessionType.EINVOICE, sessionToken, toStoredSession(sessionData));
 
         return sessionToken;
     }
@@ -121,22 +135,25 @@ public class EInvoiceSessionService {
             return null;
         }
 
-        SessionData sessionData = sessionStore.get(sessionToken);
+        StoredGspSession storedSession = sessionStore.find(GspSessionType.EINVOICE, sessionToken);
 
-        if (sessionData == null) {
+        if (storedSession == null) {
             log.debug("E-Invoice session not found: {}", sessionToken);
             return null;
         }
 
+        SessionData sessionData = toSessionData(storedSession);
+
         if (sessionData.isExpired()) {
             log.info("E-Invoice session expired for tenant: {}, GSTIN: {}", 
                      sessionData.getTenantId(), sessionData.getGstin());
-            sessionStore.remove(sessionToken);
+            sessionStore.delete(GspSessionType.EINVOICE, sessionToken);
             return null;
         }
 
         // Update last access time and extend expiry
         sessionData.updateLastAccess();
+        sessionStore.touch(GspSessionType.EINVOICE, sessionToken, sessionData.getLastAccessedAt());
         
         log.debug("E-Invoice session accessed for tenant: {}, GSTIN: {}, new expiry: {}", 
                   sessionData.getTenantId(), sessionData.getGstin(), sessionData.getExpiresAt());
@@ -160,20 +177,41 @@ public class EInvoiceSessionService {
      * @param sessionToken Session token
      */
     public void invalidateSession(String sessionToken) {
-        SessionData removed = sessionStore.remove(sessionToken);
+        StoredGspSession removed = sessionStore.find(GspSessionType.EINVOICE, sessionToken);
+        sessionStore.delete(GspSessionType.EINVOICE, sessionToken);
         if (removed != null) {
             log.info("E-Invoice session invalidated for tenant: {}, GSTIN: {}", 
                      removed.getTenantId(), removed.getGstin());
         }
     }
 
+    /**
+     * Store a renewed GSP auth token on an existing session.
+     * The session expires with its token, so it is extended to the new token expiry
+     * (or the default timeout when GSP did not report one).
+     * 
+     * @param renewable Session claimed for renewal
+     * @param gspAuthToken New GSP auth token
+     * @param gspTokenExpiry Expiry of the new token
+     * @return false if the session was removed in the meantime
+     */
+    public boolean applyRenewedToken(GspSessionStore.RenewableGspSession renewable, String gspAuthToken,
+                                     LocalDateTime gspTokenExpiry) {
+        StoredGspSession renewed = renewable.session().toBuilder()
+            .gspAuthToken(gspAuthToken)
+            .tokenExpiresAt(gspTokenExpiry)
+            .expiresAt(gspTokenExpiry != null ? gspTokenExpiry : LocalDateTime.now().plusMinutes(SESSION_TIMEOUT_MINUTES))
+            .build();
+        return sessionStore.replace(GspSessionType.EINVOICE, renewable.tokenHash(), renewed);
+    }
+
     /**
      * Get session count (for monitoring)
      * 
      * @return Number of active sessions
      */
     public int getActiveSessionCount() {
-        return sessionStore.size();
+        return (int) sessionStore.countActive(GspSessionType.EINVOICE);
     }
 
     /**
@@ -182,25 +220,43 @@ public class EInvoiceSessionService {
      */
     @Scheduled(fixedRate = 300000) // 5 minutes
     public void cleanupExpiredSessions() {
-        int beforeCount = sessionStore.size();
-        
-        sessionStore.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().isExpired();
-            if (expired) {
-                log.debug("Removing expired E-Invoice session for tenant: {}", entry.getValue().getTenantId());
-            }
-            return expired;
-        });
-
-        int afterCount = sessionStore.size();
-        int removed = beforeCount - afterCount;
+        int removed = sessionStore.deleteExpired(GspSessionType.EINVOICE, LocalDateTime.now());
 
         if (removed > 0) {
-            log.info("Cleaned up {} expired E-Invoice sessions. Active sessions: {}", 
-                     removed, afterCount);
+            log.info("Cleaned up {} expired E-Invoice sessions", removed);
         }
     }
 
+    private StoredGspSession toStoredSession(SessionData sessionData) {
+        return StoredGspSession.builder()
+            .tenantId(sessionData.getTenantId())
+            .username(sessionData.getEinvUsername())
+            .passwordEncrypted(sessionData.getEinvPassword())
+            .gspAuthToken(sessionData.getGspAuthToken())
+            .gstin(sessionData.getGstin())
+            .gspServerId(sessionData.getGspServerId())
+            .createdAt(sessionData.getCreatedAt())
+            .lastAccessedAt(sessionData.getLastAccessedAt())
+            .expiresAt(sessionData.getExpiresAt())
+            .tokenExpiresAt(sessionData.getGspTokenExpiry())
+            .build();
+    }
+
+    private SessionData toSessionData(StoredGspSession storedSession) {
+        SessionData sessionData = new SessionData();
+        sessionData.setTenantId(storedSession.getTenantId());
+        sessionData.setEinvUsername(storedSession.getUsername());
+        sessionData.setEinvPassword(storedSession.getPasswordEncrypted());
+        sessionData.setGspAuthToken(storedSession.getGspAuthToken());
+        sessionData.setGstin(storedSession.getGstin());
+        sessionData.setGspServerId(storedSession.getGspServerId());
+        sessionData.setCreatedAt(storedSession.getCreatedAt());
+        sessionData.setLastAccessedAt(storedSession.getLastAccessedAt());
+        sessionData.setExpiresAt(storedSession.getExpiresAt());
+        sessionData.setGspTokenExpiry(storedSession.getTokenExpiresAt());
+        return sessionData;
+    }
+
     /**
      * Generate secure random session token
      * 
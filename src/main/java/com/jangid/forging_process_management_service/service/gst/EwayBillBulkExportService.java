@@ -0,0 +1,242 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillBulkExportRequest;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillData;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillJsonFormat;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk E-Way Bill JSON export for offline upload to ewaybillgst.gov.in.
+ * Documents are loaded and mapped in batches (one query per batch for the documents with their
+ * line items and parties) and written to a temporary file, either as one portal-format file
+ * with every bill in billLists or as a ZIP with one portal-format file per document.
+ * Only one batch of documents is held in memory at a time.
+ */
+@Service
+@Slf4j
+public class EwayBillBulkExportService {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+  private final EwayBillExportService ewayBillExportService;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final int maxDocuments;
+
+  public EwayBillBulkExportService(EwayBillExportService ewayBillExportService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.eway-bill.export.batch-size:100}") int batchSize,
+                                   @Value("${app.eway-bill.export.max-documents:2000}") int maxDocuments) {
+    this.ewayBillExportService = ewayBillExportService;
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.maxDocuments = maxDocuments;
+  }
+
+  /**
+   * The documents an export will contain, resolved and validated before anything is streamed
+   *
+   * @param documentIds ids to export, in export order
+   * @param excludedIds requested ids that were not found or are not in an exportable status
+   */
+  public record ExportPlan(EwayBillBulkExportRequest.DocumentType documentType,
+                           EwayBillBulkExportRequest.ExportFormat format,
+                           List<Long> documentIds,
+                           List<Long> excludedIds) {
+
+    public String fileName() {
+      String prefix = documentType == EwayBillBulkExportRequest.DocumentType.INVOICE ? "eway_bills_invoices" : "eway_bills_challans";
+      String extension = format == EwayBillBulkExportRequest.ExportFormat.ZIP ? "zip" : "json";
+      return String.format("%s_%s.%s", prefix, LocalDateTime.now().format(FILE_TIMESTAMP), extension);
+    }
+  }
+
+  /**
+   * Resolve the documents to export
+   *
+   * @throws IllegalArgumentException if the selection is invalid, matches no exportable document or is too large
+   */
+  public ExportPlan plan(Long tenantId, EwayBillBulkExportRequest request) {
+    boolean byIds = request.getDocumentIds() != null && !request.getDocumentIds().isEmpty();
+    if (!byIds) {
+      if (request.getFromDate() == null || request.getToDate() == null) {
+        throw new IllegalArgumentException("Either documentIds or both fromDate and toDate are required");
+      }
+      if (request.getFromDate().isAfter(request.getToDate())) {
+        throw new IllegalArgumentException("fromDate must not be after toDate");
+      }
+    }
+
+    Set<Long> requestedIds = byIds ? new LinkedHashSet<>(request.getDocumentIds()) : Set.of();
+    List<Long> exportableIds = request.getDocumentType() == EwayBillBulkExportRequest.DocumentType.INVOICE
+        ? ewayBillExportService.findExportableInvoiceIds(tenantId, requestedIds, request.getFromDate(), request.getToDate())
+        : ewayBillExportService.findExportableChallanIds(tenantId, requestedIds, request.getFromDate(), request.getToDate());
+
+    List<Long> documentIds;
+    List<Long> excludedIds = new ArrayList<>();
+    if (byIds) {
+      // Keep the order the ids were requested in
+      Set<Long> exportable = new HashSet<>(exportableIds);
+      documentIds = new ArrayList<>();
+      for (Long id : requestedIds) {
+        (exportable.contains(id) ? documentIds : excludedIds).add(id);
+      }
+    } else {
+      documentIds = exportableIds;
+    }
+
+    if (documentIds.isEmpty()) {
+      throw new IllegalArgumentException("No " + request.getDocumentType().name().toLowerCase()
+                                         + "s eligible for E-Way Bill export were found");
+    }
+    if (documentIds.size() > maxDocuments) {
+      throw new IllegalArgumentException(String.format(
+          "%d documents match the selection; at most %d can be exported at once. Please narrow the date range.",
+          documentIds.size(), maxDocuments));
+    }
+
+    EwayBillBulkExportRequest.ExportFormat format = request.getFormat() != null
+        ? request.getFormat() : EwayBillBulkExportRequest.ExportFormat.BULK_JSON;
+    return new ExportPlan(request.getDocumentType(), format, documentIds, excludedIds);
+  }
+
+  /**
+   * An export rendered to a temporary file, which the caller streams and then deletes
+   *
+   * @param exportedCount documents actually written
+   * @param skipped requested documents left out, by id, with the reason (not exportable, or could not be mapped)
+   */
+  public record RenderedExport(Path file, long size, int exportedCount, Map<Long, String> skipped) {
+  }
+
+  /**
+   * Render the export in the plan's format to a temporary file. Which documents fail to map is only known
+   * while writing, so rendering before the response starts lets its headers report what the file really holds.
+   * Only one batch of documents is held in memory; the file is deleted if rendering fails.
+   */
+  public RenderedExport render(Long tenantId, ExportPlan plan) throws IOException {
+    Map<Long, String> skipped = new LinkedHashMap<>();
+    plan.excludedIds().forEach(id -> skipped.put(id, "Not found or not in an exportable status"));
+
+    Path file = Files.createTempFile("eway-bill-export-", plan.format() == EwayBillBulkExportRequest.ExportFormat.ZIP ? ".zip" : ".json");
+    int exported;
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+      exported = plan.format() == EwayBillBulkExportRequest.ExportFormat.ZIP
+          ? writeZip(tenantId, plan, skipped, out)
+          : writeBulkJson(tenantId, plan, skipped, out);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+
+    log.info("Exported {} E-Way Bill(s) for {} {}s of tenant {} as {}; {} skipped",
+             exported, plan.documentIds().size(), plan.documentType().name().toLowerCase(), tenantId,
+             plan.format(), skipped.size());
+    return new RenderedExport(file, Files.size(file), exported, skipped);
+  }
+
+  /**
+   * One portal-format file: {"version": ..., "billLists": [...]}, written bill by bill.
+   * Documents that cannot be mapped are left out; the portal format has no place to list them,
+   * so they are only reported through {@link RenderedExport#skipped()}.
+   */
+  private int writeBulkJson(Long tenantId, ExportPlan plan, Map<Long, String> skipped, OutputStream out) throws IOException {
+    int exported = 0;
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    generator.writeStartObject();
+    generator.writeStringField("version", EwayBillJsonFormat.NIC_VERSION);
+    generator.writeArrayFieldStart("billLists");
+    for (int from = 0; from < plan.documentIds().size(); from += batchSize) {
+      for (EwayBillData bill : mapBatch(tenantId, plan, from, skipped)) {
+        generator.writeObject(bill);
+        exported++;
+      }
+      generator.flush();
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.close();
+    return exported;
+  }
+
+  /**
+   * A ZIP with one portal-format file per document, named like the single-document downloads.
+   * Documents that cannot be mapped are listed with the reason in skipped.json.
+   */
+  private int writeZip(Long tenantId, ExportPlan plan, Map<Long, String> skipped, OutputStream out) throws IOException {
+    int exported = 0;
+    ObjectWriter writer = objectMapper.writerWithDefaultPrettyPrinter();
+    Set<String> entryNames = new HashSet<>();
+    String prefix = plan.documentType() == EwayBillBulkExportRequest.DocumentType.INVOICE ? "eway_bill_" : "eway_bill_challan_";
+
+    ZipOutputStream zip = new ZipOutputStream(out);
+    for (int from = 0; from < plan.documentIds().size(); from += batchSize) {
+      for (EwayBillData bill : mapBatch(tenantId, plan, from, skipped)) {
+        zip.putNextEntry(new ZipEntry(uniqueEntryName(prefix + bill.getDocNo().replaceAll("[^a-zA-Z0-9]", "_"), entryNames)));
+        zip.write(writer.writeValueAsBytes(EwayBillJsonFormat.builder().billLists(List.of(bill)).build()));
+        zip.closeEntry();
+        exported++;
+      }
+      zip.flush();
+    }
+
+    if (!skipped.isEmpty()) {
+      List<Map<String, Object>> skippedEntries = new ArrayList<>();
+      skipped.forEach((id, reason) -> {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("documentId", id);
+        entry.put("reason", reason);
+        skippedEntries.add(entry);
+      });
+      zip.putNextEntry(new ZipEntry("skipped.json"));
+      zip.write(writer.writeValueAsBytes(skippedEntries));
+      zip.closeEntry();
+    }
+
+    // finish() completes the archive without closing the response stream
+    zip.finish();
+    zip.flush();
+    return exported;
+  }
+
+  private List<EwayBillData> mapBatch(Long tenantId, ExportPlan plan, int from, Map<Long, String> skipped) {
+    List<Long> batch = plan.documentIds().subList(from, Math.min(from + batchSize, plan.documentIds().size()));
+    return plan.documentType() == EwayBillBulkExportRequest.DocumentType.INVOICE
+        ? ewayBillExportService.mapInvoicesToEwayBills(tenantId, batch, skipped::put)
+        : ewayBillExportService.mapChallansToEwayBills(tenantId, batch, skipped::put);
+  }
+
+  private static String uniqueEntryName(String baseName, Set<String> usedNames) {
+    String name = baseName + ".json";
+    for (int suffix = 2; !usedNames.add(name); suffix++) {
+      name = baseName + "_" + suffix + ".json";
+    }
+    return name;
+  }
+}
@@ -28,10 +28,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for generating E-Way Bill JSON in NIC format for offline/manual upload
@@ -47,6 +55,9 @@ public class EwayBillExportService {
 
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+  static final Set<InvoiceStatus> EXPORTABLE_INVOICE_STATUSES = EnumSet.of(InvoiceStatus.GENERATED, InvoiceStatus.SENT);
+  static final Set<ChallanStatus> EXPORTABLE_CHALLAN_STATUSES = EnumSet.of(ChallanStatus.GENERATED, ChallanStatus.DISPATCHED);
+
   /**
    * Generate E-Way Bill JSON for Invoice
    * Read-only operation - no database writes
@@ -63,7 +74,7 @@ public class EwayBillExportService {
     }
 
     // Validate invoice status
-    if (invoice.getStatus() != InvoiceStatus.GENERATED && invoice.getStatus() != InvoiceStatus.SENT) {
+    if (!EXPORTABLE_INVOICE_STATUSES.contains(invoice.getStatus())) {
       throw new IllegalArgumentException(
           "E-Way Bill can only be generated for GENERATED or SENT invoices. Current status: " + invoice.getStatus()
       );
@@ -79,6 +90,46 @@ public class EwayBillExportService {
         .build();
   }
 
+  /**
+   * Ids of invoices that can be exported, either from the given ids or from an invoice date range (inclusive).
+   * Invoices that are not GENERATED or SENT, deleted or of another tenant are left out.
+   */
+  @Transactional(readOnly = true)
+  public List<Long> findExportableInvoiceIds(Long tenantId, Collection<Long> invoiceIds, LocalDate fromDate, LocalDate toDate) {
+    if (invoiceIds != null && !invoiceIds.isEmpty()) {
+      return invoiceRepository.findIdsByTenantIdAndStatusInAndIdIn(tenantId, EXPORTABLE_INVOICE_STATUSES, invoiceIds);
+    }
+    return invoiceRepository.findIdsByTenantIdAndStatusInAndInvoiceDateRange(
+        tenantId, EXPORTABLE_INVOICE_STATUSES, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+  }
+
+  /**
+   * Map a batch of invoices to E-Way Bill data, in the order of the given ids.
+   * The invoices with their line items, buyers, vendors and billing/shipping entities are loaded with one query.
+   * An invoice that cannot be mapped is reported to {@code onSkipped} instead of failing the batch.
+   */
+  @Transactional(readOnly = true)
+  public List<EwayBillData> mapInvoicesToEwayBills(Long tenantId, List<Long> invoiceIds, BiConsumer<Long, String> onSkipped) {
+    Map<Long, Invoice> invoices = invoiceRepository.findWithEwayBillDetailsByTenantIdAndIdIn(tenantId, invoiceIds).stream()
+        .collect(Collectors.toMap(Invoice::getId, Function.identity(), (first, duplicate) -> first));
+
+    List<EwayBillData> bills = new ArrayList<>(invoiceIds.size());
+    for (Long invoiceId : invoiceIds) {
+      Invoice invoice = invoices.get(invoiceId);
+      if (invoice == null) {
+        onSkipped.accept(invoiceId, "Invoice not found");
+        continue;
+      }
+      try {
+        bills.add(mapInvoiceToEwayBill(invoice));
+      } catch (RuntimeException e) {
+        log.warn("Skipping invoice {} in bulk E-Way Bill export: {}", invoiceId, e.getMessage());
+        onSkipped.accept(invoiceId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+      }
+    }
+    return bills;
+  }
+
   /**
    * Map Invoice entity to E-Way Bill data structure
    */
@@ -462,7 +513,7 @@ public class EwayBillExportService {
     }
 
     // Validate challan status
-    if (challan.getStatus() != ChallanStatus.GENERATED && challan.getStatus() != ChallanStatus.DISPATCHED) {
+    if (!EXPORTABLE_CHALLAN_STATUSES.contains(challan.getStatus())) {
       throw new IllegalArgumentException(
           "E-Way Bill can only be generated for GENERATED or DISPATCHED challans. Current status: " + challan.getStatus()
       );
@@ -478,6 +529,55 @@ public class EwayBillExportService {
         .build();
   }
 
+  /**
+   * Ids of challans that can be exported, either from the given ids or from a challan date range (inclusive).
+   * Challans that are not GENERATED or DISPATCHED, deleted or of another tenant are left out.
+   */
+  @Transactional(readOnly = true)
+  public List<Long> findExportableChallanIds(Long tenantId, Collection<Long> challanIds, LocalDate fromDate, LocalDate toDate) {
+    if (challanIds != null && !challanIds.isEmpty()) {
+      return challanRepository.findIdsByTenantIdAndStatusInAndIdIn(tenantId, EXPORTABLE_CHALLAN_STATUSES, challanIds);
+    }
+    return challanRepository.findIdsByTenantIdAndStatusInAndChallanDateRange(
+        tenantId, EXPORTABLE_CHALLAN_STATUSES, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
+  }
+
+  /**
+   * Map a batch of challans to E-Way Bill data, in the order of the given ids.
+   * Challans with their line items and parties are loaded with one query, plus one for the
+   * vendor line items of vendor challans.
+   * A challan that cannot be mapped is reported to {@code onSkipped} instead of failing the batch.
+   */
+  @Transactional(readOnly = true)
+  public List<EwayBillData> mapChallansToEwayBills(Long tenantId, List<Long> challanIds, BiConsumer<Long, String> onSkipped) {
+    Map<Long, DeliveryChallan> challans = challanRepository.findWithEwayBillDetailsByTenantIdAndIdIn(tenantId, challanIds).stream()
+        .collect(Collectors.toMap(DeliveryChallan::getId, Function.identity(), (first, duplicate) -> first));
+
+    List<Long> vendorChallanIds = challans.values().stream()
+        .filter(challan -> Boolean.TRUE.equals(challan.getIsVendorChallan()))
+        .map(DeliveryChallan::getId)
+        .toList();
+    if (!vendorChallanIds.isEmpty()) {
+      challanRepository.findWithVendorLineItemsByIdIn(vendorChallanIds);
+    }
+
+    List<EwayBillData> bills = new ArrayList<>(challanIds.size());
+    for (Long challanId : challanIds) {
+      DeliveryChallan challan = challans.get(challanId);
+      if (challan == null) {
+        onSkipped.accept(challanId, "Delivery Challan not found");
+        continue;
+      }
+      try {
+        bills.add(mapChallanToEwayBill(challan));
+      } catch (RuntimeException e) {
+        log.warn("Skipping challan {} in bulk E-Way Bill export: {}", challanId, e.getMessage());
+        onSkipped.accept(challanId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+      }
+    }
+    return bills;
+  }
+
   /**
    * Map Delivery Challan entity to E-Way Bill data structure
    */
@@ -22,7 +22,9 @@ import java.util.function.Consumer;
 
 /**
  * Service for E-Way Bill generation operations
- * Handles business logic, retries, and entity updates for both Invoice and DeliveryChallan
+ * Handles business logic and entity updates for both Invoice and DeliveryChallan
+ * Each call makes one generation attempt. Server faults are rethrown for the caller to retry later through
+ * the GSP job queue, which waits out a backoff, instead of retrying back to back on the request thread
  */
 @Service
 @Slf4j
@@ -32,9 +34,8 @@ public class EwayBillGenerationService {
     private final GspEwayBillService gspEwayBillService;
     private final InvoiceRepository invoiceRepository;
     private final DeliveryChallanRepository challanRepository;
+    private final ChallanDashboardStatsCache challanDashboardStatsCache;
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long RETRY_DELAY_MS = 1000; // 1 second between retries
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss a", Locale.ENGLISH);
 
     /**
@@ -158,11 +159,12 @@ public class EwayBillGenerationService {
         @Override
         public void save(DeliveryChallan challan) {
             challanRepository.save(challan);
+            challanDashboardStatsCache.evict(challan.getTenant().getId());
         }
     }
 
     /**
-     * Generate E-Way Bill via GSP API with retry logic for Invoice
+     * Generate E-Way Bill via GSP API for Invoice
      * 
      * @param tenantId Tenant ID
      * @param invoice Invoice entity
@@ -171,16 +173,16 @@ public class EwayBillGenerationService {
      * @param gspServerId GSP Server ID selected by user
      * @return GSP API response
      * @throws IllegalArgumentException if invoice not found or validation fails
-     * @throws RuntimeException if generation fails after retries
+     * @throws RuntimeException if generation fails
      */
     @Transactional
-    public GspEwbGenerateResponse generateEwayBillWithRetry(Long tenantId, Invoice invoice, EwayBillData request, 
+    public GspEwbGenerateResponse generateEwayBill(Long tenantId, Invoice invoice, EwayBillData request, 
                                                             String sessionToken, String gspServerId) {
-        return generateEwayBillWithRetry(tenantId, invoice, request, new InvoiceUpdater(), sessionToken, gspServerId);
+        return generateEwayBill(tenantId, invoice, request, new InvoiceUpdater(), sessionToken, gspServerId);
     }
 
     /**
-     * Generate E-Way Bill via GSP API with retry logic for DeliveryChallan
+     * Generate E-Way Bill via GSP API for DeliveryChallan
      * 
      * @param tenantId Tenant ID
      * @param challan DeliveryChallan entity
@@ -189,16 +191,16 @@ public class EwayBillGenerationService {
      * @param gspServerId GSP Server ID selected by user
      * @return GSP API response
      * @throws IllegalArgumentException if challan not found or validation fails
-     * @throws RuntimeException if generation fails after retries
+     * @throws RuntimeException if generation fails
      */
     @Transactional
-    public GspEwbGenerateResponse generateEwayBillWithRetry(Long tenantId, DeliveryChallan challan, EwayBillData request,
+    public GspEwbGenerateResponse generateEwayBill(Long tenantId, DeliveryChallan challan, EwayBillData request,
                                                             String sessionToken, String gspServerId) {
-        return generateEwayBillWithRetry(tenantId, challan, request, new ChallanUpdater(), sessionToken, gspServerId);
+        return generateEwayBill(tenantId, challan, request, new ChallanUpdater(), sessionToken, gspServerId);
     }
 
     /**
-     * Generic E-Way Bill generation with retry logic
+     * Generic E-Way Bill generation
      * Works for both Invoice and DeliveryChallan using strategy pattern
      * 
      * @param tenantId Tenant ID
@@ -209,7 +211,7 @@ public class EwayBillGenerationService {
      * @param gspServerId GSP Server ID selected by user
      * @return GSP API response
      */
-    private <T> GspEwbGenerateResponse generateEwayBillWithRetry(
+    private <T> GspEwbGenerateResponse generateEwayBill(
             Long tenantId, T entity, EwayBillData request, EwayBillEntityUpdater<T> updater, String sessionToken, String gspServerId) {
         
         String documentNumber = updater.getDocumentNumber(entity);
@@ -222,8 +224,8 @@ public class EwayBillGenerationService {
             request.setDocNo(documentNumber);
         }
 
-        // Attempt to generate E-Way Bill with retries
-        GspEwbGenerateResponse response = generateWithRetry(tenantId, request, sessionToken, gspServerId);
+        // Attempt to generate E-Way Bill; server faults are retried later by the caller
+        GspEwbGenerateResponse response = generate(tenantId, request, sessionToken, gspServerId);
 
         // Update entity if successful
         if (response.isSuccess()) {
@@ -234,77 +236,55 @@ public class EwayBillGenerationService {
     }
 
     /**
-     * Generate E-Way Bill with retry logic
+     * Generate E-Way Bill in a single attempt
      * 
      * @param tenantId Tenant ID
      * @param request E-Way Bill data
      * @param sessionToken Session token for authentication
      * @param gspServerId GSP Server ID selected by user
      * @return GSP API response
+     * @throws IllegalArgumentException on validation errors and 400 Bad Request
+     * @throws RuntimeException on GSP errors and server faults (see {@link GspServerFailoverHelper#isServerFault})
      */
-    private GspEwbGenerateResponse generateWithRetry(Long tenantId, EwayBillData request, String sessionToken, String gspServerId) {
-        Exception lastException = null;
-
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            try {
-                log.info("E-Way Bill generation attempt {} of {} for DocNo: {}", 
-                        attempt, MAX_RETRY_ATTEMPTS, request.getDocNo());
-
-                GspEwbGenerateResponse response = gspEwayBillService.generateEwayBill(tenantId, request, sessionToken, gspServerId);
-
-                if (response.isSuccess()) {
-                    log.info("E-Way Bill generated successfully on attempt {}: {}", 
-                            attempt, response.getEwayBillNo());
-                    return response;
-                } else {
-                    // GSP API returned error
-                    String errorMessage = response.getErrorMessage() != null ? 
-                            response.getErrorMessage() : "Unknown error from GSP API";
-                    log.warn("GSP API returned error on attempt {}: {}", attempt, errorMessage);
-                    
-                    // If it's a validation error, don't retry
-                    if (isValidationError(errorMessage)) {
-                        log.error("Validation error from GSP, not retrying: {}", errorMessage);
-                        throw new IllegalArgumentException(errorMessage);
-                    }
-
-                    lastException = new RuntimeException(errorMessage);
-                }
-
-            } catch (IllegalArgumentException e) {
-                // Don't retry validation errors or 400 Bad Request
-                log.error("Validation error on attempt {}: {}", attempt, e.getMessage());
-                throw e;
-            } catch (Exception e) {
-                log.error("Error on attempt {} of {}: {}", attempt, MAX_RETRY_ATTEMPTS, e.getMessage(), e);
-                
-                // Check if it's a 400 Bad Request error - don't retry these
-                if (isBadRequestError(e)) {
-                    log.error("400 Bad Request error, not retrying: {}", e.getMessage());
-                    throw new IllegalArgumentException("Bad Request: " + e.getMessage(), e);
-                }
-                
-                lastException = e;
+    private GspEwbGenerateResponse generate(Long tenantId, EwayBillData request, String sessionToken, String gspServerId) {
+        GspEwbGenerateResponse response;
+        try {
+            log.info("E-Way Bill generation attempt for DocNo: {}", request.getDocNo());
+            response = gspEwayBillService.generateEwayBill(tenantId, request, sessionToken, gspServerId);
+        } catch (IllegalArgumentException e) {
+            // Don't retry validation errors or 400 Bad Request
+            log.error("Validation error: {}", e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("E-Way Bill generation failed for DocNo {}: {}", request.getDocNo(), e.getMessage(), e);
+
+            // Check if it's a 400 Bad Request error - don't retry these
+            if (!GspServerFailoverHelper.isServerFault(e) && isBadRequestError(e)) {
+                log.error("400 Bad Request error, not retrying: {}", e.getMessage());
+                throw new IllegalArgumentException("Bad Request: " + e.getMessage(), e);
             }
+            throw e;
+        } catch (Exception e) {
+            log.error("E-Way Bill generation failed for DocNo {}: {}", request.getDocNo(), e.getMessage(), e);
+            throw new RuntimeException(e.getMessage(), e);
+        }
 
-            // Wait before retrying (except on last attempt)
-            if (attempt < MAX_RETRY_ATTEMPTS) {
-                try {
-                    log.debug("Waiting {}ms before retry...", RETRY_DELAY_MS);
-                    Thread.sleep(RETRY_DELAY_MS);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("E-Way Bill generation interrupted", ie);
-                }
-            }
+        if (response.isSuccess()) {
+            log.info("E-Way Bill generated successfully: {}", response.getEwayBillNo());
+            return response;
         }
 
-        // All attempts failed
-        String errorMessage = lastException != null ? lastException.getMessage() : 
-                "E-Way Bill generation failed after " + MAX_RETRY_ATTEMPTS + " attempts";
-        log.error("E-Way Bill generation failed after {} attempts for DocNo: {}", 
-                MAX_RETRY_ATTEMPTS, request.getDocNo());
-        throw new RuntimeException(errorMessage, lastException);
+        // GSP API returned error
+        String errorMessage = response.getErrorMessage() != null ?
+                response.getErrorMessage() : "Unknown error from GSP API";
+        log.warn("GSP API returned error for DocNo {}: {}", request.getDocNo(), errorMessage);
+
+        // If it's a validation error, don't retry
+        if (isValidationError(errorMessage)) {
+            log.error("Validation error from GSP, not retrying: {}", errorMessage);
+            throw new IllegalArgumentException(errorMessage);
+        }
+        throw new RuntimeException(errorMessage);
     }
 
     /**
@@ -1,6 +1,11 @@
 package com.jangid.forging_process_management_service.service.gst;
 
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.StoredGspSession;
+
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -8,25 +13,24 @@ import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for managing E-Way Bill session tokens
- * Provides in-memory session storage with automatic expiry
+ * Sessions are kept in the configured {@link GspSessionStore} (shared between instances by default)
+ * with automatic expiry
  * 
  * Security Features:
- * - No database persistence of credentials
+ * - Only a hash of the session token is persisted; credentials and auth token are encrypted at rest
  * - 30-minute inactivity timeout
  * - Automatic cleanup of expired sessions
  * - Secure token generation
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EwayBillSessionService {
 
-    // In-memory session storage: sessionToken -> SessionData
-    private final Map<String, SessionData> sessionStore = new ConcurrentHashMap<>();
+    private final GspSessionStore sessionStore;
 
     // Session timeout: 30 minutes of inactivity
     private static final int SESSION_TIMEOUT_MINUTES = 30;
@@ -43,6 +47,7 @@ public class EwayBillSessionService {
         private String ewbPassword; // Encrypted in memory
         private String gspAuthToken;
         private String gstin;
+        private String gspServerId; // GSP server the session authenticated against
         private LocalDateTime createdAt;
         private LocalDateTime lastAccessedAt;
         private LocalDateTime expiresAt; // Session expiry time
@@ -81,11 +86,12 @@ public class EwayBillSessionService {
      * @param ewbPassword E-Way Bill password (will be encrypted)
      * @param gspAuthToken GSP authentication token
      * @param gstin GSTIN
+     * @param gspServerId GSP server the token was issued by (used for background renewal)
      * @param sessionTimeoutHours Session timeout in hours
      * @return Session token
      */
     public String createSession(Long tenantId, String ewbUsername, String ewbPassword, 
-                                String gspAuthToken, String gstin, int sessionTimeoutHours) {
+                                String gspAuthToken, String gstin, String gspServerId, int sessionTimeoutHours) {
         // Generate secure random token
         String sessionToken = generateSecureToken();
 
@@ -96,6 +102,7 @@ public class EwayBillSessionService {
         sessionData.setEwbPassword(ewbPassword); // Store encrypted
         sessionData.setGspAuthToken(gspAuthToken);
         sessionData.setGstin(gstin);
+        sessionData.setGspServerId(gspServerId);
         
         LocalDateTime now = LocalDateTime.now();
         sessionData.setCreatedAt(now);
@@ -107,7 +114,7 @@ public class EwayBillSessionService {
         sessionData.setTokenExpiresAt(expiresAt); // Assume token expires with session
 
         // Store session
-        sessionStore.put(sessionToken, sessionData);
+        sessionStore.save(GspSessionType.EWAY_BILL, sessionToken, toStoredSession(sessionData));
 
         log.info("Created new E-Way Bill session for tenant: {}, GSTIN: {}, timeout: {} hours, expires at: {}", 
                  tenantId, gstin, sessionTimeoutHours, sessionData.getExpiresAt());
@@ -117,7 +124,7 @@ public class EwayBillSessionService {
 
     /**
      * Create new session with default timeout and return session token
-     * @deprecated Use createSession(Long, String, String, String, String, int) with explicit timeout
+     * @deprecated Use createSession(Long, String, String, String, String, String, int) with explicit timeout
      * 
      * @param tenantId Tenant ID
      * @param ewbUsername E-Way Bill username (will be encrypted)
@@ -129,7 +136,7 @@ public class EwayBillSessionService {
     @Deprecated
     public String createSession(Long tenantId, String ewbUsername, String ewbPassword, 
                                 String gspAuthToken, String gstin) {
-        return createSession(tenantId, ewbUsername, ewbPassword, gspAuthToken, gstin, 
+        return createSession(tenantId, ewbUsername, ewbPassword, gspAuthToken, gstin, null, 
                            SESSION_TIMEOUT_MINUTES / 60);
     }
 
@@ -145,22 +152,25 @@ public class EwayBillSessionService {
             return null;
         }
 
-        SessionData sessionData = sessionStore.get(sessionToken);
+        StoredGspSession storedSession = sessionStore.find(GspSessionType.EWAY_BILL, sessionToken);
 
-        if (sessionData == null) {
+        if (storedSession == null) {
             log.debug("Session not found: {}", sessionToken);
             return null;
         }
 
+        SessionData sessionData = toSessionData(storedSession);
+
         if (sessionData.isExpired()) {
             log.info("Session expired for tenant: {}, GSTIN: {}", 
                      sessionData.getTenantId(), sessionData.getGstin());
-            sessionStore.remove(sessionToken);
+            sessionStore.delete(GspSessionType.EWAY_BILL, sessionToken);
             return null;
         }
 
         // Update last access time and extend expiry
         sessionData.updateLastAccess();
+        sessionStore.touch(GspSessionType.EWAY_BILL, sessionToken, sessionData.getLastAccessedAt());
         
         log.debug("Session accessed for tenant: {}, GSTIN: {}, new expiry: {}", 
                   sessionData.getTenantId(), sessionData.getGstin(), sessionData.getExpiresAt());
@@ -184,7 +194,8 @@ public class EwayBillSessionService {
      * @param sessionToken Session token
      */
     public void invalidateSession(String sessionToken) {
-        SessionData removed = sessionStore.remove(sessionToken);
+        StoredGspSession removed = sessionStore.find(GspSessionType.EWAY_BILL, sessionToken);
+        sessionStore.delete(GspSessionType.EWAY_BILL, sessionToken);
         if (removed != null) {
             log.info("Session invalidated for tenant: {}, GSTIN: {}", 
                      removed.getTenantId(), removed.getGstin());
@@ -199,16 +210,7 @@ public class EwayBillSessionService {
      * @return Number of sessions invalidated
      */
     public int invalidateSessionsByTenant(Long tenantId) {
-        int count = 0;
-        
-        for (Map.Entry<String, SessionData> entry : sessionStore.entrySet()) {
-            if (entry.getValue().getTenantId().equals(tenantId)) {
-                sessionStore.remove(entry.getKey());
-                count++;
-                log.info("Invalidated session for tenant: {}, GSTIN: {}", 
-                         tenantId, entry.getValue().getGstin());
-            }
-        }
+        int count = sessionStore.deleteByTenant(GspSessionType.EWAY_BILL, tenantId);
         
         if (count > 0) {
             log.info("Invalidated {} session(s) for tenant: {}", count, tenantId);
@@ -217,13 +219,31 @@ public class EwayBillSessionService {
         return count;
     }
 
+    /**
+     * Store a renewed GSP auth token on an existing session, extending the session to the new token expiry
+     * 
+     * @param renewable Session claimed for renewal
+     * @param gspAuthToken New GSP auth token
+     * @param tokenExpiresAt Expiry of the new token
+     * @return false if the session was removed in the meantime
+     */
+    public boolean applyRenewedToken(GspSessionStore.RenewableGspSession renewable, String gspAuthToken,
+                                     LocalDateTime tokenExpiresAt) {
+        StoredGspSession renewed = renewable.session().toBuilder()
+            .gspAuthToken(gspAuthToken)
+            .tokenExpiresAt(tokenExpiresAt)
+            .expiresAt(tokenExpiresAt)
+            .build();
+        return sessionStore.replace(GspSessionType.EWAY_BILL, renewable.tokenHash(), renewed);
+    }
+
     /**
      * Get session count (for monitoring)
      * 
      * @return Number of active sessions
      */
     public int getActiveSessionCount() {
-        return sessionStore.size();
+        return (int) sessionStore.countActive(GspSessionType.EWAY_BILL);
     }
 
     /**
@@ -232,25 +252,43 @@ public class EwayBillSessionService {
      */
     @Scheduled(fixedRate = 300000) // 5 minutes
     public void cleanupExpiredSessions() {
-        int beforeCount = sessionStore.size();
-        
-        sessionStore.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().isExpired();
-            if (expired) {
-                log.debug("Removing expired session for tenant: {}", entry.getValue().getTenantId());
-            }
-            return expired;
-        });
-
-        int afterCount = sessionStore.size();
-        int removed = beforeCount - afterCount;
+        int removed = sessionStore.deleteExpired(GspSessionType.EWAY_BILL, LocalDateTime.now());
 
         if (removed > 0) {
-            log.info("Cleaned up {} expired E-Way Bill sessions. Active sessions: {}", 
-                     removed, afterCount);
+            log.info("Cleaned up {} expired E-Way Bill sessions", removed);
         }
     }
 
+    private StoredGspSession toStoredSession(SessionData sessionData) {
+        return StoredGspSession.builder()
+            .tenantId(sessionData.getTenantId())
+            .username(sessionData.getEwbUsername())
+            .passwordEncrypted(sessionData.getEwbPassword())
+            .gspAuthToken(sessionData.getGspAuthToken())
+            .gstin(sessionData.getGstin())
+            .gspServerId(sessionData.getGspServerId())
+            .createdAt(sessionData.getCreatedAt())
+            .lastAccessedAt(sessionData.getLastAccessedAt())
+            .expiresAt(sessionData.getExpiresAt())
+            .tokenExpiresAt(sessionData.getTokenExpiresAt())
+            .build();
+    }
+
+    private SessionData toSessionData(StoredGspSession storedSession) {
+        SessionData sessionData = new SessionData();
+        sessionData.setTenantId(storedSession.getTenantId());
+        sessionData.setEwbUsername(storedSession.getUsername());
+        sessionData.setEwbPassword(storedSession.getPasswordEncrypted());
+        sessionData.setGspAuthToken(storedSession.getGspAuthToken());
+        sessionData.setGstin(storedSession.getGstin());
+        sessionData.setGspServerId(storedSession.getGspServerId());
+        sessionData.setCreatedAt(storedSession.getCreatedAt());
+        sessionData.setLastAccessedAt(storedSession.getLastAccessedAt());
+        sessionData.setExpiresAt(storedSession.getExpiresAt());
+        sessionData.setTokenExpiresAt(storedSession.getTokenExpiresAt());
+        return sessionData;
+    }
+
     /**
      * Generate secure random session token
      * 
@@ -3,8 +3,11 @@ package com.jangid.forging_process_management_service.service.gst;
 import com.jangid.forging_process_management_service.dto.gst.gsp.EwayBillSessionCredentialsDTO;
 import com.jangid.forging_process_management_service.dto.gst.gsp.EwayBillSessionTokenResponse;
 import com.jangid.forging_process_management_service.dto.gst.gsp.GspAuthResponse;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
 import com.jangid.forging_process_management_service.entities.gst.TenantEwayBillCredentials;
 import com.jangid.forging_process_management_service.repository.gst.TenantEwayBillCredentialsRepository;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+import com.jangid.forging_process_management_service.service.gst.session.StoredGspSession;
 import com.jangid.forging_process_management_service.service.security.EncryptionService;
 
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,7 @@ import org.springframework.web.client.RestTemplate;
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Map;
 
@@ -35,6 +39,7 @@ public class GspAuthServiceWithSession {
     private final GspServerFailoverHelper failoverHelper;
     private final EwayBillSessionService sessionService;
     private final GspServerConfigService gspServerConfigService;
+    private final GspAuthSingleFlight authSingleFlight;
 
     @Value("${app.security.encryption.algorithm:AES}")
     private String encryptionAlgorithm;
@@ -93,11 +98,17 @@ public class GspAuthServiceWithSession {
         }
 
         // Authenticate with GSP using provided credentials
-        String gspAuthToken = authenticateWithGsp(
-            credentials, 
-            sessionCredentials.getEwbUsername(), 
-            sessionCredentials.getEwbPassword(),
-            sessionCredentials.getGspServerId()
+        // Concurrent logins for the same tenant, user and password share a single GSP authentication
+        String gspAuthToken = authSingleFlight.execute(
+            GspAuthSingleFlight.key(GspSessionType.EWAY_BILL.name(), tenantId,
+                                    sessionCredentials.getEwbUsername(), sessionCredentials.getEwbPassword(),
+                                    sessionCredentials.getGspServerId()),
+            () -> authenticateWithGsp(
+                credentials, 
+                sessionCredentials.getEwbUsername(), 
+                sessionCredentials.getEwbPassword(),
+                sessionCredentials.getGspServerId()
+            )
         );
 
         // Create session with configured timeout and get session token
@@ -107,6 +118,7 @@ public class GspAuthServiceWithSession {
             encryptionService.encrypt(sessionCredentials.getEwbPassword()), // Store encrypted
             gspAuthToken,
             credentials.getEwbGstin(),
+            sessionCredentials.getGspServerId(),
             sessionTimeoutHours
         );
 
@@ -153,6 +165,39 @@ public class GspAuthServiceWithSession {
         return sessionService.getSession(sessionToken);
     }
 
+    /**
+     * Renew the GSP auth token of a session ahead of its expiry, using the credentials stored with the session
+     * 
+     * @param renewable Session claimed for renewal
+     * @return false if the session was removed while renewing
+     */
+    public boolean renewSessionToken(GspSessionStore.RenewableGspSession renewable) {
+        StoredGspSession session = renewable.session();
+        TenantEwayBillCredentials credentials = credentialsRepository.findByTenantId(session.getTenantId())
+            .orElseThrow(() -> new IllegalArgumentException(
+                "E-Way Bill configuration not found for tenant: " + session.getTenantId()));
+
+        if (!credentials.hasValidCredentials()) {
+            throw new IllegalStateException(
+                "E-Way Bill configuration incomplete or inactive for tenant: " + session.getTenantId());
+        }
+
+        String password = encryptionService.decrypt(session.getPasswordEncrypted());
+
+        String gspAuthToken = authSingleFlight.execute(
+            GspAuthSingleFlight.key(GspSessionType.EWAY_BILL.name(), session.getTenantId(),
+                                    session.getUsername(), password, session.getGspServerId()),
+            () -> authenticateWithGsp(
+                credentials,
+                session.getUsername(),
+                password,
+                session.getGspServerId()
+            )
+        );
+
+        return sessionService.applyRenewedToken(renewable, gspAuthToken, LocalDateTime.now().plusHours(sessionTimeoutHours));
+    }
+
     /**
      * Authenticate with GSP API using provided username and password
      * 
@@ -0,0 +1,68 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent GSP authentications for the same tenant, portal user and password into one call.
+ * The first caller authenticates; callers arriving while it is in flight wait for and share its result
+ * (or its failure). Deduplication is per instance; across instances the renewal lease in
+ * gsp_session keeps background renewals from overlapping.
+ * Joined calls are counted as gsp.auth.single_flight.joined{type}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GspAuthSingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Key for an authentication: calls with equal keys are collapsed. The password is part of the key
+     * (as a SHA-256 digest, never in clear) so a login with a different password never shares a result.
+     */
+    public static String key(String type, Long tenantId, String username, String password, String gspServerId) {
+        return type + ":" + tenantId + ":" + username + ":" + gspServerId + ":" + GspSessionStore.hashToken(String.valueOf(password));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> authentication) {
+        CompletableFuture<Object> ownFuture = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, ownFuture);
+        if (existing != null) {
+            meterRegistry.counter("gsp.auth.single_flight.joined", "type", key.substring(0, key.indexOf(':'))).increment();
+            log.debug("Joining in-flight GSP authentication for {}", key.substring(0, key.lastIndexOf(':')));
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = authentication.get();
+            ownFuture.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownFuture);
+        }
+    }
+}
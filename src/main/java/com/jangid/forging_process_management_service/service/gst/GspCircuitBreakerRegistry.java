@@ -0,0 +1,202 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Per-server circuit breakers for GSP API calls.
+ * A server that keeps failing is opened and skipped by every caller until its cool-down expires,
+ * after which a single probe call decides whether it is closed again or stays open.
+ * This replaces sleeping between retries: the remembered server health is the backoff.
+ *
+ * Servers are keyed by host and port so all endpoints of one GSP host share a breaker.
+ * Every call is timed as gsp.request{server, outcome}; the breaker state is exported as
+ * gsp.circuit.state{server} (0 = closed, 1 = half open, 2 = open).
+ */
+@Component
+@Slf4j
+public class GspCircuitBreakerRegistry {
+
+    private final Map<String, ServerCircuit> circuits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    public GspCircuitBreakerRegistry(MeterRegistry meterRegistry,
+                                     @Value("${app.gsp.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                     @Value("${app.gsp.circuit-breaker.open-duration-seconds:30}") long openDurationSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = Duration.ofSeconds(openDurationSeconds);
+    }
+
+    public enum CircuitState {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Thrown without calling the server when its circuit is open
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String server) {
+            super("GSP server " + server + " is temporarily unavailable (circuit open)");
+        }
+    }
+
+    /**
+     * Run a call against a server through its circuit breaker.
+     * Exceptions for which {@code isServerFault} returns false (e.g. 4xx responses) are rethrown
+     * without counting against the server. An Error releases the half-open probe without deciding the state.
+     *
+     * @throws CircuitOpenException if the server's circuit is open
+     */
+    public <T> T execute(String serverUrl, Supplier<T> call, Predicate<Throwable> isServerFault) {
+        ServerCircuit circuit = circuitFor(serverUrl);
+        if (!circuit.tryAcquire()) {
+            circuit.rejectedCounter.increment();
+            throw new CircuitOpenException(circuit.server);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuit.record("success", start);
+            circuit.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isServerFault.test(e)) {
+                circuit.record("failure", start);
+                circuit.onFailure();
+            } else {
+                circuit.record("client_error", start);
+                circuit.onSuccess();
+            }
+            throw e;
+        } catch (Error e) {
+            // Says nothing about the server, but a half-open probe must not stay reserved forever
+            circuit.record("error", start);
+            circuit.releaseProbe();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a call to this server would currently be allowed (does not reserve the half-open probe)
+     */
+    public boolean isAvailable(String serverUrl) {
+        return circuitFor(serverUrl).currentState() != CircuitState.OPEN;
+    }
+
+    public CircuitState getState(String serverUrl) {
+        return circuitFor(serverUrl).currentState();
+    }
+
+    private ServerCircuit circuitFor(String serverUrl) {
+        String server = serverKey(serverUrl);
+        return circuits.computeIfAbsent(server, ServerCircuit::new);
+    }
+
+    private static String serverKey(String serverUrl) {
+        try {
+            URI uri = URI.create(serverUrl);
+            if (uri.getHost() == null) {
+                return serverUrl;
+            }
+            return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return serverUrl;
+        }
+    }
+
+    private final class ServerCircuit {
+
+        private final String server;
+        private final Counter rejectedCounter;
+
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private boolean probeInFlight;
+
+        private ServerCircuit(String server) {
+            this.server = server;
+            this.rejectedCounter = meterRegistry.counter("gsp.request.rejected", "server", server);
+            Gauge.builder("gsp.circuit.state", this, c -> c.currentState().ordinal())
+                .tag("server", server)
+                .register(meterRegistry);
+        }
+
+        private synchronized boolean tryAcquire() {
+            CircuitState current = currentState();
+            if (current == CircuitState.CLOSED) {
+                return true;
+            }
+            if (current == CircuitState.HALF_OPEN && !probeInFlight) {
+                state = CircuitState.HALF_OPEN;
+                probeInFlight = true;
+                log.info("GSP server {} cool-down elapsed, sending probe request", server);
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized CircuitState currentState() {
+            if (state == CircuitState.OPEN && System.nanoTime() - openedAtNanos >= openDuration.toNanos()) {
+                return CircuitState.HALF_OPEN;
+            }
+            return state;
+        }
+
+        private synchronized void onSuccess() {
+            if (state != CircuitState.CLOSED) {
+                log.info("GSP server {} recovered, closing circuit", server);
+            }
+            state = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+
+        private synchronized void onFailure() {
+            consecutiveFailures++;
+            boolean probeFailed = state == CircuitState.HALF_OPEN;
+            probeInFlight = false;
+            if (probeFailed || consecutiveFailures >= failureThreshold) {
+                if (state != CircuitState.OPEN || probeFailed) {
+                    log.warn("Opening circuit for GSP server {} for {}s after {} consecutive failures",
+                             server, openDuration.toSeconds(), consecutiveFailures);
+                }
+                state = CircuitState.OPEN;
+                openedAtNanos = System.nanoTime();
+            }
+        }
+
+        private synchronized void releaseProbe() {
+            probeInFlight = false;
+        }
+
+        private void record(String outcome, long startNanos) {
+            Timer.builder("gsp.request")
+                .tag("server", server)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+}
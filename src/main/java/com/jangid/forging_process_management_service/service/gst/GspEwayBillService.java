@@ -38,11 +38,10 @@ public class GspEwayBillService {
   private final ObjectMapper objectMapper;
   private final EncryptionService encryptionService;
   private final GspServerFailoverHelper failoverHelper;
+  private final GspCircuitBreakerRegistry circuitBreakerRegistry;
   private final EwayBillSessionService sessionService;
   private final GspServerConfigService gspServerConfigService;
 
-  private static final long RETRY_DELAY_MS = 1000; // 1 second between retries
-
   /**
    * Generate E-Way Bill via GSP API with Session Support
    * Using new POST API format with query parameters
@@ -83,7 +82,16 @@ public class GspEwayBillService {
     
     log.info("Generating E-Way Bill using server: {} for DocNo: {}", gspServerId, ewayBillData.getDocNo());
     
-    return attemptGenerateEwayBill(tenantId, ewayBillData, ewbUrl, sessionToken);
+    return circuitBreakerRegistry.execute(
+        ewbUrl,
+        () -> {
+          try {
+            return attemptGenerateEwayBill(tenantId, ewayBillData, ewbUrl, sessionToken);
+          } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read E-Way Bill response from GSP: " + e.getOriginalMessage(), e);
+          }
+        },
+        GspServerFailoverHelper::isServerFault);
   }
 
   /**
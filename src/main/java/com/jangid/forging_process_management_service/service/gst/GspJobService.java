@@ -0,0 +1,267 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillData;
+import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceBulkGenerateRequest;
+import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceGenerateEwbByIrnRequest;
+import com.jangid.forging_process_management_service.entities.gst.DeliveryChallan;
+import com.jangid.forging_process_management_service.entities.gst.GspJob;
+import com.jangid.forging_process_management_service.entities.gst.Invoice;
+import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
+import com.jangid.forging_process_management_service.repositories.gst.DeliveryChallanRepository;
+import com.jangid.forging_process_management_service.repositories.gst.GspJobRepository;
+import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
+import com.jangid.forging_process_management_service.service.security.EncryptionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Submission and lookup of queued GSP jobs.
+ * Each document operation has one idempotency key per tenant (IRN generation for an invoice,
+ * E-Way Bill generation for an invoice or challan). Submitting a key that is already queued,
+ * running or succeeded returns the existing job; a failed job is queued again with the new request.
+ * Jobs are executed by {@link GspJobWorker}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GspJobService {
+
+    private final GspJobRepository gspJobRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final DeliveryChallanRepository challanRepository;
+    private final EncryptionService encryptionService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * A submitted job and whether this submission queued it (false when an existing job was returned)
+     */
+    public record SubmittedJob(GspJob job, boolean queued) {
+    }
+
+    /**
+     * Result of a bulk submission: the jobs for accepted invoices and the reason each other invoice was rejected
+     */
+    public record BulkSubmission(String batchReference, List<SubmittedJob> jobs, Map<Long, String> rejected) {
+    }
+
+    public static String idempotencyKey(GspJob.JobType jobType, Long documentId) {
+        return switch (jobType) {
+            case EINVOICE_GENERATE -> "IRN:INVOICE:" + documentId;
+            // Both E-Way Bill paths produce the invoice's single E-Way Bill, so they share a key
+            case EWAY_BILL_BY_IRN, EWAY_BILL_INVOICE -> "EWAY_BILL:INVOICE:" + documentId;
+            case EWAY_BILL_CHALLAN -> "EWAY_BILL:CHALLAN:" + documentId;
+        };
+    }
+
+    /**
+     * Queue E-Invoice (IRN) generation for an invoice
+     */
+    public SubmittedJob submitEInvoiceGeneration(Long tenantId, Long invoiceId, Object einvoiceData,
+                                                 String sessionToken, String gspServerId) {
+        return submitEInvoiceGeneration(tenantId, invoiceId, einvoiceData, sessionToken, gspServerId, null, false);
+    }
+
+    /**
+     * Queue IRN generation for several approved invoices sharing one session.
+     * Invoices that cannot be submitted are reported individually; the others are still queued.
+     */
+    public BulkSubmission submitBulkEInvoiceGeneration(Long tenantId, List<EInvoiceBulkGenerateRequest.InvoiceItem> items,
+                                                       String sessionToken, String gspServerId) {
+        String batchReference = UUID.randomUUID().toString();
+        List<SubmittedJob> jobs = new ArrayList<>();
+        Map<Long, String> rejected = new LinkedHashMap<>();
+
+        for (EInvoiceBulkGenerateRequest.InvoiceItem item : items) {
+            try {
+                jobs.add(submitEInvoiceGeneration(tenantId, item.getInvoiceId(), item.getEinvoiceData(),
+                                                  sessionToken, gspServerId, batchReference, true));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                rejected.put(item.getInvoiceId(), e.getMessage());
+            }
+        }
+
+        log.info("Bulk IRN generation {} for tenant {}: {} job(s) submitted, {} invoice(s) rejected",
+                 batchReference, tenantId, jobs.size(), rejected.size());
+        return new BulkSubmission(batchReference, jobs, rejected);
+    }
+
+    /**
+     * Queue E-Way Bill generation from the IRN of an invoice
+     */
+    public SubmittedJob submitEwayBillByIrn(Long tenantId, String irn, EInvoiceGenerateEwbByIrnRequest ewbData,
+                                            String sessionToken, String gspServerId) {
+        Invoice invoice = invoiceRepository.findByIrnAndTenantIdAndDeletedFalse(irn, tenantId);
+        if (invoice == null) {
+            throw new IllegalArgumentException("Invoice not found for IRN: " + irn);
+        }
+        ewbData.setIrn(irn);
+
+        GspJob candidate = newJob(tenantId, GspJob.JobType.EWAY_BILL_BY_IRN, invoice.getId(), null,
+                                  ewbData, sessionToken, gspServerId, null);
+        return enqueue(candidate, () -> requireNoEwayBill(invoice.getEwayBillNumber(), "invoice"));
+    }
+
+    /**
+     * Queue E-Way Bill generation for an invoice
+     */
+    public SubmittedJob submitInvoiceEwayBill(Long tenantId, Long invoiceId, EwayBillData ewayBillData,
+                                              String sessionToken, String gspServerId) {
+        GspJob candidate = newJob(tenantId, GspJob.JobType.EWAY_BILL_INVOICE, invoiceId, null,
+                                  ewayBillData, sessionToken, gspServerId, null);
+        return enqueue(candidate, () -> {
+            Invoice invoice = invoiceRepository.findByIdAndTenantIdAndDeletedFalse(invoiceId, tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Invoice not found with id: " + invoiceId));
+            requireNoEwayBill(invoice.getEwayBillNumber(), "invoice");
+        });
+    }
+
+    /**
+     * Queue E-Way Bill generation for a delivery challan
+     */
+    public SubmittedJob submitChallanEwayBill(Long tenantId, Long challanId, EwayBillData ewayBillData,
+                                              String sessionToken, String gspServerId) {
+        GspJob candidate = newJob(tenantId, GspJob.JobType.EWAY_BILL_CHALLAN, null, challanId,
+                                  ewayBillData, sessionToken, gspServerId, null);
+        return enqueue(candidate, () -> {
+            DeliveryChallan challan = challanRepository.findByIdAndTenantIdAndDeletedFalse(challanId, tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Delivery Challan not found with id: " + challanId));
+            requireNoEwayBill(challan.getEwayBillNumber(), "challan");
+        });
+    }
+
+    public GspJob getJob(Long tenantId, Long jobId) {
+        return gspJobRepository.findByIdAndTenantId(jobId, tenantId)
+            .orElseThrow(() -> new IllegalArgumentException("GSP job not found with id: " + jobId));
+    }
+
+    public List<GspJob> getJobs(Long tenantId, Collection<Long> jobIds) {
+        return gspJobRepository.findByTenantIdAndIdInOrderById(tenantId, jobIds);
+    }
+
+    public List<GspJob> getBatchJobs(Long tenantId, String batchReference) {
+        return gspJobRepository.findByTenantIdAndBatchReferenceOrderById(tenantId, batchReference);
+    }
+
+    private SubmittedJob submitEInvoiceGeneration(Long tenantId, Long invoiceId, Object einvoiceData, String sessionToken,
+                                                  String gspServerId, String batchReference, boolean requireApproved) {
+        if (einvoiceData == null) {
+            throw new IllegalArgumentException("E-Invoice data is required for invoice: " + invoiceId);
+        }
+        GspJob candidate = newJob(tenantId, GspJob.JobType.EINVOICE_GENERATE, invoiceId, null,
+                                  einvoiceData, sessionToken, gspServerId, batchReference);
+        return enqueue(candidate, () -> {
+            Invoice invoice = invoiceRepository.findByIdAndTenantIdAndDeletedFalse(invoiceId, tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Invoice not found with id: " + invoiceId));
+            if (invoice.getIrn() != null && !invoice.getIrn().isEmpty()) {
+                throw new IllegalArgumentException(
+                    "E-Invoice already generated for this invoice. IRN: " + invoice.getIrn());
+            }
+            if (requireApproved && (invoice.getStatus() == InvoiceStatus.DRAFT || invoice.getStatus() == InvoiceStatus.CANCELLED)) {
+                throw new IllegalStateException("Only approved invoices can be submitted for IRN generation. Current status: "
+                                                + invoice.getStatus());
+            }
+        });
+    }
+
+    /**
+     * Return the live job for the candidate's idempotency key, or queue the candidate.
+     * The document is only validated when a job is actually queued, so repeating a submission
+     * that already succeeded returns that job instead of an "already generated" error.
+     */
+    private SubmittedJob enqueue(GspJob candidate, Runnable validateDocument) {
+        GspJob existing = gspJobRepository
+            .findByTenantIdAndIdempotencyKey(candidate.getTenantId(), candidate.getIdempotencyKey())
+            .orElse(null);
+
+        if (existing != null && existing.getStatus() != GspJob.JobStatus.FAILED) {
+            log.info("GSP job {} already exists for {} with status {}, not queuing again",
+                     existing.getId(), existing.getIdempotencyKey(), existing.getStatus());
+            return new SubmittedJob(existing, false);
+        }
+
+        validateDocument.run();
+
+        if (existing != null) {
+            requeue(existing, candidate);
+            GspJob saved = gspJobRepository.save(existing);
+            log.info("Re-queued failed GSP job {} for {}", saved.getId(), saved.getIdempotencyKey());
+            return new SubmittedJob(saved, true);
+        }
+
+        try {
+            GspJob saved = gspJobRepository.save(candidate);
+            log.info("Queued GSP job {} ({}) for {}", saved.getId(), saved.getJobType(), saved.getIdempotencyKey());
+            return new SubmittedJob(saved, true);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submission for the same document won the unique key
+            GspJob winner = gspJobRepository
+                .findByTenantIdAndIdempotencyKey(candidate.getTenantId(), candidate.getIdempotencyKey())
+                .orElseThrow(() -> e);
+            return new SubmittedJob(winner, false);
+        }
+    }
+
+    private GspJob newJob(Long tenantId, GspJob.JobType jobType, Long invoiceId, Long challanId, Object payload,
+                          String sessionToken, String gspServerId, String batchReference) {
+        Long documentId = invoiceId != null ? invoiceId : challanId;
+        return GspJob.builder()
+            .tenantId(tenantId)
+            .jobType(jobType)
+            .idempotencyKey(idempotencyKey(jobType, documentId))
+            .batchReference(batchReference)
+            .invoiceId(invoiceId)
+            .deliveryChallanId(challanId)
+            .gspServerId(gspServerId)
+            .sessionTokenEncrypted(encryptionService.encrypt(sessionToken))
+            .requestPayload(toJson(payload))
+            .status(GspJob.JobStatus.QUEUED)
+            .attemptCount(0)
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+    }
+
+    private void requeue(GspJob job, GspJob candidate) {
+        job.setJobType(candidate.getJobType());
+        job.setBatchReference(candidate.getBatchReference());
+        job.setGspServerId(candidate.getGspServerId());
+        job.setSessionTokenEncrypted(candidate.getSessionTokenEncrypted());
+        job.setRequestPayload(candidate.getRequestPayload());
+        job.setStatus(GspJob.JobStatus.QUEUED);
+        job.setAttemptCount(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        job.setLockedUntil(null);
+        job.setResultPayload(null);
+        job.setLastError(null);
+        job.setStartedAt(null);
+        job.setCompletedAt(null);
+    }
+
+    private static void requireNoEwayBill(String ewayBillNumber, String documentType) {
+        if (ewayBillNumber != null && !ewayBillNumber.isEmpty()) {
+            throw new IllegalArgumentException(
+                "E-Way Bill already generated for this " + documentType + ". E-Way Bill Number: " + ewayBillNumber);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid GSP request payload: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jangid.forging_process_management_service.configuration.AsyncConfig;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillData;
+import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceEwbByIrnResponse;
+import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceGenerateEwbByIrnRequest;
+import com.jangid.forging_process_management_service.dto.gst.einvoice.EInvoiceGenerateResponse;
+import com.jangid.forging_process_management_service.dto.gst.gsp.GspEwbGenerateResponse;
+import com.jangid.forging_process_management_service.entities.gst.DeliveryChallan;
+import com.jangid.forging_process_management_service.entities.gst.GspJob;
+import com.jangid.forging_process_management_service.entities.gst.Invoice;
+import com.jangid.forging_process_management_service.repositories.gst.DeliveryChallanRepository;
+import com.jangid.forging_process_management_service.repositories.gst.GspJobRepository;
+import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
+import com.jangid.forging_process_management_service.service.security.EncryptionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background worker for queued GSP jobs.
+ * Every poll claims as many due jobs as the worker pool has free slots (FOR UPDATE SKIP LOCKED, so
+ * several instances can poll concurrently) and runs them through the existing generation services,
+ * which write the IRN or E-Way Bill back to the invoice or challan.
+ *
+ * A claimed job holds a lease; if its instance dies the job is claimed again once the lease expires.
+ * Before calling GSP the worker checks whether the document already carries the IRN / E-Way Bill,
+ * so a re-run after an unknown outcome completes the job instead of generating twice.
+ * Server faults are retried with exponential backoff; GSP rejections and validation errors fail the job.
+ * Each run is timed as gsp.job{type, outcome}.
+ */
+@Service
+@Slf4j
+public class GspJobWorker {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final GspJobRepository gspJobRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final DeliveryChallanRepository challanRepository;
+    private final GspEInvoiceService einvoiceService;
+    private final EwayBillGenerationService ewayBillGenerationService;
+    private final EInvoiceAuthServiceWithSession einvoiceAuthService;
+    private final GspAuthServiceWithSession ewayBillAuthService;
+    private final EncryptionService encryptionService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor jobExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+
+    public GspJobWorker(GspJobRepository gspJobRepository,
+                        InvoiceRepository invoiceRepository,
+                        DeliveryChallanRepository challanRepository,
+                        GspEInvoiceService einvoiceService,
+                        EwayBillGenerationService ewayBillGenerationService,
+                        EInvoiceAuthServiceWithSession einvoiceAuthService,
+                        GspAuthServiceWithSession ewayBillAuthService,
+                        EncryptionService encryptionService,
+                        ObjectMapper objectMapper,
+                        @Qualifier(AsyncConfig.GSP_JOB_TASK_EXECUTOR) ThreadPoolTaskExecutor jobExecutor,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.gsp.jobs.enabled:true}") boolean enabled,
+                        @Value("${app.gsp.jobs.max-concurrency:4}") int maxConcurrency,
+                        @Value("${app.gsp.jobs.max-attempts:3}") int maxAttempts,
+                        @Value("${app.gsp.jobs.lease-minutes:10}") long leaseMinutes,
+                        @Value("${app.gsp.jobs.initial-backoff-seconds:30}") long initialBackoffSeconds) {
+        this.gspJobRepository = gspJobRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.challanRepository = challanRepository;
+        this.einvoiceService = einvoiceService;
+        this.ewayBillGenerationService = ewayBillGenerationService;
+        this.einvoiceAuthService = einvoiceAuthService;
+        this.ewayBillAuthService = ewayBillAuthService;
+        this.encryptionService = encryptionService;
+        this.objectMapper = objectMapper;
+        this.jobExecutor = jobExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxConcurrency = maxConcurrency;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+    }
+
+    /**
+     * Outcome of one job run: the summary stored as the job result, or the GSP error if it was rejected
+     */
+    private record JobOutcome(boolean success, Map<String, Object> result, String error) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.gsp.jobs.poll-interval-ms:2000}")
+    public void dispatchDueJobs() {
+        if (!enabled) {
+            return;
+        }
+        int freeSlots = maxConcurrency - jobExecutor.getActiveCount() - jobExecutor.getThreadPoolExecutor().getQueue().size();
+        if (freeSlots <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> jobIds = gspJobRepository.claimDueJobs(now, now.plus(lease), freeSlots);
+        if (jobIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Running {} queued GSP job(s)", jobIds.size());
+        for (Long jobId : jobIds) {
+            try {
+                jobExecutor.execute(() -> runJob(jobId));
+            } catch (TaskRejectedException e) {
+                // Left running; it is claimed again when its lease expires
+                log.warn("GSP job worker pool saturated, job {} will be retried after its lease expires", jobId);
+            }
+        }
+    }
+
+    private void runJob(Long jobId) {
+        GspJob job = gspJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != GspJob.JobStatus.RUNNING) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            JobOutcome result = execute(job);
+            if (result.success()) {
+                outcome = finish(job, GspJob.JobStatus.SUCCEEDED, result.result(), null) ? "succeeded" : "stale";
+            } else {
+                outcome = finish(job, GspJob.JobStatus.FAILED, result.result(), result.error()) ? "rejected" : "stale";
+            }
+        } catch (Exception e) {
+            outcome = handleFailure(job, e);
+        }
+        sample.stop(meterRegistry.timer("gsp.job", "type", job.getJobType().name(), "outcome", outcome));
+    }
+
+    private JobOutcome execute(GspJob job) throws JsonProcessingException {
+        Long tenantId = job.getTenantId();
+        String sessionToken = encryptionService.decrypt(job.getSessionTokenEncrypted());
+
+        switch (job.getJobType()) {
+            case EINVOICE_GENERATE -> {
+                Invoice invoice = loadInvoice(job);
+                if (invoice.getIrn() != null && !invoice.getIrn().isEmpty()) {
+                    return alreadyGenerated("irn", invoice.getIrn());
+                }
+                requireEInvoiceSession(tenantId, sessionToken);
+                Object einvoiceData = objectMapper.readTree(job.getRequestPayload());
+                EInvoiceGenerateResponse response = einvoiceService.generateEInvoice(
+                    tenantId, job.getInvoiceId(), einvoiceData, sessionToken, job.getGspServerId());
+                if (response == null) {
+                    throw new IllegalStateException("No response from GSP for E-Invoice generation");
+                }
+                return new JobOutcome(response.isSuccess(), einvoiceResult(response),
+                                      response.isSuccess() ? null : response.getErrorDetails());
+            }
+            case EWAY_BILL_BY_IRN -> {
+                Invoice invoice = loadInvoice(job);
+                if (invoice.getEwayBillNumber() != null && !invoice.getEwayBillNumber().isEmpty()) {
+                    return alreadyGenerated("ewayBillNumber", invoice.getEwayBillNumber());
+                }
+                requireEInvoiceSession(tenantId, sessionToken);
+                EInvoiceGenerateEwbByIrnRequest ewbData =
+                    objectMapper.readValue(job.getRequestPayload(), EInvoiceGenerateEwbByIrnRequest.class);
+                EInvoiceEwbByIrnResponse response = einvoiceService.generateEwayBillByIrn(
+                    tenantId, ewbData, sessionToken, job.getGspServerId());
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("irn", ewbData.getIrn());
+                result.put("ewayBillNumber", response.getEwbNo());
+                result.put("ewayBillDate", response.getEwbDt());
+                result.put("validUntil", response.getEwbValidTill());
+                result.put("alert", response.getAlert());
+                return new JobOutcome(response.isSuccess(), result,
+                                      response.isSuccess() ? null : response.getErrorDetails());
+            }
+            case EWAY_BILL_INVOICE -> {
+                Invoice invoice = loadInvoice(job);
+                if (invoice.getEwayBillNumber() != null && !invoice.getEwayBillNumber().isEmpty()) {
+                    return alreadyGenerated("ewayBillNumber", invoice.getEwayBillNumber());
+                }
+                requireEwayBillSession(tenantId, sessionToken);
+                EwayBillData ewayBillData = objectMapper.readValue(job.getRequestPayload(), EwayBillData.class);
+                GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBill(
+                    tenantId, invoice, ewayBillData, sessionToken, job.getGspServerId());
+                return new JobOutcome(true, ewayBillResult(response), null);
+            }
+            case EWAY_BILL_CHALLAN -> {
+                DeliveryChallan challan = challanRepository
+                    .findByIdAndTenantIdAndDeletedFalse(job.getDeliveryChallanId(), tenantId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                        "Delivery Challan not found with id: " + job.getDeliveryChallanId()));
+                if (challan.getEwayBillNumber() != null && !challan.getEwayBillNumber().isEmpty()) {
+                    return alreadyGenerated("ewayBillNumber", challan.getEwayBillNumber());
+                }
+                requireEwayBillSession(tenantId, sessionToken);
+                EwayBillData ewayBillData = objectMapper.readValue(job.getRequestPayload(), EwayBillData.class);
+                GspEwbGenerateResponse response = ewayBillGenerationService.generateEwayBill(
+                    tenantId, challan, ewayBillData, sessionToken, job.getGspServerId());
+                return new JobOutcome(true, ewayBillResult(response), null);
+            }
+            default -> throw new IllegalArgumentException("Unsupported GSP job type: " + job.getJobType());
+        }
+    }
+
+    /**
+     * Retry server faults (5xx, timeouts, open circuits) with backoff; everything else fails the job
+     */
+    private String handleFailure(GspJob job, Exception e) {
+        int attempt = job.getAttemptCount();
+        boolean retryable = GspServerFailoverHelper.isServerFault(e);
+        if (retryable && attempt < maxAttempts) {
+            job.setStatus(GspJob.JobStatus.QUEUED);
+            job.setNextAttemptAt(LocalDateTime.now().plus(backoffFor(attempt)));
+            job.setLockedUntil(null);
+            job.setLastError(truncate(e.getMessage()));
+            if (!saveOutcome(job)) {
+                return "stale";
+            }
+            log.warn("GSP job {} ({}) failed on attempt {}; next attempt at {}. Error: {}",
+                     job.getId(), job.getIdempotencyKey(), attempt, job.getNextAttemptAt(), e.getMessage());
+            return "retry";
+        }
+
+        if (!finish(job, GspJob.JobStatus.FAILED, null, e.getMessage())) {
+            return "stale";
+        }
+        log.error("GSP job {} ({}) failed after {} attempt(s): {}",
+                  job.getId(), job.getIdempotencyKey(), attempt, e.getMessage());
+        return "failed";
+    }
+
+    /**
+     * @return false if the outcome was discarded because the job changed while this run was in flight
+     */
+    private boolean finish(GspJob job, GspJob.JobStatus status, Map<String, Object> result, String error) {
+        job.setStatus(status);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setLockedUntil(null);
+        job.setLastError(truncate(error));
+        job.setSessionTokenEncrypted(null);
+        if (result != null) {
+            try {
+                job.setResultPayload(objectMapper.writeValueAsString(result));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize result of GSP job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+        if (!saveOutcome(job)) {
+            return false;
+        }
+        if (status == GspJob.JobStatus.SUCCEEDED) {
+            log.info("GSP job {} ({}) succeeded", job.getId(), job.getIdempotencyKey());
+        } else {
+            log.warn("GSP job {} ({}) rejected by GSP: {}", job.getId(), job.getIdempotencyKey(), error);
+        }
+        return true;
+    }
+
+    /**
+     * Write the outcome of a run. GspJob is versioned and every claim bumps the version, so the write fails
+     * if the job was claimed again after its lease expired, or resubmitted, while this run was calling GSP.
+     * The newer state is kept and this run's outcome is dropped.
+     */
+    private boolean saveOutcome(GspJob job) {
+        try {
+            gspJobRepository.save(job);
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("GSP job {} ({}) changed while attempt {} was running; discarding its outcome",
+                     job.getId(), job.getIdempotencyKey(), job.getAttemptCount());
+            return false;
+        }
+    }
+
+    private Invoice loadInvoice(GspJob job) {
+        return invoiceRepository.findByIdAndTenantIdAndDeletedFalse(job.getInvoiceId(), job.getTenantId())
+            .orElseThrow(() -> new IllegalArgumentException("Invoice not found with id: " + job.getInvoiceId()));
+    }
+
+    private void requireEInvoiceSession(Long tenantId, String sessionToken) {
+        EInvoiceSessionService.SessionData session = einvoiceAuthService.getSessionData(sessionToken);
+        if (session == null || !tenantId.equals(session.getTenantId())) {
+            throw new IllegalArgumentException("E-Invoice session expired. Please submit again with username and password.");
+        }
+    }
+
+    private void requireEwayBillSession(Long tenantId, String sessionToken) {
+        EwayBillSessionService.SessionData session = ewayBillAuthService.getSessionData(sessionToken);
+        if (session == null || !tenantId.equals(session.getTenantId())) {
+            throw new IllegalArgumentException("E-Way Bill session expired. Please submit again with username and password.");
+        }
+    }
+
+    private static JobOutcome alreadyGenerated(String field, String value) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(field, value);
+        result.put("alreadyGenerated", true);
+        return new JobOutcome(true, result, null);
+    }
+
+    private static Map<String, Object> einvoiceResult(EInvoiceGenerateResponse response) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("irn", response.getIrn());
+        result.put("ackNo", response.getAckNo());
+        result.put("ackDt", response.getAckDt());
+        result.put("hasEwayBill", response.hasEwayBill());
+        if (response.hasEwayBill()) {
+            result.put("ewbNo", response.getEwbNo());
+            result.put("ewbDt", response.getEwbDt());
+            result.put("ewbValidTill", response.getEwbValidTill());
+        }
+        result.put("alert", response.getAlert());
+        return result;
+    }
+
+    private static Map<String, Object> ewayBillResult(GspEwbGenerateResponse response) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ewayBillNumber", response.getEwayBillNo());
+        result.put("ewayBillDate", response.getEwayBillDate());
+        result.put("validUntil", response.getValidUpto());
+        result.put("alert", response.getAlert());
+        return result;
+    }
+
+    /**
+     * Exponential backoff: initial * 2^(attempt - 1)
+     */
+    private Duration backoffFor(int attemptCount) {
+        return initialBackoff.multipliedBy(1L << Math.min(Math.max(attemptCount - 1, 0), 10));
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
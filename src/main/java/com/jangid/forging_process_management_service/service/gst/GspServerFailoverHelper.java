@@ -1,16 +1,24 @@
 package com.jangid.forging_process_management_service.service.gst;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.io.IOException;
 import java.util.function.Function;
 
 /**
  * Helper utility for GSP API server failover logic
  * Implements automatic retry across Primary, Backup1 (Mumbai), and Backup2 (Delhi) servers
  * 
- * Pattern: Primary (3 attempts) → Backup1 (3 attempts) → Backup2 (3 attempts)
+ * Pattern: Primary → Backup1 → Backup2, one attempt each
+ * Servers whose circuit is open (see {@link GspCircuitBreakerRegistry}) are skipped without a call,
+ * and failover to the next server is immediate. A server is never retried back to back within a request;
+ * callers that retry later schedule it through the GSP job queue, which waits out a backoff
+ * (see {@link GspJobService}).
  * 
  * Usage:
  * <pre>
@@ -22,12 +30,13 @@ import java.util.function.Function;
  */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class GspServerFailoverHelper {
 
-    private static final int MAX_RETRY_ATTEMPTS_PER_SERVER = 1;
-    private static final long RETRY_DELAY_MS = 1000; // 1 second between retries
     private static final String[] SERVER_NAMES = {"Primary", "Backup1 (Mumbai)", "Backup2 (Delhi)"};
 
+    private final GspCircuitBreakerRegistry circuitBreakerRegistry;
+
     /**
      * Execute an API call with automatic failover across multiple servers
      * 
@@ -35,7 +44,7 @@ public class GspServerFailoverHelper {
      * @param serverUrls Array of server URLs to try (Primary, Backup1, Backup2)
      * @param attemptFunction Function that takes a server URL and makes the API call
      * @return Result from the successful API call
-     * @throws RuntimeException if all servers fail after all retry attempts
+     * @throws RuntimeException if all servers fail
      */
     public <T> T executeWithFailover(String[] serverUrls, Function<String, T> attemptFunction) {
         return executeWithFailover(serverUrls, attemptFunction, "API call");
@@ -49,10 +58,12 @@ public class GspServerFailoverHelper {
      * @param attemptFunction Function that takes a server URL and makes the API call
      * @param operationName Descriptive name of the operation (for logging)
      * @return Result from the successful API call
-     * @throws RuntimeException if all servers fail after all retry attempts
+     * @throws RuntimeException if all servers fail
      */
     public <T> T executeWithFailover(String[] serverUrls, Function<String, T> attemptFunction, String operationName) {
         Exception lastException = null;
+        boolean anyServerAttempted = false;
+        boolean anyServerSkipped = false;
         
         // Try each server in sequence
         for (int serverIndex = 0; serverIndex < serverUrls.length && serverIndex < SERVER_NAMES.length; serverIndex++) {
@@ -64,142 +75,76 @@ public class GspServerFailoverHelper {
                 log.debug("Skipping {} server - URL not configured", serverName);
                 continue;
             }
+
+            // Skip servers that failed recently instead of waiting on them again
+            if (!circuitBreakerRegistry.isAvailable(currentServerUrl)) {
+                log.warn("Skipping {} server for {} - circuit open after recent failures", serverName, operationName);
+                lastException = new GspCircuitBreakerRegistry.CircuitOpenException(currentServerUrl);
+                anyServerSkipped = true;
+                continue;
+            }
             
             log.info("Attempting {} with {} server: {}", operationName, serverName, currentServerUrl);
             
-            // Try this server MAX_RETRY_ATTEMPTS_PER_SERVER times
-            for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS_PER_SERVER; attempt++) {
-                try {
-                    log.info("{} attempt {} of {} on {} server", 
-                            operationName, attempt, MAX_RETRY_ATTEMPTS_PER_SERVER, serverName);
-                    
-                    T result = attemptFunction.apply(currentServerUrl);
-                    
-                    log.info("✓ Successfully completed {} on {} server (attempt {})", 
-                            operationName, serverName, attempt);
-                    return result;
-                    
-                } catch (HttpClientErrorException e) {
-                    lastException = e;
-                    // Don't retry on 4xx client errors (except 429 Too Many Requests)
-                    if (e.getStatusCode().is4xxClientError() && e.getStatusCode().value() != 429) {
-                        log.error("✗ Client error ({}), not retrying: {}", 
-                                e.getStatusCode(), e.getMessage());
-                        throw e;
-                    }
-                    log.error("✗ {} attempt {} failed on {} server: {}", 
-                            operationName, attempt, serverName, e.getMessage());
-                    
-                } catch (Exception e) {
-                    lastException = e;
-                    log.error("✗ {} attempt {} failed on {} server: {}", 
-                            operationName, attempt, serverName, e.getMessage());
-                }
-                
-                // Wait before retrying (except on last attempt of this server)
-                if (attempt < MAX_RETRY_ATTEMPTS_PER_SERVER) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException(operationName + " interrupted", ie);
-                    }
+            try {
+                anyServerAttempted = true;
+                T result = circuitBreakerRegistry.execute(
+                        currentServerUrl,
+                        () -> attemptFunction.apply(currentServerUrl),
+                        GspServerFailoverHelper::isServerFault);
+
+                log.info("✓ Successfully completed {} on {} server", operationName, serverName);
+                return result;
+
+            } catch (GspCircuitBreakerRegistry.CircuitOpenException e) {
+                lastException = e;
+                log.warn("✗ {} server circuit opened during {}, moving on", serverName, operationName);
+
+            } catch (RuntimeException e) {
+                lastException = e;
+                // Only server faults move on to the next server; anything else would fail there too
+                if (!isServerFault(e)) {
+                    log.error("✗ Not a server fault, not failing over: {}", e.getMessage());
+                    throw e;
                 }
+                log.error("✗ {} failed on {} server: {}", operationName, serverName, e.getMessage());
             }
-            
-            // All attempts on this server failed, move to next server
-            log.warn("All {} attempts failed on {} server, trying next server...", 
-                    MAX_RETRY_ATTEMPTS_PER_SERVER, serverName);
+
+            // This server failed, move to next server
+            log.warn("{} failed on {} server, trying next server...", operationName, serverName);
+        }
+
+        if (!anyServerAttempted && anyServerSkipped) {
+            log.error("{} not attempted: every configured GSP server has an open circuit", operationName);
+            throw new RuntimeException("Failed to complete " + operationName +
+                                       ": GSP servers are temporarily unavailable, please try again shortly", lastException);
         }
         
         // All servers exhausted
-        log.error("{} failed on all servers (Primary, Backup1, Backup2) after {} attempts per server", 
-                operationName, MAX_RETRY_ATTEMPTS_PER_SERVER);
+        log.error("{} failed on all servers (Primary, Backup1, Backup2)", operationName);
         throw new RuntimeException("Failed to complete " + operationName + " on all servers: " + 
                                  (lastException != null ? lastException.getMessage() : "Unknown error"), 
                                  lastException);
     }
 
     /**
-     * Execute an API call with automatic failover, with custom retry attempts
-     * 
-     * @param <T> Return type of the API call
-     * @param serverUrls Array of server URLs to try (Primary, Backup1, Backup2)
-     * @param attemptFunction Function that takes a server URL and makes the API call
-     * @param operationName Descriptive name of the operation (for logging)
-     * @param maxRetryAttemptsPerServer Maximum number of retry attempts per server
-     * @return Result from the successful API call
-     * @throws RuntimeException if all servers fail after all retry attempts
+     * Whether a failure is the server's fault and counts against its circuit: connection failures and
+     * timeouts, 5xx responses, 429 Too Many Requests, and open circuits. Everything else (other 4xx responses,
+     * validation errors, expired sessions, local failures) is not, so one tenant's bad request or session
+     * cannot open the circuit for every tenant. Callers wrap checked exceptions, so the cause chain is inspected too.
      */
-    public <T> T executeWithFailover(String[] serverUrls, 
-                                      Function<String, T> attemptFunction, 
-                                      String operationName,
-                                      int maxRetryAttemptsPerServer) {
-        Exception lastException = null;
-        
-        // Try each server in sequence
-        for (int serverIndex = 0; serverIndex < serverUrls.length && serverIndex < SERVER_NAMES.length; serverIndex++) {
-            String currentServerUrl = serverUrls[serverIndex];
-            String serverName = SERVER_NAMES[serverIndex];
-            
-            // Skip if backup URL is not configured
-            if (currentServerUrl == null || currentServerUrl.isEmpty()) {
-                log.debug("Skipping {} server - URL not configured", serverName);
-                continue;
+    public static boolean isServerFault(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof ResourceAccessException
+                || current instanceof IOException
+                || current instanceof HttpServerErrorException
+                || current instanceof GspCircuitBreakerRegistry.CircuitOpenException) {
+                return true;
             }
-            
-            log.info("Attempting {} with {} server: {}", operationName, serverName, currentServerUrl);
-            
-            // Try this server maxRetryAttemptsPerServer times
-            for (int attempt = 1; attempt <= maxRetryAttemptsPerServer; attempt++) {
-                try {
-                    log.info("{} attempt {} of {} on {} server", 
-                            operationName, attempt, maxRetryAttemptsPerServer, serverName);
-                    
-                    T result = attemptFunction.apply(currentServerUrl);
-                    
-                    log.info("✓ Successfully completed {} on {} server (attempt {})", 
-                            operationName, serverName, attempt);
-                    return result;
-                    
-                } catch (HttpClientErrorException e) {
-                    lastException = e;
-                    // Don't retry on 4xx client errors (except 429 Too Many Requests)
-                    if (e.getStatusCode().is4xxClientError() && e.getStatusCode().value() != 429) {
-                        log.error("✗ Client error ({}), not retrying: {}", 
-                                e.getStatusCode(), e.getMessage());
-                        throw e;
-                    }
-                    log.error("✗ {} attempt {} failed on {} server: {}", 
-                            operationName, attempt, serverName, e.getMessage());
-                    
-                } catch (Exception e) {
-                    lastException = e;
-                    log.error("✗ {} attempt {} failed on {} server: {}", 
-                            operationName, attempt, serverName, e.getMessage());
-                }
-                
-                // Wait before retrying (except on last attempt of this server)
-                if (attempt < maxRetryAttemptsPerServer) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException(operationName + " interrupted", ie);
-                    }
-                }
+            if (current instanceof HttpClientErrorException clientError) {
+                return clientError.getStatusCode().value() == 429;
             }
-            
-            // All attempts on this server failed, move to next server
-            log.warn("All {} attempts failed on {} server, trying next server...", 
-                    maxRetryAttemptsPerServer, serverName);
         }
-        
-        // All servers exhausted
-        log.error("{} failed on all servers (Primary, Backup1, Backup2) after {} attempts per server", 
-                operationName, maxRetryAttemptsPerServer);
-        throw new RuntimeException("Failed to complete " + operationName + " on all servers: " + 
-                                 (lastException != null ? lastException.getMessage() : "Unknown error"), 
-                                 lastException);
+        return false;
     }
 }
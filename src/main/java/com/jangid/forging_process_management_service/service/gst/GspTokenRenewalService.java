@@ -0,0 +1,156 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.jangid.forging_process_management_service.configuration.AsyncConfig;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+import com.jangid.forging_process_management_service.service.gst.session.GspSessionStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Renews GSP auth tokens in the background before they expire, so user requests never wait for
+ * a GSP re-authentication.
+ *
+ * Each run claims (with a lease, so only one instance renews a session) the recently used sessions
+ * whose token expires within {@code renew-ahead-minutes}, and renews them on a bounded pool with a
+ * random start delay to avoid bursts against GSP. The scheduler thread does not wait for the renewals;
+ * runs are skipped until the previous batch has finished or outlived its lease. Authentication goes through {@link GspAuthSingleFlight},
+ * so a renewal and a user login for the same tenant and user share one GSP call.
+ * Each renewal is timed as gsp.token.renewal{type, outcome}.
+ */
+@Service
+@Slf4j
+public class GspTokenRenewalService {
+
+    private final GspSessionStore sessionStore;
+    private final GspAuthServiceWithSession ewayBillAuthService;
+    private final EInvoiceAuthServiceWithSession eInvoiceAuthService;
+    private final TaskExecutor renewalExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final Duration renewAhead;
+    private final Duration activeWindow;
+    private final Duration lease;
+    private final int batchSize;
+    private final long maxJitterMs;
+    private final AtomicBoolean batchInFlight = new AtomicBoolean();
+
+    public GspTokenRenewalService(GspSessionStore sessionStore,
+                                  GspAuthServiceWithSession ewayBillAuthService,
+                                  EInvoiceAuthServiceWithSession eInvoiceAuthService,
+                                  @Qualifier(AsyncConfig.GSP_TOKEN_RENEWAL_TASK_EXECUTOR) TaskExecutor renewalExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.gsp.token-renewal.enabled:true}") boolean enabled,
+                                  @Value("${app.gsp.token-renewal.renew-ahead-minutes:15}") long renewAheadMinutes,
+                                  @Value("${app.gsp.token-renewal.active-window-minutes:60}") long activeWindowMinutes,
+                                  @Value("${app.gsp.token-renewal.lease-minutes:5}") long leaseMinutes,
+                                  @Value("${app.gsp.token-renewal.batch-size:50}") int batchSize,
+                                  @Value("${app.gsp.token-renewal.max-jitter-ms:5000}") long maxJitterMs) {
+        this.sessionStore = sessionStore;
+        this.ewayBillAuthService = ewayBillAuthService;
+        this.eInvoiceAuthService = eInvoiceAuthService;
+        this.renewalExecutor = renewalExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.renewAhead = Duration.ofMinutes(renewAheadMinutes);
+        this.activeWindow = Duration.ofMinutes(activeWindowMinutes);
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.batchSize = batchSize;
+        this.maxJitterMs = maxJitterMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.gsp.token-renewal.poll-interval-ms:60000}",
+               initialDelayString = "${app.gsp.token-renewal.poll-interval-ms:60000}")
+    public void renewExpiringTokens() {
+        if (!enabled) {
+            return;
+        }
+        // The scheduler thread only claims and hands off; runs are skipped while the previous batch is still
+        // renewing, so the next run never claims more than the pool can take
+        if (!batchInFlight.compareAndSet(false, true)) {
+            log.debug("Previous GSP token renewal batch still running, skipping this run");
+            return;
+        }
+        try {
+            List<CompletableFuture<Void>> renewals = new ArrayList<>();
+            renewals.addAll(renewDueSessions(GspSessionType.EWAY_BILL, ewayBillAuthService::renewSessionToken));
+            renewals.addAll(renewDueSessions(GspSessionType.EINVOICE, eInvoiceAuthService::renewSessionToken));
+            if (renewals.isEmpty()) {
+                batchInFlight.set(false);
+                return;
+            }
+            // Sessions not renewed within the lease are claimed again after it expires
+            CompletableFuture.allOf(renewals.toArray(CompletableFuture[]::new))
+                .orTimeout(lease.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, e) -> {
+                    if (e instanceof TimeoutException) {
+                        log.warn("GSP token renewal batch did not finish within {} minutes", lease.toMinutes());
+                    } else if (e != null) {
+                        log.warn("GSP token renewal batch failed: {}", e.getMessage());
+                    }
+                    batchInFlight.set(false);
+                });
+        } catch (RuntimeException e) {
+            batchInFlight.set(false);
+            throw e;
+        }
+    }
+
+    private List<CompletableFuture<Void>> renewDueSessions(GspSessionType type,
+                                                           Predicate<GspSessionStore.RenewableGspSession> renewer) {
+        LocalDateTime now = LocalDateTime.now();
+        List<GspSessionStore.RenewableGspSession> due =
+            sessionStore.claimForRenewal(type, now.plus(renewAhead), now.minus(activeWindow), batchSize, lease);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        log.info("Renewing GSP auth tokens for {} {} session(s)", due.size(), type);
+        return due.stream()
+            .map(renewable -> CompletableFuture.runAsync(
+                () -> renewSession(type, renewable, renewer),
+                CompletableFuture.delayedExecutor(jitterMs(), TimeUnit.MILLISECONDS, renewalExecutor::execute)))
+            .toList();
+    }
+
+    private void renewSession(GspSessionType type, GspSessionStore.RenewableGspSession renewable,
+                              Predicate<GspSessionStore.RenewableGspSession> renewer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            outcome = renewer.test(renewable) ? "success" : "session_gone";
+            log.debug("Renewed {} GSP auth token for tenant {}", type, renewable.session().getTenantId());
+        } catch (Exception e) {
+            log.warn("Failed to renew {} GSP auth token for tenant {}: {}",
+                     type, renewable.session().getTenantId(), e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("gsp.token.renewal")
+                            .tag("type", type.name())
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+        }
+    }
+
+    private long jitterMs() {
+        return maxJitterMs > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMs + 1) : 0;
+    }
+}
@@ -0,0 +1,407 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.jangid.forging_process_management_service.configuration.AsyncConfig;
+import com.jangid.forging_process_management_service.dto.gst.InvoiceBulkGenerationRequest;
+import com.jangid.forging_process_management_service.dto.gst.InvoiceGenerationRequest;
+import com.jangid.forging_process_management_service.entities.dispatch.DispatchBatch;
+import com.jangid.forging_process_management_service.entities.dispatch.ProcessedItemDispatchBatch;
+import com.jangid.forging_process_management_service.entities.gst.Invoice;
+import com.jangid.forging_process_management_service.entities.order.OrderItemWorkflow;
+import com.jangid.forging_process_management_service.entities.order.WorkType;
+import com.jangid.forging_process_management_service.entities.settings.TenantInvoiceSettings;
+import com.jangid.forging_process_management_service.entities.workflow.ItemWorkflow;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceBulkGenerationRepresentation;
+import com.jangid.forging_process_management_service.entitiesRepresentation.gst.InvoiceBulkGenerationRepresentation.InvoiceResult;
+import com.jangid.forging_process_management_service.repositories.gst.InvoiceDispatchBatchRepository;
+import com.jangid.forging_process_management_service.repositories.order.OrderItemWorkflowRepository;
+import com.jangid.forging_process_management_service.repositories.workflow.ItemWorkflowRepository;
+import com.jangid.forging_process_management_service.service.TenantService;
+import com.jangid.forging_process_management_service.service.dispatch.DispatchBatchService;
+import com.jangid.forging_process_management_service.service.settings.TenantSettingsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk generation of draft invoices from ready-to-dispatch batches.
+ *
+ * The batches and everything their invoices are built from (billing entities, item workflows, order
+ * workflows, existing invoice links, invoice settings) are loaded once with a handful of queries.
+ * Batches are then grouped into invoices by the requested rule, the invoices are built in parallel
+ * without touching the database, and saved in chunks with batched inserts, one transaction per chunk.
+ * A chunk that fails to save is retried invoice by invoice so one bad invoice does not fail the others.
+ *
+ * The result reports every invoice (or rejected batch) with its outcome.
+ */
+@Service
+@Slf4j
+public class InvoiceBulkGenerationService {
+
+  private static final String CREATED = "CREATED";
+  private static final String FAILED = "FAILED";
+
+  private final InvoiceService invoiceService;
+  private final DispatchBatchService dispatchBatchService;
+  private final TenantService tenantService;
+  private final TenantSettingsService tenantSettingsService;
+  private final ItemWorkflowRepository itemWorkflowRepository;
+  private final OrderItemWorkflowRepository orderItemWorkflowRepository;
+  private final InvoiceDispatchBatchRepository invoiceDispatchBatchRepository;
+  private final ThreadPoolTaskExecutor bulkExecutor;
+  private final int persistChunkSize;
+
+  public InvoiceBulkGenerationService(InvoiceService invoiceService,
+                                      DispatchBatchService dispatchBatchService,
+                                      TenantService tenantService,
+                                      TenantSettingsService tenantSettingsService,
+                                      ItemWorkflowRepository itemWorkflowRepository,
+                                      OrderItemWorkflowRepository orderItemWorkflowRepository,
+                                      InvoiceDispatchBatchRepository invoiceDispatchBatchRepository,
+                                      @Qualifier(AsyncConfig.INVOICE_BULK_TASK_EXECUTOR) ThreadPoolTaskExecutor bulkExecutor,
+                                      @Value("${app.invoice.bulk.persist-chunk-size:25}") int persistChunkSize) {
+    this.invoiceService = invoiceService;
+    this.dispatchBatchService = dispatchBatchService;
+    this.tenantService = tenantService;
+    this.tenantSettingsService = tenantSettingsService;
+    this.itemWorkflowRepository = itemWorkflowRepository;
+    this.orderItemWorkflowRepository = orderItemWorkflowRepository;
+    this.invoiceDispatchBatchRepository = invoiceDispatchBatchRepository;
+    this.bulkExecutor = bulkExecutor;
+    this.persistChunkSize = Math.max(1, persistChunkSize);
+  }
+
+  /**
+   * One invoice to build: its dispatch batches, the request it is built with and its reference data
+   */
+  private record InvoiceGroup(List<DispatchBatch> dispatchBatches,
+                              InvoiceGenerationRequest request,
+                              InvoiceService.InvoiceReferenceData referenceData) {
+  }
+
+  /**
+   * Reference data shared by all invoices of one bulk request
+   */
+  private record SharedData(InvoiceGenerationRequest defaults,
+                            Map<Long, ItemWorkflow> itemWorkflows,
+                            Map<Long, OrderItemWorkflow> orderItemWorkflows,
+                            TenantInvoiceSettings invoiceSettings) {
+  }
+
+  /**
+   * Generate draft invoices for the requested dispatch batches
+   *
+   * @throws IllegalArgumentException if the request itself is invalid; problems with individual batches or
+   *                                  invoices are reported in the result instead
+   */
+  public InvoiceBulkGenerationRepresentation generateInvoices(Long tenantId, InvoiceBulkGenerationRequest request) {
+    long start = System.currentTimeMillis();
+    InvoiceGenerationRequest defaults = request.getInvoiceDefaults();
+    if (defaults.isManualInvoice()) {
+      throw new IllegalArgumentException("Bulk generation creates invoices from dispatch batches; manual invoices are not supported");
+    }
+    InvoiceBulkGenerationRequest.GroupingRule groupingRule = request.getGroupingRule() != null
+        ? request.getGroupingRule() : InvoiceBulkGenerationRequest.GroupingRule.PER_BUYER;
+
+    tenantService.validateTenantExists(tenantId);
+    List<Long> requestedIds = request.getDispatchBatchIds().stream().filter(Objects::nonNull).distinct().toList();
+    log.info("Bulk generating invoices for tenant {} from {} dispatch batches, grouped {}", tenantId, requestedIds.size(), groupingRule);
+
+    // Load everything the invoices are built from once
+    Map<Long, DispatchBatch> batchesById = dispatchBatchService.getDispatchBatchesForInvoicing(tenantId, requestedIds).stream()
+        .collect(Collectors.toMap(DispatchBatch::getId, Function.identity()));
+    SharedData shared = loadSharedData(tenantId, defaults, batchesById.values());
+    Set<Long> alreadyInvoiced = batchesById.isEmpty() ? Set.of()
+        : invoiceDispatchBatchRepository.findByDispatchBatchIdInAndDeletedFalse(batchesById.keySet()).stream()
+            .map(link -> link.getDispatchBatch().getId())
+            .collect(Collectors.toSet());
+
+    // Check each batch and group the invoiceable ones
+    List<InvoiceResult> results = new ArrayList<>();
+    Map<String, List<DispatchBatch>> batchesByGroup = new LinkedHashMap<>();
+    Map<Long, String> billingEntityErrors = new HashMap<>();
+    for (Long id : requestedIds) {
+      DispatchBatch batch = batchesById.get(id);
+      if (batch == null) {
+        results.add(InvoiceResult.builder().status(FAILED).dispatchBatchIds(List.of(id))
+                        .error("Dispatch batch with id=" + id + " not found").build());
+        continue;
+      }
+      String rejection = checkInvoiceable(batch, alreadyInvoiced, billingEntityErrors, shared);
+      if (rejection != null) {
+        results.add(failed(List.of(batch), rejection));
+        continue;
+      }
+      batchesByGroup.computeIfAbsent(groupKey(groupingRule, batch, shared), key -> new ArrayList<>()).add(batch);
+    }
+    List<InvoiceGroup> groups = batchesByGroup.values().stream().map(batches -> toInvoiceGroup(batches, shared)).toList();
+
+    // Build the invoices in parallel; building makes no database calls
+    List<CompletableFuture<Invoice>> builds = groups.stream()
+        .map(group -> CompletableFuture.supplyAsync(() -> assemble(group), bulkExecutor))
+        .toList();
+    Set<String> usedInvoiceNumbers = new HashSet<>();
+    List<InvoiceGroup> builtGroups = new ArrayList<>();
+    List<InvoiceService.DraftInvoice> drafts = new ArrayList<>();
+    for (int i = 0; i < groups.size(); i++) {
+      try {
+        Invoice invoice = builds.get(i).join();
+        ensureUniqueInvoiceNumber(invoice, usedInvoiceNumbers);
+        builtGroups.add(groups.get(i));
+        drafts.add(new InvoiceService.DraftInvoice(invoice, groups.get(i).dispatchBatches()));
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        log.warn("Could not build invoice for dispatch batches {}: {}", batchNumbers(groups.get(i).dispatchBatches()), cause.getMessage());
+        results.add(failed(groups.get(i).dispatchBatches(), cause.getMessage()));
+      }
+    }
+
+    // Save in chunks, one transaction per chunk
+    for (int from = 0; from < drafts.size(); from += persistChunkSize) {
+      int to = Math.min(from + persistChunkSize, drafts.size());
+      List<InvoiceService.DraftInvoice> chunk = drafts.subList(from, to);
+      try {
+        invoiceService.saveDraftInvoices(chunk);
+        chunk.forEach(draft -> results.add(created(draft)));
+      } catch (Exception e) {
+        log.warn("Saving {} bulk-generated invoices together failed, saving them one by one: {}", chunk.size(), e.getMessage());
+        for (InvoiceGroup group : builtGroups.subList(from, to)) {
+          results.add(saveSingle(group, usedInvoiceNumbers));
+        }
+      }
+    }
+
+    int createdCount = (int) results.stream().filter(result -> CREATED.equals(result.getStatus())).count();
+    log.info("Bulk invoice generation for tenant {} finished in {} ms: {} invoices created, {} failed",
+             tenantId, System.currentTimeMillis() - start, createdCount, results.size() - createdCount);
+
+    return InvoiceBulkGenerationRepresentation.builder()
+        .groupingRule(groupingRule.name())
+        .requestedBatchCount(requestedIds.size())
+        .createdCount(createdCount)
+        .failedCount(results.size() - createdCount)
+        .results(results)
+        .build();
+  }
+
+  private SharedData loadSharedData(Long tenantId, InvoiceGenerationRequest defaults, Iterable<DispatchBatch> batches) {
+    Set<Long> itemWorkflowIds = new HashSet<>();
+    for (DispatchBatch batch : batches) {
+      ProcessedItemDispatchBatch processedItem = batch.getProcessedItemDispatchBatch();
+      if (processedItem != null && processedItem.getItemWorkflowId() != null) {
+        itemWorkflowIds.add(processedItem.getItemWorkflowId());
+      }
+    }
+
+    Map<Long, ItemWorkflow> itemWorkflows = itemWorkflowIds.isEmpty() ? Map.of()
+        : itemWorkflowRepository.findWithItemByIdIn(itemWorkflowIds).stream()
+            .collect(Collectors.toMap(ItemWorkflow::getId, Function.identity()));
+    Map<Long, OrderItemWorkflow> orderItemWorkflows = itemWorkflowIds.isEmpty() ? Map.of()
+        : orderItemWorkflowRepository.findWithOrderByItemWorkflowIdIn(itemWorkflowIds).stream()
+            .collect(Collectors.toMap(orderItemWorkflow -> orderItemWorkflow.getItemWorkflow().getId(),
+                                      Function.identity(), (first, second) -> first));
+
+    return new SharedData(defaults, itemWorkflows, orderItemWorkflows, tenantSettingsService.getInvoiceSettings(tenantId));
+  }
+
+  /**
+   * The same checks single invoice generation makes, as a message instead of an exception
+   *
+   * @return why the batch cannot be invoiced, or null if it can
+   */
+  private String checkInvoiceable(DispatchBatch batch, Set<Long> alreadyInvoiced, Map<Long, String> billingEntityErrors,
+                                  SharedData shared) {
+    if (batch.getDispatchBatchStatus() == DispatchBatch.DispatchBatchStatus.INVOICE_DRAFT_CREATED) {
+      return "Dispatch batch " + batch.getDispatchBatchNumber() + " already has a draft invoice created";
+    }
+    if (batch.getDispatchBatchStatus() != DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH) {
+      return "Dispatch batch " + batch.getDispatchBatchNumber() + " must be in READY_TO_DISPATCH status. Current status: "
+             + batch.getDispatchBatchStatus();
+    }
+    if (alreadyInvoiced.contains(batch.getId())) {
+      return "An invoice already exists for dispatch batch: " + batch.getDispatchBatchNumber();
+    }
+
+    String billingEntityError = billingEntityErrors.computeIfAbsent(batch.getBillingEntity().getId(), id -> {
+      try {
+        InvoiceService.validateBuyerEntityForInvoicing(batch.getBillingEntity());
+        return "";
+      } catch (IllegalArgumentException e) {
+        return e.getMessage();
+      }
+    });
+    if (!billingEntityError.isEmpty()) {
+      return billingEntityError;
+    }
+
+    ProcessedItemDispatchBatch processedItem = batch.getProcessedItemDispatchBatch();
+    if (processedItem == null || processedItem.getItemWorkflowId() == null) {
+      return "Dispatch batch " + batch.getDispatchBatchNumber() + " has no processed item to invoice";
+    }
+    if (!shared.itemWorkflows().containsKey(processedItem.getItemWorkflowId())) {
+      return "ItemWorkflow not found with id: " + processedItem.getItemWorkflowId();
+    }
+    if (unitPriceOf(batch, shared) == null) {
+      return "No unit rate for dispatch batch " + batch.getDispatchBatchNumber()
+             + ": it has no order unit price and invoiceDefaults.unitRate is not set";
+    }
+    return null;
+  }
+
+  /**
+   * Batches are only ever grouped with batches of the same billing entity and work type,
+   * the same rules single generation enforces for multi-batch invoices
+   */
+  private String groupKey(InvoiceBulkGenerationRequest.GroupingRule groupingRule, DispatchBatch batch, SharedData shared) {
+    String buyerKey = batch.getBillingEntity().getId() + "|" + workTypeOf(batch, shared);
+    return switch (groupingRule) {
+      case PER_BUYER -> buyerKey;
+      case PER_PURCHASE_ORDER -> buyerKey + "|" + Objects.toString(batch.getOrderPoNumber(), "");
+      case PER_BATCH -> "batch|" + batch.getId();
+    };
+  }
+
+  private InvoiceGroup toInvoiceGroup(List<DispatchBatch> batches, SharedData shared) {
+    DispatchBatch primaryBatch = batches.get(0);
+    InvoiceGenerationRequest defaults = shared.defaults();
+
+    Map<Long, BigDecimal> unitPrices = new HashMap<>();
+    batches.forEach(batch -> unitPrices.put(batch.getId(), unitPriceOf(batch, shared)));
+
+    // Use the batches' purchase order when they all share one and no PO was given
+    String customerPoNumber = defaults.getCustomerPoNumber();
+    String customerPoDate = defaults.getCustomerPoDate();
+    Set<String> poNumbers = batches.stream().map(DispatchBatch::getOrderPoNumber).collect(Collectors.toSet());
+    if (customerPoNumber == null && poNumbers.size() == 1 && primaryBatch.getOrderPoNumber() != null) {
+      customerPoNumber = primaryBatch.getOrderPoNumber();
+      customerPoDate = primaryBatch.getOrderDate() != null ? primaryBatch.getOrderDate().toLocalDate().toString() : null;
+    }
+
+    InvoiceGenerationRequest groupRequest = defaults.toBuilder()
+        .isManualInvoice(false)
+        .manualLineItems(null)
+        .dispatchBatchIds(batches.stream().map(DispatchBatch::getId).toList())
+        .invoiceNumber(null)
+        .buyerId(null)
+        .buyerBillingEntityId(null)
+        .buyerShippingEntityId(null)
+        .vendorId(null)
+        .vendorBillingEntityId(null)
+        .vendorShippingEntityId(null)
+        .customerPoNumber(customerPoNumber)
+        .customerPoDate(customerPoDate)
+        .unitRate(defaults.getUnitRate() != null ? defaults.getUnitRate() : unitPrices.get(primaryBatch.getId()))
+        .build();
+
+    OrderItemWorkflow primaryOrderItemWorkflow = orderItemWorkflowOf(primaryBatch, shared);
+    Long orderId = primaryOrderItemWorkflow != null ? primaryOrderItemWorkflow.getOrderItem().getOrder().getId() : null;
+
+    // Consignee as in single generation without overrides: the batches' billing entity
+    InvoiceService.InvoiceReferenceData referenceData = new InvoiceService.InvoiceReferenceData(
+        null, null, primaryBatch.getBillingEntity(), null, null, null,
+        orderId, workTypeOf(primaryBatch, shared), shared.invoiceSettings(), shared.itemWorkflows(), unitPrices);
+    return new InvoiceGroup(batches, groupRequest, referenceData);
+  }
+
+  private Invoice assemble(InvoiceGroup group) {
+    return invoiceService.assembleInvoice(group.dispatchBatches(), group.request(), group.referenceData());
+  }
+
+  /**
+   * Build and save one invoice on its own, after its chunk failed to save. It is rebuilt because the failed
+   * attempt may have left ids on the original entities.
+   */
+  private InvoiceResult saveSingle(InvoiceGroup group, Set<String> usedInvoiceNumbers) {
+    try {
+      Invoice invoice = assemble(group);
+      ensureUniqueInvoiceNumber(invoice, usedInvoiceNumbers);
+      InvoiceService.DraftInvoice draft = new InvoiceService.DraftInvoice(invoice, group.dispatchBatches());
+      invoiceService.saveDraftInvoices(List.of(draft));
+      return created(draft);
+    } catch (Exception e) {
+      log.warn("Could not save invoice for dispatch batches {}: {}", batchNumbers(group.dispatchBatches()), e.getMessage());
+      return failed(group.dispatchBatches(), e.getMessage());
+    }
+  }
+
+  private OrderItemWorkflow orderItemWorkflowOf(DispatchBatch batch, SharedData shared) {
+    ProcessedItemDispatchBatch processedItem = batch.getProcessedItemDispatchBatch();
+    if (processedItem == null || processedItem.getItemWorkflowId() == null) {
+      return null;
+    }
+    return shared.orderItemWorkflows().get(processedItem.getItemWorkflowId());
+  }
+
+  private WorkType workTypeOf(DispatchBatch batch, SharedData shared) {
+    OrderItemWorkflow orderItemWorkflow = orderItemWorkflowOf(batch, shared);
+    return orderItemWorkflow != null ? orderItemWorkflow.getWorkType() : InvoiceService.getWorkTypeFromRequest(shared.defaults());
+  }
+
+  /**
+   * The order's unit price when the batch belongs to an order, otherwise the default unit rate
+   */
+  private BigDecimal unitPriceOf(DispatchBatch batch, SharedData shared) {
+    OrderItemWorkflow orderItemWorkflow = orderItemWorkflowOf(batch, shared);
+    if (orderItemWorkflow != null && orderItemWorkflow.getUnitPrice() != null
+        && orderItemWorkflow.getUnitPrice().compareTo(BigDecimal.ZERO) > 0) {
+      return orderItemWorkflow.getUnitPrice();
+    }
+    BigDecimal defaultRate = shared.defaults().getUnitRate();
+    return defaultRate != null && defaultRate.compareTo(BigDecimal.ZERO) > 0 ? defaultRate : null;
+  }
+
+  /**
+   * Temporary draft numbers are time based; invoices built in the same millisecond could collide
+   */
+  private static void ensureUniqueInvoiceNumber(Invoice invoice, Set<String> usedInvoiceNumbers) {
+    while (!usedInvoiceNumbers.add(invoice.getInvoiceNumber())) {
+      invoice.setInvoiceNumber(InvoiceService.generateTemporaryInvoiceNumber());
+    }
+  }
+
+  private static InvoiceResult created(InvoiceService.DraftInvoice draft) {
+    Invoice invoice = draft.invoice();
+    return InvoiceResult.builder()
+        .status(CREATED)
+        .dispatchBatchIds(draft.dispatchBatches().stream().map(DispatchBatch::getId).toList())
+        .dispatchBatchNumbers(batchNumbers(draft.dispatchBatches()))
+        .buyerEntityName(invoice.getBuyerBillingEntity() != null ? invoice.getBuyerBillingEntity().getBuyerEntityName() : null)
+        .customerPoNumber(invoice.getCustomerPoNumber())
+        .invoiceId(invoice.getId())
+        .invoiceNumber(invoice.getInvoiceNumber())
+        .totalInvoiceValue(invoice.getTotalInvoiceValue())
+        .build();
+  }
+
+  private static InvoiceResult failed(List<DispatchBatch> batches, String error) {
+    DispatchBatch primaryBatch = batches.get(0);
+    return InvoiceResult.builder()
+        .status(FAILED)
+        .dispatchBatchIds(batches.stream().map(DispatchBatch::getId).toList())
+        .dispatchBatchNumbers(batchNumbers(batches))
+        .buyerEntityName(primaryBatch.getBillingEntity() != null ? primaryBatch.getBillingEntity().getBuyerEntityName() : null)
+        .error(error)
+        .build();
+  }
+
+  private static List<String> batchNumbers(List<DispatchBatch> batches) {
+    return batches.stream().map(DispatchBatch::getDispatchBatchNumber).toList();
+  }
+}
@@ -27,10 +27,12 @@ import com.jangid.forging_process_management_service.repositories.workflow.ItemW
 import com.jangid.forging_process_management_service.repositories.order.OrderItemWorkflowRepository;
 import com.jangid.forging_process_management_service.assemblers.gst.InvoiceLineItemAssembler;
 import com.jangid.forging_process_management_service.service.dispatch.DispatchBatchService;
+import com.jangid.forging_process_management_service.service.reports.SalesSummaryReportCache;
 import com.jangid.forging_process_management_service.service.settings.TenantSettingsService;
 import com.jangid.forging_process_management_service.service.TenantService;
 import com.jangid.forging_process_management_service.utils.ConvertorUtils;
 import com.jangid.forging_process_management_service.utils.GSTUtils;
+import com.jangid.forging_process_management_service.utils.GstTaxCalculator;
 import com.jangid.forging_process_management_service.utils.NumberToWordsConverter;
 
 import lombok.RequiredArgsConstructor;
@@ -39,14 +41,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -66,6 +72,7 @@ public class InvoiceService {
   private final VendorRepository vendorRepository;
   private final BuyerEntityRepository buyerEntityRepository;
   private final VendorEntityRepository vendorEntityRepository;
+  private final SalesSummaryReportCache salesSummaryReportCache;
 
   /**
    * UNIFIED INVOICE GENERATION METHOD
@@ -111,6 +118,7 @@ public class InvoiceService {
     // Update dispatch batch status to INVOICE_DRAFT_CREATED to prevent duplicate draft invoices
     // This ensures the same batch cannot be used to create another invoice until this one is approved or deleted
     dispatchBatchService.updateMultipleBatchesToInvoiceDraftCreated(request.getDispatchBatchIds());
+    salesSummaryReportCache.invalidateTenant(tenantId);
     
     log.info("Successfully generated DRAFT invoice with temporary number: {} for {} dispatch batch(es). " +
              "Final invoice number will be assigned upon approval (GST compliance). " +
@@ -176,6 +184,7 @@ public class InvoiceService {
     Invoice invoice = createManualInvoiceFromRequest(tenantId, buyer, vendor, 
         buyerBillingEntity, buyerShippingEntity, vendorBillingEntity, vendorShippingEntity, request);
     Invoice savedInvoice = invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
 
     log.info("Successfully generated manual DRAFT invoice with temporary number: {} with {} line items",
              savedInvoice.getInvoiceNumber(), request.getManualLineItems().size());
@@ -302,9 +311,9 @@ public class InvoiceService {
     int lineNumber = 1;
     for (InvoiceGenerationRequest.ManualInvoiceLineItem item : request.getManualLineItems()) {
       BigDecimal taxableValue = item.getQuantity().multiply(item.getUnitPrice());
-      BigDecimal cgstAmount = isInterState ? BigDecimal.ZERO : taxableValue.multiply(item.getCgstRate()).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-      BigDecimal sgstAmount = isInterState ? BigDecimal.ZERO : taxableValue.multiply(item.getSgstRate()).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-      BigDecimal igstAmount = isInterState ? taxableValue.multiply(item.getIgstRate()).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+      BigDecimal cgstAmount = isInterState ? BigDecimal.ZERO : GstTaxCalculator.percentOf(taxableValue, item.getCgstRate());
+      BigDecimal sgstAmount = isInterState ? BigDecimal.ZERO : GstTaxCalculator.percentOf(taxableValue, item.getSgstRate());
+      BigDecimal igstAmount = isInterState ? GstTaxCalculator.percentOf(taxableValue, item.getIgstRate()) : BigDecimal.ZERO;
 
       InvoiceLineItem lineItem = InvoiceLineItem.builder()
           .invoice(invoice)
@@ -344,7 +353,7 @@ public class InvoiceService {
     invoice.setTotalCgstAmount(totalCgst);
     invoice.setTotalSgstAmount(totalSgst);
     invoice.setTotalIgstAmount(totalIgst);
-    invoice.setTotalInvoiceValue(totalTaxableValue.add(totalCgst).add(totalSgst).add(totalIgst));
+    invoice.setTotalInvoiceValue(GstTaxCalculator.totalValue(totalTaxableValue, totalCgst, totalSgst, totalIgst));
 
     // Set amount in words
     invoice.setAmountInWords(NumberToWordsConverter.convertToWords(invoice.getTotalInvoiceValue()));
@@ -352,50 +361,51 @@ public class InvoiceService {
     return invoice;
   }
 
+  /**
+   * Everything besides the request that an invoice for a set of dispatch batches is built from.
+   * Resolved with repository lookups for a single invoice, or from data loaded once for bulk generation,
+   * so that assembling the invoice itself makes no database calls.
+   *
+   * @param itemWorkflows ItemWorkflows of the dispatch batches (with their item) by id
+   * @param unitPrices unit rate per dispatch batch id; batches not in the map use the request's unit rate
+   */
+  public record InvoiceReferenceData(Buyer buyer,
+                                     Vendor vendor,
+                                     BuyerEntity buyerBillingEntity,
+                                     BuyerEntity buyerShippingEntity,
+                                     VendorEntity vendorBillingEntity,
+                                     VendorEntity vendorShippingEntity,
+                                     Long orderId,
+                                     WorkType workType,
+                                     TenantInvoiceSettings invoiceSettings,
+                                     Map<Long, ItemWorkflow> itemWorkflows,
+                                     Map<Long, BigDecimal> unitPrices) {
+  }
+
+  /**
+   * A built, not yet saved draft invoice and the dispatch batches it is for
+   */
+  public record DraftInvoice(Invoice invoice, List<DispatchBatch> dispatchBatches) {
+  }
+
   /**
    * UNIFIED METHOD: Create invoice from InvoiceGenerationRequest
    * Handles all customizations and scenarios
    */
   private Invoice createInvoiceFromRequest(Long tenantId, List<DispatchBatch> dispatchBatches,
                                           InvoiceGenerationRequest request) {
+    InvoiceReferenceData referenceData = resolveReferenceData(tenantId, dispatchBatches, request);
+    return assembleInvoice(dispatchBatches, request, referenceData);
+  }
+
+  /**
+   * Look up the consignee, order, work type, invoice settings and item workflows of an invoice
+   */
+  private InvoiceReferenceData resolveReferenceData(Long tenantId, List<DispatchBatch> dispatchBatches,
+                                                    InvoiceGenerationRequest request) {
     // Use first batch as primary for basic invoice details
     DispatchBatch primaryBatch = dispatchBatches.get(0);
 
-    // Determine invoice type (default to TAX_INVOICE for standard GST invoices)
-    InvoiceType invoiceType = InvoiceType.TAX_INVOICE;
-    if (request.getInvoiceType() != null) {
-      try {
-        invoiceType = InvoiceType.valueOf(request.getInvoiceType().toUpperCase());
-      } catch (IllegalArgumentException e) {
-        log.warn("Invalid invoice type: {}, using TAX_INVOICE", request.getInvoiceType());
-      }
-    }
-
-    // Generate temporary invoice number for DRAFT
-    // Actual invoice number will be assigned when invoice is approved (for GST compliance)
-    String invoiceNumber = request.getInvoiceNumber() != null ?
-        request.getInvoiceNumber() :
-        generateTemporaryInvoiceNumber();
-
-    // Use custom dates or defaults
-    // Parse invoice date from String (format: YYYY-MM-DDTHH:mm) to LocalDateTime
-    LocalDateTime invoiceDate = ConvertorUtils.convertStringToLocalDateTime(request.getInvoiceDate());
-
-    // Validate that invoice date is not before any dispatch batch's dispatchReadyAt
-    for (DispatchBatch batch : dispatchBatches) {
-      if (batch.getDispatchReadyAt() != null && invoiceDate.isBefore(batch.getDispatchReadyAt())) {
-        throw new IllegalArgumentException(
-            String.format("Invoice date (%s) cannot be before dispatch batch %s's ready date (%s)",
-                invoiceDate, batch.getDispatchBatchNumber(), batch.getDispatchReadyAt())
-        );
-      }
-    }
-
-    // Parse due date from String (format: YYYY-MM-DD) to LocalDate
-    LocalDate dueDate = (request.getDueDate() != null && !request.getDueDate().trim().isEmpty()) ?
-        LocalDate.parse(request.getDueDate()) :
-        null;
-
     // Determine recipient (use override if provided, otherwise from dispatch batch)
     Buyer buyer = null;
     Vendor vendor = null;
@@ -450,15 +460,85 @@ public class InvoiceService {
     // Extract order details from dispatch batch (via ProcessedItem → ItemWorkflow → OrderItemWorkflow → Order)
     Long orderId = extractOrderIdFromDispatchBatch(primaryBatch);
 
+    // Determine WorkType to get appropriate terms and conditions
+    WorkType workType = determineWorkTypeFromDispatchBatches(dispatchBatches, request);
+    TenantInvoiceSettings invoiceSettings = tenantSettingsService.getInvoiceSettings(tenantId);
+
+    // Item workflows of all batches in one query
+    List<Long> itemWorkflowIds = dispatchBatches.stream()
+        .map(DispatchBatch::getProcessedItemDispatchBatch)
+        .filter(processedItem -> processedItem != null && processedItem.getItemWorkflowId() != null)
+        .map(ProcessedItemDispatchBatch::getItemWorkflowId)
+        .distinct()
+        .toList();
+    Map<Long, ItemWorkflow> itemWorkflows = itemWorkflowRepository.findAllById(itemWorkflowIds).stream()
+        .collect(Collectors.toMap(ItemWorkflow::getId, Function.identity()));
+
+    return new InvoiceReferenceData(buyer, vendor, buyerBillingEntity, buyerShippingEntity,
+                                    vendorBillingEntity, vendorShippingEntity, orderId, workType,
+                                    invoiceSettings, itemWorkflows, Map.of());
+  }
+
+  /**
+   * Build a DRAFT invoice with its line items and totals from the request and resolved reference data.
+   * Makes no database calls, so bulk generation runs it on worker threads; it therefore runs without a transaction.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public Invoice assembleInvoice(List<DispatchBatch> dispatchBatches, InvoiceGenerationRequest request,
+                                 InvoiceReferenceData referenceData) {
+    // Use first batch as primary for basic invoice details
+    DispatchBatch primaryBatch = dispatchBatches.get(0);
+
+    // Determine invoice type (default to TAX_INVOICE for standard GST invoices)
+    InvoiceType invoiceType = InvoiceType.TAX_INVOICE;
+    if (request.getInvoiceType() != null) {
+      try {
+        invoiceType = InvoiceType.valueOf(request.getInvoiceType().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        log.warn("Invalid invoice type: {}, using TAX_INVOICE", request.getInvoiceType());
+      }
+    }
+
+    // Generate temporary invoice number for DRAFT
+    // Actual invoice number will be assigned when invoice is approved (for GST compliance)
+    String invoiceNumber = request.getInvoiceNumber() != null ?
+        request.getInvoiceNumber() :
+        generateTemporaryInvoiceNumber();
+
+    // Use custom dates or defaults
+    // Parse invoice date from String (format: YYYY-MM-DDTHH:mm) to LocalDateTime
+    LocalDateTime invoiceDate = ConvertorUtils.convertStringToLocalDateTime(request.getInvoiceDate());
+
+    // Validate that invoice date is not before any dispatch batch's dispatchReadyAt
+    for (DispatchBatch batch : dispatchBatches) {
+      if (batch.getDispatchReadyAt() != null && invoiceDate.isBefore(batch.getDispatchReadyAt())) {
+        throw new IllegalArgumentException(
+            String.format("Invoice date (%s) cannot be before dispatch batch %s's ready date (%s)",
+                invoiceDate, batch.getDispatchBatchNumber(), batch.getDispatchReadyAt())
+        );
+      }
+    }
+
+    // Parse due date from String (format: YYYY-MM-DD) to LocalDate
+    LocalDate dueDate = (request.getDueDate() != null && !request.getDueDate().trim().isEmpty()) ?
+        LocalDate.parse(request.getDueDate()) :
+        null;
+
+    Buyer buyer = referenceData.buyer();
+    Vendor vendor = referenceData.vendor();
+    BuyerEntity buyerBillingEntity = referenceData.buyerBillingEntity();
+    BuyerEntity buyerShippingEntity = referenceData.buyerShippingEntity();
+    VendorEntity vendorBillingEntity = referenceData.vendorBillingEntity();
+    VendorEntity vendorShippingEntity = referenceData.vendorShippingEntity();
+    Long orderId = referenceData.orderId();
+    WorkType workType = referenceData.workType();
+    TenantInvoiceSettings invoiceSettings = referenceData.invoiceSettings();
+
     // Parse customer PO date from String (format: YYYY-MM-DD) to LocalDate
     LocalDate customerPoDate = (request.getCustomerPoDate() != null && !request.getCustomerPoDate().trim().isEmpty()) ?
         LocalDate.parse(request.getCustomerPoDate()) :
         null;
 
-    // Determine WorkType to get appropriate terms and conditions
-    WorkType workType = determineWorkTypeFromDispatchBatches(dispatchBatches, request);
-    TenantInvoiceSettings invoiceSettings = tenantSettingsService.getInvoiceSettings(tenantId);
-    
     // Get terms and conditions based on work type (persisted for legal compliance)
     String termsAndConditions = null;
     if (invoiceSettings != null) {
@@ -534,7 +614,7 @@ public class InvoiceService {
     Invoice invoice = invoiceBuilder.build();
 
     // Calculate amounts (with or without custom pricing/GST rates)
-    calculateInvoiceAmountsFromRequest(invoice, dispatchBatches, request);
+    calculateInvoiceAmountsFromRequest(invoice, dispatchBatches, request, referenceData);
 
     // Set amount in words after total invoice value is calculated
     if (invoice.getTotalInvoiceValue() != null) {
@@ -553,22 +633,49 @@ public class InvoiceService {
     log.info("Creating invoice-dispatch batch links for invoice: {} with {} dispatch batches",
              invoice.getInvoiceNumber(), dispatchBatches.size());
 
+    invoiceDispatchBatchRepository.saveAll(buildInvoiceDispatchBatchLinks(invoice, dispatchBatches));
+
+    log.info("Successfully created {} invoice-dispatch batch links", dispatchBatches.size());
+  }
+
+  private List<InvoiceDispatchBatch> buildInvoiceDispatchBatchLinks(Invoice invoice, List<DispatchBatch> dispatchBatches) {
+    List<InvoiceDispatchBatch> links = new ArrayList<>(dispatchBatches.size());
     int sequenceOrder = 1;
     for (DispatchBatch dispatchBatch : dispatchBatches) {
-      InvoiceDispatchBatch invoiceDispatchBatch = InvoiceDispatchBatch.builder()
+      links.add(InvoiceDispatchBatch.builder()
           .invoice(invoice)
           .dispatchBatch(dispatchBatch)
           .sequenceOrder(sequenceOrder++)
           .tenant(invoice.getTenant())
-          .build();
+          .build());
+    }
+    return links;
+  }
 
-      invoiceDispatchBatchRepository.save(invoiceDispatchBatch);
-      
-      log.debug("Created invoice-dispatch batch link: invoice={}, dispatchBatch={}, sequenceOrder={}",
-               invoice.getId(), dispatchBatch.getId(), invoiceDispatchBatch.getSequenceOrder());
+  /**
+   * Save bulk-generated draft invoices together: the invoices with their line items, their dispatch batch links
+   * and the move of their dispatch batches to INVOICE_DRAFT_CREATED, all as batched statements.
+   * Runs in its own transaction so a failure only rolls back these invoices.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public List<Invoice> saveDraftInvoices(List<DraftInvoice> drafts) {
+    List<Invoice> savedInvoices = invoiceRepository.saveAll(drafts.stream().map(DraftInvoice::invoice).toList());
+
+    List<InvoiceDispatchBatch> links = new ArrayList<>();
+    List<Long> dispatchBatchIds = new ArrayList<>();
+    for (DraftInvoice draft : drafts) {
+      links.addAll(buildInvoiceDispatchBatchLinks(draft.invoice(), draft.dispatchBatches()));
+      draft.dispatchBatches().forEach(dispatchBatch -> dispatchBatchIds.add(dispatchBatch.getId()));
     }
+    invoiceDispatchBatchRepository.saveAll(links);
 
-    log.info("Successfully created {} invoice-dispatch batch links", dispatchBatches.size());
+    // Same guard as single generation: fails (and rolls back) if any batch is no longer READY_TO_DISPATCH
+    dispatchBatchService.updateMultipleBatchesToInvoiceDraftCreated(dispatchBatchIds);
+    savedInvoices.stream().map(invoice -> invoice.getTenant().getId()).distinct()
+        .forEach(salesSummaryReportCache::invalidateTenant);
+
+    log.info("Saved {} bulk-generated DRAFT invoices for {} dispatch batches", savedInvoices.size(), dispatchBatchIds.size());
+    return savedInvoices;
   }
 
   /**
@@ -576,7 +683,8 @@ public class InvoiceService {
    * Uses TenantInvoiceSettings to determine GST rates based on WorkType
    */
   private void calculateInvoiceAmountsFromRequest(Invoice invoice, List<DispatchBatch> dispatchBatches,
-                                                   InvoiceGenerationRequest request) {
+                                                   InvoiceGenerationRequest request,
+                                                   InvoiceReferenceData referenceData) {
     log.info("Calculating invoice amounts for {} dispatch batches with request parameters",
              dispatchBatches.size());
 
@@ -609,7 +717,8 @@ public class InvoiceService {
             lineNumber++,
             isInterState,
             totalGstRate,
-            request
+            request,
+            referenceData
         );
 
         // Apply discount if specified
@@ -647,20 +756,22 @@ public class InvoiceService {
       int lineNumber,
       boolean isInterState,
       BigDecimal totalGstRate,
-      InvoiceGenerationRequest request) {
+      InvoiceGenerationRequest request,
+      InvoiceReferenceData referenceData) {
 
     log.debug("Creating line item {} using request values", lineNumber);
 
     // Get ItemWorkflow for item details
-    ItemWorkflow itemWorkflow = itemWorkflowRepository.findById(processedItem.getItemWorkflowId())
-        .orElseThrow(() -> new RuntimeException(
-            "ItemWorkflow not found with id: " + processedItem.getItemWorkflowId()));
+    ItemWorkflow itemWorkflow = referenceData.itemWorkflows().get(processedItem.getItemWorkflowId());
+    if (itemWorkflow == null) {
+      throw new RuntimeException("ItemWorkflow not found with id: " + processedItem.getItemWorkflowId());
+    }
 
     // Get quantity
     BigDecimal quantity = BigDecimal.valueOf(processedItem.getTotalDispatchPiecesCount());
 
-    // Use unit rate from request (required)
-    BigDecimal unitPrice = request.getUnitRate();
+    // Use the batch's unit rate if one was resolved for it, otherwise the unit rate from request (required)
+    BigDecimal unitPrice = referenceData.unitPrices().getOrDefault(dispatchBatch.getId(), request.getUnitRate());
 
     // Build item description
     String itemName = itemWorkflow.getItem() != null ?
@@ -750,7 +861,7 @@ public class InvoiceService {
    * Format: DRAFT-{timestamp}-{randomId}
    * This ensures uniqueness without consuming the legal invoice sequence
    */
-  private String generateTemporaryInvoiceNumber() {
+  static String generateTemporaryInvoiceNumber() {
     String timestamp = String.valueOf(System.currentTimeMillis());
     String randomId = String.valueOf((int)(Math.random() * 10000));
     return "DRAFT-" + timestamp + "-" + randomId;
@@ -839,7 +950,7 @@ public class InvoiceService {
   /**
    * Get WorkType from the request, defaulting to WITH_MATERIAL if not provided
    */
-  private WorkType getWorkTypeFromRequest(InvoiceGenerationRequest request) {
+  static WorkType getWorkTypeFromRequest(InvoiceGenerationRequest request) {
     if (request != null && request.getWorkType() != null && !request.getWorkType().trim().isEmpty()) {
       try {
         WorkType workType = WorkType.valueOf(request.getWorkType().toUpperCase());
@@ -928,15 +1039,6 @@ public class InvoiceService {
     return orderId;
   }
 
-  /**
-   * Get all invoices for a tenant with pagination
-   */
-  @Transactional(readOnly = true)
-  public Page<Invoice> getInvoicesByTenant(Long tenantId, Pageable pageable) {
-    tenantService.validateTenantExists(tenantId);
-    return invoiceRepository.findByTenantIdAndDeletedFalse(tenantId, pageable);
-  }
-
   /**
    * Get invoices by status
    */
@@ -1017,6 +1119,7 @@ public class InvoiceService {
     if (invoice.getStatus() == InvoiceStatus.GENERATED) {
       invoice.setStatus(InvoiceStatus.SENT);
       invoiceRepository.save(invoice);
+      salesSummaryReportCache.invalidateTenant(tenantId);
       log.info("Invoice {} status updated from GENERATED to SENT for dispatched batch ID: {}", 
                invoice.getInvoiceNumber(), dispatchBatchId);
     } else {
@@ -1057,6 +1160,7 @@ public class InvoiceService {
     // Update status to SENT
     invoice.setStatus(InvoiceStatus.SENT);
     Invoice savedInvoice = invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
     
     log.info("Invoice {} marked as SENT by {}. Status: GENERATED → SENT. " +
              "Invoice Type: {}", 
@@ -1068,14 +1172,16 @@ public class InvoiceService {
   }
 
   /**
-   * Search invoices with filters
+   * Invoice summaries for list views, optionally filtered (null filters are ignored).
+   * Fetched as one projection query per page, without loading line items or related entities.
    */
   @Transactional(readOnly = true)
-  public Page<Invoice> searchInvoices(Long tenantId, InvoiceStatus status, Long buyerId,
-                                      LocalDateTime fromDate, LocalDateTime toDate, String searchTerm,
-                                      Pageable pageable) {
+  public Page<InvoiceRepository.InvoiceSummary> getInvoiceSummaries(Long tenantId, InvoiceStatus status, Long buyerId,
+                                                                    LocalDateTime fromDate, LocalDateTime toDate,
+                                                                    String searchTerm, Pageable pageable) {
     tenantService.validateTenantExists(tenantId);
-    return invoiceRepository.searchInvoices(tenantId, status, buyerId, fromDate, toDate, searchTerm, pageable);
+    String search = searchTerm != null && !searchTerm.isBlank() ? searchTerm.trim() : null;
+    return invoiceRepository.findInvoiceSummaries(tenantId, status, buyerId, fromDate, toDate, search, pageable);
   }
 
   /**
@@ -1102,6 +1208,7 @@ public class InvoiceService {
     invoice.setStatus(InvoiceStatus.GENERATED);
     invoice.setApprovedBy(approvedBy);
     Invoice savedInvoice = invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
 
     // Update associated dispatch batches (only for batch-based invoices)
     if (!invoice.isManualInvoice()) {
@@ -1143,28 +1250,10 @@ public class InvoiceService {
     if (!invoice.isManualInvoice()) {
       List<Long> dispatchBatchIds = invoice.getDispatchBatchIds();
       if (!dispatchBatchIds.isEmpty()) {
-        // Process all associated dispatch batches
-        for (Long batchId : dispatchBatchIds) {
-          DispatchBatch batch = dispatchBatchService.getDispatchBatchById(batchId);
-          
-          // Check if batch is not already dispatched
-          if (batch.getDispatchBatchStatus() == DispatchBatch.DispatchBatchStatus.DISPATCHED) {
-            throw new IllegalStateException("Cannot delete invoice. One or more dispatch batches are already dispatched.");
-          }
-          
-          // Validate batch is in expected status (should be INVOICE_DRAFT_CREATED)
-          if (batch.getDispatchBatchStatus() != DispatchBatch.DispatchBatchStatus.INVOICE_DRAFT_CREATED) {
-            log.warn("Expected batch {} to be in INVOICE_DRAFT_CREATED status, but found: {}. Attempting to revert anyway.",
-                     batch.getDispatchBatchNumber(), batch.getDispatchBatchStatus());
-          }
-          
-          // Revert to READY_TO_DISPATCH
-          if (batch.getDispatchBatchStatus() != DispatchBatch.DispatchBatchStatus.READY_TO_DISPATCH) {
-            dispatchBatchService.revertStatusFromDraftToReadyToDispatch(batch.getId());
-            log.info("Reverted dispatch batch {} from INVOICE_DRAFT_CREATED to READY_TO_DISPATCH status", 
-                     batch.getDispatchBatchNumber());
-          }
-        }
+        // Revert all associated dispatch batches in one statement; fails if any batch is already dispatched
+        dispatchBatchService.revertMultipleBatchesFromDraftToReadyToDispatch(dispatchBatchIds);
+        log.info("Reverted {} dispatch batches from INVOICE_DRAFT_CREATED to READY_TO_DISPATCH status",
+                 dispatchBatchIds.size());
       }
     }
 
@@ -1191,6 +1280,7 @@ public class InvoiceService {
     invoice.setDeleted(true);
     invoice.setDeletedAt(LocalDateTime.now());
     invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
 
     if (invoice.isManualInvoice()) {
       log.info("DRAFT manual invoice {} and all associated records deleted successfully (No dispatch batches to revert).",
@@ -1270,6 +1360,7 @@ public class InvoiceService {
     }
 
     Invoice savedInvoice = invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
     return savedInvoice;
   }
 
@@ -1416,7 +1507,7 @@ public class InvoiceService {
   /**
    * Validate that buyer entity has required fields for GST invoicing
    */
-  private void validateBuyerEntityForInvoicing(BuyerEntity buyerEntity) {
+  static void validateBuyerEntityForInvoicing(BuyerEntity buyerEntity) {
     if (buyerEntity == null) {
       throw new IllegalArgumentException("Buyer entity cannot be null");
     }
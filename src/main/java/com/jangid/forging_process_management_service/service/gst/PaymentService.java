@@ -11,6 +11,7 @@ import com.jangid.forging_process_management_service.exception.ResourceNotFoundE
 import com.jangid.forging_process_management_service.repositories.gst.InvoiceRepository;
 import com.jangid.forging_process_management_service.repositories.gst.PaymentRepository;
 import com.jangid.forging_process_management_service.service.TenantService;
+import com.jangid.forging_process_management_service.service.reports.SalesSummaryReportCache;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -43,6 +44,9 @@ public class PaymentService {
   @Autowired
   private PaymentAssembler paymentAssembler;
 
+  @Autowired
+  private SalesSummaryReportCache salesSummaryReportCache;
+
   /**
    * Record a new payment against an invoice.
    */
@@ -92,6 +96,7 @@ public class PaymentService {
 
     // Save invoice with updated status and total paid amount
     invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
 
     log.info("Payment recorded successfully. Payment ID: {}, Invoice: {}, Amount: ₹{}, New Status: {}",
         payment.getId(), invoice.getInvoiceNumber(), payment.getAmount(), invoice.getStatus());
@@ -160,6 +165,7 @@ public class PaymentService {
     Invoice invoice = payment.getInvoice();
     invoice.updateTotalPaidAmount();
     invoiceRepository.save(invoice);
+    salesSummaryReportCache.invalidateTenant(tenantId);
 
     log.info("Payment reversed successfully. Payment ID: {}, Invoice: {}, New Invoice Status: {}",
         payment.getId(), invoice.getInvoiceNumber(), invoice.getStatus());
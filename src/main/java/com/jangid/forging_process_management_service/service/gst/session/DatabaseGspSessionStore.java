@@ -0,0 +1,145 @@
+package com.jangid.forging_process_management_service.service.gst.session;
+
+import com.jangid.forging_process_management_service.entities.gst.GspSession;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+import com.jangid.forging_process_management_service.repositories.gst.GspSessionRepository;
+import com.jangid.forging_process_management_service.service.security.EncryptionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Session store backed by the gsp_session table so every instance sees the same sessions.
+ * The session token is stored only as a SHA-256 hash and the GSP auth token is encrypted at rest
+ * (the portal password arrives already encrypted).
+ */
+@Slf4j
+public class DatabaseGspSessionStore implements GspSessionStore {
+
+    private final GspSessionRepository gspSessionRepository;
+    private final EncryptionService encryptionService;
+    private final int cleanupBatchSize;
+
+    public DatabaseGspSessionStore(GspSessionRepository gspSessionRepository,
+                                   EncryptionService encryptionService,
+                                   int cleanupBatchSize) {
+        this.gspSessionRepository = gspSessionRepository;
+        this.encryptionService = encryptionService;
+        this.cleanupBatchSize = cleanupBatchSize;
+    }
+
+    @Override
+    public void save(GspSessionType type, String sessionToken, StoredGspSession session) {
+        String tokenHash = GspSessionStore.hashToken(sessionToken);
+        GspSession entity = gspSessionRepository.findBySessionTypeAndTokenHash(type, tokenHash)
+            .orElseGet(() -> GspSession.builder()
+                .sessionType(type)
+                .tokenHash(tokenHash)
+                .createdAt(session.getCreatedAt() != null ? session.getCreatedAt() : LocalDateTime.now())
+                .build());
+        copyToEntity(session, entity);
+        gspSessionRepository.save(entity);
+    }
+
+    @Override
+    public boolean replace(GspSessionType type, String tokenHash, StoredGspSession session) {
+        return gspSessionRepository.findBySessionTypeAndTokenHash(type, tokenHash)
+            .map(entity -> {
+                copyToEntity(session, entity);
+                entity.setRenewalClaimedUntil(null);
+                gspSessionRepository.save(entity);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    @Override
+    public StoredGspSession find(GspSessionType type, String sessionToken) {
+        return gspSessionRepository.findBySessionTypeAndTokenHash(type, GspSessionStore.hashToken(sessionToken))
+            .map(this::toStoredSession)
+            .orElse(null);
+    }
+
+    @Override
+    public void delete(GspSessionType type, String sessionToken) {
+        gspSessionRepository.deleteBySessionTypeAndTokenHash(type, GspSessionStore.hashToken(sessionToken));
+    }
+
+    @Override
+    public int deleteByTenant(GspSessionType type, Long tenantId) {
+        return gspSessionRepository.deleteBySessionTypeAndTenantId(type, tenantId);
+    }
+
+    @Override
+    public long countActive(GspSessionType type) {
+        return gspSessionRepository.countBySessionTypeAndExpiresAtAfter(type, LocalDateTime.now());
+    }
+
+    /**
+     * Deletes in batches of {@code cleanupBatchSize} rows, each in its own short transaction,
+     * so a large backlog of expired sessions never holds locks on the whole table
+     */
+    @Override
+    public int deleteExpired(GspSessionType type, LocalDateTime now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = gspSessionRepository.deleteExpiredBatch(type.name(), now, cleanupBatchSize);
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        return total;
+    }
+
+    @Override
+    public void touch(GspSessionType type, String sessionToken, LocalDateTime now) {
+        gspSessionRepository.touch(type, GspSessionStore.hashToken(sessionToken), now);
+    }
+
+    @Override
+    public List<RenewableGspSession> claimForRenewal(GspSessionType type, LocalDateTime renewBefore,
+                                                    LocalDateTime activeSince, int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimedIds = gspSessionRepository.claimForRenewal(
+            type.name(), renewBefore, activeSince, now, now.plus(lease), limit);
+        if (claimedIds.isEmpty()) {
+            return List.of();
+        }
+        return gspSessionRepository.findByIdIn(claimedIds).stream()
+            .map(entity -> new RenewableGspSession(entity.getTokenHash(), toStoredSession(entity)))
+            .toList();
+    }
+
+    private StoredGspSession toStoredSession(GspSession entity) {
+        return StoredGspSession.builder()
+            .tenantId(entity.getTenantId())
+            .username(entity.getUsername())
+            .passwordEncrypted(entity.getPasswordEncrypted())
+            .gspAuthToken(entity.getGspAuthTokenEncrypted() != null ? encryptionService.decrypt(entity.getGspAuthTokenEncrypted()) : null)
+            .gstin(entity.getGstin())
+            .gspServerId(entity.getGspServerId())
+            .createdAt(entity.getCreatedAt())
+            .lastAccessedAt(entity.getLastAccessedAt())
+            .expiresAt(entity.getExpiresAt())
+            .tokenExpiresAt(entity.getTokenExpiresAt())
+            .build();
+    }
+
+    private void copyToEntity(StoredGspSession session, GspSession entity) {
+        entity.setTenantId(session.getTenantId());
+        entity.setUsername(session.getUsername());
+        entity.setPasswordEncrypted(session.getPasswordEncrypted());
+        entity.setGspAuthTokenEncrypted(session.getGspAuthToken() != null ? encryptionService.encrypt(session.getGspAuthToken()) : null);
+        entity.setGstin(session.getGstin());
+        // Never move the last access time backwards (a renewal carries the snapshot taken when it was claimed)
+        if (entity.getLastAccessedAt() == null
+            || (session.getLastAccessedAt() != null && session.getLastAccessedAt().isAfter(entity.getLastAccessedAt()))) {
+            entity.setLastAccessedAt(session.getLastAccessedAt());
+        }
+        entity.setExpiresAt(session.getExpiresAt());
+        entity.setTokenExpiresAt(session.getTokenExpiresAt());
+        entity.setGspServerId(session.getGspServerId());
+    }
+}
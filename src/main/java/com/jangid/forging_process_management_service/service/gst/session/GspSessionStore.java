@@ -0,0 +1,87 @@
+package com.jangid.forging_process_management_service.service.gst.session;
+
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Storage for GSP sessions, keyed by session type and session token.
+ * Selected with {@code app.gsp.session.store}: {@code jdbc} (default) shares sessions between instances
+ * through the database with a local near-cache, {@code memory} keeps them in this instance only.
+ */
+public interface GspSessionStore {
+
+    /**
+     * Insert or replace the session stored under a token
+     */
+    void save(GspSessionType type, String sessionToken, StoredGspSession session);
+
+    /**
+     * @return the stored session, or null if not found (expiry is checked by the caller)
+     */
+    StoredGspSession find(GspSessionType type, String sessionToken);
+
+    void delete(GspSessionType type, String sessionToken);
+
+    /**
+     * @return number of sessions removed
+     */
+    int deleteByTenant(GspSessionType type, Long tenantId);
+
+    /**
+     * @return number of sessions that have not expired yet
+     */
+    long countActive(GspSessionType type);
+
+    /**
+     * Remove sessions that expired before {@code now}
+     *
+     * @return number of sessions removed
+     */
+    int deleteExpired(GspSessionType type, LocalDateTime now);
+
+    /**
+     * Record that a session was used; implementations may throttle the write
+     */
+    void touch(GspSessionType type, String sessionToken, LocalDateTime now);
+
+    /**
+     * Claim sessions whose GSP auth token expires before {@code renewBefore} and that were used since
+     * {@code activeSince}. A claimed session is not returned again until {@code lease} has passed,
+     * so only one caller (and one instance) renews it.
+     */
+    List<RenewableGspSession> claimForRenewal(GspSessionType type, LocalDateTime renewBefore,
+                                             LocalDateTime activeSince, int limit, Duration lease);
+
+    /**
+     * Replace an existing session identified by its token hash (used by renewal, which never sees the token)
+     *
+     * @return false if the session no longer exists
+     */
+    boolean replace(GspSessionType type, String tokenHash, StoredGspSession session);
+
+    /**
+     * Session claimed for renewal, identified by the hash of its token
+     */
+    record RenewableGspSession(String tokenHash, StoredGspSession session) {
+    }
+
+    /**
+     * SHA-256 hex of a session token; stores key sessions by this so the token itself is never kept.
+     * Also used for the password in {@code GspAuthSingleFlight} keys.
+     */
+    static String hashToken(String sessionToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sessionToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
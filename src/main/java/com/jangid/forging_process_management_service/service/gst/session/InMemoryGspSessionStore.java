@@ -0,0 +1,109 @@
+package com.jangid.forging_process_management_service.service.gst.session;
+
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local session store. Sessions are lost on restart and are not visible to other instances,
+ * so this is only suitable for single-instance deployments and local development.
+ */
+public class InMemoryGspSessionStore implements GspSessionStore {
+
+    private final Map<GspSessionType, Map<String, StoredGspSession>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> renewalClaims = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(GspSessionType type, String sessionToken, StoredGspSession session) {
+        sessionsOf(type).put(GspSessionStore.hashToken(sessionToken), session);
+    }
+
+    @Override
+    public StoredGspSession find(GspSessionType type, String sessionToken) {
+        return sessionsOf(type).get(GspSessionStore.hashToken(sessionToken));
+    }
+
+    @Override
+    public void delete(GspSessionType type, String sessionToken) {
+        sessionsOf(type).remove(GspSessionStore.hashToken(sessionToken));
+    }
+
+    @Override
+    public int deleteByTenant(GspSessionType type, Long tenantId) {
+        Map<String, StoredGspSession> typeSessions = sessionsOf(type);
+        int before = typeSessions.size();
+        typeSessions.values().removeIf(session -> session.getTenantId().equals(tenantId));
+        return before - typeSessions.size();
+    }
+
+    @Override
+    public long countActive(GspSessionType type) {
+        return sessionsOf(type).values().stream().filter(session -> !session.isExpired()).count();
+    }
+
+    @Override
+    public int deleteExpired(GspSessionType type, LocalDateTime now) {
+        Map<String, StoredGspSession> typeSessions = sessionsOf(type);
+        int before = typeSessions.size();
+        typeSessions.values().removeIf(session -> session.getExpiresAt() != null && now.isAfter(session.getExpiresAt()));
+        renewalClaims.values().removeIf(now::isAfter);
+        return before - typeSessions.size();
+    }
+
+    @Override
+    public void touch(GspSessionType type, String sessionToken, LocalDateTime now) {
+        sessionsOf(type).computeIfPresent(GspSessionStore.hashToken(sessionToken),
+            (hash, session) -> session.toBuilder().lastAccessedAt(now).build());
+    }
+
+    @Override
+    public List<RenewableGspSession> claimForRenewal(GspSessionType type, LocalDateTime renewBefore,
+                                                    LocalDateTime activeSince, int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimUntil = now.plus(lease);
+        List<Map.Entry<String, StoredGspSession>> due = sessionsOf(type).entrySet().stream()
+            .filter(entry -> isRenewalCandidate(entry.getValue(), now, renewBefore, activeSince))
+            .sorted(Comparator.comparing(entry -> entry.getValue().getTokenExpiresAt()))
+            .toList();
+
+        List<RenewableGspSession> candidates = new ArrayList<>();
+        for (Map.Entry<String, StoredGspSession> entry : due) {
+            if (candidates.size() >= limit) {
+                break;
+            }
+            String claimKey = type.name() + ":" + entry.getKey();
+            LocalDateTime claimed = renewalClaims.compute(claimKey,
+                (key, current) -> current == null || now.isAfter(current) ? claimUntil : current);
+            // Identity check: true only when this call installed the claim
+            if (claimed == claimUntil) {
+                candidates.add(new RenewableGspSession(entry.getKey(), entry.getValue()));
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public boolean replace(GspSessionType type, String tokenHash, StoredGspSession session) {
+        renewalClaims.remove(type.name() + ":" + tokenHash);
+        return sessionsOf(type).replace(tokenHash, session) != null;
+    }
+
+    private static boolean isRenewalCandidate(StoredGspSession session, LocalDateTime now,
+                                              LocalDateTime renewBefore, LocalDateTime activeSince) {
+        return session.getGspServerId() != null
+            && session.getTokenExpiresAt() != null
+            && !session.getTokenExpiresAt().isAfter(renewBefore)
+            && session.getExpiresAt() != null && session.getExpiresAt().isAfter(now)
+            && session.getLastAccessedAt() != null && !session.getLastAccessedAt().isBefore(activeSince);
+    }
+
+    private Map<String, StoredGspSession> sessionsOf(GspSessionType type) {
+        return sessions.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,115 @@
+package com.jangid.forging_process_management_service.service.gst.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jangid.forging_process_management_service.entities.gst.GspSessionType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Local Caffeine cache in front of a shared session store.
+ * Reads within {@code ttl} are served from memory; writes and deletes go through to the shared store
+ * and update the local entry. Another instance may keep serving an invalidated session for at most
+ * {@code ttl}, so the TTL is kept short. Access times are written through at most once per {@code ttl}
+ * per session.
+ */
+public class NearCachedGspSessionStore implements GspSessionStore {
+
+    private final GspSessionStore delegate;
+    private final Duration ttl;
+    private final Cache<String, StoredGspSession> nearCache;
+
+    public NearCachedGspSessionStore(GspSessionStore delegate, Duration ttl, long maxSize) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.nearCache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    @Override
+    public void save(GspSessionType type, String sessionToken, StoredGspSession session) {
+        delegate.save(type, sessionToken, session);
+        nearCache.put(cacheKey(type, GspSessionStore.hashToken(sessionToken)), session);
+    }
+
+    @Override
+    public StoredGspSession find(GspSessionType type, String sessionToken) {
+        String key = cacheKey(type, GspSessionStore.hashToken(sessionToken));
+        StoredGspSession cached = nearCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        StoredGspSession session = delegate.find(type, sessionToken);
+        if (session != null) {
+            nearCache.put(key, session);
+        }
+        return session;
+    }
+
+    @Override
+    public void delete(GspSessionType type, String sessionToken) {
+        nearCache.invalidate(cacheKey(type, GspSessionStore.hashToken(sessionToken)));
+        delegate.delete(type, sessionToken);
+    }
+
+    @Override
+    public int deleteByTenant(GspSessionType type, Long tenantId) {
+        String prefix = type.name() + ":";
+        nearCache.asMap().entrySet().removeIf(entry ->
+            entry.getKey().startsWith(prefix) && entry.getValue().getTenantId().equals(tenantId));
+        return delegate.deleteByTenant(type, tenantId);
+    }
+
+    @Override
+    public long countActive(GspSessionType type) {
+        return delegate.countActive(type);
+    }
+
+    @Override
+    public int deleteExpired(GspSessionType type, LocalDateTime now) {
+        String prefix = type.name() + ":";
+        nearCache.asMap().entrySet().removeIf(entry ->
+            entry.getKey().startsWith(prefix) && entry.getValue().getExpiresAt() != null
+            && now.isAfter(entry.getValue().getExpiresAt()));
+        return delegate.deleteExpired(type, now);
+    }
+
+    @Override
+    public void touch(GspSessionType type, String sessionToken, LocalDateTime now) {
+        String key = cacheKey(type, GspSessionStore.hashToken(sessionToken));
+        StoredGspSession cached = nearCache.getIfPresent(key);
+        if (cached != null && cached.getLastAccessedAt() != null
+            && cached.getLastAccessedAt().plus(ttl).isAfter(now)) {
+            return;
+        }
+        delegate.touch(type, sessionToken, now);
+        if (cached != null) {
+            nearCache.put(key, cached.toBuilder().lastAccessedAt(now).build());
+        }
+    }
+
+    @Override
+    public List<RenewableGspSession> claimForRenewal(GspSessionType type, LocalDateTime renewBefore,
+                                                    LocalDateTime activeSince, int limit, Duration lease) {
+        return delegate.claimForRenewal(type, renewBefore, activeSince, limit, lease);
+    }
+
+    @Override
+    public boolean replace(GspSessionType type, String tokenHash, StoredGspSession session) {
+        boolean replaced = delegate.replace(type, tokenHash, session);
+        if (replaced) {
+            nearCache.put(cacheKey(type, tokenHash), session);
+        } else {
+            nearCache.invalidate(cacheKey(type, tokenHash));
+        }
+        return replaced;
+    }
+
+    private static String cacheKey(GspSessionType type, String tokenHash) {
+        return type.name() + ":" + tokenHash;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jangid.forging_process_management_service.service.gst.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Session state shared by the E-Way Bill and E-Invoice session services, as held by a {@link GspSessionStore}
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredGspSession {
+    private Long tenantId;
+    private String username;
+    private String passwordEncrypted;
+    private String gspAuthToken;
+    private String gstin;
+    private String gspServerId;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastAccessedAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime tokenExpiresAt;
+
+    public boolean isExpired() {
+        return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jangid.forging_process_management_service.service.reports;
 
+import com.jangid.forging_process_management_service.dto.reports.ReceivablesAgingReport;
 import com.jangid.forging_process_management_service.dto.reports.SalesSummaryReport;
 import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
 import jakarta.persistence.EntityManager;
@@ -9,11 +10,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Service for generating accounting reports
@@ -25,9 +33,11 @@ import java.util.Map;
 public class ReportService {
 
   private final EntityManager entityManager;
+  private final SalesSummaryReportCache salesSummaryReportCache;
 
   /**
    * Generate Sales Summary Report with monthly and status breakdowns
+   * Served from the per-tenant report cache when the same report was generated since the tenant's invoices last changed
    * 
    * @param tenantId Tenant ID
    * @param fromDate Start date
@@ -39,205 +49,325 @@ public class ReportService {
   @Transactional(readOnly = true)
   public SalesSummaryReport getSalesSummaryReport(Long tenantId, LocalDateTime fromDate, 
                                                    LocalDateTime toDate, Long buyerId, InvoiceStatus status) {
-    log.info("Generating sales summary report for tenant: {}, from: {}, to: {}", tenantId, fromDate, toDate);
-    
-    // Overall statistics
-    Map<String, Object> overallStats = getOverallSalesStats(tenantId, fromDate, toDate, buyerId, status);
-    
-    // Monthly breakdown
-    List<SalesSummaryReport.MonthlyBreakdown> monthlyBreakdown = 
-        getMonthlyBreakdown(tenantId, fromDate, toDate, buyerId, status);
-    
-    // Status breakdown
-    List<SalesSummaryReport.StatusBreakdown> statusBreakdown = 
-        getStatusBreakdown(tenantId, fromDate, toDate, buyerId);
-    
-    // Current month sales
-    LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-    LocalDateTime monthEnd = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-    Map<String, Object> currentMonthStats = getOverallSalesStats(tenantId, monthStart, monthEnd, null, null);
-    
-    return SalesSummaryReport.builder()
-        .fromDate(fromDate)
-        .toDate(toDate)
-        .totalSalesValue((Double) overallStats.get("totalSales"))
-        .totalInvoiceCount(((Number) overallStats.get("invoiceCount")).intValue())
-        .averageInvoiceValue((Double) overallStats.get("averageInvoice"))
-        .totalValueThisMonth((Double) currentMonthStats.get("totalSales"))
-        .monthlyBreakdown(monthlyBreakdown)
-        .statusBreakdown(statusBreakdown)
-        .build();
-  }
-  
-  /**
-   * Get overall sales statistics
-   */
-  private Map<String, Object> getOverallSalesStats(Long tenantId, LocalDateTime fromDate, 
-                                                    LocalDateTime toDate, Long buyerId, InvoiceStatus status) {
-    // Build dynamic SQL based on optional parameters
-    StringBuilder sql = new StringBuilder("""
-        SELECT 
-          COALESCE(COUNT(*), 0) as invoice_count,
-          COALESCE(SUM(total_invoice_value), 0.0) as total_sales,
-          COALESCE(AVG(total_invoice_value), 0.0) as average_invoice
-        FROM invoice
-        WHERE tenant_id = :tenantId
-          AND deleted = false
-          AND invoice_date BETWEEN :fromDate AND :toDate
-        """);
-    
-    if (buyerId != null) {
-      sql.append(" AND recipient_buyer_entity_id = :buyerId");
-    }
-    
-    if (status != null) {
-      sql.append(" AND status = :status");
-    }
-    
-    Query query = entityManager.createNativeQuery(sql.toString());
-    query.setParameter("tenantId", tenantId);
-    query.setParameter("fromDate", fromDate);
-    query.setParameter("toDate", toDate);
-    
-    if (buyerId != null) {
-      query.setParameter("buyerId", buyerId);
-    }
-    
-    if (status != null) {
-      query.setParameter("status", status.name());
-    }
-    
-    Object[] result = (Object[]) query.getSingleResult();
-    
-    Map<String, Object> stats = new HashMap<>();
-    stats.put("invoiceCount", ((Number) result[0]).longValue());
-    stats.put("totalSales", ((Number) result[1]).doubleValue());
-    stats.put("averageInvoice", ((Number) result[2]).doubleValue());
-    
-    return stats;
+    return salesSummaryReportCache.get(tenantId, fromDate, toDate, buyerId, status,
+                                       () -> buildSalesSummaryReport(tenantId, fromDate, toDate, buyerId, status));
   }
-  
+
   /**
-   * Get monthly breakdown of sales
+   * Compute the sales summary in one scan of the tenant's invoices.
+   * Rows are tagged with whether they are in the selected range (and buyer) and in the current month;
+   * GROUPING SETS then produce the overall row, the per-month rows and the per-status rows in one pass,
+   * each aggregate picking its rows with a FILTER clause:
+   * - overall and monthly figures: selected range, buyer and status
+   * - status breakdown: selected range and buyer (all statuses)
+   * - this month's sales: current month, all buyers and statuses
    */
-  private List<SalesSummaryReport.MonthlyBreakdown> getMonthlyBreakdown(
-      Long tenantId, LocalDateTime fromDate, LocalDateTime toDate, Long buyerId, InvoiceStatus status) {
-    
-    // Build dynamic SQL based on optional parameters
+  private SalesSummaryReport buildSalesSummaryReport(Long tenantId, LocalDateTime fromDate,
+                                                     LocalDateTime toDate, Long buyerId, InvoiceStatus status) {
+    log.info("Generating sales summary report for tenant: {}, from: {}, to: {}", tenantId, fromDate, toDate);
+
+    LocalDate today = LocalDate.now();
+    LocalDateTime monthStart = today.withDayOfMonth(1).atStartOfDay();
+    LocalDateTime monthEnd = today.atTime(23, 59, 59);
+
+    String selection = status != null ? "in_range AND status = :status" : "in_range";
+
     StringBuilder sql = new StringBuilder("""
-        SELECT 
-          TO_CHAR(invoice_date, 'YYYY-MM') as month,
-          COALESCE(SUM(total_invoice_value), 0.0) as sales_value,
-          COALESCE(COUNT(*), 0) as invoice_count,
-          COALESCE(AVG(total_invoice_value), 0.0) as average_invoice
-        FROM invoice
-        WHERE tenant_id = :tenantId
-          AND deleted = false
-          AND invoice_date BETWEEN :fromDate AND :toDate
-        """);
-    
+        SELECT
+          GROUPING(invoice_month) as month_grouped,
+          GROUPING(status) as status_grouped,
+          invoice_month,
+          status,
+          COUNT(*) FILTER (WHERE %1$s) as invoice_count,
+          COALESCE(SUM(total_invoice_value) FILTER (WHERE %1$s), 0.0) as total_sales,
+          COALESCE(AVG(total_invoice_value) FILTER (WHERE %1$s), 0.0) as average_invoice,
+          COUNT(*) FILTER (WHERE in_range) as range_count,
+          COALESCE(SUM(total_invoice_value) FILTER (WHERE in_range), 0.0) as range_value,
+          COALESCE(SUM(total_invoice_value) FILTER (WHERE in_current_month), 0.0) as current_month_sales
+        FROM (
+          SELECT
+            TO_CHAR(invoice_date, 'YYYY-MM') as invoice_month,
+            status,
+            total_invoice_value,
+            (invoice_date BETWEEN :fromDate AND :toDate
+        """.formatted(selection));
+
     if (buyerId != null) {
-      sql.append(" AND recipient_buyer_entity_id = :buyerId");
+      sql.append("       AND buyer_id = :buyerId");
     }
-    
-    if (status != null) {
-      sql.append(" AND status = :status");
-    }
-    
+
     sql.append("""
-        
-        GROUP BY TO_CHAR(invoice_date, 'YYYY-MM')
-        ORDER BY TO_CHAR(invoice_date, 'YYYY-MM') DESC
+            ) as in_range,
+            (invoice_date BETWEEN :monthStart AND :monthEnd) as in_current_month
+          FROM invoice
+          WHERE tenant_id = :tenantId
+            AND deleted = false
+            AND (invoice_date BETWEEN :fromDate AND :toDate OR invoice_date BETWEEN :monthStart AND :monthEnd)
+        ) scoped
+        GROUP BY GROUPING SETS ((), (invoice_month), (status))
         """);
-    
+
     Query query = entityManager.createNativeQuery(sql.toString());
     query.setParameter("tenantId", tenantId);
     query.setParameter("fromDate", fromDate);
     query.setParameter("toDate", toDate);
-    
+    query.setParameter("monthStart", monthStart);
+    query.setParameter("monthEnd", monthEnd);
+
     if (buyerId != null) {
       query.setParameter("buyerId", buyerId);
     }
-    
+
     if (status != null) {
       query.setParameter("status", status.name());
     }
-    
+
     @SuppressWarnings("unchecked")
     List<Object[]> results = query.getResultList();
-    
-    List<SalesSummaryReport.MonthlyBreakdown> breakdown = new ArrayList<>();
+
+    Object[] overall = null;
+    List<Object[]> monthRows = new ArrayList<>();
+    List<Object[]> statusRows = new ArrayList<>();
     for (Object[] row : results) {
+      boolean monthGrouped = ((Number) row[0]).intValue() == 1;
+      boolean statusGrouped = ((Number) row[1]).intValue() == 1;
+      if (monthGrouped && statusGrouped) {
+        overall = row;
+      } else if (!monthGrouped) {
+        // Months only touched by current-month invoices outside the selection have nothing to report
+        if (((Number) row[4]).longValue() > 0) {
+          monthRows.add(row);
+        }
+      } else if (((Number) row[7]).longValue() > 0) {
+        statusRows.add(row);
+      }
+    }
+
+    return SalesSummaryReport.builder()
+        .fromDate(fromDate)
+        .toDate(toDate)
+        .totalSalesValue(overall != null ? ((Number) overall[5]).doubleValue() : 0.0)
+        .totalInvoiceCount(overall != null ? ((Number) overall[4]).intValue() : 0)
+        .averageInvoiceValue(overall != null ? ((Number) overall[6]).doubleValue() : 0.0)
+        .totalValueThisMonth(overall != null ? ((Number) overall[9]).doubleValue() : 0.0)
+        .monthlyBreakdown(toMonthlyBreakdown(monthRows))
+        .statusBreakdown(toStatusBreakdown(statusRows))
+        .build();
+  }
+
+  /**
+   * Monthly breakdown of sales, latest month first
+   */
+  private List<SalesSummaryReport.MonthlyBreakdown> toMonthlyBreakdown(List<Object[]> rows) {
+    List<SalesSummaryReport.MonthlyBreakdown> breakdown = new ArrayList<>();
+    for (Object[] row : rows) {
       breakdown.add(SalesSummaryReport.MonthlyBreakdown.builder()
-          .month((String) row[0])
-          .salesValue(((Number) row[1]).doubleValue())
-          .invoiceCount(((Number) row[2]).intValue())
-          .averageInvoiceValue(((Number) row[3]).doubleValue())
+          .month((String) row[2])
+          .salesValue(((Number) row[5]).doubleValue())
+          .invoiceCount(((Number) row[4]).intValue())
+          .averageInvoiceValue(((Number) row[6]).doubleValue())
           .build());
     }
-    
+    breakdown.sort(Comparator.comparing(SalesSummaryReport.MonthlyBreakdown::getMonth).reversed());
     return breakdown;
   }
-  
+
   /**
-   * Get status-wise breakdown of invoices
+   * Status-wise breakdown of invoices, highest value first
    */
-  private List<SalesSummaryReport.StatusBreakdown> getStatusBreakdown(
-      Long tenantId, LocalDateTime fromDate, LocalDateTime toDate, Long buyerId) {
-    
-    // Build dynamic SQL based on optional parameters
+  private List<SalesSummaryReport.StatusBreakdown> toStatusBreakdown(List<Object[]> rows) {
+    // Calculate total for percentage
+    double totalValue = rows.stream()
+        .mapToDouble(row -> ((Number) row[8]).doubleValue())
+        .sum();
+
+    List<SalesSummaryReport.StatusBreakdown> breakdown = new ArrayList<>();
+    for (Object[] row : rows) {
+      double value = ((Number) row[8]).doubleValue();
+      double percentage = totalValue > 0 ? (value / totalValue) * 100 : 0;
+
+      breakdown.add(SalesSummaryReport.StatusBreakdown.builder()
+          .status((String) row[3])
+          .count(((Number) row[7]).intValue())
+          .totalValue(value)
+          .percentage(Math.round(percentage * 100.0) / 100.0) // Round to 2 decimals
+          .build());
+    }
+    breakdown.sort(Comparator.comparing(SalesSummaryReport.StatusBreakdown::getTotalValue).reversed());
+    return breakdown;
+  }
+
+  /**
+   * Generate Receivables Aging Report
+   * Open invoices (GENERATED, SENT, PARTIALLY_PAID) with their outstanding amount net of RECEIVED payments,
+   * bucketed by days past due and summed per customer in one aggregate query
+   *
+   * @param tenantId Tenant ID
+   * @param asOfDate Date days past due are counted to (outstanding amounts are current)
+   * @param buyerId Optional buyer filter
+   * @return Receivables Aging Report, largest outstanding customer first
+   */
+  @Transactional(readOnly = true)
+  public ReceivablesAgingReport getReceivablesAgingReport(Long tenantId, LocalDate asOfDate, Long buyerId) {
+    log.info("Generating receivables aging report for tenant: {}, as of: {}", tenantId, asOfDate);
+
     StringBuilder sql = new StringBuilder("""
-        SELECT 
-          status,
-          COALESCE(COUNT(*), 0) as count,
-          COALESCE(SUM(total_invoice_value), 0.0) as total_value
-        FROM invoice
-        WHERE tenant_id = :tenantId
-          AND deleted = false
-          AND invoice_date BETWEEN :fromDate AND :toDate
+        WITH received AS (
+          SELECT invoice_id, SUM(amount) as paid_amount
+          FROM payment
+          WHERE tenant_id = :tenantId
+            AND deleted = false
+            AND status = 'RECEIVED'
+          GROUP BY invoice_id
+        ),
+        open_invoice AS (
+          SELECT
+            i.buyer_id,
+            i.vendor_id,
+            i.total_invoice_value - COALESCE(r.paid_amount, 0) as outstanding,
+            CAST(:asOfDate AS DATE) - COALESCE(i.due_date, CAST(i.invoice_date AS DATE)) as days_overdue
+          FROM invoice i
+          LEFT JOIN received r ON r.invoice_id = i.id
+          WHERE i.tenant_id = :tenantId
+            AND i.deleted = false
+            AND i.status IN ('GENERATED', 'SENT', 'PARTIALLY_PAID')
         """);
-    
+
     if (buyerId != null) {
-      sql.append(" AND recipient_buyer_entity_id = :buyerId");
+      sql.append("    AND i.buyer_id = :buyerId");
     }
-    
+
     sql.append("""
-        
-        GROUP BY status
-        ORDER BY total_value DESC
+        )
+        SELECT
+          o.buyer_id,
+          o.vendor_id,
+          COALESCE(b.buyer_name, v.vendor_name) as party_name,
+          MAX(o.days_overdue) as max_days_overdue,
+          COUNT(*) as invoice_count,
+          SUM(o.outstanding) as outstanding_amount,
+          COUNT(*) FILTER (WHERE o.days_overdue < 0) as not_due_count,
+          COALESCE(SUM(o.outstanding) FILTER (WHERE o.days_overdue < 0), 0) as not_due_amount,
+          COUNT(*) FILTER (WHERE o.days_overdue BETWEEN 0 AND 30) as days_0_30_count,
+          COALESCE(SUM(o.outstanding) FILTER (WHERE o.days_overdue BETWEEN 0 AND 30), 0) as days_0_30_amount,
+          COUNT(*) FILTER (WHERE o.days_overdue BETWEEN 31 AND 60) as days_31_60_count,
+          COALESCE(SUM(o.outstanding) FILTER (WHERE o.days_overdue BETWEEN 31 AND 60), 0) as days_31_60_amount,
+          COUNT(*) FILTER (WHERE o.days_overdue BETWEEN 61 AND 90) as days_61_90_count,
+          COALESCE(SUM(o.outstanding) FILTER (WHERE o.days_overdue BETWEEN 61 AND 90), 0) as days_61_90_amount,
+          COUNT(*) FILTER (WHERE o.days_overdue > 90) as over_90_count,
+          COALESCE(SUM(o.outstanding) FILTER (WHERE o.days_overdue > 90), 0) as over_90_amount
+        FROM open_invoice o
+        LEFT JOIN buyer b ON b.id = o.buyer_id
+        LEFT JOIN vendor v ON v.id = o.vendor_id
+        WHERE o.outstanding > 0
+        GROUP BY o.buyer_id, o.vendor_id, b.buyer_name, v.vendor_name
+        ORDER BY outstanding_amount DESC
         """);
-    
+
     Query query = entityManager.createNativeQuery(sql.toString());
     query.setParameter("tenantId", tenantId);
-    query.setParameter("fromDate", fromDate);
-    query.setParameter("toDate", toDate);
-    
+    query.setParameter("asOfDate", asOfDate);
+
     if (buyerId != null) {
       query.setParameter("buyerId", buyerId);
     }
-    
+
     @SuppressWarnings("unchecked")
     List<Object[]> results = query.getResultList();
-    
-    // Calculate total for percentage
-    double totalValue = results.stream()
-        .mapToDouble(row -> ((Number) row[2]).doubleValue())
-        .sum();
-    
-    List<SalesSummaryReport.StatusBreakdown> breakdown = new ArrayList<>();
+
+    List<ReceivablesAgingReport.PartyAging> parties = new ArrayList<>();
+    int[] totalCounts = new int[6];
+    BigDecimal[] totalAmounts = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                                 BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
     for (Object[] row : results) {
-      double value = ((Number) row[2]).doubleValue();
-      double percentage = totalValue > 0 ? (value / totalValue) * 100 : 0;
-      
-      breakdown.add(SalesSummaryReport.StatusBreakdown.builder()
-          .status((String) row[0])
-          .count(((Number) row[1]).intValue())
-          .totalValue(value)
-          .percentage(Math.round(percentage * 100.0) / 100.0) // Round to 2 decimals
+      int[] counts = new int[6];
+      BigDecimal[] amounts = new BigDecimal[6];
+      for (int bucket = 0; bucket < 6; bucket++) {
+        counts[bucket] = ((Number) row[4 + 2 * bucket]).intValue();
+        amounts[bucket] = toBigDecimal(row[5 + 2 * bucket]);
+        totalCounts[bucket] += counts[bucket];
+        totalAmounts[bucket] = totalAmounts[bucket].add(amounts[bucket]);
+      }
+
+      boolean buyerParty = row[0] != null;
+      parties.add(ReceivablesAgingReport.PartyAging.builder()
+          .partyType(buyerParty ? "BUYER" : "VENDOR")
+          .partyId(buyerParty ? ((Number) row[0]).longValue() : row[1] != null ? ((Number) row[1]).longValue() : null)
+          .partyName((String) row[2])
+          .maxDaysOverdue(((Number) row[3]).intValue())
+          .aging(toAgingBuckets(counts, amounts))
           .build());
     }
-    
-    return breakdown;
+
+    return ReceivablesAgingReport.builder()
+        .asOfDate(asOfDate)
+        .totals(toAgingBuckets(totalCounts, totalAmounts))
+        .parties(parties)
+        .build();
   }
-}
 
+  /**
+   * Write a receivables aging report as CSV, one line per customer followed by a total line.
+   * Lines are written straight to the output stream, which is flushed but not closed.
+   */
+  public void writeReceivablesAgingCsv(ReceivablesAgingReport report, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.write("Party Type,Party ID,Party Name,Invoices,Outstanding,Not Due,0-30 Days,31-60 Days,61-90 Days,"
+                 + "Over 90 Days,Max Days Overdue\r\n");
+    for (ReceivablesAgingReport.PartyAging party : report.getParties()) {
+      writeAgingCsvLine(writer, party.getPartyType(), party.getPartyId() != null ? party.getPartyId().toString() : "",
+                        party.getPartyName(), party.getAging(), String.valueOf(party.getMaxDaysOverdue()));
+    }
+    writeAgingCsvLine(writer, "TOTAL", "", "As of " + report.getAsOfDate(), report.getTotals(), "");
+    writer.flush();
+  }
+
+  private static void writeAgingCsvLine(Writer writer, String partyType, String partyId, String partyName,
+                                        ReceivablesAgingReport.AgingBuckets aging, String maxDaysOverdue) throws IOException {
+    writer.write(String.join(",",
+        partyType,
+        partyId,
+        csvText(partyName),
+        String.valueOf(aging.getInvoiceCount()),
+        aging.getOutstandingAmount().toPlainString(),
+        aging.getNotDueAmount().toPlainString(),
+        aging.getDays0To30Amount().toPlainString(),
+        aging.getDays31To60Amount().toPlainString(),
+        aging.getDays61To90Amount().toPlainString(),
+        aging.getOver90DaysAmount().toPlainString(),
+        maxDaysOverdue));
+    writer.write("\r\n");
+  }
+
+  /**
+   * Quote a CSV text field; leading formula characters are neutralised so spreadsheets do not evaluate names
+   */
+  private static String csvText(String value) {
+    if (value == null) {
+      return "";
+    }
+    String text = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+    return "\"" + text.replace("\"", "\"\"") + "\"";
+  }
+
+  private static ReceivablesAgingReport.AgingBuckets toAgingBuckets(int[] counts, BigDecimal[] amounts) {
+    return ReceivablesAgingReport.AgingBuckets.builder()
+        .invoiceCount(counts[0])
+        .outstandingAmount(amounts[0])
+        .notDueCount(counts[1])
+        .notDueAmount(amounts[1])
+        .days0To30Count(counts[2])
+        .days0To30Amount(amounts[2])
+        .days31To60Count(counts[3])
+        .days31To60Amount(amounts[3])
+        .days61To90Count(counts[4])
+        .days61To90Amount(amounts[4])
+        .over90DaysCount(counts[5])
+        .over90DaysAmount(amounts[5])
+        .build();
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+  }
+}
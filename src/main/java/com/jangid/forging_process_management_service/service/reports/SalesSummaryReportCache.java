@@ -0,0 +1,85 @@
+package com.jangid.forging_process_management_service.service.reports;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jangid.forging_process_management_service.dto.reports.SalesSummaryReport;
+import com.jangid.forging_process_management_service.entities.gst.InvoiceStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant cache of sales summary reports, keyed by the report parameters.
+ * Invoice changes invalidate the tenant's reports; the short TTL bounds staleness from anything that is not
+ * wired to invalidate (and lets the "this month" figure move on).
+ *
+ * Each tenant has a generation that is part of the key. Invalidation bumps it, so a report that was being
+ * computed while invoices changed is stored under the old generation and never served.
+ */
+@Slf4j
+@Component
+public class SalesSummaryReportCache {
+
+  private record ReportKey(long tenantId, long generation, LocalDate today, LocalDateTime fromDate,
+                           LocalDateTime toDate, Long buyerId, InvoiceStatus status) {
+  }
+
+  private final Cache<ReportKey, SalesSummaryReport> reports;
+  private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  public SalesSummaryReportCache(@Value("${app.reports.sales-summary.cache.max-size:1000}") long maxSize,
+                                 @Value("${app.reports.sales-summary.cache.ttl-seconds:300}") long ttlSeconds) {
+    this.reports = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .build();
+  }
+
+  /**
+   * The cached report for these parameters, computing and caching it on a miss
+   */
+  public SalesSummaryReport get(Long tenantId, LocalDateTime fromDate, LocalDateTime toDate, Long buyerId,
+                                InvoiceStatus status, Supplier<SalesSummaryReport> loader) {
+    ReportKey key = new ReportKey(tenantId, generation(tenantId).get(), LocalDate.now(),
+                                  fromDate, toDate, buyerId, status);
+    return reports.get(key, ignored -> loader.get());
+  }
+
+  /**
+   * Drop the tenant's cached reports. Inside a transaction they are dropped again after commit,
+   * so a report computed from the pre-commit data in the meantime is not served either.
+   */
+  public void invalidateTenant(Long tenantId) {
+    evict(tenantId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict(tenantId);
+        }
+      });
+    }
+  }
+
+  private void evict(Long tenantId) {
+    generation(tenantId).incrementAndGet();
+    reports.asMap().keySet().removeIf(key -> key.tenantId() == tenantId);
+    log.debug("Invalidated cached sales summary reports of tenant {}", tenantId);
+  }
+
+  private AtomicLong generation(Long tenantId) {
+    return generations.computeIfAbsent(tenantId, id -> new AtomicLong());
+  }
+}
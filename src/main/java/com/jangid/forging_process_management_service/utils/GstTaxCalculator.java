@@ -0,0 +1,107 @@
+package com.jangid.forging_process_management_service.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GST amount arithmetic shared by invoices, challans and their line items.
+ * Results are exactly the values (and scales) of the previous per-call
+ * {@code multiply(rate).divide(100, 2, HALF_UP)} arithmetic; the percentage step is a decimal
+ * point shift instead of a division, and the document totals are accumulated in a single pass.
+ */
+public final class GstTaxCalculator {
+
+  /**
+   * Scale of every GST amount (paise)
+   */
+  public static final int AMOUNT_SCALE = 2;
+
+  private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+  // Half rates (CGST/SGST split) of the rates in use; GST has a handful of slabs so this stays tiny
+  private static final int MAX_CACHED_RATES = 64;
+  private static final Map<BigDecimal, BigDecimal> HALF_RATES = new ConcurrentHashMap<>();
+
+  /**
+   * The given percentage of an amount, rounded half up to paise.
+   * Same value and scale as {@code amount.multiply(ratePercent).divide(100, 2, HALF_UP)}.
+   */
+  public static BigDecimal percentOf(BigDecimal amount, BigDecimal ratePercent) {
+    return amount.multiply(ratePercent).movePointLeft(2).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * CGST or SGST rate for an intra-state supply: half the total GST rate, rounded half up to 2 decimals
+   */
+  public static BigDecimal halfRate(BigDecimal gstRate) {
+    BigDecimal cached = HALF_RATES.get(gstRate);
+    if (cached != null) {
+      return cached;
+    }
+    BigDecimal half = gstRate.divide(TWO, 2, RoundingMode.HALF_UP);
+    if (HALF_RATES.size() < MAX_CACHED_RATES) {
+      HALF_RATES.putIfAbsent(gstRate, half);
+    }
+    return half;
+  }
+
+  /**
+   * Running totals of a document's line items, filled in one pass over the lines.
+   * Sums are built in line order starting from {@link BigDecimal#ZERO}, like the stream reductions they replace.
+   */
+  public static final class Totals {
+
+    private BigDecimal quantity = BigDecimal.ZERO;
+    private BigDecimal taxableValue = BigDecimal.ZERO;
+    private BigDecimal cgstAmount = BigDecimal.ZERO;
+    private BigDecimal sgstAmount = BigDecimal.ZERO;
+    private BigDecimal igstAmount = BigDecimal.ZERO;
+
+    public Totals addQuantity(BigDecimal lineQuantity) {
+      quantity = quantity.add(lineQuantity);
+      return this;
+    }
+
+    public Totals addAmounts(BigDecimal lineTaxableValue, BigDecimal lineCgst, BigDecimal lineSgst, BigDecimal lineIgst) {
+      taxableValue = taxableValue.add(lineTaxableValue);
+      cgstAmount = cgstAmount.add(lineCgst);
+      sgstAmount = sgstAmount.add(lineSgst);
+      igstAmount = igstAmount.add(lineIgst);
+      return this;
+    }
+
+    public BigDecimal getQuantity() {
+      return quantity;
+    }
+
+    public BigDecimal getTaxableValue() {
+      return taxableValue;
+    }
+
+    public BigDecimal getCgstAmount() {
+      return cgstAmount;
+    }
+
+    public BigDecimal getSgstAmount() {
+      return sgstAmount;
+    }
+
+    public BigDecimal getIgstAmount() {
+      return igstAmount;
+    }
+  }
+
+  /**
+   * Document value: taxable value + CGST + SGST + IGST
+   */
+  public static BigDecimal totalValue(BigDecimal taxableValue, BigDecimal cgstAmount,
+                                      BigDecimal sgstAmount, BigDecimal igstAmount) {
+    return taxableValue.add(cgstAmount).add(sgstAmount).add(igstAmount);
+  }
+
+  private GstTaxCalculator() {
+    // Utility class, prevent instantiation
+  }
+}
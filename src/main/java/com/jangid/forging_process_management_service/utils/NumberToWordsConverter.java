@@ -21,6 +21,28 @@ public class NumberToWordsConverter {
       "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety"
   };
 
+  private static final String ZERO_RUPEES = "Zero Rupees Only";
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+  /**
+   * Words for 0-99 ("" for 0), built once; every group of an Indian-format number
+   * (crore count aside) and every paise value is one of these
+   */
+  private static final String[] BELOW_HUNDRED = new String[100];
+
+  static {
+    for (int n = 1; n < 100; n++) {
+      if (n < 10) {
+        BELOW_HUNDRED[n] = UNITS[n];
+      } else if (n < 20) {
+        BELOW_HUNDRED[n] = TEENS[n - 10];
+      } else {
+        BELOW_HUNDRED[n] = n % 10 > 0 ? TENS[n / 10] + " " + UNITS[n % 10] : TENS[n / 10];
+      }
+    }
+    BELOW_HUNDRED[0] = "";
+  }
+
   /**
    * Converts a BigDecimal amount to words in Indian English format with "Rupees" and "Paise"
    * 
@@ -29,100 +51,89 @@ public class NumberToWordsConverter {
    */
   public static String convertToWords(BigDecimal amount) {
     if (amount == null) {
-      return "Zero Rupees Only";
+      return ZERO_RUPEES;
     }
 
     // Split into rupees and paise
     long rupees = amount.longValue();
-    int paise = amount.subtract(new BigDecimal(rupees))
-                      .multiply(new BigDecimal(100))
+    int paise = amount.subtract(BigDecimal.valueOf(rupees))
+                      .multiply(HUNDRED)
                       .intValue();
 
-    StringBuilder words = new StringBuilder();
-
     if (rupees == 0 && paise == 0) {
-      return "Zero Rupees Only";
+      return ZERO_RUPEES;
     }
 
+    StringBuilder words = new StringBuilder(96);
+
     // Convert rupees part
     if (rupees > 0) {
-      words.append(convertNumberToWords(rupees));
+      appendNumber(words, rupees);
       words.append(" Rupees");
     }
 
-    // Convert paise part
+    // Convert paise part (always 1-99 here)
     if (paise > 0) {
       if (rupees > 0) {
         words.append(" and ");
       }
-      words.append(convertNumberToWords(paise));
+      words.append(BELOW_HUNDRED[paise]);
       words.append(" Paise");
     }
 
-    words.append(" Only");
+    if (words.length() > 0) {
+      words.append(' ');
+    }
+    words.append("Only");
 
-    return words.toString().trim();
+    return words.toString();
   }
 
   /**
-   * Converts a long number to words in Indian numbering system
+   * Appends a positive number in words in the Indian numbering system
    * Supports: Crores, Lakhs, Thousands, Hundreds
+   * Words are separated by single spaces, with no leading or trailing space.
    * 
-   * @param number The number to convert
-   * @return The number in words
+   * @param words The builder to append to
+   * @param number The number to convert (greater than zero)
    */
-  private static String convertNumberToWords(long number) {
-    if (number == 0) {
-      return "Zero";
-    }
-
-    StringBuilder words = new StringBuilder();
-
-    // Crores (10,000,000)
+  private static void appendNumber(StringBuilder words, long number) {
+    // Crores (10,000,000); the crore count itself can be any size
     if (number >= 10000000) {
-      long crores = number / 10000000;
-      words.append(convertNumberToWords(crores)).append(" Crore ");
+      appendNumber(words, number / 10000000);
+      words.append(" Crore");
       number %= 10000000;
     }
 
     // Lakhs (100,000)
     if (number >= 100000) {
-      long lakhs = number / 100000;
-      words.append(convertNumberToWords(lakhs)).append(" Lakh ");
+      appendWord(words, BELOW_HUNDRED[(int) (number / 100000)]).append(" Lakh");
       number %= 100000;
     }
 
     // Thousands (1,000)
     if (number >= 1000) {
-      long thousands = number / 1000;
-      words.append(convertNumberToWords(thousands)).append(" Thousand ");
+      appendWord(words, BELOW_HUNDRED[(int) (number / 1000)]).append(" Thousand");
       number %= 1000;
     }
 
     // Hundreds (100)
     if (number >= 100) {
-      long hundreds = number / 100;
-      words.append(UNITS[(int) hundreds]).append(" Hundred ");
+      appendWord(words, UNITS[(int) (number / 100)]).append(" Hundred");
       number %= 100;
     }
 
     // Tens and Units (1-99)
     if (number > 0) {
-      if (number < 10) {
-        words.append(UNITS[(int) number]);
-      } else if (number < 20) {
-        words.append(TEENS[(int) (number - 10)]);
-      } else {
-        int tensDigit = (int) (number / 10);
-        int unitsDigit = (int) (number % 10);
-        words.append(TENS[tensDigit]);
-        if (unitsDigit > 0) {
-          words.append(" ").append(UNITS[unitsDigit]);
-        }
-      }
+      appendWord(words, BELOW_HUNDRED[(int) number]);
     }
+  }
 
-    return words.toString().trim();
+  private static StringBuilder appendWord(StringBuilder words, String word) {
+    if (words.length() > 0) {
+      words.append(' ');
+    }
+    return words.append(word);
   }
 
   /**
@@ -0,0 +1,162 @@
+-- Migration: Vendor stock movement ledger and materialized balances
+-- Version: V1_84
+-- Description: Append-only ledger of vendor stock movements plus a per (vendor, heat, item)
+--              balance table maintained atomically alongside every movement
+
+BEGIN;
+
+-- ============================================================================
+-- Part 1: vendor_stock_movement (append-only ledger)
+-- ============================================================================
+
+CREATE SEQUENCE IF NOT EXISTS vendor_stock_movement_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE vendor_stock_movement (
+    id BIGINT NOT NULL DEFAULT nextval('vendor_stock_movement_sequence'),
+    tenant_id BIGINT NOT NULL,
+    vendor_id BIGINT NOT NULL,
+    heat_id BIGINT,
+    item_id BIGINT,
+    movement_type VARCHAR(50) NOT NULL,
+    quantity_delta DOUBLE PRECISION NOT NULL DEFAULT 0,
+    pieces_delta INTEGER NOT NULL DEFAULT 0,
+    reference_type VARCHAR(50),
+    reference_id BIGINT,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_vendor_stock_movement PRIMARY KEY (id),
+    CONSTRAINT fk_vendor_stock_movement_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_movement_vendor FOREIGN KEY (vendor_id)
+        REFERENCES vendor(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_movement_heat FOREIGN KEY (heat_id)
+        REFERENCES heat(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_movement_item FOREIGN KEY (item_id)
+        REFERENCES item(id) ON DELETE RESTRICT,
+
+    -- Every movement must be attributed to a heat (raw material) or an item (processed pieces)
+    CONSTRAINT chk_vendor_stock_movement_subject
+        CHECK (heat_id IS NOT NULL OR item_id IS NOT NULL),
+
+    CONSTRAINT chk_vendor_stock_movement_type
+        CHECK (movement_type IN ('OPENING_BALANCE', 'TRANSFER_TO_VENDOR', 'RETURN_FROM_VENDOR',
+                                 'CONSUMED_FOR_DISPATCH', 'DISPATCHED_TO_VENDOR', 'DISPATCH_REVERSED',
+                                 'RECEIVED_FROM_VENDOR', 'RECEIVE_REVERSED'))
+);
+
+CREATE INDEX idx_vendor_stock_movement_balance_key
+    ON vendor_stock_movement(vendor_id, COALESCE(heat_id, 0), COALESCE(item_id, 0), id);
+
+CREATE INDEX idx_vendor_stock_movement_tenant_id
+    ON vendor_stock_movement(tenant_id);
+
+CREATE INDEX idx_vendor_stock_movement_reference
+    ON vendor_stock_movement(reference_type, reference_id);
+
+-- The ledger is append-only: corrections are recorded as compensating movements
+CREATE OR REPLACE FUNCTION prevent_vendor_stock_movement_mutation()
+RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'vendor_stock_movement is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_vendor_stock_movement_append_only
+    BEFORE UPDATE OR DELETE ON vendor_stock_movement
+    FOR EACH ROW EXECUTE FUNCTION prevent_vendor_stock_movement_mutation();
+
+-- ============================================================================
+-- Part 2: vendor_stock_balance (materialized running totals)
+-- ============================================================================
+
+CREATE SEQUENCE IF NOT EXISTS vendor_stock_balance_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE vendor_stock_balance (
+    id BIGINT NOT NULL DEFAULT nextval('vendor_stock_balance_sequence'),
+    tenant_id BIGINT NOT NULL,
+    vendor_id BIGINT NOT NULL,
+    heat_id BIGINT,
+    item_id BIGINT,
+    quantity DOUBLE PRECISION NOT NULL DEFAULT 0,
+    pieces INTEGER NOT NULL DEFAULT 0,
+    last_movement_id BIGINT NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_vendor_stock_balance PRIMARY KEY (id),
+    CONSTRAINT fk_vendor_stock_balance_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_balance_vendor FOREIGN KEY (vendor_id)
+        REFERENCES vendor(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_balance_heat FOREIGN KEY (heat_id)
+        REFERENCES heat(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_vendor_stock_balance_item FOREIGN KEY (item_id)
+        REFERENCES item(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_vendor_stock_balance_subject
+        CHECK (heat_id IS NOT NULL OR item_id IS NOT NULL)
+);
+
+-- One balance row per (vendor, heat, item); used as the ON CONFLICT target for ledger upserts
+CREATE UNIQUE INDEX uk_vendor_stock_balance_key
+    ON vendor_stock_balance(vendor_id, COALESCE(heat_id, 0), COALESCE(item_id, 0));
+
+CREATE INDEX idx_vendor_stock_balance_tenant_vendor
+    ON vendor_stock_balance(tenant_id, vendor_id);
+
+-- ============================================================================
+-- Part 3: Seed opening balances from the current state
+-- ============================================================================
+
+-- Raw material currently held by vendors (vendor_inventory)
+INSERT INTO vendor_stock_movement (tenant_id, vendor_id, heat_id, item_id, movement_type,
+                                   quantity_delta, pieces_delta, reference_type, reference_id)
+SELECT v.tenant_id, vi.vendor_id, vi.original_heat_id, NULL, 'OPENING_BALANCE',
+       COALESCE(vi.available_quantity, 0), COALESCE(vi.available_pieces_count, 0),
+       'VENDOR_INVENTORY', vi.id
+FROM vendor_inventory vi
+JOIN vendor v ON v.id = vi.vendor_id
+WHERE vi.deleted = false
+  AND (COALESCE(vi.available_quantity, 0) > 0 OR COALESCE(vi.available_pieces_count, 0) > 0);
+
+-- Processed pieces dispatched to vendors and not yet received back
+INSERT INTO vendor_stock_movement (tenant_id, vendor_id, heat_id, item_id, movement_type,
+                                   quantity_delta, pieces_delta, reference_type, reference_id)
+SELECT vdb.tenant_id, vdb.vendor_id, NULL, pivdb.item_id, 'OPENING_BALANCE',
+       0, COALESCE(pivdb.dispatched_pieces_count, pivdb.total_expected_pieces_count, 0) - COALESCE(pivdb.total_received_pieces_count, 0),
+       'VENDOR_DISPATCH_BATCH', vdb.id
+FROM processed_item_vendor_dispatch_batch pivdb
+JOIN vendor_dispatch_batch vdb ON vdb.id = pivdb.vendor_dispatch_batch_id
+WHERE vdb.deleted = false
+  AND pivdb.deleted = false
+  AND COALESCE(pivdb.dispatched_pieces_count, pivdb.total_expected_pieces_count, 0) - COALESCE(pivdb.total_received_pieces_count, 0) > 0;
+
+INSERT INTO vendor_stock_balance (tenant_id, vendor_id, heat_id, item_id, quantity, pieces, last_movement_id)
+SELECT tenant_id, vendor_id, heat_id, item_id, SUM(quantity_delta), SUM(pieces_delta), MAX(id)
+FROM vendor_stock_movement
+GROUP BY tenant_id, vendor_id, heat_id, item_id;
+
+-- ============================================================================
+-- Part 4: Documentation
+-- ============================================================================
+
+COMMENT ON TABLE vendor_stock_movement IS 'Append-only ledger of every stock movement to, at or from a vendor';
+COMMENT ON COLUMN vendor_stock_movement.heat_id IS 'Raw material heat moved (NULL for processed item pieces)';
+COMMENT ON COLUMN vendor_stock_movement.item_id IS 'Processed item moved (NULL for raw material)';
+COMMENT ON COLUMN vendor_stock_movement.quantity_delta IS 'Signed change in quantity (KG) held at the vendor';
+COMMENT ON COLUMN vendor_stock_movement.pieces_delta IS 'Signed change in pieces held at the vendor';
+COMMENT ON COLUMN vendor_stock_movement.reference_type IS 'Kind of document that caused the movement';
+COMMENT ON COLUMN vendor_stock_movement.reference_id IS 'Id of the document that caused the movement';
+
+COMMENT ON TABLE vendor_stock_balance IS 'Materialized vendor stock per (vendor, heat, item), maintained from vendor_stock_movement';
+COMMENT ON COLUMN vendor_stock_balance.last_movement_id IS 'Id of the latest ledger movement applied to this balance';
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- Migration: Pooled id sequences for vendor inventory batch writes
+-- Version: V1_85
+-- Description: Step vendor inventory sequences by 50 so Hibernate can hand out ids from a pooled
+--              block and group the inserts of a multi-heat transfer/return into JDBC batches.
+--              Must match allocationSize on the corresponding @SequenceGenerator mappings.
+
+BEGIN;
+
+ALTER SEQUENCE vendor_inventory_sequence INCREMENT BY 50;
+ALTER SEQUENCE vendor_inventory_transaction_items_sequence INCREMENT BY 50;
+ALTER SEQUENCE vendor_stock_movement_sequence INCREMENT BY 50;
+
+COMMENT ON SEQUENCE vendor_inventory_sequence IS 'Pooled (allocationSize = 50) id sequence for vendor_inventory';
+COMMENT ON SEQUENCE vendor_inventory_transaction_items_sequence IS 'Pooled (allocationSize = 50) id sequence for vendor_inventory_transaction_items';
+COMMENT ON SEQUENCE vendor_stock_movement_sequence IS 'Pooled (allocationSize = 50) id sequence for vendor_stock_movement';
+
+COMMIT;
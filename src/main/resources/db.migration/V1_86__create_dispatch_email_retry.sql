@@ -0,0 +1,58 @@
+-- Migration: Persistent retry queue for dispatch notification emails
+-- Version: V1_86
+-- Description: Dispatch emails that fail to send (or are rejected by a saturated sender pool)
+--              are stored as fully rendered MIME messages and retried with exponential backoff
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS dispatch_email_retry_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE dispatch_email_retry (
+    id BIGINT NOT NULL DEFAULT nextval('dispatch_email_retry_sequence'),
+    tenant_id BIGINT NOT NULL,
+    dispatch_batch_id BIGINT,
+    dispatch_batch_number VARCHAR(255),
+    recipient VARCHAR(500) NOT NULL,
+    raw_message BYTEA NOT NULL,
+    smtp_host VARCHAR(255) NOT NULL,
+    smtp_port INTEGER NOT NULL,
+    smtp_username VARCHAR(255),
+    smtp_password_encrypted TEXT,
+    smtp_use_tls BOOLEAN NOT NULL DEFAULT TRUE,
+    smtp_use_auth BOOLEAN NOT NULL DEFAULT TRUE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempt_count INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    sent_at TIMESTAMP WITHOUT TIME ZONE,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_dispatch_email_retry PRIMARY KEY (id),
+    CONSTRAINT fk_dispatch_email_retry_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT fk_dispatch_email_retry_dispatch_batch FOREIGN KEY (dispatch_batch_id)
+        REFERENCES dispatch_batch(id) ON DELETE SET NULL,
+    CONSTRAINT chk_dispatch_email_retry_status
+        CHECK (status IN ('PENDING', 'SENT', 'FAILED'))
+);
+
+-- Poller only ever scans pending rows that are due
+CREATE INDEX idx_dispatch_email_retry_due
+    ON dispatch_email_retry(next_attempt_at)
+    WHERE status = 'PENDING';
+
+CREATE INDEX idx_dispatch_email_retry_tenant_id
+    ON dispatch_email_retry(tenant_id);
+
+COMMENT ON TABLE dispatch_email_retry IS 'Dispatch notification emails waiting to be (re)sent with exponential backoff';
+COMMENT ON COLUMN dispatch_email_retry.raw_message IS 'Fully rendered MIME message including attachments';
+COMMENT ON COLUMN dispatch_email_retry.smtp_password_encrypted IS 'SMTP password encrypted with the application master key; cleared once the email is sent or abandoned';
+COMMENT ON COLUMN dispatch_email_retry.next_attempt_at IS 'Earliest time the next send attempt may run';
+
+COMMIT;
@@ -0,0 +1,52 @@
+-- Migration: Shared store for GSP (E-Way Bill / E-Invoice) sessions
+-- Version: V1_87
+-- Description: GSP sessions were held in a per-instance map, so a request routed to another
+--              instance saw an "invalid session". Sessions are now stored here (looked up by a
+--              hash of the session token) and cached briefly on each instance
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS gsp_session_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE gsp_session (
+    id BIGINT NOT NULL DEFAULT nextval('gsp_session_sequence'),
+    session_type VARCHAR(20) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    tenant_id BIGINT NOT NULL,
+    username VARCHAR(255),
+    password_encrypted TEXT,
+    gsp_auth_token_encrypted TEXT,
+    gstin VARCHAR(15),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_accessed_at TIMESTAMP WITHOUT TIME ZONE,
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    token_expires_at TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_gsp_session PRIMARY KEY (id),
+    CONSTRAINT uk_gsp_session_type_token_hash UNIQUE (session_type, token_hash),
+    CONSTRAINT fk_gsp_session_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT chk_gsp_session_type
+        CHECK (session_type IN ('EWAY_BILL', 'EINVOICE'))
+);
+
+-- Expired-session sweep deletes in batches ordered by expiry
+CREATE INDEX idx_gsp_session_expires_at
+    ON gsp_session(expires_at);
+
+-- Invalidate all sessions of a tenant when its credentials change
+CREATE INDEX idx_gsp_session_type_tenant_id
+    ON gsp_session(session_type, tenant_id);
+
+COMMENT ON TABLE gsp_session IS 'GSP E-Way Bill and E-Invoice sessions shared by all application instances';
+COMMENT ON COLUMN gsp_session.token_hash IS 'SHA-256 of the session token; the token itself is never stored';
+COMMENT ON COLUMN gsp_session.password_encrypted IS 'Portal password encrypted with the application master key';
+COMMENT ON COLUMN gsp_session.gsp_auth_token_encrypted IS 'GSP auth token encrypted with the application master key';
+COMMENT ON COLUMN gsp_session.token_expires_at IS 'Expiry of the GSP auth token held by the session';
+
+COMMIT;
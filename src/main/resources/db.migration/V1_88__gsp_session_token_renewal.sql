@@ -0,0 +1,20 @@
+-- Migration: Background renewal of GSP auth tokens
+-- Version: V1_88
+-- Description: Record the GSP server each session authenticated against and a renewal lease so
+--              that exactly one instance renews a session's auth token before it expires
+
+BEGIN;
+
+ALTER TABLE gsp_session
+    ADD COLUMN gsp_server_id VARCHAR(100),
+    ADD COLUMN renewal_claimed_until TIMESTAMP WITHOUT TIME ZONE;
+
+-- Renewal scheduler scans sessions by upcoming token expiry
+CREATE INDEX idx_gsp_session_token_expires_at
+    ON gsp_session(session_type, token_expires_at)
+    WHERE gsp_server_id IS NOT NULL;
+
+COMMENT ON COLUMN gsp_session.gsp_server_id IS 'GSP server the session authenticated against; renewals use the same server';
+COMMENT ON COLUMN gsp_session.renewal_claimed_until IS 'Lease held by the instance currently renewing the auth token';
+
+COMMIT;
@@ -0,0 +1,77 @@
+-- Migration: Persistent queue for asynchronous GSP calls
+-- Version: V1_89
+-- Description: E-Invoice (IRN) and E-Way Bill generation requests are queued here and sent to GSP
+--              by a background worker pool instead of in the HTTP request thread.
+--              One job exists per tenant and idempotency key (e.g. the IRN for an invoice), so
+--              repeated submissions return the existing job instead of calling GSP twice
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS gsp_job_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE gsp_job (
+    id BIGINT NOT NULL DEFAULT nextval('gsp_job_sequence'),
+    tenant_id BIGINT NOT NULL,
+    job_type VARCHAR(40) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    batch_reference VARCHAR(36),
+    invoice_id BIGINT,
+    delivery_challan_id BIGINT,
+    gsp_server_id VARCHAR(100),
+    session_token_encrypted TEXT,
+    request_payload TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    attempt_count INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP WITHOUT TIME ZONE,
+    result_payload TEXT,
+    last_error TEXT,
+    started_at TIMESTAMP WITHOUT TIME ZONE,
+    completed_at TIMESTAMP WITHOUT TIME ZONE,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_gsp_job PRIMARY KEY (id),
+    CONSTRAINT fk_gsp_job_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT fk_gsp_job_invoice FOREIGN KEY (invoice_id)
+        REFERENCES invoice(id) ON DELETE CASCADE,
+    CONSTRAINT fk_gsp_job_delivery_challan FOREIGN KEY (delivery_challan_id)
+        REFERENCES delivery_challan(id) ON DELETE CASCADE,
+    CONSTRAINT uk_gsp_job_tenant_idempotency_key UNIQUE (tenant_id, idempotency_key),
+    CONSTRAINT chk_gsp_job_type
+        CHECK (job_type IN ('EINVOICE_GENERATE', 'EWAY_BILL_BY_IRN', 'EWAY_BILL_INVOICE', 'EWAY_BILL_CHALLAN')),
+    CONSTRAINT chk_gsp_job_status
+        CHECK (status IN ('QUEUED', 'RUNNING', 'SUCCEEDED', 'FAILED'))
+);
+
+-- Workers only ever scan queued jobs that are due and running jobs whose lease has expired
+CREATE INDEX idx_gsp_job_queued
+    ON gsp_job(next_attempt_at)
+    WHERE status = 'QUEUED';
+
+CREATE INDEX idx_gsp_job_running
+    ON gsp_job(locked_until)
+    WHERE status = 'RUNNING';
+
+CREATE INDEX idx_gsp_job_tenant_batch_reference
+    ON gsp_job(tenant_id, batch_reference)
+    WHERE batch_reference IS NOT NULL;
+
+CREATE INDEX idx_gsp_job_invoice_id ON gsp_job(invoice_id);
+CREATE INDEX idx_gsp_job_delivery_challan_id ON gsp_job(delivery_challan_id);
+
+COMMENT ON TABLE gsp_job IS 'Queued E-Invoice and E-Way Bill GSP calls processed by background workers';
+COMMENT ON COLUMN gsp_job.idempotency_key IS 'Identifies the document operation (e.g. IRN:INVOICE:42); unique per tenant';
+COMMENT ON COLUMN gsp_job.batch_reference IS 'Shared by all jobs submitted in one bulk request';
+COMMENT ON COLUMN gsp_job.session_token_encrypted IS 'GSP session token encrypted with the application master key; cleared once the job finishes';
+COMMENT ON COLUMN gsp_job.request_payload IS 'JSON body sent to GSP';
+COMMENT ON COLUMN gsp_job.locked_until IS 'Lease of the worker running the job; an expired lease makes the job claimable again';
+COMMENT ON COLUMN gsp_job.result_payload IS 'JSON response returned by GSP';
+
+COMMIT;
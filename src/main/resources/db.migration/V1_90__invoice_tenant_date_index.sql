@@ -0,0 +1,12 @@
+-- Migration: Index invoices by tenant and invoice date
+-- Version: V1_90
+-- Description: Partial index for the sales summary report, which scans a tenant's live invoices
+--              in the selected date range (and the current month) in one pass
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_invoice_tenant_invoice_date
+    ON invoice(tenant_id, invoice_date)
+    WHERE deleted = false;
+
+COMMIT;
@@ -0,0 +1,29 @@
+-- Migration: Partial indexes for the challan dashboard statistics
+-- Version: V1_91
+-- Description: Back the status filters of the single-statement challan dashboard query:
+--              live challans by tenant and status, challans still waiting for an E-Way Bill
+--              and dispatch / vendor dispatch batches ready for a challan
+
+BEGIN;
+
+-- Status counters (index-only scan of a tenant's live challans)
+CREATE INDEX IF NOT EXISTS idx_delivery_challan_tenant_status_live
+    ON delivery_challan(tenant_id, status)
+    WHERE deleted = false;
+
+-- GENERATED / DISPATCHED challans without an E-Way Bill number
+CREATE INDEX IF NOT EXISTS idx_delivery_challan_eway_bill_pending
+    ON delivery_challan(tenant_id, total_value)
+    WHERE deleted = false AND eway_bill_number IS NULL AND status IN ('GENERATED', 'DISPATCHED');
+
+-- Dispatch batches ready for a challan or invoice
+CREATE INDEX IF NOT EXISTS idx_dispatch_batch_tenant_ready_to_dispatch
+    ON dispatch_batch(tenant_id)
+    WHERE deleted = false AND dispatch_batch_status = 'READY_TO_DISPATCH';
+
+-- Vendor dispatch batches ready for a challan
+CREATE INDEX IF NOT EXISTS idx_vendor_dispatch_batch_tenant_ready_to_dispatch
+    ON vendor_dispatch_batch(tenant_id)
+    WHERE deleted = false AND vendor_dispatch_batch_status = 'READY_TO_DISPATCH';
+
+COMMIT;
@@ -0,0 +1,48 @@
+-- Migration: Content-addressed document storage
+-- Version: V1_92
+-- Description: Uploaded content is stored once per tenant and SHA-256 hash in document_blob, at a path derived
+--              from the hash. Documents reference their blob and the blob counts its referencing documents;
+--              the file is removed when the last reference goes. Storage quota is charged per blob, so the same
+--              certificate attached to many entities only counts once.
+--              Documents stored before this migration keep their own file (document_blob_id NULL).
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS document_blob_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE document_blob (
+    id BIGINT NOT NULL DEFAULT nextval('document_blob_sequence'),
+    tenant_id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    storage_path VARCHAR(500) NOT NULL,
+    is_compressed BOOLEAN NOT NULL DEFAULT false,
+    original_size_bytes BIGINT NOT NULL CHECK (original_size_bytes >= 0),
+    stored_size_bytes BIGINT NOT NULL CHECK (stored_size_bytes >= 0),
+    reference_count INTEGER NOT NULL DEFAULT 0 CHECK (reference_count >= 0),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_document_blob PRIMARY KEY (id),
+    CONSTRAINT fk_document_blob_tenant FOREIGN KEY (tenant_id) REFERENCES tenant(id),
+    CONSTRAINT uk_document_blob_tenant_content_hash UNIQUE (tenant_id, content_hash)
+);
+
+COMMENT ON TABLE document_blob IS 'Stored document content, shared by all documents of a tenant with the same SHA-256 hash';
+COMMENT ON COLUMN document_blob.storage_path IS 'File system path: {base}/tenants/{tenant_id}/blobs/{hash[0:2]}/{hash}[.gz]';
+COMMENT ON COLUMN document_blob.stored_size_bytes IS 'Size on disk (compressed size when is_compressed), charged to the tenant storage quota once';
+COMMENT ON COLUMN document_blob.reference_count IS 'Number of live documents referencing this blob';
+
+ALTER TABLE document ADD COLUMN document_blob_id BIGINT;
+ALTER TABLE document ADD CONSTRAINT fk_document_document_blob
+    FOREIGN KEY (document_blob_id) REFERENCES document_blob(id);
+
+COMMENT ON COLUMN document.document_blob_id IS 'Shared stored content; NULL for documents stored before content-addressed storage';
+
+CREATE INDEX idx_document_document_blob_id ON document(document_blob_id) WHERE document_blob_id IS NOT NULL;
+
+COMMIT;
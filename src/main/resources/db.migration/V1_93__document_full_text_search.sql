@@ -0,0 +1,30 @@
+-- Migration: Full-text search over documents
+-- Version: V1_93
+-- Description: Stored, weighted tsvector over a document's file name, title (first line of the description),
+--              description and tags with a GIN index for ranked keyword search, plus a GIN index over
+--              metadata values for the metadata filters of the document search
+
+BEGIN;
+
+-- File name and title rank above description, description above tags
+ALTER TABLE document
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(original_file_name, '')), 'A') ||
+        setweight(to_tsvector('english', split_part(COALESCE(description, ''), E'\n', 1)), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B') ||
+        setweight(to_tsvector('english', COALESCE(tags, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_document_search_vector
+    ON document USING gin(search_vector)
+    WHERE deleted = false;
+
+-- Replaced by the stored search vector, no query matched this expression
+DROP INDEX IF EXISTS idx_document_search;
+
+-- Metadata value filter (words of the value, any key)
+CREATE INDEX IF NOT EXISTS idx_document_metadata_value_search
+    ON document_metadata USING gin(to_tsvector('simple', COALESCE(metadata_value, '')))
+    WHERE deleted = false;
+
+COMMIT;
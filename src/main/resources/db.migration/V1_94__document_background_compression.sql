@@ -0,0 +1,57 @@
+-- Migration: Background document compression
+-- Version: V1_94
+-- Description: Uploads are stored as received and compressed afterwards by a background worker, which claims
+--              blobs waiting for compression, tries the candidate codecs and swaps in the best result.
+--              document_compression_stat keeps per tenant, MIME type and codec trial results, from which the
+--              worker learns which codec (if any) is worth trying for each type of file.
+
+BEGIN;
+
+ALTER TABLE document_blob
+    ADD COLUMN mime_type VARCHAR(100),
+    ADD COLUMN compression_status VARCHAR(20) NOT NULL DEFAULT 'NONE'
+        CHECK (compression_status IN ('NONE', 'PENDING', 'RUNNING', 'DONE', 'FAILED')),
+    ADD COLUMN compression_codec VARCHAR(30),
+    ADD COLUMN compression_locked_until TIMESTAMP WITHOUT TIME ZONE;
+
+COMMENT ON COLUMN document_blob.mime_type IS 'MIME type of the upload that created the blob, selects the compression policy';
+COMMENT ON COLUMN document_blob.compression_status IS 'NONE: not a compression candidate, PENDING: waiting for the worker, RUNNING: claimed until compression_locked_until, DONE / FAILED: processed';
+COMMENT ON COLUMN document_blob.compression_codec IS 'Codec of the stored file when is_compressed (GZIP framed, e.g. gzip-6)';
+
+-- Blobs compressed inline before this migration are done
+UPDATE document_blob SET compression_status = 'DONE', compression_codec = 'gzip-6' WHERE is_compressed = true;
+
+-- Worker claim: pending blobs and expired leases
+CREATE INDEX idx_document_blob_compression_queue
+    ON document_blob(id)
+    WHERE compression_status IN ('PENDING', 'RUNNING');
+
+CREATE SEQUENCE IF NOT EXISTS document_compression_stat_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE document_compression_stat (
+    id BIGINT NOT NULL DEFAULT nextval('document_compression_stat_sequence'),
+    tenant_id BIGINT NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    codec VARCHAR(30) NOT NULL,
+    trial_count BIGINT NOT NULL DEFAULT 0,
+    win_count BIGINT NOT NULL DEFAULT 0,
+    original_bytes BIGINT NOT NULL DEFAULT 0,
+    compressed_bytes BIGINT NOT NULL DEFAULT 0,
+    compress_millis BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+
+    CONSTRAINT pk_document_compression_stat PRIMARY KEY (id),
+    CONSTRAINT fk_document_compression_stat_tenant FOREIGN KEY (tenant_id) REFERENCES tenant(id),
+    CONSTRAINT uk_document_compression_stat_tenant_mime_codec UNIQUE (tenant_id, mime_type, codec)
+);
+
+COMMENT ON TABLE document_compression_stat IS 'Background compression trials per tenant, MIME type and codec';
+COMMENT ON COLUMN document_compression_stat.win_count IS 'Trials in which this codec produced the stored file';
+
+COMMIT;
@@ -0,0 +1,37 @@
+-- Migration: Storage quota reservations for uploads
+-- Version: V1_95
+-- Description: An upload reserves its size against the tenant storage quota before any file is written, with a
+--              conditional update (used + reserved + size <= max), so concurrent uploads cannot overshoot the quota.
+--              The reservation is turned into used storage when the upload commits and released when it fails;
+--              reservations left behind by a crashed instance expire and are released by a sweeper.
+
+BEGIN;
+
+ALTER TABLE tenant_storage_quota
+    ADD COLUMN reserved_storage_bytes BIGINT NOT NULL DEFAULT 0 CHECK (reserved_storage_bytes >= 0);
+
+COMMENT ON COLUMN tenant_storage_quota.reserved_storage_bytes IS 'Bytes reserved by uploads in progress, counted against max_storage_bytes';
+
+CREATE SEQUENCE IF NOT EXISTS storage_quota_reservation_sequence
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE storage_quota_reservation (
+    id BIGINT NOT NULL DEFAULT nextval('storage_quota_reservation_sequence'),
+    tenant_id BIGINT NOT NULL,
+    reserved_bytes BIGINT NOT NULL CHECK (reserved_bytes >= 0),
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_storage_quota_reservation PRIMARY KEY (id),
+    CONSTRAINT fk_storage_quota_reservation_tenant FOREIGN KEY (tenant_id) REFERENCES tenant(id)
+);
+
+COMMENT ON TABLE storage_quota_reservation IS 'Open storage quota reservations of uploads in progress; a row is deleted exactly once, by commit, release or the expiry sweeper';
+
+CREATE INDEX idx_storage_quota_reservation_expires_at ON storage_quota_reservation(expires_at);
+
+COMMIT;
@@ -0,0 +1,21 @@
+-- Migration: Grace period for files replaced by compression
+-- Version: V1_96
+-- Description: When the compression worker swaps in a compressed file, the uncompressed file it replaces is kept
+--              until replaced_file_delete_after, so downloads and archives that loaded the document before the swap
+--              can still open it. A periodic sweep deletes replaced files that are due.
+
+BEGIN;
+
+ALTER TABLE document_blob
+    ADD COLUMN replaced_storage_path VARCHAR(500),
+    ADD COLUMN replaced_file_delete_after TIMESTAMP WITHOUT TIME ZONE;
+
+COMMENT ON COLUMN document_blob.replaced_storage_path IS 'File replaced by the compressed file, kept for readers that resolved the old path';
+COMMENT ON COLUMN document_blob.replaced_file_delete_after IS 'When the replaced file may be deleted';
+
+-- Sweep of replaced files that are due
+CREATE INDEX idx_document_blob_replaced_file
+    ON document_blob(replaced_file_delete_after)
+    WHERE replaced_storage_path IS NOT NULL;
+
+COMMIT;
@@ -0,0 +1,16 @@
+-- Migration: Optimistic locking for GSP jobs
+-- Version: V1_97
+-- Description: updated_at becomes the version column of gsp_job. Claims already set it, so a worker whose lease
+--              expired while it was calling GSP can no longer overwrite a job that was claimed again.
+
+BEGIN;
+
+UPDATE gsp_job SET updated_at = created_at WHERE updated_at IS NULL;
+
+ALTER TABLE gsp_job
+    ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP,
+    ALTER COLUMN updated_at SET NOT NULL;
+
+COMMENT ON COLUMN gsp_job.updated_at IS 'Version column: set by every claim and every write of the job';
+
+COMMIT;
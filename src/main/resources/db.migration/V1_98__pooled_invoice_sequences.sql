@@ -0,0 +1,17 @@
+-- Migration: Pooled id sequences for invoice batch writes
+-- Version: V1_98
+-- Description: Step invoice sequences by 50 so Hibernate can hand out ids from a pooled block and group the
+--              inserts of bulk invoice generation (invoices, line items, dispatch batch links) into JDBC batches.
+--              Must match allocationSize on the corresponding @SequenceGenerator mappings.
+
+BEGIN;
+
+ALTER SEQUENCE invoice_sequence INCREMENT BY 50;
+ALTER SEQUENCE invoice_line_item_sequence INCREMENT BY 50;
+ALTER SEQUENCE invoice_dispatch_batch_sequence INCREMENT BY 50;
+
+COMMENT ON SEQUENCE invoice_sequence IS 'Pooled (allocationSize = 50) id sequence for invoice';
+COMMENT ON SEQUENCE invoice_line_item_sequence IS 'Pooled (allocationSize = 50) id sequence for invoice_line_item';
+COMMENT ON SEQUENCE invoice_dispatch_batch_sequence IS 'Pooled (allocationSize = 50) id sequence for invoice_dispatch_batch';
+
+COMMIT;
@@ -0,0 +1,43 @@
+-- Migration: Key document compression statistics by base MIME type
+-- Version: V1_99
+-- Description: The MIME type of a blob is the uploading client's Content-Type. Statistics are now kept per base
+--              type (parameters dropped), and types outside fopmas.documents.compression.stat-mime-types share the
+--              'other' key. Existing rows are merged into those keys, using the default list of types.
+
+BEGIN;
+
+CREATE TEMPORARY TABLE merged_document_compression_stat ON COMMIT DROP AS
+SELECT tenant_id,
+       CASE WHEN base_type IN ('application/pdf',
+                               'application/msword',
+                               'application/vnd.openxmlformats-officedocument.wordprocessingml.document',
+                               'application/vnd.ms-excel',
+                               'application/vnd.openxmlformats-officedocument.spreadsheetml.sheet',
+                               'image/jpeg',
+                               'image/png',
+                               'image/gif',
+                               'image/svg+xml')
+            THEN base_type ELSE 'other' END AS mime_type,
+       codec,
+       SUM(trial_count) AS trial_count,
+       SUM(win_count) AS win_count,
+       SUM(original_bytes) AS original_bytes,
+       SUM(compressed_bytes) AS compressed_bytes,
+       SUM(compress_millis) AS compress_millis,
+       MIN(created_at) AS created_at,
+       MAX(updated_at) AS updated_at
+FROM (SELECT s.*, LOWER(TRIM(SPLIT_PART(s.mime_type, ';', 1))) AS base_type
+      FROM document_compression_stat s) stat
+GROUP BY 1, 2, 3;
+
+DELETE FROM document_compression_stat;
+
+INSERT INTO document_compression_stat (tenant_id, mime_type, codec, trial_count, win_count,
+                                       original_bytes, compressed_bytes, compress_millis, created_at, updated_at)
+SELECT tenant_id, mime_type, codec, trial_count, win_count,
+       original_bytes, compressed_bytes, compress_millis, created_at, updated_at
+FROM merged_document_compression_stat;
+
+COMMENT ON COLUMN document_compression_stat.mime_type IS 'Base MIME type of the blob, or other for types not tracked separately';
+
+COMMIT;
@@ -0,0 +1,30 @@
+-- Rollback: Drop vendor stock ledger and balance tables
+-- Version: V1_RB_84
+-- Description: Rollback script to remove vendor_stock_movement and vendor_stock_balance
+
+-- ============================================================================
+-- Part 1: Drop vendor_stock_balance
+-- ============================================================================
+
+DROP INDEX IF EXISTS idx_vendor_stock_balance_tenant_vendor;
+DROP INDEX IF EXISTS uk_vendor_stock_balance_key;
+DROP TABLE IF EXISTS vendor_stock_balance CASCADE;
+DROP SEQUENCE IF EXISTS vendor_stock_balance_sequence;
+
+-- ============================================================================
+-- Part 2: Drop vendor_stock_movement
+-- ============================================================================
+
+DROP TRIGGER IF EXISTS trg_vendor_stock_movement_append_only ON vendor_stock_movement;
+DROP FUNCTION IF EXISTS prevent_vendor_stock_movement_mutation();
+
+DROP INDEX IF EXISTS idx_vendor_stock_movement_reference;
+DROP INDEX IF EXISTS idx_vendor_stock_movement_tenant_id;
+DROP INDEX IF EXISTS idx_vendor_stock_movement_balance_key;
+DROP TABLE IF EXISTS vendor_stock_movement CASCADE;
+DROP SEQUENCE IF EXISTS vendor_stock_movement_sequence;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_84: vendor stock ledger and balance tables dropped successfully';
+END $$;
@@ -0,0 +1,17 @@
+-- Rollback: Restore single-step vendor inventory sequences
+-- Version: V1_RB_85
+-- Description: Rollback script to step vendor inventory sequences by 1 again.
+--              Entity allocationSize must be reverted to 1 together with this script.
+
+ALTER SEQUENCE vendor_stock_movement_sequence INCREMENT BY 1;
+ALTER SEQUENCE vendor_inventory_transaction_items_sequence INCREMENT BY 1;
+ALTER SEQUENCE vendor_inventory_sequence INCREMENT BY 1;
+
+COMMENT ON SEQUENCE vendor_stock_movement_sequence IS NULL;
+COMMENT ON SEQUENCE vendor_inventory_transaction_items_sequence IS NULL;
+COMMENT ON SEQUENCE vendor_inventory_sequence IS NULL;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_85: vendor inventory sequences restored to INCREMENT BY 1';
+END $$;
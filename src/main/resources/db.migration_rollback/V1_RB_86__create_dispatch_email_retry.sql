@@ -0,0 +1,13 @@
+-- Rollback: Drop dispatch email retry queue
+-- Version: V1_RB_86
+-- Description: Rollback script to remove dispatch_email_retry
+
+DROP INDEX IF EXISTS idx_dispatch_email_retry_tenant_id;
+DROP INDEX IF EXISTS idx_dispatch_email_retry_due;
+DROP TABLE IF EXISTS dispatch_email_retry CASCADE;
+DROP SEQUENCE IF EXISTS dispatch_email_retry_sequence;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_86: dispatch_email_retry dropped successfully';
+END $$;
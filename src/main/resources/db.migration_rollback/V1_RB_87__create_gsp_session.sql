@@ -0,0 +1,13 @@
+-- Rollback: Drop shared GSP session store
+-- Version: V1_RB_87
+-- Description: Rollback script to remove gsp_session
+
+DROP INDEX IF EXISTS idx_gsp_session_type_tenant_id;
+DROP INDEX IF EXISTS idx_gsp_session_expires_at;
+DROP TABLE IF EXISTS gsp_session CASCADE;
+DROP SEQUENCE IF EXISTS gsp_session_sequence;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_87: gsp_session dropped successfully';
+END $$;
@@ -0,0 +1,14 @@
+-- Rollback: Remove GSP token renewal columns
+-- Version: V1_RB_88
+-- Description: Rollback script to remove renewal columns from gsp_session
+
+DROP INDEX IF EXISTS idx_gsp_session_token_expires_at;
+
+ALTER TABLE gsp_session
+    DROP COLUMN IF EXISTS renewal_claimed_until,
+    DROP COLUMN IF EXISTS gsp_server_id;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_88: gsp_session renewal columns dropped successfully';
+END $$;
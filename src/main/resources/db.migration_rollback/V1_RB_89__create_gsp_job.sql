@@ -0,0 +1,16 @@
+-- Rollback: Drop asynchronous GSP job queue
+-- Version: V1_RB_89
+-- Description: Rollback script to remove gsp_job
+
+DROP INDEX IF EXISTS idx_gsp_job_delivery_challan_id;
+DROP INDEX IF EXISTS idx_gsp_job_invoice_id;
+DROP INDEX IF EXISTS idx_gsp_job_tenant_batch_reference;
+DROP INDEX IF EXISTS idx_gsp_job_running;
+DROP INDEX IF EXISTS idx_gsp_job_queued;
+DROP TABLE IF EXISTS gsp_job CASCADE;
+DROP SEQUENCE IF EXISTS gsp_job_sequence;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_89: gsp_job dropped successfully';
+END $$;
@@ -0,0 +1,10 @@
+-- Rollback: Remove invoice tenant/date index
+-- Version: V1_RB_90
+-- Description: Rollback script to drop the partial invoice(tenant_id, invoice_date) index
+
+DROP INDEX IF EXISTS idx_invoice_tenant_invoice_date;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_90: idx_invoice_tenant_invoice_date dropped successfully';
+END $$;
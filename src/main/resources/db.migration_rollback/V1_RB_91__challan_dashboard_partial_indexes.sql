@@ -0,0 +1,13 @@
+-- Rollback: Remove challan dashboard partial indexes
+-- Version: V1_RB_91
+-- Description: Rollback script to drop the partial indexes added for the challan dashboard statistics
+
+DROP INDEX IF EXISTS idx_vendor_dispatch_batch_tenant_ready_to_dispatch;
+DROP INDEX IF EXISTS idx_dispatch_batch_tenant_ready_to_dispatch;
+DROP INDEX IF EXISTS idx_delivery_challan_eway_bill_pending;
+DROP INDEX IF EXISTS idx_delivery_challan_tenant_status_live;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_91: challan dashboard partial indexes dropped successfully';
+END $$;
@@ -0,0 +1,16 @@
+-- Rollback: Remove content-addressed document storage
+-- Version: V1_RB_92
+-- Description: Rollback script to remove document_blob and document.document_blob_id.
+--              Documents keep their file_path, which points at the blob file, so they stay readable;
+--              deleting such a document afterwards removes the shared file for all documents using it.
+
+DROP INDEX IF EXISTS idx_document_document_blob_id;
+ALTER TABLE document DROP CONSTRAINT IF EXISTS fk_document_document_blob;
+ALTER TABLE document DROP COLUMN IF EXISTS document_blob_id;
+DROP TABLE IF EXISTS document_blob CASCADE;
+DROP SEQUENCE IF EXISTS document_blob_sequence;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_92: document_blob dropped successfully';
+END $$;
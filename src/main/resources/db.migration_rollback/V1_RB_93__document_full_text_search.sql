@@ -0,0 +1,15 @@
+-- Rollback: Remove full-text search over documents
+-- Version: V1_RB_93
+-- Description: Rollback script to drop the document search vector and its indexes and restore the previous search index
+
+DROP INDEX IF EXISTS idx_document_metadata_value_search;
+DROP INDEX IF EXISTS idx_document_search_vector;
+
+ALTER TABLE document DROP COLUMN IF EXISTS search_vector;
+
+CREATE INDEX IF NOT EXISTS idx_document_search ON document USING gin(to_tsvector('english', original_file_name || ' ' || COALESCE(description, '') || ' ' || COALESCE(tags, ''))) WHERE deleted = false;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_93: document full-text search column and indexes dropped successfully';
+END $$;
@@ -0,0 +1,19 @@
+-- Rollback: Remove background document compression
+-- Version: V1_RB_94
+-- Description: Rollback script to drop the compression statistics and the compression columns of document_blob
+
+DROP TABLE IF EXISTS document_compression_stat;
+DROP SEQUENCE IF EXISTS document_compression_stat_sequence;
+
+DROP INDEX IF EXISTS idx_document_blob_compression_queue;
+
+ALTER TABLE document_blob
+    DROP COLUMN IF EXISTS compression_locked_until,
+    DROP COLUMN IF EXISTS compression_codec,
+    DROP COLUMN IF EXISTS compression_status,
+    DROP COLUMN IF EXISTS mime_type;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_94: background document compression columns and statistics dropped successfully';
+END $$;
@@ -0,0 +1,13 @@
+-- Rollback: Remove storage quota reservations
+-- Version: V1_RB_95
+-- Description: Rollback script to drop the storage quota reservations and the reserved storage column
+
+DROP TABLE IF EXISTS storage_quota_reservation;
+DROP SEQUENCE IF EXISTS storage_quota_reservation_sequence;
+
+ALTER TABLE tenant_storage_quota DROP COLUMN IF EXISTS reserved_storage_bytes;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_95: storage quota reservations dropped successfully';
+END $$;
@@ -0,0 +1,14 @@
+-- Rollback: Remove grace period for files replaced by compression
+-- Version: V1_RB_96
+-- Description: Rollback script to drop the replaced file columns of document_blob
+
+DROP INDEX IF EXISTS idx_document_blob_replaced_file;
+
+ALTER TABLE document_blob
+    DROP COLUMN IF EXISTS replaced_file_delete_after,
+    DROP COLUMN IF EXISTS replaced_storage_path;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_96: replaced file columns of document_blob dropped successfully';
+END $$;
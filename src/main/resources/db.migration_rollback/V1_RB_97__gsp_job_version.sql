@@ -0,0 +1,14 @@
+-- Rollback: Remove optimistic locking for GSP jobs
+-- Version: V1_RB_97
+-- Description: Rollback script to make gsp_job.updated_at nullable again
+
+ALTER TABLE gsp_job
+    ALTER COLUMN updated_at DROP NOT NULL,
+    ALTER COLUMN updated_at DROP DEFAULT;
+
+COMMENT ON COLUMN gsp_job.updated_at IS NULL;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_97: gsp_job.updated_at is nullable again';
+END $$;
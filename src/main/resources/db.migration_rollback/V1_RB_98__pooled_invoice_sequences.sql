@@ -0,0 +1,17 @@
+-- Rollback: Restore single-step invoice sequences
+-- Version: V1_RB_98
+-- Description: Rollback script to step invoice sequences by 1 again.
+--              Entity allocationSize must be reverted to 1 together with this script.
+
+ALTER SEQUENCE invoice_dispatch_batch_sequence INCREMENT BY 1;
+ALTER SEQUENCE invoice_line_item_sequence INCREMENT BY 1;
+ALTER SEQUENCE invoice_sequence INCREMENT BY 1;
+
+COMMENT ON SEQUENCE invoice_dispatch_batch_sequence IS NULL;
+COMMENT ON SEQUENCE invoice_line_item_sequence IS NULL;
+COMMENT ON SEQUENCE invoice_sequence IS NULL;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_98: invoice sequences restored to INCREMENT BY 1';
+END $$;
@@ -0,0 +1,11 @@
+-- Rollback: Key document compression statistics by base MIME type
+-- Version: V1_RB_99
+-- Description: Rollback script for V1_99. Merged statistics cannot be split by their original Content-Type again;
+--              they stay under their base type, where the previous code keeps counting trials of the same key.
+
+COMMENT ON COLUMN document_compression_stat.mime_type IS NULL;
+
+DO $$
+BEGIN
+    RAISE NOTICE 'Rollback V1_99: merged document_compression_stat rows are kept';
+END $$;
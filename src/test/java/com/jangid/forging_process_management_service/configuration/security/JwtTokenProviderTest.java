@@ -0,0 +1,153 @@
+package com.jangid.forging_process_management_service.configuration.security;
+
+import com.jangid.forging_process_management_service.service.TenantService;
+import com.jangid.forging_process_management_service.service.security.UserService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Requests through the JWT authentication and tenant authorization filters, as chained in SecurityConfig: the bearer
+ * token's signature is checked at most once per request, and once per token while it is cached.
+ */
+class JwtTokenProviderTest {
+
+  private static final int REQUESTS = 10_000;
+
+  private final Key secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+  private final TenantService tenantService = mock(TenantService.class);
+  private final List<TenantContextHolder> tenantContexts = new ArrayList<>();
+  private JwtTokenProvider tokenProvider;
+  private JwtAuthenticationFilter jwtAuthenticationFilter;
+  private TenantAuthorizationFilter tenantAuthorizationFilter;
+
+  @BeforeEach
+  void setUp() {
+    UserService userService = mock(UserService.class);
+    when(userService.getSecretKey()).thenReturn(secretKey);
+    tokenProvider = spy(new JwtTokenProvider(userService, 100));
+    jwtAuthenticationFilter = new JwtAuthenticationFilter(tokenProvider);
+    tenantAuthorizationFilter = new TenantAuthorizationFilter(tokenProvider, tenantService);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void requestVerifiesTokenSignatureOnce() throws Exception {
+    String token = token("alice", "acme", 7L);
+
+    filter(token);
+
+    verify(tokenProvider, times(1)).parseClaims(token);
+    assertEquals(1, tenantContexts.size());
+    assertEquals(7L, tenantContexts.get(0).getTenantId());
+    assertEquals("acme", tenantContexts.get(0).getTenantName());
+    assertEquals("alice", tenantContexts.get(0).getUsername());
+  }
+
+  @Test
+  void rejectedTokenIsVerifiedOncePerRequest() throws Exception {
+    String token = token("alice", "acme", 7L) + "x";
+
+    filter(token);
+
+    verify(tokenProvider, times(1)).parseClaims(token);
+    assertNull(tenantContexts.get(0));
+  }
+
+  @Test
+  void requestWithoutTokenVerifiesNothing() throws Exception {
+    filter(null);
+
+    verify(tokenProvider, never()).parseClaims(anyString());
+    assertNull(tenantContexts.get(0));
+  }
+
+  @Test
+  void legacyTokenResolvesTenantByName() throws Exception {
+    when(tenantService.getTenantIdByTenantName("acme")).thenReturn(7L);
+    String token = token("alice", "acme", null);
+
+    filter(token);
+
+    verify(tokenProvider, times(1)).parseClaims(token);
+    assertEquals(7L, tenantContexts.get(0).getTenantId());
+  }
+
+  /**
+   * Stands in for a JMH benchmark of the filter chain, which is not part of the build: what it would show is the
+   * signature check leaving the per-request cost, so the test counts the checks over many requests instead.
+   */
+  @Test
+  void repeatedRequestsWithSameTokenVerifyItOnce() throws Exception {
+    String token = token("alice", "acme", 7L);
+    String otherToken = token("bob", "acme", 7L);
+
+    for (int i = 0; i < REQUESTS; i++) {
+      filter(i % 2 == 0 ? token : otherToken);
+    }
+
+    verify(tokenProvider, times(1)).parseClaims(token);
+    verify(tokenProvider, times(1)).parseClaims(otherToken);
+    assertEquals(REQUESTS, tenantContexts.stream().filter(context -> context.getTenantId() == 7L).count());
+  }
+
+  private void filter(String token) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tenants/7/documents");
+    if (token != null) {
+      request.addHeader("Authorization", "Bearer " + token);
+    }
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse resp) {
+        tenantContexts.add(TenantContextHolder.getContext());
+      }
+    };
+    new MockFilterChain(servlet, jwtAuthenticationFilter, tenantAuthorizationFilter)
+        .doFilter(request, new MockHttpServletResponse());
+    SecurityContextHolder.clearContext();
+  }
+
+  private String token(String username, String tenantName, Long tenantId) {
+    var builder = Jwts.builder()
+        .setSubject(username)
+        .claim("tenant", tenantName)
+        .setIssuedAt(new Date())
+        .setExpiration(new Date(System.currentTimeMillis() + 3_600_000));
+    if (tenantId != null) {
+      builder.claim("tenantId", tenantId);
+    }
+    return builder.signWith(secretKey).compact();
+  }
+}
@@ -0,0 +1,96 @@
+package com.jangid.forging_process_management_service.service;
+
+import com.jangid.forging_process_management_service.entities.Tenant;
+import com.jangid.forging_process_management_service.repositories.TenantRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * getTenantById queries the tenant once; while the lookup cache knows it, callers with a persistence context get a
+ * reference instead, without a query.
+ */
+class TenantServiceTest {
+
+  private static final long TENANT_ID = 5L;
+
+  private final TenantRepository tenantRepository = mock(TenantRepository.class);
+  private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+  private final EntityManager entityManager = mock(EntityManager.class);
+  private final Tenant tenant = Tenant.builder().id(TENANT_ID).tenantName("acme").build();
+  private final Tenant reference = Tenant.builder().id(TENANT_ID).build();
+  private TenantService tenantService;
+
+  @BeforeEach
+  void setUp() {
+    tenantService = new TenantService(tenantRepository, entityManagerFactory, new SimpleMeterRegistry(), 100, 600);
+    when(tenantRepository.findByIdAndDeletedFalse(TENANT_ID)).thenReturn(Optional.of(tenant));
+    when(entityManager.getReference(Tenant.class, TENANT_ID)).thenReturn(reference);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+      TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+    }
+  }
+
+  @Test
+  void knownTenantIsReturnedAsReferenceWithinPersistenceContext() {
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+    assertSame(tenant, tenantService.getTenantById(TENANT_ID));
+    for (int i = 0; i < 10; i++) {
+      assertSame(reference, tenantService.getTenantById(TENANT_ID));
+    }
+
+    verify(tenantRepository, times(1)).findByIdAndDeletedFalse(TENANT_ID);
+  }
+
+  @Test
+  void tenantIsLoadedWithoutPersistenceContext() {
+    assertSame(tenant, tenantService.getTenantById(TENANT_ID));
+    assertSame(tenant, tenantService.getTenantById(TENANT_ID));
+
+    verify(tenantRepository, times(2)).findByIdAndDeletedFalse(TENANT_ID);
+    verify(entityManager, never()).getReference(Tenant.class, TENANT_ID);
+  }
+
+  @Test
+  void tenantResolvedByNameIsReturnedAsReference() {
+    when(tenantRepository.findByTenantNameAndDeletedFalse("acme")).thenReturn(Optional.of(tenant));
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+    assertEquals(TENANT_ID, tenantService.getTenantIdByTenantName("acme"));
+    assertSame(reference, tenantService.getTenantById(TENANT_ID));
+
+    verify(tenantRepository, never()).findByIdAndDeletedFalse(anyLong());
+  }
+
+  @Test
+  void unknownTenantIsNotFound() {
+    TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+    assertThrows(RuntimeException.class, () -> tenantService.getTenantById(6L));
+    verify(entityManager, never()).getReference(Tenant.class, 6L);
+  }
+}
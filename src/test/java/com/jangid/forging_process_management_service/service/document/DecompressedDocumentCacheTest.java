@@ -0,0 +1,74 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * A copy handed out by the cache stays readable, range after range, when its entry is evicted before the download
+ * has read it.
+ */
+class DecompressedDocumentCacheTest {
+
+  private static final long TENANT_ID = 3L;
+  private static final int ENTRY_SIZE = 64 * 1024;
+
+  @TempDir
+  Path basePath;
+
+  @Test
+  void openCopySurvivesEvictionOfItsEntry() throws Exception {
+    DecompressedDocumentCache cache = new DecompressedDocumentCache(basePath.toString(), ENTRY_SIZE);
+    byte[] first = content(1);
+
+    try (DecompressedDocumentCache.OpenCopy cached = cache.open(TENANT_ID, "first", () -> new ByteArrayInputStream(first));
+         DecompressedDocumentCache.OpenCopy hit = cache.open(TENANT_ID, "first", () -> {
+           throw new AssertionError("cached entry written again");
+         })) {
+      // Pushes the cache over its limit, evicting the first entry
+      cache.open(TENANT_ID, "second", () -> new ByteArrayInputStream(content(2))).close();
+      assertFalse(Files.exists(basePath.resolve("cache").resolve("decompressed").resolve(TENANT_ID + "-first")));
+
+      assertEquals(ENTRY_SIZE, hit.contentLength());
+      assertArrayEquals(Arrays.copyOfRange(first, 100, 200), range(hit, 100, 100));
+      assertArrayEquals(Arrays.copyOfRange(first, ENTRY_SIZE - 10, ENTRY_SIZE), range(hit, ENTRY_SIZE - 10, 10));
+      assertArrayEquals(first, cached.getInputStream().readAllBytes());
+    }
+  }
+
+  @Test
+  void evictedEntryIsWrittenAgainOnNextOpen() throws Exception {
+    DecompressedDocumentCache cache = new DecompressedDocumentCache(basePath.toString(), ENTRY_SIZE);
+    byte[] first = content(1);
+    cache.open(TENANT_ID, "first", () -> new ByteArrayInputStream(first)).close();
+    cache.open(TENANT_ID, "second", () -> new ByteArrayInputStream(content(2))).close();
+
+    try (DecompressedDocumentCache.OpenCopy copy = cache.open(TENANT_ID, "first", () -> new ByteArrayInputStream(first))) {
+      assertArrayEquals(first, copy.getInputStream().readAllBytes());
+    }
+  }
+
+  private static byte[] range(DecompressedDocumentCache.OpenCopy copy, long position, int length) throws Exception {
+    try (InputStream in = copy.getInputStream()) {
+      assertEquals(position, in.skip(position));
+      return in.readNBytes(length);
+    }
+  }
+
+  private static byte[] content(int seed) {
+    byte[] content = new byte[ENTRY_SIZE];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31 + seed);
+    }
+    return content;
+  }
+}
@@ -0,0 +1,195 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.entities.Tenant;
+import com.jangid.forging_process_management_service.entities.document.DocumentBlob;
+import com.jangid.forging_process_management_service.repositories.document.DocumentBlobRepository;
+import com.jangid.forging_process_management_service.repositories.document.DocumentMetadataRepository;
+import com.jangid.forging_process_management_service.repositories.document.DocumentRepository;
+import com.jangid.forging_process_management_service.repositories.document.TenantStorageQuotaRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads of 1 to 20 MB are stored in one pass over the upload stream, written to disk once, and with heap use that
+ * does not grow with the upload size, and a rolled back upload leaves no blob file behind. Runs on the real file
+ * system with the repositories mocked.
+ */
+class DocumentBlobStoreTest {
+
+  private static final long TENANT_ID = 42L;
+  private static final int MB = 1024 * 1024;
+  private static final long MAX_ALLOCATED_BYTES_PER_UPLOAD = 2L * MB;
+
+  @TempDir
+  Path basePath;
+
+  private final DocumentBlobRepository documentBlobRepository = mock(DocumentBlobRepository.class);
+  private final StorageQuotaReservationService quotaReservations = mock(StorageQuotaReservationService.class);
+  private DocumentBlobStore blobStore;
+  private Tenant tenant;
+
+  @BeforeEach
+  void setUp() {
+    blobStore = new DocumentBlobStore(documentBlobRepository, mock(DocumentRepository.class),
+                                      mock(DocumentMetadataRepository.class), mock(TenantStorageQuotaRepository.class),
+                                      quotaReservations);
+    ReflectionTestUtils.setField(blobStore, "basePath", basePath.toString());
+    tenant = Tenant.builder().id(TENANT_ID).build();
+
+    when(documentBlobRepository.insertIfAbsent(eq(TENANT_ID), anyString(), anyString(), anyLong(), any(), anyString()))
+        .thenReturn(1);
+    when(documentBlobRepository.findByTenantIdAndContentHashForUpdate(eq(TENANT_ID), anyString()))
+        .thenAnswer(invocation -> Optional.of(DocumentBlob.builder()
+                                                  .id(1L)
+                                                  .tenant(tenant)
+                                                  .contentHash(invocation.getArgument(1))
+                                                  .storedSizeBytes(0L)
+                                                  .build()));
+    when(documentBlobRepository.save(any(DocumentBlob.class))).then(returnsFirstArg());
+    when(quotaReservations.chargeReservation(eq(TENANT_ID), anyLong())).thenReturn(true);
+  }
+
+  @Test
+  void storesUploadsOfOneToTwentyMegabytesInOnePass() throws Exception {
+    for (int sizeMb : new int[]{1, 5, 20}) {
+      long size = (long) sizeMb * MB;
+      GeneratedContent upload = new GeneratedContent(size, sizeMb);
+
+      DocumentBlob blob = blobStore.store(tenant, upload, "application/pdf", true);
+
+      assertEquals(size, upload.bytesRead, "upload bytes read for " + sizeMb + " MB");
+      assertEquals(1, upload.endOfStreamReads, "upload read to its end once for " + sizeMb + " MB");
+      assertEquals(sha256(new GeneratedContent(size, sizeMb)), blob.getContentHash());
+
+      assertEquals(size, Files.size(blobFile(blob)));
+      assertEquals(0, stagingFileCount(), "staging files left for " + sizeMb + " MB");
+    }
+  }
+
+  @Test
+  void heapUseDoesNotGrowWithUploadSize() throws Exception {
+    // Warm up class loading, logging and the mocks so they are not counted
+    blobStore.store(tenant, new GeneratedContent(MB, 0), "application/pdf", true);
+
+    for (int sizeMb : new int[]{1, 5, 20}) {
+      GeneratedContent upload = new GeneratedContent((long) sizeMb * MB, sizeMb + 100);
+      long allocated = allocatedBytes(() -> blobStore.store(tenant, upload, "application/pdf", true));
+      assertTrue(allocated < MAX_ALLOCATED_BYTES_PER_UPLOAD,
+                 sizeMb + " MB upload allocated " + allocated + " bytes on the heap");
+    }
+  }
+
+  @Test
+  void rollbackDeletesNewlyStoredBlobFile() throws Exception {
+    TransactionSynchronizationManager.initSynchronization();
+    Path stored;
+    try {
+      stored = blobFile(blobStore.store(tenant, new GeneratedContent(MB, 7), "application/pdf", true));
+      assertTrue(Files.exists(stored));
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertFalse(Files.exists(stored), "blob file left behind by the rolled back upload");
+  }
+
+  private Path blobFile(DocumentBlob blob) {
+    return basePath.resolve("tenants").resolve(String.valueOf(TENANT_ID)).resolve("blobs")
+        .resolve(blob.getContentHash().substring(0, 2)).resolve(blob.getContentHash());
+  }
+
+  private long stagingFileCount() throws IOException {
+    Path stagingDir = basePath.resolve("tenants").resolve(String.valueOf(TENANT_ID)).resolve("blobs").resolve("staging");
+    try (Stream<Path> files = Files.list(stagingDir)) {
+      return files.count();
+    }
+  }
+
+  private static long allocatedBytes(ThrowingRunnable action) throws Exception {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    action.run();
+    return threads.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  private static String sha256(InputStream content) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    byte[] buffer = new byte[64 * 1024];
+    for (int read; (read = content.read(buffer)) != -1; ) {
+      digest.update(buffer, 0, read);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+
+  /**
+   * Pseudo-random upload content generated as it is read, so the test itself holds none of it in memory.
+   * Counts the bytes handed out and the reads that hit the end of the stream.
+   */
+  private static final class GeneratedContent extends InputStream {
+
+    private final long size;
+    private long state;
+    private long bytesRead;
+    private int endOfStreamReads;
+
+    private GeneratedContent(long size, long seed) {
+      this.size = size;
+      this.state = seed * 0x9E3779B97F4A7C15L + 1;
+    }
+
+    @Override
+    public int read() {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (bytesRead >= size) {
+        endOfStreamReads++;
+        return -1;
+      }
+      int count = (int) Math.min(length, size - bytesRead);
+      for (int i = 0; i < count; i++) {
+        state = state * 6364136223846793005L + 1442695040888963407L;
+        buffer[offset + i] = (byte) (state >>> 56);
+      }
+      bytesRead += count;
+      return count;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.jangid.forging_process_management_service.service.document;
+
+import com.jangid.forging_process_management_service.repositories.document.DocumentCompressionStatRepository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compression statistics and metrics are keyed by a bounded set of MIME types, whatever Content-Type clients send.
+ */
+class DocumentCompressionPolicyTest {
+
+  private final DocumentCompressionPolicy policy = new DocumentCompressionPolicy(
+      mock(DocumentCompressionStatRepository.class), "1,6,9", 20, 0.1, "application/pdf, image/SVG+xml");
+
+  @Test
+  void statMimeTypeDropsParametersAndCase() {
+    assertEquals("application/pdf", policy.statMimeType("application/pdf"));
+    assertEquals("application/pdf", policy.statMimeType("Application/PDF; name=\"invoice.pdf\""));
+    assertEquals("image/svg+xml", policy.statMimeType(" image/svg+xml ;charset=utf-8"));
+  }
+
+  @Test
+  void statMimeTypeBucketsMissingAndUnlistedTypes() {
+    assertEquals(DocumentCompressionPolicy.OTHER_MIME_TYPE, policy.statMimeType(null));
+    assertEquals(DocumentCompressionPolicy.OTHER_MIME_TYPE, policy.statMimeType(""));
+    assertEquals(DocumentCompressionPolicy.OTHER_MIME_TYPE, policy.statMimeType("text/plain"));
+    assertEquals(DocumentCompressionPolicy.OTHER_MIME_TYPE, policy.statMimeType("application/x-" + System.nanoTime()));
+  }
+}
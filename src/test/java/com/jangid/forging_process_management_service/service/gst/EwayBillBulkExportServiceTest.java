@@ -0,0 +1,112 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillBulkExportRequest;
+import com.jangid.forging_process_management_service.dto.gst.EwayBillData;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The rendered export reports the documents actually written: ids that are not exportable and
+ * documents that fail to map are counted as skipped, not as exported.
+ */
+class EwayBillBulkExportServiceTest {
+
+  private static final Long TENANT_ID = 7L;
+
+  private final EwayBillExportService ewayBillExportService = mock(EwayBillExportService.class);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final EwayBillBulkExportService bulkExportService =
+      new EwayBillBulkExportService(ewayBillExportService, objectMapper, 2, 100);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void bulkJsonCountsOnlyWrittenDocuments() throws Exception {
+    when(ewayBillExportService.findExportableInvoiceIds(eq(TENANT_ID), any(), any(), any())).thenReturn(List.of(1L, 2L, 3L));
+    when(ewayBillExportService.mapInvoicesToEwayBills(eq(TENANT_ID), anyList(), any())).thenAnswer(invocation -> {
+      List<Long> ids = invocation.getArgument(1);
+      BiConsumer<Long, String> onSkipped = invocation.getArgument(2);
+      List<EwayBillData> bills = new ArrayList<>();
+      for (Long id : ids) {
+        if (id == 2L) {
+          onSkipped.accept(id, "Buyer GSTIN missing");
+        } else {
+          bills.add(EwayBillData.builder().docNo("INV-" + id).build());
+        }
+      }
+      return bills;
+    });
+
+    EwayBillBulkExportRequest request = EwayBillBulkExportRequest.builder()
+        .documentType(EwayBillBulkExportRequest.DocumentType.INVOICE)
+        .format(EwayBillBulkExportRequest.ExportFormat.BULK_JSON)
+        .documentIds(List.of(1L, 2L, 3L, 4L))
+        .build();
+    EwayBillBulkExportService.ExportPlan plan = bulkExportService.plan(TENANT_ID, request);
+    assertEquals(List.of(1L, 2L, 3L), plan.documentIds());
+
+    EwayBillBulkExportService.RenderedExport export = bulkExportService.render(TENANT_ID, plan);
+    try {
+      assertEquals(2, export.exportedCount());
+      assertEquals(Set.of(4L, 2L), export.skipped().keySet());
+      assertEquals("Buyer GSTIN missing", export.skipped().get(2L));
+
+      JsonNode json = objectMapper.readTree(export.file().toFile());
+      assertEquals(2, json.get("billLists").size());
+      assertEquals("INV-1", json.get("billLists").get(0).get("docNo").asText());
+      assertEquals("INV-3", json.get("billLists").get(1).get("docNo").asText());
+      assertEquals(Files.size(export.file()), export.size());
+    } finally {
+      Files.deleteIfExists(export.file());
+    }
+  }
+
+  @Test
+  void deletesFileWhenRenderingFails() {
+    when(ewayBillExportService.findExportableInvoiceIds(eq(TENANT_ID), any(), any(), any())).thenReturn(List.of(1L));
+    when(ewayBillExportService.mapInvoicesToEwayBills(eq(TENANT_ID), anyList(), any()))
+        .thenThrow(new IllegalStateException("database unavailable"));
+    EwayBillBulkExportService.ExportPlan plan = bulkExportService.plan(TENANT_ID, EwayBillBulkExportRequest.builder()
+        .documentType(EwayBillBulkExportRequest.DocumentType.INVOICE)
+        .documentIds(List.of(1L))
+        .build());
+
+    Set<String> before = tempExports();
+    assertThrows(IllegalStateException.class, () -> bulkExportService.render(TENANT_ID, plan));
+    Set<String> after = tempExports();
+    after.removeAll(before);
+    assertTrue(after.isEmpty(), () -> "left behind: " + after);
+  }
+
+  private static Set<String> tempExports() {
+    try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+      return files.map(path -> path.getFileName().toString())
+          .filter(name -> name.startsWith("eway-bill-export-"))
+          .collect(Collectors.toCollection(HashSet::new));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Failover, circuit breaking and connection reuse against local stub GSP servers,
+ * through a RestTemplate set up like the one in WebConfig.
+ */
+class GspServerFailoverHelperTest {
+
+  private static final int FAILURE_THRESHOLD = 2;
+  private static final long OPEN_DURATION_SECONDS = 1;
+
+  private StubGspServer primary;
+  private StubGspServer backup1;
+  private StubGspServer backup2;
+  private HttpClient httpClient;
+  private RestTemplate restTemplate;
+  private SimpleMeterRegistry meterRegistry;
+  private GspCircuitBreakerRegistry circuitBreakerRegistry;
+  private GspServerFailoverHelper failoverHelper;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    primary = new StubGspServer();
+    backup1 = new StubGspServer().respond(200, "backup1");
+    backup2 = new StubGspServer().respond(200, "backup2");
+
+    httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(Duration.ofMillis(500));
+    restTemplate = new RestTemplate(requestFactory);
+
+    meterRegistry = new SimpleMeterRegistry();
+    circuitBreakerRegistry = new GspCircuitBreakerRegistry(meterRegistry, FAILURE_THRESHOLD, OPEN_DURATION_SECONDS);
+    failoverHelper = new GspServerFailoverHelper(circuitBreakerRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    primary.close();
+    backup1.close();
+    backup2.close();
+    httpClient.close();
+  }
+
+  @Test
+  void failsOverToBackupWhenPrimaryReturnsServerError() {
+    primary.respond(503, "unavailable");
+
+    assertEquals("backup1", generate());
+    assertEquals(1, primary.requestCount());
+    assertEquals(1, backup1.requestCount());
+    assertEquals(0, backup2.requestCount());
+  }
+
+  @Test
+  void failsOverWhenPrimaryTimesOut() {
+    primary.delay(Duration.ofSeconds(2));
+
+    assertEquals("backup1", generate());
+    assertEquals(1, meterRegistry.get("gsp.request").tag("server", serverKey(primary)).tag("outcome", "failure")
+        .timer().count());
+  }
+
+  @Test
+  void skipsPrimaryWithoutCallingItOnceItsCircuitIsOpen() {
+    primary.respond(500, "error");
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      assertEquals("backup1", generate());
+    }
+    assertEquals(GspCircuitBreakerRegistry.CircuitState.OPEN, circuitBreakerRegistry.getState(primary.url()));
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals("backup1", generate());
+    }
+    assertEquals(FAILURE_THRESHOLD, primary.requestCount());
+    assertEquals(2.0, meterRegistry.get("gsp.circuit.state").tag("server", serverKey(primary)).gauge().value());
+  }
+
+  @Test
+  void sendsOneProbeAfterCoolDownAndClosesCircuitOnSuccess() throws Exception {
+    primary.respond(500, "error");
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      generate();
+    }
+    primary.respond(200, "primary");
+    Thread.sleep(Duration.ofSeconds(OPEN_DURATION_SECONDS).toMillis() + 100);
+    assertEquals(GspCircuitBreakerRegistry.CircuitState.HALF_OPEN, circuitBreakerRegistry.getState(primary.url()));
+
+    assertEquals("primary", generate());
+    assertEquals(GspCircuitBreakerRegistry.CircuitState.CLOSED, circuitBreakerRegistry.getState(primary.url()));
+  }
+
+  @Test
+  void clientErrorIsNotFailedOverAndDoesNotCountAgainstServer() {
+    primary.respond(400, "bad request");
+
+    for (int i = 0; i < FAILURE_THRESHOLD + 1; i++) {
+      assertThrows(HttpClientErrorException.BadRequest.class, this::generate);
+    }
+    assertEquals(0, backup1.requestCount());
+    assertEquals(GspCircuitBreakerRegistry.CircuitState.CLOSED, circuitBreakerRegistry.getState(primary.url()));
+  }
+
+  @Test
+  void tooManyRequestsCountsAsServerFault() {
+    primary.respond(429, "slow down");
+
+    assertEquals("backup1", generate());
+  }
+
+  @Test
+  void reportsOpenCircuitWhenEveryServerIsSkipped() {
+    primary.respond(503, "down");
+    backup1.respond(503, "down");
+    backup2.respond(503, "down");
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      assertThrows(RuntimeException.class, this::generate);
+    }
+    int requests = primary.requestCount() + backup1.requestCount() + backup2.requestCount();
+
+    RuntimeException e = assertThrows(RuntimeException.class, this::generate);
+    assertInstanceOf(GspCircuitBreakerRegistry.CircuitOpenException.class, e.getCause());
+    assertTrue(GspServerFailoverHelper.isServerFault(e));
+    assertEquals(requests, primary.requestCount() + backup1.requestCount() + backup2.requestCount());
+  }
+
+  @Test
+  void errorDuringProbeReleasesIt() throws Exception {
+    primary.respond(500, "error");
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      generate();
+    }
+    Thread.sleep(Duration.ofSeconds(OPEN_DURATION_SECONDS).toMillis() + 100);
+
+    assertThrows(StackOverflowError.class, () -> circuitBreakerRegistry.execute(primary.url(), () -> {
+      throw new StackOverflowError();
+    }, GspServerFailoverHelper::isServerFault));
+
+    // The probe is free again, so the next call reaches the server
+    primary.respond(200, "primary");
+    assertEquals("primary", generate());
+  }
+
+  @Test
+  void reusesConnectionsToTheSameServer() {
+    for (int i = 0; i < 5; i++) {
+      generate();
+    }
+    assertEquals(1, primary.clientPorts().stream().distinct().count());
+  }
+
+  private String generate() {
+    return failoverHelper.executeWithFailover(
+        new String[]{primary.url(), backup1.url(), backup2.url()},
+        serverUrl -> restTemplate.postForObject(serverUrl, "{}", String.class),
+        "E-Way Bill generation");
+  }
+
+  private static String serverKey(StubGspServer server) {
+    String url = server.url();
+    return url.substring("http://".length(), url.indexOf('/', "http://".length()));
+  }
+}
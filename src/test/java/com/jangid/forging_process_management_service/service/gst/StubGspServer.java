@@ -0,0 +1,88 @@
+package com.jangid.forging_process_management_service.service.gst;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for a GSP server: answers every request with the configured status, body and delay,
+ * and records the client port of each request so tests can tell whether connections were reused.
+ */
+final class StubGspServer implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+
+  private volatile int status = 200;
+  private volatile String body = "{\"status\":\"1\"}";
+  private volatile Duration delay = Duration.ZERO;
+
+  StubGspServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  String url() {
+    return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/ewayapi";
+  }
+
+  StubGspServer respond(int status, String body) {
+    this.status = status;
+    this.body = body;
+    return this;
+  }
+
+  StubGspServer delay(Duration delay) {
+    this.delay = delay;
+    return this;
+  }
+
+  int requestCount() {
+    return requestCount.get();
+  }
+
+  List<Integer> clientPorts() {
+    return clientPorts;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requestCount.incrementAndGet();
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    try (InputStream request = exchange.getRequestBody()) {
+      request.readAllBytes();
+    }
+    try {
+      Thread.sleep(delay.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    byte[] response = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, response.length == 0 ? -1 : response.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
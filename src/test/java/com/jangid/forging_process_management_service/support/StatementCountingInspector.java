@@ -0,0 +1,36 @@
+package com.jangid.forging_process_management_service.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread, so a test can count the statements of the code it calls
+ * without picking up the scheduled jobs running against the same database.
+ * Register it with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * A JDBC batch is prepared once, so it is recorded once however many rows it carries.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+  private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    List<String> recorded = RECORDED.get();
+    if (recorded != null) {
+      recorded.add(sql);
+    }
+    return sql;
+  }
+
+  public static void start() {
+    RECORDED.set(new ArrayList<>());
+  }
+
+  public static List<String> stop() {
+    List<String> recorded = RECORDED.get();
+    RECORDED.remove();
+    return recorded != null ? recorded : List.of();
+  }
+}
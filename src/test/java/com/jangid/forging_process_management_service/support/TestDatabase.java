@@ -0,0 +1,39 @@
+package com.jangid.forging_process_management_service.support;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * The PostgreSQL database of the test profile. Tests that need it are enabled with
+ * {@code @EnabledIf("com.jangid.forging_process_management_service.support.TestDatabase#isAvailable")}
+ * and skipped when it cannot be reached, as on a machine without the local database running.
+ */
+public final class TestDatabase {
+
+  private static final String URL = env("DB_URL", "jdbc:postgresql://localhost:9432/forgingdb");
+  private static final String USER = env("DB_ADMIN_USER", "user");
+  private static final String PASSWORD = env("DB_ADMIN_PWD", "secret0987");
+
+  private static Boolean available;
+
+  private TestDatabase() {
+  }
+
+  public static synchronized boolean isAvailable() {
+    if (available == null) {
+      DriverManager.setLoginTimeout(2);
+      try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+        available = connection.isValid(2);
+      } catch (SQLException e) {
+        available = false;
+      }
+    }
+    return available;
+  }
+
+  private static String env(String name, String defaultValue) {
+    String value = System.getenv(name);
+    return value != null && !value.isBlank() ? value : defaultValue;
+  }
+}
@@ -0,0 +1,127 @@
+package com.jangid.forging_process_management_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * GstTaxCalculator against the arithmetic it replaced: {@code multiply(rate).divide(100, 2, HALF_UP)} per amount,
+ * {@code divide(2, 2, HALF_UP)} for the CGST/SGST split and one stream reduction per total.
+ * Results must match in value and in scale, as BigDecimal#equals compares both.
+ */
+class GstTaxCalculatorTest {
+
+  private static final String[] RATES = {"0", "0.25", "3", "5", "12", "18", "28", "0.00", "0.25", "3.00", "18.00", "28.00", "0.125", "2.5"};
+
+  private static final String[] AMOUNTS = {
+      "0", "0.00", "0.01", "1", "1.00", "99.99", "100", "100.00", "708.00", "12345.67",
+      // Products landing exactly on, just below and just above the half paisa
+      "0.02", "0.2", "2", "2.00", "0.50", "1.98", "1.99", "2.01", "2.02", "0.14", "0.18", "0.42", "0.43",
+      "41.65", "41.67", "83.33", "27.78", "2.78", "166.67",
+      // Negative amounts (credit notes, adjustments); HALF_UP rounds away from zero
+      "-0.01", "-0.02", "-2.00", "-2.78", "-41.67", "-12345.67",
+      // Large values and extra precision
+      "99999999.99", "123456789012.34", "9999999999999.99", "1.005", "0.005", "-0.005", "2.345678"
+  };
+
+  @Test
+  void percentOfMatchesDivisionForEdgeRatesAndAmounts() {
+    for (String rate : RATES) {
+      for (String amount : AMOUNTS) {
+        BigDecimal amountValue = new BigDecimal(amount);
+        BigDecimal rateValue = new BigDecimal(rate);
+        assertEquals(legacyPercentOf(amountValue, rateValue), GstTaxCalculator.percentOf(amountValue, rateValue),
+                     () -> amount + " at " + rate + "%");
+      }
+    }
+  }
+
+  @Test
+  void percentOfMatchesDivisionAtHalfPaisaBoundaries() {
+    // amount * rate / 100 is exactly x.xx5, or one unit of the product's scale either side of it
+    BigDecimal rate = new BigDecimal("5");
+    for (int paise = -1000; paise <= 1000; paise++) {
+      BigDecimal onBoundary = BigDecimal.valueOf(paise).add(new BigDecimal("0.5")).divide(BigDecimal.valueOf(5));
+      for (BigDecimal amount : List.of(onBoundary, onBoundary.add(new BigDecimal("0.0001")), onBoundary.subtract(new BigDecimal("0.0001")))) {
+        assertEquals(legacyPercentOf(amount, rate), GstTaxCalculator.percentOf(amount, rate), amount::toPlainString);
+      }
+    }
+  }
+
+  @Test
+  void percentOfMatchesDivisionForRandomAmounts() {
+    Random random = new Random(35);
+    for (int i = 0; i < 200_000; i++) {
+      BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 10_000_000_000L, random.nextInt(5));
+      BigDecimal rate = new BigDecimal(RATES[random.nextInt(RATES.length)]);
+      assertEquals(legacyPercentOf(amount, rate), GstTaxCalculator.percentOf(amount, rate),
+                   () -> amount.toPlainString() + " at " + rate + "%");
+    }
+  }
+
+  @Test
+  void halfRateMatchesDivisionByTwo() {
+    for (String rate : RATES) {
+      BigDecimal rateValue = new BigDecimal(rate);
+      BigDecimal expected = rateValue.divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+      assertEquals(expected, GstTaxCalculator.halfRate(rateValue), rate);
+      // Served from the cache the second time
+      assertEquals(expected, GstTaxCalculator.halfRate(rateValue), rate);
+    }
+  }
+
+  @Test
+  void totalsMatchStreamReductions() {
+    Random random = new Random(28);
+    for (int document = 0; document < 1_000; document++) {
+      List<Line> lines = new ArrayList<>();
+      int lineCount = random.nextInt(25);
+      for (int i = 0; i < lineCount; i++) {
+        BigDecimal taxableValue = BigDecimal.valueOf(random.nextLong() % 100_000_000L, 2);
+        BigDecimal rate = new BigDecimal(RATES[random.nextInt(RATES.length)]);
+        boolean interState = random.nextBoolean();
+        BigDecimal half = GstTaxCalculator.halfRate(rate);
+        lines.add(new Line(
+            BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4)),
+            taxableValue,
+            interState ? BigDecimal.ZERO : legacyPercentOf(taxableValue, half),
+            interState ? BigDecimal.ZERO : legacyPercentOf(taxableValue, half),
+            interState ? legacyPercentOf(taxableValue, rate) : BigDecimal.ZERO));
+      }
+
+      GstTaxCalculator.Totals totals = new GstTaxCalculator.Totals();
+      for (Line line : lines) {
+        totals.addQuantity(line.quantity())
+            .addAmounts(line.taxableValue(), line.cgstAmount(), line.sgstAmount(), line.igstAmount());
+      }
+
+      BigDecimal taxableValue = lines.stream().map(Line::taxableValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+      BigDecimal cgstAmount = lines.stream().map(Line::cgstAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+      BigDecimal sgstAmount = lines.stream().map(Line::sgstAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+      BigDecimal igstAmount = lines.stream().map(Line::igstAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+      assertEquals(lines.stream().map(Line::quantity).reduce(BigDecimal.ZERO, BigDecimal::add), totals.getQuantity());
+      assertEquals(taxableValue, totals.getTaxableValue());
+      assertEquals(cgstAmount, totals.getCgstAmount());
+      assertEquals(sgstAmount, totals.getSgstAmount());
+      assertEquals(igstAmount, totals.getIgstAmount());
+      assertEquals(taxableValue.add(cgstAmount).add(sgstAmount).add(igstAmount),
+                   GstTaxCalculator.totalValue(totals.getTaxableValue(), totals.getCgstAmount(),
+                                               totals.getSgstAmount(), totals.getIgstAmount()));
+    }
+  }
+
+  private static BigDecimal legacyPercentOf(BigDecimal amount, BigDecimal ratePercent) {
+    return amount.multiply(ratePercent).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+  }
+
+  private record Line(BigDecimal quantity, BigDecimal taxableValue, BigDecimal cgstAmount,
+                      BigDecimal sgstAmount, BigDecimal igstAmount) {
+  }
+}
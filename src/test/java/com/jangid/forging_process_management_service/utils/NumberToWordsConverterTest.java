@@ -0,0 +1,156 @@
+package com.jangid.forging_process_management_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * NumberToWordsConverter against the implementation it replaced, which built and trimmed a string per group.
+ * The amount in words is printed on invoices and challans, so the output must not change by a single space.
+ */
+class NumberToWordsConverterTest {
+
+  private static final String[] AMOUNTS = {
+      "0", "0.00", "0.001", "0.005", "0.01", "0.09", "0.10", "0.5", "0.99", "0.999", "1", "1.005", "10", "11", "19",
+      "20", "21", "25.50", "99.99", "100", "101", "110", "708.00", "999", "1000", "1001", "1100", "10000", "10101",
+      "12345.67", "99999", "100000", "100001", "110000", "1000000", "9999999.99", "10000000", "10000001", "10100000",
+      "99999999.99", "100000000", "1000000000", "1234567890.12", "10000000000000", "123456789012345.67",
+      "-0.01", "-0.5", "-1", "-25.50", "-12345.67", "-10000000"
+  };
+
+  @Test
+  void convertToWordsMatchesPreviousImplementation() {
+    for (String amount : AMOUNTS) {
+      BigDecimal value = new BigDecimal(amount);
+      assertEquals(LegacyNumberToWords.convertToWords(value), NumberToWordsConverter.convertToWords(value), amount);
+    }
+    assertEquals(LegacyNumberToWords.convertToWords(null), NumberToWordsConverter.convertToWords(null));
+  }
+
+  @Test
+  void convertToWordsMatchesPreviousImplementationForRandomAmounts() {
+    Random random = new Random(35);
+    for (int i = 0; i < 200_000; i++) {
+      // Up to a few thousand crore, with 0 to 3 decimals
+      BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 100_000_000_000_000L, random.nextInt(4));
+      assertEquals(LegacyNumberToWords.convertToWords(amount), NumberToWordsConverter.convertToWords(amount),
+                   amount::toPlainString);
+    }
+  }
+
+  @Test
+  void convertToWordsSpellsIndianGroups() {
+    assertEquals("Zero Rupees Only", NumberToWordsConverter.convertToWords(new BigDecimal("0")));
+    assertEquals("Seven Hundred Eight Rupees Only", NumberToWordsConverter.convertToWords(new BigDecimal("708.00")));
+    assertEquals("Twelve Thousand Three Hundred Forty Five Rupees and Sixty Seven Paise Only",
+                 NumberToWordsConverter.convertToWords(new BigDecimal("12345.67")));
+    assertEquals("Ninety Nine Lakh Ninety Nine Thousand Nine Hundred Ninety Nine Rupees and Ninety Nine Paise Only",
+                 NumberToWordsConverter.convertToWords(new BigDecimal("9999999.99")));
+    assertEquals("One Crore One Rupees Only", NumberToWordsConverter.convertToWords(new BigDecimal("10000001")));
+  }
+
+  /**
+   * The converter as it was before the 0-99 words were precomputed
+   */
+  private static final class LegacyNumberToWords {
+
+    private static final String[] UNITS = {
+        "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine"
+    };
+
+    private static final String[] TEENS = {
+        "Ten", "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen",
+        "Sixteen", "Seventeen", "Eighteen", "Nineteen"
+    };
+
+    private static final String[] TENS = {
+        "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety"
+    };
+
+    static String convertToWords(BigDecimal amount) {
+      if (amount == null) {
+        return "Zero Rupees Only";
+      }
+
+      long rupees = amount.longValue();
+      int paise = amount.subtract(new BigDecimal(rupees))
+                        .multiply(new BigDecimal(100))
+                        .intValue();
+
+      StringBuilder words = new StringBuilder();
+
+      if (rupees == 0 && paise == 0) {
+        return "Zero Rupees Only";
+      }
+
+      if (rupees > 0) {
+        words.append(convertNumberToWords(rupees));
+        words.append(" Rupees");
+      }
+
+      if (paise > 0) {
+        if (rupees > 0) {
+          words.append(" and ");
+        }
+        words.append(convertNumberToWords(paise));
+        words.append(" Paise");
+      }
+
+      words.append(" Only");
+
+      return words.toString().trim();
+    }
+
+    private static String convertNumberToWords(long number) {
+      if (number == 0) {
+        return "Zero";
+      }
+
+      StringBuilder words = new StringBuilder();
+
+      if (number >= 10000000) {
+        long crores = number / 10000000;
+        words.append(convertNumberToWords(crores)).append(" Crore ");
+        number %= 10000000;
+      }
+
+      if (number >= 100000) {
+        long lakhs = number / 100000;
+        words.append(convertNumberToWords(lakhs)).append(" Lakh ");
+        number %= 100000;
+      }
+
+      if (number >= 1000) {
+        long thousands = number / 1000;
+        words.append(convertNumberToWords(thousands)).append(" Thousand ");
+        number %= 1000;
+      }
+
+      if (number >= 100) {
+        long hundreds = number / 100;
+        words.append(UNITS[(int) hundreds]).append(" Hundred ");
+        number %= 100;
+      }
+
+      if (number > 0) {
+        if (number < 10) {
+          words.append(UNITS[(int) number]);
+        } else if (number < 20) {
+          words.append(TEENS[(int) (number - 10)]);
+        } else {
+          int tensDigit = (int) (number / 10);
+          int unitsDigit = (int) (number % 10);
+          words.append(TENS[tensDigit]);
+          if (unitsDigit > 0) {
+            words.append(" ").append(UNITS[unitsDigit]);
+          }
+        }
+      }
+
+      return words.toString().trim();
+    }
+  }
+}